@@ -0,0 +1,130 @@
+// Generated from com/github/bohnman/squiggly/parser/antlr4/SquigglyExpression.g4 by ANTLR 4.6
+package com.github.bohnman.squiggly.parser.antlr4;
+import org.antlr.v4.runtime.Lexer;
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.TokenStream;
+import org.antlr.v4.runtime.*;
+import org.antlr.v4.runtime.atn.*;
+import org.antlr.v4.runtime.dfa.DFA;
+import org.antlr.v4.runtime.misc.*;
+
+@SuppressWarnings({"all", "warnings", "unchecked", "unused", "cast"})
+public class SquigglyExpressionLexer extends Lexer {
+	static { RuntimeMetaData.checkVersion("4.6", RuntimeMetaData.VERSION); }
+
+	protected static final DFA[] _decisionToDFA;
+	protected static final PredictionContextCache _sharedContextCache =
+		new PredictionContextCache();
+	public static final int
+		T__0=1, T__1=2, T__2=3, T__3=4, T__4=5, T__5=6, T__6=7, T__7=8, T__8=9, 
+		T__9=10, LBRACE=11, RBRACE=12, LSQUIGGLY=13, RSQUIGGLY=14, IDENTIFIER=15, 
+		WILDCARD_SHALLOW=16, WILDCARD_DEEP=17, REGEX_CHAR=18;
+	public static String[] modeNames = {
+		"DEFAULT_MODE"
+	};
+
+	public static final String[] ruleNames = {
+		"T__0", "T__1", "T__2", "T__3", "T__4", "T__5", "T__6", "T__7", "T__8", 
+		"T__9", "DIGIT", "LETTER", "VALID_FIELD_CHAR", "LBRACE", "RBRACE", "LSQUIGGLY", 
+		"RSQUIGGLY", "IDENTIFIER", "WILDCARD_SHALLOW", "WILDCARD_DEEP", "REGEX_CHAR"
+	};
+
+	private static final String[] _LITERAL_NAMES = {
+		null, "','", "'('", "'|'", "')'", "'-'", "'.'", "'~'", "'/'", "'i'", "'?'", 
+		"'['", "']'", "'{'", "'}'", null, "'*'", "'**'"
+	};
+	private static final String[] _SYMBOLIC_NAMES = {
+		null, null, null, null, null, null, null, null, null, null, null, "LBRACE", 
+		"RBRACE", "LSQUIGGLY", "RSQUIGGLY", "IDENTIFIER", "WILDCARD_SHALLOW", 
+		"WILDCARD_DEEP", "REGEX_CHAR"
+	};
+	public static final Vocabulary VOCABULARY = new VocabularyImpl(_LITERAL_NAMES, _SYMBOLIC_NAMES);
+
+	/**
+	 * @deprecated Use {@link #VOCABULARY} instead.
+	 */
+	@Deprecated
+	public static final String[] tokenNames;
+	static {
+		tokenNames = new String[_SYMBOLIC_NAMES.length];
+		for (int i = 0; i < tokenNames.length; i++) {
+			tokenNames[i] = VOCABULARY.getLiteralName(i);
+			if (tokenNames[i] == null) {
+				tokenNames[i] = VOCABULARY.getSymbolicName(i);
+			}
+
+			if (tokenNames[i] == null) {
+				tokenNames[i] = "<INVALID>";
+			}
+		}
+	}
+
+	@Override
+	@Deprecated
+	public String[] getTokenNames() {
+		return tokenNames;
+	}
+
+	@Override
+
+	public Vocabulary getVocabulary() {
+		return VOCABULARY;
+	}
+
+
+	public SquigglyExpressionLexer(CharStream input) {
+		super(input);
+		_interp = new LexerATNSimulator(this,_ATN,_decisionToDFA,_sharedContextCache);
+	}
+
+	@Override
+	public String getGrammarFileName() { return "SquigglyExpression.g4"; }
+
+	@Override
+	public String[] getRuleNames() { return ruleNames; }
+
+	@Override
+	public String getSerializedATN() { return _serializedATN; }
+
+	@Override
+	public String[] getModeNames() { return modeNames; }
+
+	@Override
+	public ATN getATN() { return _ATN; }
+
+	public static final String _serializedATN =
+		"\3\u0430\ud6d1\u8206\uad2d\u4417\uaef1\u8d80\uaadd\2\24`\b\1\4\2\t\2\4"+
+		"\3\t\3\4\4\t\4\4\5\t\5\4\6\t\6\4\7\t\7\4\b\t\b\4\t\t\t\4\n\t\n\4\13\t"+
+		"\13\4\f\t\f\4\r\t\r\4\16\t\16\4\17\t\17\4\20\t\20\4\21\t\21\4\22\t\22"+
+		"\4\23\t\23\4\24\t\24\4\25\t\25\4\26\t\26\3\2\3\2\3\3\3\3\3\4\3\4\3\5\3"+
+		"\5\3\6\3\6\3\7\3\7\3\b\3\b\3\t\3\t\3\n\3\n\3\13\3\13\3\f\3\f\3\r\3\r\3"+
+		"\16\3\16\3\16\5\16I\n\16\3\17\3\17\3\20\3\20\3\21\3\21\3\22\3\22\3\23"+
+		"\3\23\7\23U\n\23\f\23\16\23X\13\23\3\24\3\24\3\25\3\25\3\25\3\26\3\26"+
+		"\2\2\27\3\3\5\4\7\5\t\6\13\7\r\b\17\t\21\n\23\13\25\f\27\2\31\2\33\2\35"+
+		"\r\37\16!\17#\20%\21\'\22)\23+\24\3\2\6\3\2\62;\4\2C\\c|\4\2&&aa\4\2\61"+
+		"\61\u0080\u0080_\2\3\3\2\2\2\2\5\3\2\2\2\2\7\3\2\2\2\2\t\3\2\2\2\2\13"+
+		"\3\2\2\2\2\r\3\2\2\2\2\17\3\2\2\2\2\21\3\2\2\2\2\23\3\2\2\2\2\25\3\2\2"+
+		"\2\2\35\3\2\2\2\2\37\3\2\2\2\2!\3\2\2\2\2#\3\2\2\2\2%\3\2\2\2\2\'\3\2"+
+		"\2\2\2)\3\2\2\2\2+\3\2\2\2\3-\3\2\2\2\5/\3\2\2\2\7\61\3\2\2\2\t\63\3\2"+
+		"\2\2\13\65\3\2\2\2\r\67\3\2\2\2\179\3\2\2\2\21;\3\2\2\2\23=\3\2\2\2\25"+
+		"?\3\2\2\2\27A\3\2\2\2\31C\3\2\2\2\33H\3\2\2\2\35J\3\2\2\2\37L\3\2\2\2"+
+		"!N\3\2\2\2#P\3\2\2\2%R\3\2\2\2\'Y\3\2\2\2)[\3\2\2\2+^\3\2\2\2-.\7.\2\2"+
+		".\4\3\2\2\2/\60\7*\2\2\60\6\3\2\2\2\61\62\7~\2\2\62\b\3\2\2\2\63\64\7"+
+		"+\2\2\64\n\3\2\2\2\65\66\7/\2\2\66\f\3\2\2\2\678\7\60\2\28\16\3\2\2\2"+
+		"9:\7\u0080\2\2:\20\3\2\2\2;<\7\61\2\2<\22\3\2\2\2=>\7k\2\2>\24\3\2\2\2"+
+		"?@\7A\2\2@\26\3\2\2\2AB\t\2\2\2B\30\3\2\2\2CD\t\3\2\2D\32\3\2\2\2EI\5"+
+		"\31\r\2FI\5\27\f\2GI\t\4\2\2HE\3\2\2\2HF\3\2\2\2HG\3\2\2\2I\34\3\2\2\2"+
+		"JK\7]\2\2K\36\3\2\2\2LM\7_\2\2M \3\2\2\2NO\7}\2\2O\"\3\2\2\2PQ\7\177\2"+
+		"\2Q$\3\2\2\2RV\5\33\16\2SU\5\33\16\2TS\3\2\2\2UX\3\2\2\2VT\3\2\2\2VW\3"+
+		"\2\2\2W&\3\2\2\2XV\3\2\2\2YZ\7,\2\2Z(\3\2\2\2[\\\7,\2\2\\]\7,\2\2]*\3"+
+		"\2\2\2^_\n\5\2\2_,\3\2\2\2\5\2HV\2";
+	public static final ATN _ATN =
+		new ATNDeserializer().deserialize(_serializedATN.toCharArray());
+	static {
+		_decisionToDFA = new DFA[_ATN.getNumberOfDecisions()];
+		for (int i = 0; i < _ATN.getNumberOfDecisions(); i++) {
+			_decisionToDFA[i] = new DFA(_ATN.getDecisionState(i), i);
+		}
+	}
+}
\ No newline at end of file
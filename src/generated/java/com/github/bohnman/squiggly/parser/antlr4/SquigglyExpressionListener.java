@@ -0,0 +1,180 @@
+// Generated from com/github/bohnman/squiggly/parser/antlr4/SquigglyExpression.g4 by ANTLR 4.6
+package com.github.bohnman.squiggly.parser.antlr4;
+import org.antlr.v4.runtime.tree.ParseTreeListener;
+
+/**
+ * This interface defines a complete listener for a parse tree produced by
+ * {@link SquigglyExpressionParser}.
+ */
+public interface SquigglyExpressionListener extends ParseTreeListener {
+	/**
+	 * Enter a parse tree produced by {@link SquigglyExpressionParser#parse}.
+	 * @param ctx the parse tree
+	 */
+	void enterParse(SquigglyExpressionParser.ParseContext ctx);
+	/**
+	 * Exit a parse tree produced by {@link SquigglyExpressionParser#parse}.
+	 * @param ctx the parse tree
+	 */
+	void exitParse(SquigglyExpressionParser.ParseContext ctx);
+	/**
+	 * Enter a parse tree produced by {@link SquigglyExpressionParser#expression_list}.
+	 * @param ctx the parse tree
+	 */
+	void enterExpression_list(SquigglyExpressionParser.Expression_listContext ctx);
+	/**
+	 * Exit a parse tree produced by {@link SquigglyExpressionParser#expression_list}.
+	 * @param ctx the parse tree
+	 */
+	void exitExpression_list(SquigglyExpressionParser.Expression_listContext ctx);
+	/**
+	 * Enter a parse tree produced by {@link SquigglyExpressionParser#expression}.
+	 * @param ctx the parse tree
+	 */
+	void enterExpression(SquigglyExpressionParser.ExpressionContext ctx);
+	/**
+	 * Exit a parse tree produced by {@link SquigglyExpressionParser#expression}.
+	 * @param ctx the parse tree
+	 */
+	void exitExpression(SquigglyExpressionParser.ExpressionContext ctx);
+	/**
+	 * Enter a parse tree produced by {@link SquigglyExpressionParser#field_list}.
+	 * @param ctx the parse tree
+	 */
+	void enterField_list(SquigglyExpressionParser.Field_listContext ctx);
+	/**
+	 * Exit a parse tree produced by {@link SquigglyExpressionParser#field_list}.
+	 * @param ctx the parse tree
+	 */
+	void exitField_list(SquigglyExpressionParser.Field_listContext ctx);
+	/**
+	 * Enter a parse tree produced by {@link SquigglyExpressionParser#negated_expression}.
+	 * @param ctx the parse tree
+	 */
+	void enterNegated_expression(SquigglyExpressionParser.Negated_expressionContext ctx);
+	/**
+	 * Exit a parse tree produced by {@link SquigglyExpressionParser#negated_expression}.
+	 * @param ctx the parse tree
+	 */
+	void exitNegated_expression(SquigglyExpressionParser.Negated_expressionContext ctx);
+	/**
+	 * Enter a parse tree produced by {@link SquigglyExpressionParser#nested_expression}.
+	 * @param ctx the parse tree
+	 */
+	void enterNested_expression(SquigglyExpressionParser.Nested_expressionContext ctx);
+	/**
+	 * Exit a parse tree produced by {@link SquigglyExpressionParser#nested_expression}.
+	 * @param ctx the parse tree
+	 */
+	void exitNested_expression(SquigglyExpressionParser.Nested_expressionContext ctx);
+	/**
+	 * Enter a parse tree produced by {@link SquigglyExpressionParser#empty_nested_expression}.
+	 * @param ctx the parse tree
+	 */
+	void enterEmpty_nested_expression(SquigglyExpressionParser.Empty_nested_expressionContext ctx);
+	/**
+	 * Exit a parse tree produced by {@link SquigglyExpressionParser#empty_nested_expression}.
+	 * @param ctx the parse tree
+	 */
+	void exitEmpty_nested_expression(SquigglyExpressionParser.Empty_nested_expressionContext ctx);
+	/**
+	 * Enter a parse tree produced by {@link SquigglyExpressionParser#deep}.
+	 * @param ctx the parse tree
+	 */
+	void enterDeep(SquigglyExpressionParser.DeepContext ctx);
+	/**
+	 * Exit a parse tree produced by {@link SquigglyExpressionParser#deep}.
+	 * @param ctx the parse tree
+	 */
+	void exitDeep(SquigglyExpressionParser.DeepContext ctx);
+	/**
+	 * Enter a parse tree produced by {@link SquigglyExpressionParser#dot_path}.
+	 * @param ctx the parse tree
+	 */
+	void enterDot_path(SquigglyExpressionParser.Dot_pathContext ctx);
+	/**
+	 * Exit a parse tree produced by {@link SquigglyExpressionParser#dot_path}.
+	 * @param ctx the parse tree
+	 */
+	void exitDot_path(SquigglyExpressionParser.Dot_pathContext ctx);
+	/**
+	 * Enter a parse tree produced by {@link SquigglyExpressionParser#field}.
+	 * @param ctx the parse tree
+	 */
+	void enterField(SquigglyExpressionParser.FieldContext ctx);
+	/**
+	 * Exit a parse tree produced by {@link SquigglyExpressionParser#field}.
+	 * @param ctx the parse tree
+	 */
+	void exitField(SquigglyExpressionParser.FieldContext ctx);
+	/**
+	 * Enter a parse tree produced by {@link SquigglyExpressionParser#exact_field}.
+	 * @param ctx the parse tree
+	 */
+	void enterExact_field(SquigglyExpressionParser.Exact_fieldContext ctx);
+	/**
+	 * Exit a parse tree produced by {@link SquigglyExpressionParser#exact_field}.
+	 * @param ctx the parse tree
+	 */
+	void exitExact_field(SquigglyExpressionParser.Exact_fieldContext ctx);
+	/**
+	 * Enter a parse tree produced by {@link SquigglyExpressionParser#regex_field}.
+	 * @param ctx the parse tree
+	 */
+	void enterRegex_field(SquigglyExpressionParser.Regex_fieldContext ctx);
+	/**
+	 * Exit a parse tree produced by {@link SquigglyExpressionParser#regex_field}.
+	 * @param ctx the parse tree
+	 */
+	void exitRegex_field(SquigglyExpressionParser.Regex_fieldContext ctx);
+	/**
+	 * Enter a parse tree produced by {@link SquigglyExpressionParser#regex_pattern}.
+	 * @param ctx the parse tree
+	 */
+	void enterRegex_pattern(SquigglyExpressionParser.Regex_patternContext ctx);
+	/**
+	 * Exit a parse tree produced by {@link SquigglyExpressionParser#regex_pattern}.
+	 * @param ctx the parse tree
+	 */
+	void exitRegex_pattern(SquigglyExpressionParser.Regex_patternContext ctx);
+	/**
+	 * Enter a parse tree produced by {@link SquigglyExpressionParser#regex_flag}.
+	 * @param ctx the parse tree
+	 */
+	void enterRegex_flag(SquigglyExpressionParser.Regex_flagContext ctx);
+	/**
+	 * Exit a parse tree produced by {@link SquigglyExpressionParser#regex_flag}.
+	 * @param ctx the parse tree
+	 */
+	void exitRegex_flag(SquigglyExpressionParser.Regex_flagContext ctx);
+	/**
+	 * Enter a parse tree produced by {@link SquigglyExpressionParser#wildcard_field}.
+	 * @param ctx the parse tree
+	 */
+	void enterWildcard_field(SquigglyExpressionParser.Wildcard_fieldContext ctx);
+	/**
+	 * Exit a parse tree produced by {@link SquigglyExpressionParser#wildcard_field}.
+	 * @param ctx the parse tree
+	 */
+	void exitWildcard_field(SquigglyExpressionParser.Wildcard_fieldContext ctx);
+	/**
+	 * Enter a parse tree produced by {@link SquigglyExpressionParser#wildcard_char}.
+	 * @param ctx the parse tree
+	 */
+	void enterWildcard_char(SquigglyExpressionParser.Wildcard_charContext ctx);
+	/**
+	 * Exit a parse tree produced by {@link SquigglyExpressionParser#wildcard_char}.
+	 * @param ctx the parse tree
+	 */
+	void exitWildcard_char(SquigglyExpressionParser.Wildcard_charContext ctx);
+	/**
+	 * Enter a parse tree produced by {@link SquigglyExpressionParser#wildcard_shallow_field}.
+	 * @param ctx the parse tree
+	 */
+	void enterWildcard_shallow_field(SquigglyExpressionParser.Wildcard_shallow_fieldContext ctx);
+	/**
+	 * Exit a parse tree produced by {@link SquigglyExpressionParser#wildcard_shallow_field}.
+	 * @param ctx the parse tree
+	 */
+	void exitWildcard_shallow_field(SquigglyExpressionParser.Wildcard_shallow_fieldContext ctx);
+}
\ No newline at end of file
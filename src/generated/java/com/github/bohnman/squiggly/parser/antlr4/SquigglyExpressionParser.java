@@ -0,0 +1,1398 @@
+// Generated from com/github/bohnman/squiggly/parser/antlr4/SquigglyExpression.g4 by ANTLR 4.6
+package com.github.bohnman.squiggly.parser.antlr4;
+import org.antlr.v4.runtime.atn.*;
+import org.antlr.v4.runtime.dfa.DFA;
+import org.antlr.v4.runtime.*;
+import org.antlr.v4.runtime.misc.*;
+import org.antlr.v4.runtime.tree.*;
+import java.util.List;
+import java.util.Iterator;
+import java.util.ArrayList;
+
+@SuppressWarnings({"all", "warnings", "unchecked", "unused", "cast"})
+public class SquigglyExpressionParser extends Parser {
+	static { RuntimeMetaData.checkVersion("4.6", RuntimeMetaData.VERSION); }
+
+	protected static final DFA[] _decisionToDFA;
+	protected static final PredictionContextCache _sharedContextCache =
+		new PredictionContextCache();
+	public static final int
+		T__0=1, T__1=2, T__2=3, T__3=4, T__4=5, T__5=6, T__6=7, T__7=8, T__8=9, 
+		T__9=10, LBRACE=11, RBRACE=12, LSQUIGGLY=13, RSQUIGGLY=14, IDENTIFIER=15, 
+		WILDCARD_SHALLOW=16, WILDCARD_DEEP=17, REGEX_CHAR=18;
+	public static final int
+		RULE_parse = 0, RULE_expression_list = 1, RULE_expression = 2, RULE_field_list = 3, 
+		RULE_negated_expression = 4, RULE_nested_expression = 5, RULE_empty_nested_expression = 6, 
+		RULE_deep = 7, RULE_dot_path = 8, RULE_field = 9, RULE_exact_field = 10, 
+		RULE_regex_field = 11, RULE_regex_pattern = 12, RULE_regex_flag = 13, 
+		RULE_wildcard_field = 14, RULE_wildcard_char = 15, RULE_wildcard_shallow_field = 16;
+	public static final String[] ruleNames = {
+		"parse", "expression_list", "expression", "field_list", "negated_expression", 
+		"nested_expression", "empty_nested_expression", "deep", "dot_path", "field", 
+		"exact_field", "regex_field", "regex_pattern", "regex_flag", "wildcard_field", 
+		"wildcard_char", "wildcard_shallow_field"
+	};
+
+	private static final String[] _LITERAL_NAMES = {
+		null, "','", "'('", "'|'", "')'", "'-'", "'.'", "'~'", "'/'", "'i'", "'?'", 
+		"'['", "']'", "'{'", "'}'", null, "'*'", "'**'"
+	};
+	private static final String[] _SYMBOLIC_NAMES = {
+		null, null, null, null, null, null, null, null, null, null, null, "LBRACE", 
+		"RBRACE", "LSQUIGGLY", "RSQUIGGLY", "IDENTIFIER", "WILDCARD_SHALLOW", 
+		"WILDCARD_DEEP", "REGEX_CHAR"
+	};
+	public static final Vocabulary VOCABULARY = new VocabularyImpl(_LITERAL_NAMES, _SYMBOLIC_NAMES);
+
+	/**
+	 * @deprecated Use {@link #VOCABULARY} instead.
+	 */
+	@Deprecated
+	public static final String[] tokenNames;
+	static {
+		tokenNames = new String[_SYMBOLIC_NAMES.length];
+		for (int i = 0; i < tokenNames.length; i++) {
+			tokenNames[i] = VOCABULARY.getLiteralName(i);
+			if (tokenNames[i] == null) {
+				tokenNames[i] = VOCABULARY.getSymbolicName(i);
+			}
+
+			if (tokenNames[i] == null) {
+				tokenNames[i] = "<INVALID>";
+			}
+		}
+	}
+
+	@Override
+	@Deprecated
+	public String[] getTokenNames() {
+		return tokenNames;
+	}
+
+	@Override
+
+	public Vocabulary getVocabulary() {
+		return VOCABULARY;
+	}
+
+	@Override
+	public String getGrammarFileName() { return "SquigglyExpression.g4"; }
+
+	@Override
+	public String[] getRuleNames() { return ruleNames; }
+
+	@Override
+	public String getSerializedATN() { return _serializedATN; }
+
+	@Override
+	public ATN getATN() { return _ATN; }
+
+	public SquigglyExpressionParser(TokenStream input) {
+		super(input);
+		_interp = new ParserATNSimulator(this,_ATN,_decisionToDFA,_sharedContextCache);
+	}
+	public static class ParseContext extends ParserRuleContext {
+		public Expression_listContext expression_list() {
+			return getRuleContext(Expression_listContext.class,0);
+		}
+		public TerminalNode EOF() { return getToken(SquigglyExpressionParser.EOF, 0); }
+		public ParseContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_parse; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof SquigglyExpressionListener ) ((SquigglyExpressionListener)listener).enterParse(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof SquigglyExpressionListener ) ((SquigglyExpressionListener)listener).exitParse(this);
+		}
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof SquigglyExpressionVisitor ) return ((SquigglyExpressionVisitor<? extends T>)visitor).visitParse(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+
+	public final ParseContext parse() throws RecognitionException {
+		ParseContext _localctx = new ParseContext(_ctx, getState());
+		enterRule(_localctx, 0, RULE_parse);
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(34);
+			expression_list();
+			setState(35);
+			match(EOF);
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class Expression_listContext extends ParserRuleContext {
+		public List<ExpressionContext> expression() {
+			return getRuleContexts(ExpressionContext.class);
+		}
+		public ExpressionContext expression(int i) {
+			return getRuleContext(ExpressionContext.class,i);
+		}
+		public Expression_listContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_expression_list; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof SquigglyExpressionListener ) ((SquigglyExpressionListener)listener).enterExpression_list(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof SquigglyExpressionListener ) ((SquigglyExpressionListener)listener).exitExpression_list(this);
+		}
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof SquigglyExpressionVisitor ) return ((SquigglyExpressionVisitor<? extends T>)visitor).visitExpression_list(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+
+	public final Expression_listContext expression_list() throws RecognitionException {
+		Expression_listContext _localctx = new Expression_listContext(_ctx, getState());
+		enterRule(_localctx, 2, RULE_expression_list);
+		int _la;
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(37);
+			expression();
+			setState(42);
+			_errHandler.sync(this);
+			_la = _input.LA(1);
+			while (_la==T__0) {
+				{
+				{
+				setState(38);
+				match(T__0);
+				setState(39);
+				expression();
+				}
+				}
+				setState(44);
+				_errHandler.sync(this);
+				_la = _input.LA(1);
+			}
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class ExpressionContext extends ParserRuleContext {
+		public Negated_expressionContext negated_expression() {
+			return getRuleContext(Negated_expressionContext.class,0);
+		}
+		public Field_listContext field_list() {
+			return getRuleContext(Field_listContext.class,0);
+		}
+		public Nested_expressionContext nested_expression() {
+			return getRuleContext(Nested_expressionContext.class,0);
+		}
+		public Empty_nested_expressionContext empty_nested_expression() {
+			return getRuleContext(Empty_nested_expressionContext.class,0);
+		}
+		public Dot_pathContext dot_path() {
+			return getRuleContext(Dot_pathContext.class,0);
+		}
+		public FieldContext field() {
+			return getRuleContext(FieldContext.class,0);
+		}
+		public DeepContext deep() {
+			return getRuleContext(DeepContext.class,0);
+		}
+		public ExpressionContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_expression; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof SquigglyExpressionListener ) ((SquigglyExpressionListener)listener).enterExpression(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof SquigglyExpressionListener ) ((SquigglyExpressionListener)listener).exitExpression(this);
+		}
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof SquigglyExpressionVisitor ) return ((SquigglyExpressionVisitor<? extends T>)visitor).visitExpression(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+
+	public final ExpressionContext expression() throws RecognitionException {
+		ExpressionContext _localctx = new ExpressionContext(_ctx, getState());
+		enterRule(_localctx, 4, RULE_expression);
+		try {
+			setState(59);
+			_errHandler.sync(this);
+			switch ( getInterpreter().adaptivePredict(_input,3,_ctx) ) {
+			case 1:
+				enterOuterAlt(_localctx, 1);
+				{
+				setState(45);
+				negated_expression();
+				}
+				break;
+			case 2:
+				enterOuterAlt(_localctx, 2);
+				{
+				setState(46);
+				field_list();
+				setState(49);
+				_errHandler.sync(this);
+				switch ( getInterpreter().adaptivePredict(_input,1,_ctx) ) {
+				case 1:
+					{
+					setState(47);
+					nested_expression();
+					}
+					break;
+				case 2:
+					{
+					setState(48);
+					empty_nested_expression();
+					}
+					break;
+				}
+				}
+				break;
+			case 3:
+				enterOuterAlt(_localctx, 3);
+				{
+				setState(51);
+				dot_path();
+				setState(54);
+				_errHandler.sync(this);
+				switch ( getInterpreter().adaptivePredict(_input,2,_ctx) ) {
+				case 1:
+					{
+					setState(52);
+					nested_expression();
+					}
+					break;
+				case 2:
+					{
+					setState(53);
+					empty_nested_expression();
+					}
+					break;
+				}
+				}
+				break;
+			case 4:
+				enterOuterAlt(_localctx, 4);
+				{
+				setState(56);
+				dot_path();
+				}
+				break;
+			case 5:
+				enterOuterAlt(_localctx, 5);
+				{
+				setState(57);
+				field();
+				}
+				break;
+			case 6:
+				enterOuterAlt(_localctx, 6);
+				{
+				setState(58);
+				deep();
+				}
+				break;
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class Field_listContext extends ParserRuleContext {
+		public List<FieldContext> field() {
+			return getRuleContexts(FieldContext.class);
+		}
+		public FieldContext field(int i) {
+			return getRuleContext(FieldContext.class,i);
+		}
+		public Field_listContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_field_list; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof SquigglyExpressionListener ) ((SquigglyExpressionListener)listener).enterField_list(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof SquigglyExpressionListener ) ((SquigglyExpressionListener)listener).exitField_list(this);
+		}
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof SquigglyExpressionVisitor ) return ((SquigglyExpressionVisitor<? extends T>)visitor).visitField_list(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+
+	public final Field_listContext field_list() throws RecognitionException {
+		Field_listContext _localctx = new Field_listContext(_ctx, getState());
+		enterRule(_localctx, 6, RULE_field_list);
+		int _la;
+		try {
+			setState(73);
+			_errHandler.sync(this);
+			switch (_input.LA(1)) {
+			case T__1:
+				enterOuterAlt(_localctx, 1);
+				{
+				setState(61);
+				match(T__1);
+				setState(62);
+				field();
+				setState(67);
+				_errHandler.sync(this);
+				_la = _input.LA(1);
+				while (_la==T__0 || _la==T__2) {
+					{
+					{
+					setState(63);
+					_la = _input.LA(1);
+					if ( !(_la==T__0 || _la==T__2) ) {
+					_errHandler.recoverInline(this);
+					}
+					else {
+						if ( _input.LA(1)==Token.EOF ) matchedEOF = true;
+						_errHandler.reportMatch(this);
+						consume();
+					}
+					setState(64);
+					field();
+					}
+					}
+					setState(69);
+					_errHandler.sync(this);
+					_la = _input.LA(1);
+				}
+				setState(70);
+				match(T__3);
+				}
+				break;
+			case T__6:
+			case T__7:
+			case T__9:
+			case IDENTIFIER:
+			case WILDCARD_SHALLOW:
+				enterOuterAlt(_localctx, 2);
+				{
+				setState(72);
+				field();
+				}
+				break;
+			default:
+				throw new NoViableAltException(this);
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class Negated_expressionContext extends ParserRuleContext {
+		public FieldContext field() {
+			return getRuleContext(FieldContext.class,0);
+		}
+		public Dot_pathContext dot_path() {
+			return getRuleContext(Dot_pathContext.class,0);
+		}
+		public Negated_expressionContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_negated_expression; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof SquigglyExpressionListener ) ((SquigglyExpressionListener)listener).enterNegated_expression(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof SquigglyExpressionListener ) ((SquigglyExpressionListener)listener).exitNegated_expression(this);
+		}
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof SquigglyExpressionVisitor ) return ((SquigglyExpressionVisitor<? extends T>)visitor).visitNegated_expression(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+
+	public final Negated_expressionContext negated_expression() throws RecognitionException {
+		Negated_expressionContext _localctx = new Negated_expressionContext(_ctx, getState());
+		enterRule(_localctx, 8, RULE_negated_expression);
+		try {
+			setState(79);
+			_errHandler.sync(this);
+			switch ( getInterpreter().adaptivePredict(_input,6,_ctx) ) {
+			case 1:
+				enterOuterAlt(_localctx, 1);
+				{
+				setState(75);
+				match(T__4);
+				setState(76);
+				field();
+				}
+				break;
+			case 2:
+				enterOuterAlt(_localctx, 2);
+				{
+				setState(77);
+				match(T__4);
+				setState(78);
+				dot_path();
+				}
+				break;
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class Nested_expressionContext extends ParserRuleContext {
+		public TerminalNode LSQUIGGLY() { return getToken(SquigglyExpressionParser.LSQUIGGLY, 0); }
+		public Expression_listContext expression_list() {
+			return getRuleContext(Expression_listContext.class,0);
+		}
+		public TerminalNode RSQUIGGLY() { return getToken(SquigglyExpressionParser.RSQUIGGLY, 0); }
+		public TerminalNode LBRACE() { return getToken(SquigglyExpressionParser.LBRACE, 0); }
+		public TerminalNode RBRACE() { return getToken(SquigglyExpressionParser.RBRACE, 0); }
+		public Nested_expressionContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_nested_expression; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof SquigglyExpressionListener ) ((SquigglyExpressionListener)listener).enterNested_expression(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof SquigglyExpressionListener ) ((SquigglyExpressionListener)listener).exitNested_expression(this);
+		}
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof SquigglyExpressionVisitor ) return ((SquigglyExpressionVisitor<? extends T>)visitor).visitNested_expression(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+
+	public final Nested_expressionContext nested_expression() throws RecognitionException {
+		Nested_expressionContext _localctx = new Nested_expressionContext(_ctx, getState());
+		enterRule(_localctx, 10, RULE_nested_expression);
+		try {
+			setState(89);
+			_errHandler.sync(this);
+			switch (_input.LA(1)) {
+			case LSQUIGGLY:
+				enterOuterAlt(_localctx, 1);
+				{
+				setState(81);
+				match(LSQUIGGLY);
+				setState(82);
+				expression_list();
+				setState(83);
+				match(RSQUIGGLY);
+				}
+				break;
+			case LBRACE:
+				enterOuterAlt(_localctx, 2);
+				{
+				setState(85);
+				match(LBRACE);
+				setState(86);
+				expression_list();
+				setState(87);
+				match(RBRACE);
+				}
+				break;
+			default:
+				throw new NoViableAltException(this);
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class Empty_nested_expressionContext extends ParserRuleContext {
+		public TerminalNode LSQUIGGLY() { return getToken(SquigglyExpressionParser.LSQUIGGLY, 0); }
+		public TerminalNode RSQUIGGLY() { return getToken(SquigglyExpressionParser.RSQUIGGLY, 0); }
+		public TerminalNode LBRACE() { return getToken(SquigglyExpressionParser.LBRACE, 0); }
+		public TerminalNode RBRACE() { return getToken(SquigglyExpressionParser.RBRACE, 0); }
+		public Empty_nested_expressionContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_empty_nested_expression; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof SquigglyExpressionListener ) ((SquigglyExpressionListener)listener).enterEmpty_nested_expression(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof SquigglyExpressionListener ) ((SquigglyExpressionListener)listener).exitEmpty_nested_expression(this);
+		}
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof SquigglyExpressionVisitor ) return ((SquigglyExpressionVisitor<? extends T>)visitor).visitEmpty_nested_expression(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+
+	public final Empty_nested_expressionContext empty_nested_expression() throws RecognitionException {
+		Empty_nested_expressionContext _localctx = new Empty_nested_expressionContext(_ctx, getState());
+		enterRule(_localctx, 12, RULE_empty_nested_expression);
+		try {
+			setState(95);
+			_errHandler.sync(this);
+			switch (_input.LA(1)) {
+			case LSQUIGGLY:
+				enterOuterAlt(_localctx, 1);
+				{
+				setState(91);
+				match(LSQUIGGLY);
+				setState(92);
+				match(RSQUIGGLY);
+				}
+				break;
+			case LBRACE:
+				enterOuterAlt(_localctx, 2);
+				{
+				setState(93);
+				match(LBRACE);
+				setState(94);
+				match(RBRACE);
+				}
+				break;
+			default:
+				throw new NoViableAltException(this);
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class DeepContext extends ParserRuleContext {
+		public TerminalNode WILDCARD_DEEP() { return getToken(SquigglyExpressionParser.WILDCARD_DEEP, 0); }
+		public DeepContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_deep; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof SquigglyExpressionListener ) ((SquigglyExpressionListener)listener).enterDeep(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof SquigglyExpressionListener ) ((SquigglyExpressionListener)listener).exitDeep(this);
+		}
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof SquigglyExpressionVisitor ) return ((SquigglyExpressionVisitor<? extends T>)visitor).visitDeep(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+
+	public final DeepContext deep() throws RecognitionException {
+		DeepContext _localctx = new DeepContext(_ctx, getState());
+		enterRule(_localctx, 14, RULE_deep);
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(97);
+			match(WILDCARD_DEEP);
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class Dot_pathContext extends ParserRuleContext {
+		public List<FieldContext> field() {
+			return getRuleContexts(FieldContext.class);
+		}
+		public FieldContext field(int i) {
+			return getRuleContext(FieldContext.class,i);
+		}
+		public Dot_pathContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_dot_path; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof SquigglyExpressionListener ) ((SquigglyExpressionListener)listener).enterDot_path(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof SquigglyExpressionListener ) ((SquigglyExpressionListener)listener).exitDot_path(this);
+		}
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof SquigglyExpressionVisitor ) return ((SquigglyExpressionVisitor<? extends T>)visitor).visitDot_path(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+
+	public final Dot_pathContext dot_path() throws RecognitionException {
+		Dot_pathContext _localctx = new Dot_pathContext(_ctx, getState());
+		enterRule(_localctx, 16, RULE_dot_path);
+		int _la;
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(99);
+			field();
+			setState(102); 
+			_errHandler.sync(this);
+			_la = _input.LA(1);
+			do {
+				{
+				{
+				setState(100);
+				match(T__5);
+				setState(101);
+				field();
+				}
+				}
+				setState(104); 
+				_errHandler.sync(this);
+				_la = _input.LA(1);
+			} while ( _la==T__5 );
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class FieldContext extends ParserRuleContext {
+		public Exact_fieldContext exact_field() {
+			return getRuleContext(Exact_fieldContext.class,0);
+		}
+		public Regex_fieldContext regex_field() {
+			return getRuleContext(Regex_fieldContext.class,0);
+		}
+		public Wildcard_shallow_fieldContext wildcard_shallow_field() {
+			return getRuleContext(Wildcard_shallow_fieldContext.class,0);
+		}
+		public Wildcard_fieldContext wildcard_field() {
+			return getRuleContext(Wildcard_fieldContext.class,0);
+		}
+		public FieldContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_field; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof SquigglyExpressionListener ) ((SquigglyExpressionListener)listener).enterField(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof SquigglyExpressionListener ) ((SquigglyExpressionListener)listener).exitField(this);
+		}
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof SquigglyExpressionVisitor ) return ((SquigglyExpressionVisitor<? extends T>)visitor).visitField(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+
+	public final FieldContext field() throws RecognitionException {
+		FieldContext _localctx = new FieldContext(_ctx, getState());
+		enterRule(_localctx, 18, RULE_field);
+		try {
+			setState(110);
+			_errHandler.sync(this);
+			switch ( getInterpreter().adaptivePredict(_input,10,_ctx) ) {
+			case 1:
+				enterOuterAlt(_localctx, 1);
+				{
+				setState(106);
+				exact_field();
+				}
+				break;
+			case 2:
+				enterOuterAlt(_localctx, 2);
+				{
+				setState(107);
+				regex_field();
+				}
+				break;
+			case 3:
+				enterOuterAlt(_localctx, 3);
+				{
+				setState(108);
+				wildcard_shallow_field();
+				}
+				break;
+			case 4:
+				enterOuterAlt(_localctx, 4);
+				{
+				setState(109);
+				wildcard_field();
+				}
+				break;
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class Exact_fieldContext extends ParserRuleContext {
+		public TerminalNode IDENTIFIER() { return getToken(SquigglyExpressionParser.IDENTIFIER, 0); }
+		public Exact_fieldContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_exact_field; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof SquigglyExpressionListener ) ((SquigglyExpressionListener)listener).enterExact_field(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof SquigglyExpressionListener ) ((SquigglyExpressionListener)listener).exitExact_field(this);
+		}
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof SquigglyExpressionVisitor ) return ((SquigglyExpressionVisitor<? extends T>)visitor).visitExact_field(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+
+	public final Exact_fieldContext exact_field() throws RecognitionException {
+		Exact_fieldContext _localctx = new Exact_fieldContext(_ctx, getState());
+		enterRule(_localctx, 20, RULE_exact_field);
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(112);
+			match(IDENTIFIER);
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class Regex_fieldContext extends ParserRuleContext {
+		public Regex_patternContext regex_pattern() {
+			return getRuleContext(Regex_patternContext.class,0);
+		}
+		public List<Regex_flagContext> regex_flag() {
+			return getRuleContexts(Regex_flagContext.class);
+		}
+		public Regex_flagContext regex_flag(int i) {
+			return getRuleContext(Regex_flagContext.class,i);
+		}
+		public Regex_fieldContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_regex_field; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof SquigglyExpressionListener ) ((SquigglyExpressionListener)listener).enterRegex_field(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof SquigglyExpressionListener ) ((SquigglyExpressionListener)listener).exitRegex_field(this);
+		}
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof SquigglyExpressionVisitor ) return ((SquigglyExpressionVisitor<? extends T>)visitor).visitRegex_field(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+
+	public final Regex_fieldContext regex_field() throws RecognitionException {
+		Regex_fieldContext _localctx = new Regex_fieldContext(_ctx, getState());
+		enterRule(_localctx, 22, RULE_regex_field);
+		int _la;
+		try {
+			setState(132);
+			_errHandler.sync(this);
+			switch (_input.LA(1)) {
+			case T__6:
+				enterOuterAlt(_localctx, 1);
+				{
+				setState(114);
+				match(T__6);
+				setState(115);
+				regex_pattern();
+				setState(116);
+				match(T__6);
+				setState(120);
+				_errHandler.sync(this);
+				_la = _input.LA(1);
+				while (_la==T__8) {
+					{
+					{
+					setState(117);
+					regex_flag();
+					}
+					}
+					setState(122);
+					_errHandler.sync(this);
+					_la = _input.LA(1);
+				}
+				}
+				break;
+			case T__7:
+				enterOuterAlt(_localctx, 2);
+				{
+				setState(123);
+				match(T__7);
+				setState(124);
+				regex_pattern();
+				setState(125);
+				match(T__7);
+				setState(129);
+				_errHandler.sync(this);
+				_la = _input.LA(1);
+				while (_la==T__8) {
+					{
+					{
+					setState(126);
+					regex_flag();
+					}
+					}
+					setState(131);
+					_errHandler.sync(this);
+					_la = _input.LA(1);
+				}
+				}
+				break;
+			default:
+				throw new NoViableAltException(this);
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class Regex_patternContext extends ParserRuleContext {
+		public List<TerminalNode> LSQUIGGLY() { return getTokens(SquigglyExpressionParser.LSQUIGGLY); }
+		public TerminalNode LSQUIGGLY(int i) {
+			return getToken(SquigglyExpressionParser.LSQUIGGLY, i);
+		}
+		public List<TerminalNode> RSQUIGGLY() { return getTokens(SquigglyExpressionParser.RSQUIGGLY); }
+		public TerminalNode RSQUIGGLY(int i) {
+			return getToken(SquigglyExpressionParser.RSQUIGGLY, i);
+		}
+		public List<TerminalNode> LBRACE() { return getTokens(SquigglyExpressionParser.LBRACE); }
+		public TerminalNode LBRACE(int i) {
+			return getToken(SquigglyExpressionParser.LBRACE, i);
+		}
+		public List<TerminalNode> RBRACE() { return getTokens(SquigglyExpressionParser.RBRACE); }
+		public TerminalNode RBRACE(int i) {
+			return getToken(SquigglyExpressionParser.RBRACE, i);
+		}
+		public List<TerminalNode> REGEX_CHAR() { return getTokens(SquigglyExpressionParser.REGEX_CHAR); }
+		public TerminalNode REGEX_CHAR(int i) {
+			return getToken(SquigglyExpressionParser.REGEX_CHAR, i);
+		}
+		public List<TerminalNode> IDENTIFIER() { return getTokens(SquigglyExpressionParser.IDENTIFIER); }
+		public TerminalNode IDENTIFIER(int i) {
+			return getToken(SquigglyExpressionParser.IDENTIFIER, i);
+		}
+		public List<TerminalNode> WILDCARD_SHALLOW() { return getTokens(SquigglyExpressionParser.WILDCARD_SHALLOW); }
+		public TerminalNode WILDCARD_SHALLOW(int i) {
+			return getToken(SquigglyExpressionParser.WILDCARD_SHALLOW, i);
+		}
+		public Regex_patternContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_regex_pattern; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof SquigglyExpressionListener ) ((SquigglyExpressionListener)listener).enterRegex_pattern(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof SquigglyExpressionListener ) ((SquigglyExpressionListener)listener).exitRegex_pattern(this);
+		}
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof SquigglyExpressionVisitor ) return ((SquigglyExpressionVisitor<? extends T>)visitor).visitRegex_pattern(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+
+	public final Regex_patternContext regex_pattern() throws RecognitionException {
+		Regex_patternContext _localctx = new Regex_patternContext(_ctx, getState());
+		enterRule(_localctx, 24, RULE_regex_pattern);
+		int _la;
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(135); 
+			_errHandler.sync(this);
+			_la = _input.LA(1);
+			do {
+				{
+				{
+				setState(134);
+				_la = _input.LA(1);
+				if ( !((((_la) & ~0x3f) == 0 && ((1L << _la) & ((1L << T__0) | (1L << T__2) | (1L << T__4) | (1L << T__5) | (1L << LBRACE) | (1L << RBRACE) | (1L << LSQUIGGLY) | (1L << RSQUIGGLY) | (1L << IDENTIFIER) | (1L << WILDCARD_SHALLOW) | (1L << REGEX_CHAR))) != 0)) ) {
+				_errHandler.recoverInline(this);
+				}
+				else {
+					if ( _input.LA(1)==Token.EOF ) matchedEOF = true;
+					_errHandler.reportMatch(this);
+					consume();
+				}
+				}
+				}
+				setState(137); 
+				_errHandler.sync(this);
+				_la = _input.LA(1);
+			} while ( (((_la) & ~0x3f) == 0 && ((1L << _la) & ((1L << T__0) | (1L << T__2) | (1L << T__4) | (1L << T__5) | (1L << LBRACE) | (1L << RBRACE) | (1L << LSQUIGGLY) | (1L << RSQUIGGLY) | (1L << IDENTIFIER) | (1L << WILDCARD_SHALLOW) | (1L << REGEX_CHAR))) != 0) );
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class Regex_flagContext extends ParserRuleContext {
+		public Regex_flagContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_regex_flag; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof SquigglyExpressionListener ) ((SquigglyExpressionListener)listener).enterRegex_flag(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof SquigglyExpressionListener ) ((SquigglyExpressionListener)listener).exitRegex_flag(this);
+		}
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof SquigglyExpressionVisitor ) return ((SquigglyExpressionVisitor<? extends T>)visitor).visitRegex_flag(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+
+	public final Regex_flagContext regex_flag() throws RecognitionException {
+		Regex_flagContext _localctx = new Regex_flagContext(_ctx, getState());
+		enterRule(_localctx, 26, RULE_regex_flag);
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(139);
+			match(T__8);
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class Wildcard_fieldContext extends ParserRuleContext {
+		public List<TerminalNode> IDENTIFIER() { return getTokens(SquigglyExpressionParser.IDENTIFIER); }
+		public TerminalNode IDENTIFIER(int i) {
+			return getToken(SquigglyExpressionParser.IDENTIFIER, i);
+		}
+		public List<Wildcard_charContext> wildcard_char() {
+			return getRuleContexts(Wildcard_charContext.class);
+		}
+		public Wildcard_charContext wildcard_char(int i) {
+			return getRuleContext(Wildcard_charContext.class,i);
+		}
+		public Wildcard_fieldContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_wildcard_field; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof SquigglyExpressionListener ) ((SquigglyExpressionListener)listener).enterWildcard_field(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof SquigglyExpressionListener ) ((SquigglyExpressionListener)listener).exitWildcard_field(this);
+		}
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof SquigglyExpressionVisitor ) return ((SquigglyExpressionVisitor<? extends T>)visitor).visitWildcard_field(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+
+	public final Wildcard_fieldContext wildcard_field() throws RecognitionException {
+		Wildcard_fieldContext _localctx = new Wildcard_fieldContext(_ctx, getState());
+		enterRule(_localctx, 28, RULE_wildcard_field);
+		int _la;
+		try {
+			int _alt;
+			setState(167);
+			_errHandler.sync(this);
+			switch ( getInterpreter().adaptivePredict(_input,19,_ctx) ) {
+			case 1:
+				enterOuterAlt(_localctx, 1);
+				{
+				setState(141);
+				match(IDENTIFIER);
+				setState(142);
+				wildcard_char();
+				}
+				break;
+			case 2:
+				enterOuterAlt(_localctx, 2);
+				{
+				setState(143);
+				match(IDENTIFIER);
+				setState(147); 
+				_errHandler.sync(this);
+				_alt = 1;
+				do {
+					switch (_alt) {
+					case 1:
+						{
+						{
+						setState(144);
+						wildcard_char();
+						setState(145);
+						match(IDENTIFIER);
+						}
+						}
+						break;
+					default:
+						throw new NoViableAltException(this);
+					}
+					setState(149); 
+					_errHandler.sync(this);
+					_alt = getInterpreter().adaptivePredict(_input,15,_ctx);
+				} while ( _alt!=2 && _alt!=org.antlr.v4.runtime.atn.ATN.INVALID_ALT_NUMBER );
+				setState(152);
+				_errHandler.sync(this);
+				_la = _input.LA(1);
+				if (_la==T__9 || _la==WILDCARD_SHALLOW) {
+					{
+					setState(151);
+					wildcard_char();
+					}
+				}
+
+				}
+				break;
+			case 3:
+				enterOuterAlt(_localctx, 3);
+				{
+				setState(154);
+				wildcard_char();
+				setState(155);
+				match(IDENTIFIER);
+				}
+				break;
+			case 4:
+				enterOuterAlt(_localctx, 4);
+				{
+				setState(157);
+				wildcard_char();
+				setState(160); 
+				_errHandler.sync(this);
+				_alt = 1;
+				do {
+					switch (_alt) {
+					case 1:
+						{
+						{
+						setState(158);
+						match(IDENTIFIER);
+						setState(159);
+						wildcard_char();
+						}
+						}
+						break;
+					default:
+						throw new NoViableAltException(this);
+					}
+					setState(162); 
+					_errHandler.sync(this);
+					_alt = getInterpreter().adaptivePredict(_input,17,_ctx);
+				} while ( _alt!=2 && _alt!=org.antlr.v4.runtime.atn.ATN.INVALID_ALT_NUMBER );
+				setState(165);
+				_errHandler.sync(this);
+				_la = _input.LA(1);
+				if (_la==IDENTIFIER) {
+					{
+					setState(164);
+					match(IDENTIFIER);
+					}
+				}
+
+				}
+				break;
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class Wildcard_charContext extends ParserRuleContext {
+		public TerminalNode WILDCARD_SHALLOW() { return getToken(SquigglyExpressionParser.WILDCARD_SHALLOW, 0); }
+		public Wildcard_charContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_wildcard_char; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof SquigglyExpressionListener ) ((SquigglyExpressionListener)listener).enterWildcard_char(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof SquigglyExpressionListener ) ((SquigglyExpressionListener)listener).exitWildcard_char(this);
+		}
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof SquigglyExpressionVisitor ) return ((SquigglyExpressionVisitor<? extends T>)visitor).visitWildcard_char(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+
+	public final Wildcard_charContext wildcard_char() throws RecognitionException {
+		Wildcard_charContext _localctx = new Wildcard_charContext(_ctx, getState());
+		enterRule(_localctx, 30, RULE_wildcard_char);
+		int _la;
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(169);
+			_la = _input.LA(1);
+			if ( !(_la==T__9 || _la==WILDCARD_SHALLOW) ) {
+			_errHandler.recoverInline(this);
+			}
+			else {
+				if ( _input.LA(1)==Token.EOF ) matchedEOF = true;
+				_errHandler.reportMatch(this);
+				consume();
+			}
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class Wildcard_shallow_fieldContext extends ParserRuleContext {
+		public TerminalNode WILDCARD_SHALLOW() { return getToken(SquigglyExpressionParser.WILDCARD_SHALLOW, 0); }
+		public Wildcard_shallow_fieldContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_wildcard_shallow_field; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof SquigglyExpressionListener ) ((SquigglyExpressionListener)listener).enterWildcard_shallow_field(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof SquigglyExpressionListener ) ((SquigglyExpressionListener)listener).exitWildcard_shallow_field(this);
+		}
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof SquigglyExpressionVisitor ) return ((SquigglyExpressionVisitor<? extends T>)visitor).visitWildcard_shallow_field(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+
+	public final Wildcard_shallow_fieldContext wildcard_shallow_field() throws RecognitionException {
+		Wildcard_shallow_fieldContext _localctx = new Wildcard_shallow_fieldContext(_ctx, getState());
+		enterRule(_localctx, 32, RULE_wildcard_shallow_field);
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(171);
+			match(WILDCARD_SHALLOW);
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static final String _serializedATN =
+		"\3\u0430\ud6d1\u8206\uad2d\u4417\uaef1\u8d80\uaadd\3\24\u00b0\4\2\t\2"+
+		"\4\3\t\3\4\4\t\4\4\5\t\5\4\6\t\6\4\7\t\7\4\b\t\b\4\t\t\t\4\n\t\n\4\13"+
+		"\t\13\4\f\t\f\4\r\t\r\4\16\t\16\4\17\t\17\4\20\t\20\4\21\t\21\4\22\t\22"+
+		"\3\2\3\2\3\2\3\3\3\3\3\3\7\3+\n\3\f\3\16\3.\13\3\3\4\3\4\3\4\3\4\5\4\64"+
+		"\n\4\3\4\3\4\3\4\5\49\n\4\3\4\3\4\3\4\5\4>\n\4\3\5\3\5\3\5\3\5\7\5D\n"+
+		"\5\f\5\16\5G\13\5\3\5\3\5\3\5\5\5L\n\5\3\6\3\6\3\6\3\6\5\6R\n\6\3\7\3"+
+		"\7\3\7\3\7\3\7\3\7\3\7\3\7\5\7\\\n\7\3\b\3\b\3\b\3\b\5\bb\n\b\3\t\3\t"+
+		"\3\n\3\n\3\n\6\ni\n\n\r\n\16\nj\3\13\3\13\3\13\3\13\5\13q\n\13\3\f\3\f"+
+		"\3\r\3\r\3\r\3\r\7\ry\n\r\f\r\16\r|\13\r\3\r\3\r\3\r\3\r\7\r\u0082\n\r"+
+		"\f\r\16\r\u0085\13\r\5\r\u0087\n\r\3\16\6\16\u008a\n\16\r\16\16\16\u008b"+
+		"\3\17\3\17\3\20\3\20\3\20\3\20\3\20\3\20\6\20\u0096\n\20\r\20\16\20\u0097"+
+		"\3\20\5\20\u009b\n\20\3\20\3\20\3\20\3\20\3\20\3\20\6\20\u00a3\n\20\r"+
+		"\20\16\20\u00a4\3\20\5\20\u00a8\n\20\5\20\u00aa\n\20\3\21\3\21\3\22\3"+
+		"\22\3\22\2\2\23\2\4\6\b\n\f\16\20\22\24\26\30\32\34\36 \"\2\5\4\2\3\3"+
+		"\5\5\7\2\3\3\5\5\7\b\r\22\24\24\4\2\f\f\22\22\u00ba\2$\3\2\2\2\4\'\3\2"+
+		"\2\2\6=\3\2\2\2\bK\3\2\2\2\nQ\3\2\2\2\f[\3\2\2\2\16a\3\2\2\2\20c\3\2\2"+
+		"\2\22e\3\2\2\2\24p\3\2\2\2\26r\3\2\2\2\30\u0086\3\2\2\2\32\u0089\3\2\2"+
+		"\2\34\u008d\3\2\2\2\36\u00a9\3\2\2\2 \u00ab\3\2\2\2\"\u00ad\3\2\2\2$%"+
+		"\5\4\3\2%&\7\2\2\3&\3\3\2\2\2\',\5\6\4\2()\7\3\2\2)+\5\6\4\2*(\3\2\2\2"+
+		"+.\3\2\2\2,*\3\2\2\2,-\3\2\2\2-\5\3\2\2\2.,\3\2\2\2/>\5\n\6\2\60\63\5"+
+		"\b\5\2\61\64\5\f\7\2\62\64\5\16\b\2\63\61\3\2\2\2\63\62\3\2\2\2\64>\3"+
+		"\2\2\2\658\5\22\n\2\669\5\f\7\2\679\5\16\b\28\66\3\2\2\28\67\3\2\2\29"+
+		">\3\2\2\2:>\5\22\n\2;>\5\24\13\2<>\5\20\t\2=/\3\2\2\2=\60\3\2\2\2=\65"+
+		"\3\2\2\2=:\3\2\2\2=;\3\2\2\2=<\3\2\2\2>\7\3\2\2\2?@\7\4\2\2@E\5\24\13"+
+		"\2AB\t\2\2\2BD\5\24\13\2CA\3\2\2\2DG\3\2\2\2EC\3\2\2\2EF\3\2\2\2FH\3\2"+
+		"\2\2GE\3\2\2\2HI\7\6\2\2IL\3\2\2\2JL\5\24\13\2K?\3\2\2\2KJ\3\2\2\2L\t"+
+		"\3\2\2\2MN\7\7\2\2NR\5\24\13\2OP\7\7\2\2PR\5\22\n\2QM\3\2\2\2QO\3\2\2"+
+		"\2R\13\3\2\2\2ST\7\17\2\2TU\5\4\3\2UV\7\20\2\2V\\\3\2\2\2WX\7\r\2\2XY"+
+		"\5\4\3\2YZ\7\16\2\2Z\\\3\2\2\2[S\3\2\2\2[W\3\2\2\2\\\r\3\2\2\2]^\7\17"+
+		"\2\2^b\7\20\2\2_`\7\r\2\2`b\7\16\2\2a]\3\2\2\2a_\3\2\2\2b\17\3\2\2\2c"+
+		"d\7\23\2\2d\21\3\2\2\2eh\5\24\13\2fg\7\b\2\2gi\5\24\13\2hf\3\2\2\2ij\3"+
+		"\2\2\2jh\3\2\2\2jk\3\2\2\2k\23\3\2\2\2lq\5\26\f\2mq\5\30\r\2nq\5\"\22"+
+		"\2oq\5\36\20\2pl\3\2\2\2pm\3\2\2\2pn\3\2\2\2po\3\2\2\2q\25\3\2\2\2rs\7"+
+		"\21\2\2s\27\3\2\2\2tu\7\t\2\2uv\5\32\16\2vz\7\t\2\2wy\5\34\17\2xw\3\2"+
+		"\2\2y|\3\2\2\2zx\3\2\2\2z{\3\2\2\2{\u0087\3\2\2\2|z\3\2\2\2}~\7\n\2\2"+
+		"~\177\5\32\16\2\177\u0083\7\n\2\2\u0080\u0082\5\34\17\2\u0081\u0080\3"+
+		"\2\2\2\u0082\u0085\3\2\2\2\u0083\u0081\3\2\2\2\u0083\u0084\3\2\2\2\u0084"+
+		"\u0087\3\2\2\2\u0085\u0083\3\2\2\2\u0086t\3\2\2\2\u0086}\3\2\2\2\u0087"+
+		"\31\3\2\2\2\u0088\u008a\t\3\2\2\u0089\u0088\3\2\2\2\u008a\u008b\3\2\2"+
+		"\2\u008b\u0089\3\2\2\2\u008b\u008c\3\2\2\2\u008c\33\3\2\2\2\u008d\u008e"+
+		"\7\13\2\2\u008e\35\3\2\2\2\u008f\u0090\7\21\2\2\u0090\u00aa\5 \21\2\u0091"+
+		"\u0095\7\21\2\2\u0092\u0093\5 \21\2\u0093\u0094\7\21\2\2\u0094\u0096\3"+
+		"\2\2\2\u0095\u0092\3\2\2\2\u0096\u0097\3\2\2\2\u0097\u0095\3\2\2\2\u0097"+
+		"\u0098\3\2\2\2\u0098\u009a\3\2\2\2\u0099\u009b\5 \21\2\u009a\u0099\3\2"+
+		"\2\2\u009a\u009b\3\2\2\2\u009b\u00aa\3\2\2\2\u009c\u009d\5 \21\2\u009d"+
+		"\u009e\7\21\2\2\u009e\u00aa\3\2\2\2\u009f\u00a2\5 \21\2\u00a0\u00a1\7"+
+		"\21\2\2\u00a1\u00a3\5 \21\2\u00a2\u00a0\3\2\2\2\u00a3\u00a4\3\2\2\2\u00a4"+
+		"\u00a2\3\2\2\2\u00a4\u00a5\3\2\2\2\u00a5\u00a7\3\2\2\2\u00a6\u00a8\7\21"+
+		"\2\2\u00a7\u00a6\3\2\2\2\u00a7\u00a8\3\2\2\2\u00a8\u00aa\3\2\2\2\u00a9"+
+		"\u008f\3\2\2\2\u00a9\u0091\3\2\2\2\u00a9\u009c\3\2\2\2\u00a9\u009f\3\2"+
+		"\2\2\u00aa\37\3\2\2\2\u00ab\u00ac\t\4\2\2\u00ac!\3\2\2\2\u00ad\u00ae\7"+
+		"\22\2\2\u00ae#\3\2\2\2\26,\638=EKQ[ajpz\u0083\u0086\u008b\u0097\u009a"+
+		"\u00a4\u00a7\u00a9";
+	public static final ATN _ATN =
+		new ATNDeserializer().deserialize(_serializedATN.toCharArray());
+	static {
+		_decisionToDFA = new DFA[_ATN.getNumberOfDecisions()];
+		for (int i = 0; i < _ATN.getNumberOfDecisions(); i++) {
+			_decisionToDFA[i] = new DFA(_ATN.getDecisionState(i), i);
+		}
+	}
+}
\ No newline at end of file
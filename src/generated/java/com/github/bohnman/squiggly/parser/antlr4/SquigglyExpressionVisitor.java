@@ -0,0 +1,115 @@
+// Generated from com/github/bohnman/squiggly/parser/antlr4/SquigglyExpression.g4 by ANTLR 4.6
+package com.github.bohnman.squiggly.parser.antlr4;
+import org.antlr.v4.runtime.tree.ParseTreeVisitor;
+
+/**
+ * This interface defines a complete generic visitor for a parse tree produced
+ * by {@link SquigglyExpressionParser}.
+ *
+ * @param <T> The return type of the visit operation. Use {@link Void} for
+ * operations with no return type.
+ */
+public interface SquigglyExpressionVisitor<T> extends ParseTreeVisitor<T> {
+	/**
+	 * Visit a parse tree produced by {@link SquigglyExpressionParser#parse}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitParse(SquigglyExpressionParser.ParseContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link SquigglyExpressionParser#expression_list}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitExpression_list(SquigglyExpressionParser.Expression_listContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link SquigglyExpressionParser#expression}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitExpression(SquigglyExpressionParser.ExpressionContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link SquigglyExpressionParser#field_list}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitField_list(SquigglyExpressionParser.Field_listContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link SquigglyExpressionParser#negated_expression}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitNegated_expression(SquigglyExpressionParser.Negated_expressionContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link SquigglyExpressionParser#nested_expression}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitNested_expression(SquigglyExpressionParser.Nested_expressionContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link SquigglyExpressionParser#empty_nested_expression}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitEmpty_nested_expression(SquigglyExpressionParser.Empty_nested_expressionContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link SquigglyExpressionParser#deep}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitDeep(SquigglyExpressionParser.DeepContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link SquigglyExpressionParser#dot_path}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitDot_path(SquigglyExpressionParser.Dot_pathContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link SquigglyExpressionParser#field}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitField(SquigglyExpressionParser.FieldContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link SquigglyExpressionParser#exact_field}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitExact_field(SquigglyExpressionParser.Exact_fieldContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link SquigglyExpressionParser#regex_field}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitRegex_field(SquigglyExpressionParser.Regex_fieldContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link SquigglyExpressionParser#regex_pattern}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitRegex_pattern(SquigglyExpressionParser.Regex_patternContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link SquigglyExpressionParser#regex_flag}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitRegex_flag(SquigglyExpressionParser.Regex_flagContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link SquigglyExpressionParser#wildcard_field}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitWildcard_field(SquigglyExpressionParser.Wildcard_fieldContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link SquigglyExpressionParser#wildcard_char}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitWildcard_char(SquigglyExpressionParser.Wildcard_charContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link SquigglyExpressionParser#wildcard_shallow_field}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitWildcard_shallow_field(SquigglyExpressionParser.Wildcard_shallow_fieldContext ctx);
+}
\ No newline at end of file
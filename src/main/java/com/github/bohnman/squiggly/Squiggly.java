@@ -1,12 +1,19 @@
 package com.github.bohnman.squiggly;
 
+import com.fasterxml.jackson.databind.AnnotationIntrospector;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.DefaultSerializerProvider;
 import com.fasterxml.jackson.databind.ser.FilterProvider;
 import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.github.bohnman.squiggly.config.SquigglyConfig;
 import com.github.bohnman.squiggly.context.provider.SimpleSquigglyContextProvider;
 import com.github.bohnman.squiggly.context.provider.SquigglyContextProvider;
+import com.github.bohnman.squiggly.filter.SquigglyBeanSerializerModifier;
+import com.github.bohnman.squiggly.filter.SquigglyFilterAnnotationIntrospector;
+import com.github.bohnman.squiggly.filter.SquigglyFilterScope;
 import com.github.bohnman.squiggly.filter.SquigglyPropertyFilter;
-import com.github.bohnman.squiggly.filter.SquigglyPropertyFilterMixin;
+import com.github.bohnman.squiggly.filter.SquigglySerializerProvider;
 import com.github.bohnman.squiggly.parser.SquigglyParser;
 
 /**
@@ -29,6 +36,32 @@ public class Squiggly {
         return init(mapper, new SimpleSquigglyContextProvider(new SquigglyParser(), filter));
     }
 
+    /**
+     * Initialize a @{@link SquigglyPropertyFilter} with a static filter expression, only filtering the classes in a scope.
+     *
+     * @param mapper the Jackson Object Mapper
+     * @param filter the filter expressions
+     * @param scope  the classes that are filtered
+     * @return object mapper, mainly for convenience
+     * @throws IllegalStateException if the filter was unable to be registered
+     */
+    public static ObjectMapper init(ObjectMapper mapper, String filter, SquigglyFilterScope scope) throws IllegalStateException {
+        return init(mapper, new SimpleSquigglyContextProvider(new SquigglyParser(), filter), scope);
+    }
+
+    /**
+     * Initialize a @{@link SquigglyPropertyFilter} with a static filter expression, using an engine's parser and caches.
+     *
+     * @param mapper the Jackson Object Mapper
+     * @param filter the filter expressions
+     * @param engine the engine
+     * @return object mapper, mainly for convenience
+     * @throws IllegalStateException if the filter was unable to be registered
+     */
+    public static ObjectMapper init(ObjectMapper mapper, String filter, SquigglyEngine engine) throws IllegalStateException {
+        return init(mapper, new SimpleSquigglyContextProvider(engine.getParser(), filter), engine);
+    }
+
     /**
      * Initialize a @{@link SquigglyPropertyFilter} with a static filter expression.
      *
@@ -49,7 +82,52 @@ public class Squiggly {
      * @throws IllegalStateException if the filter was unable to be registered
      */
     public static ObjectMapper init(ObjectMapper mapper, SquigglyContextProvider contextProvider) throws IllegalStateException {
-        return init(mapper, new SquigglyPropertyFilter(contextProvider));
+        return init(mapper, contextProvider, SquigglyFilterScope.ALL);
+    }
+
+    /**
+     * Initialize a @{@link SquigglyPropertyFilter} with a specific context provider, only filtering the classes in a
+     * scope.
+     *
+     * @param mapper          the Jackson Object Mapper
+     * @param contextProvider the context provider to use
+     * @param scope           the classes that are filtered
+     * @return object mapper, mainly for convenience
+     * @throws IllegalStateException if the filter was unable to be registered
+     */
+    public static ObjectMapper init(ObjectMapper mapper, SquigglyContextProvider contextProvider, SquigglyFilterScope scope) throws IllegalStateException {
+        return init(mapper, contextProvider, scope, SquigglyEngine.getDefault());
+    }
+
+    /**
+     * Initialize a @{@link SquigglyPropertyFilter} with a specific context provider, using an engine's introspector and
+     * caches.  The context provider should use the engine's parser.
+     *
+     * @param mapper          the Jackson Object Mapper
+     * @param contextProvider the context provider to use
+     * @param engine          the engine
+     * @return object mapper, mainly for convenience
+     * @throws IllegalStateException if the filter was unable to be registered
+     */
+    public static ObjectMapper init(ObjectMapper mapper, SquigglyContextProvider contextProvider, SquigglyEngine engine) throws IllegalStateException {
+        return init(mapper, contextProvider, SquigglyFilterScope.ALL, engine);
+    }
+
+    /**
+     * Initialize a @{@link SquigglyPropertyFilter} with a specific context provider, only filtering the classes in a
+     * scope and using an engine's introspector and caches.  The context provider should use the engine's parser.
+     *
+     * @param mapper          the Jackson Object Mapper
+     * @param contextProvider the context provider to use
+     * @param scope           the classes that are filtered
+     * @param engine          the engine
+     * @return object mapper, mainly for convenience
+     * @throws IllegalStateException if the filter was unable to be registered
+     */
+    public static ObjectMapper init(ObjectMapper mapper, SquigglyContextProvider contextProvider, SquigglyFilterScope scope, SquigglyEngine engine) throws IllegalStateException {
+        SquigglyPropertyFilter filter = new SquigglyPropertyFilter(contextProvider, engine.createBeanInfoIntrospector(mapper),
+                engine.getPathCache(), engine.getParser());
+        return init(mapper, filter, scope);
     }
 
     /**
@@ -60,7 +138,14 @@ public class Squiggly {
      * @throws IllegalStateException if the filter was unable to be registered
      */
     public static void init(Iterable<ObjectMapper> mappers, SquigglyContextProvider contextProvider) {
-        init(mappers, new SquigglyPropertyFilter(contextProvider));
+        // the introspector is tied to a mapper when it uses jackson's metadata
+        if (SquigglyConfig.isPropertyUseJacksonMetadata()) {
+            for (ObjectMapper mapper : mappers) {
+                init(mapper, contextProvider);
+            }
+        } else {
+            init(mappers, new SquigglyPropertyFilter(contextProvider));
+        }
     }
 
     /**
@@ -71,8 +156,22 @@ public class Squiggly {
      * @return object mapper, mainly for convenience
      * @throws IllegalStateException if the filter was unable to be registered
      */
-    @SuppressWarnings("deprecation")
     public static ObjectMapper init(ObjectMapper mapper, SquigglyPropertyFilter filter) throws IllegalStateException {
+        return init(mapper, filter, SquigglyFilterScope.ALL);
+    }
+
+    /**
+     * Initialize a @{@link SquigglyPropertyFilter} with a specific property filter, only filtering the classes in a
+     * scope.  Classes outside of the scope keep Jackson's unfiltered serializers.
+     *
+     * @param mapper the Jackson Object Mapper
+     * @param filter the property filter
+     * @param scope  the classes that are filtered
+     * @return object mapper, mainly for convenience
+     * @throws IllegalStateException if the filter was unable to be registered
+     */
+    @SuppressWarnings("deprecation")
+    public static ObjectMapper init(ObjectMapper mapper, SquigglyPropertyFilter filter, SquigglyFilterScope scope) throws IllegalStateException {
         FilterProvider filterProvider = mapper.getSerializationConfig().getFilterProvider();
         SimpleFilterProvider simpleFilterProvider;
 
@@ -87,7 +186,25 @@ public class Squiggly {
         }
 
         simpleFilterProvider.addFilter(SquigglyPropertyFilter.FILTER_ID, filter);
-        mapper.addMixIn(Object.class, SquigglyPropertyFilterMixin.class);
+
+        // classes with a filter of their own keep it, so the mapper's introspector goes first.  Initializing a mapper
+        // again replaces the scope rather than adding to it.
+        AnnotationIntrospector annotationIntrospector = SquigglyFilterAnnotationIntrospector.removeFrom(
+                mapper.getSerializationConfig().getAnnotationIntrospector());
+        mapper.setAnnotationIntrospectors(
+                AnnotationIntrospector.pair(annotationIntrospector, new SquigglyFilterAnnotationIntrospector(scope)),
+                mapper.getDeserializationConfig().getAnnotationIntrospector());
+
+        // only the default provider is replaced, a custom one may do more than cache serializers.  The replacement keeps
+        // the settings of the default one, such as a null value serializer.
+        if (mapper.getSerializerProvider().getClass() == DefaultSerializerProvider.Impl.class) {
+            mapper.setSerializerProvider(new SquigglySerializerProvider((DefaultSerializerProvider) mapper.getSerializerProvider()));
+        }
+
+        // the filter's introspector carries the config of the engine it was created with
+        if (filter.getBeanInfoIntrospector().getConfig().isFilterPruneBeanProperties()) {
+            mapper.registerModule(new SimpleModule().setSerializerModifier(new SquigglyBeanSerializerModifier()));
+        }
 
         return mapper;
     }
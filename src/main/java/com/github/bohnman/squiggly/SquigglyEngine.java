@@ -0,0 +1,113 @@
+package com.github.bohnman.squiggly;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.bohnman.squiggly.bean.BeanInfoIntrospector;
+import com.github.bohnman.squiggly.bean.JacksonBeanInfoIntrospector;
+import com.github.bohnman.squiggly.bean.ProxyClassNormalizer;
+import com.github.bohnman.squiggly.config.SquigglyEngineConfig;
+import com.github.bohnman.squiggly.filter.SquigglyPathCache;
+import com.github.bohnman.squiggly.metric.source.CompositeSquigglyMetricsSource;
+import com.github.bohnman.squiggly.metric.source.SquigglyMetricsSource;
+import com.github.bohnman.squiggly.parser.SquigglyParser;
+import com.google.common.collect.Maps;
+import net.jcip.annotations.ThreadSafe;
+
+import java.util.SortedMap;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Owns a config along with the parser, introspector and caches built from it.
+ * <p>
+ * Mappers initialized with the same engine share its caches, while mappers initialized with different engines are
+ * sized and measured separately, e.g. one engine per tenant.  The static API, such as
+ * {@link com.github.bohnman.squiggly.metric.SquigglyMetrics}, uses the default engine.
+ */
+@ThreadSafe
+public class SquigglyEngine {
+
+    private static final SquigglyEngine DEFAULT = new SquigglyEngine(SquigglyEngineConfig.getDefault(),
+            new SquigglyParser(), new BeanInfoIntrospector(), SquigglyPathCache.getDefault());
+
+    private final SquigglyEngineConfig config;
+    private final SquigglyParser parser;
+    private final BeanInfoIntrospector beanInfoIntrospector;
+    private final SquigglyPathCache pathCache;
+    private final SquigglyMetricsSource metricsSource;
+
+    /**
+     * Constructor.
+     *
+     * @param config the config that the engine's parser, introspector and caches are built from
+     */
+    public SquigglyEngine(SquigglyEngineConfig config) {
+        this(config, new SquigglyParser(config), new BeanInfoIntrospector(config, new ProxyClassNormalizer()),
+                new SquigglyPathCache(config));
+    }
+
+    private SquigglyEngine(SquigglyEngineConfig config, SquigglyParser parser, BeanInfoIntrospector beanInfoIntrospector,
+                           SquigglyPathCache pathCache) {
+        this.config = checkNotNull(config);
+        this.parser = parser;
+        this.beanInfoIntrospector = beanInfoIntrospector;
+        this.pathCache = pathCache;
+        this.metricsSource = new CompositeSquigglyMetricsSource(
+                parser.getCacheMetricsSource(),
+                pathCache.getMetricsSource(),
+                beanInfoIntrospector.getCacheMetricsSource()
+        );
+    }
+
+    /**
+     * Get the engine that uses the classpath config and the caches shared by the static API.
+     *
+     * @return default engine
+     */
+    public static SquigglyEngine getDefault() {
+        return DEFAULT;
+    }
+
+    public SquigglyEngineConfig getConfig() {
+        return config;
+    }
+
+    public SquigglyParser getParser() {
+        return parser;
+    }
+
+    public BeanInfoIntrospector getBeanInfoIntrospector() {
+        return beanInfoIntrospector;
+    }
+
+    public SquigglyPathCache getPathCache() {
+        return pathCache;
+    }
+
+    /**
+     * Create the introspector for a filter registered with a mapper.  When the config says to use Jackson's metadata,
+     * the introspector is tied to the mapper, otherwise the engine's introspector is shared.
+     *
+     * @param mapper the Jackson Object Mapper
+     * @return introspector
+     */
+    public BeanInfoIntrospector createBeanInfoIntrospector(ObjectMapper mapper) {
+        if (config.isPropertyUseJacksonMetadata()) {
+            return new JacksonBeanInfoIntrospector(mapper, beanInfoIntrospector);
+        }
+
+        return beanInfoIntrospector;
+    }
+
+    /**
+     * Gets the metrics of this engine's caches as a map whose keys are the metric name and whose values are the metric
+     * values.  The names are the same as those of
+     * {@link com.github.bohnman.squiggly.metric.SquigglyMetrics}.
+     *
+     * @return map
+     */
+    public SortedMap<String, Object> getMetrics() {
+        SortedMap<String, Object> metrics = Maps.newTreeMap();
+        metricsSource.applyMetrics(metrics);
+        return metrics;
+    }
+}
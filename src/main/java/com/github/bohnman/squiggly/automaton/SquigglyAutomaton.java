@@ -0,0 +1,316 @@
+package com.github.bohnman.squiggly.automaton;
+
+import com.github.bohnman.squiggly.config.SquigglyEngineConfig;
+import com.github.bohnman.squiggly.name.ExactName;
+import com.github.bohnman.squiggly.parser.SquigglyNode;
+import com.github.bohnman.squiggly.parser.SquigglyNodeIndex;
+import com.github.bohnman.squiggly.parser.SquigglyParser;
+import com.github.bohnman.squiggly.view.PropertyView;
+import com.google.common.collect.ImmutableSet;
+import net.jcip.annotations.ThreadSafe;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A compiled form of a parsed filter expression.  The automaton is built once per filter and precomputes, for every
+ * node, the state that the filter moves to when that node is matched.  Filtering a property is then a single
+ * transition from the state of its parent.
+ * <p>
+ * An automaton created with a {@link SquigglyAutomatonCompiler} links each state to its successors when the state is
+ * first reached, and is only compiled completely once its filter has been used often enough.
+ */
+@ThreadSafe
+public class SquigglyAutomaton {
+
+    private static final SquigglyNodeIndex BASE_VIEW_NODES = SquigglyNodeIndex.of(Collections.singletonList(new SquigglyNode(new ExactName(PropertyView.BASE_VIEW), Collections.<SquigglyNode>emptyList(), false, true, false)));
+
+    private final int id;
+    private final String filter;
+    private final List<SquigglyNode> nodes;
+    private final SquigglyEngineConfig config;
+    private final SquigglyAutomatonCompiler compiler;
+    private final AtomicInteger uses = new AtomicInteger();
+    private final SquigglyState start;
+
+    // states by key and states that aren't linked yet, guarded by the automaton and dropped once it's compiled
+    private Map<StateKey, SquigglyState> states = new HashMap<>();
+    private Deque<SquigglyState> unlinked = new ArrayDeque<>();
+
+    private volatile boolean compiled;
+
+    /**
+     * Constructor that uses the default config.
+     *
+     * @param id    the id of the filter expression
+     * @param nodes the top-level nodes of a parsed filter expression
+     */
+    public SquigglyAutomaton(int id, List<SquigglyNode> nodes) {
+        this(id, nodes, SquigglyEngineConfig.getDefault());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param id     the id of the filter expression
+     * @param nodes  the top-level nodes of a parsed filter expression
+     * @param config the config of the engine compiling the filter
+     */
+    public SquigglyAutomaton(int id, List<SquigglyNode> nodes, SquigglyEngineConfig config) {
+        this(id, SquigglyParser.toCanonicalFilter(nodes, config), nodes, config);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param id     the id of the filter expression
+     * @param filter the canonical form of the filter expression
+     * @param nodes  the top-level nodes of a parsed filter expression
+     * @param config the config of the engine compiling the filter
+     */
+    public SquigglyAutomaton(int id, String filter, List<SquigglyNode> nodes, SquigglyEngineConfig config) {
+        this(id, filter, nodes, config, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param id       the id of the filter expression
+     * @param filter   the canonical form of the filter expression
+     * @param nodes    the top-level nodes of a parsed filter expression
+     * @param config   the config of the engine compiling the filter
+     * @param compiler the compiler that promotes the automaton once its filter is popular, null to compile it up front
+     */
+    public SquigglyAutomaton(int id, String filter, List<SquigglyNode> nodes, SquigglyEngineConfig config,
+                             SquigglyAutomatonCompiler compiler) {
+        this.id = id;
+        this.filter = filter;
+        this.nodes = nodes;
+        this.config = config;
+        this.compiler = (compiler == null || compiler.getThreshold() <= 0) ? null : compiler;
+
+        synchronized (this) {
+            this.start = compile(SquigglyNodeIndex.of(nodes), false, null);
+        }
+
+        if (this.compiler == null) {
+            compileAll();
+        }
+    }
+
+    /**
+     * Get the id of the filter expression the automaton was compiled from.  Ids only estimate how often a filter is
+     * used, so they may repeat.
+     *
+     * @return id
+     * @see com.github.bohnman.squiggly.parser.SquigglyParser#compile(String)
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Get the canonical form of the filter expression the automaton was compiled from.
+     *
+     * @return filter expression
+     * @see SquigglyParser#normalize(String)
+     */
+    public String getFilter() {
+        return filter;
+    }
+
+    /**
+     * Get the nodes that the automaton was compiled from, in canonical order.
+     *
+     * @return top-level nodes
+     */
+    public List<SquigglyNode> getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Get the config the automaton was compiled with.
+     *
+     * @return config
+     */
+    public SquigglyEngineConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * Says whether all states of the automaton are linked, either because it was compiled up front or because it has
+     * been promoted by its compiler.
+     *
+     * @return true if compiled, false if states are still linked as they're reached
+     */
+    public boolean isCompiled() {
+        return compiled;
+    }
+
+    /**
+     * Record that the filter is used by a serialization, and have the automaton compiled in the background when that
+     * makes it popular enough.
+     */
+    public void recordUse() {
+        if (compiler != null && !compiled && uses.incrementAndGet() == compiler.getThreshold()) {
+            compiler.submit(this);
+        }
+    }
+
+    /**
+     * Roughly estimate the memory used by the nodes and states of this automaton, for caches bounded by weight.  Since
+     * states may be linked later, every node is counted as leading to a state of its own.
+     *
+     * @return estimated size in bytes
+     */
+    public int getEstimatedSize() {
+        return 224 + 320 * countNodes(nodes);
+    }
+
+    private static int countNodes(List<SquigglyNode> nodes) {
+        int count = nodes.size();
+
+        for (SquigglyNode node : nodes) {
+            count += countNodes(node.getChildren());
+        }
+
+        return count;
+    }
+
+    /**
+     * Get the state representing the top-level object being serialized.
+     *
+     * @return start state
+     */
+    public SquigglyState getStart() {
+        return start;
+    }
+
+    // link all states that aren't linked yet, and drop what was only needed to link them
+    synchronized void compileAll() {
+        if (compiled) {
+            return;
+        }
+
+        for (SquigglyState state = unlinked.poll(); state != null; state = unlinked.poll()) {
+            link(state);
+        }
+
+        states = null;
+        unlinked = null;
+        compiled = true;
+    }
+
+    // work out the successors of a state, which may create states that aren't linked yet themselves
+    synchronized void link(SquigglyState state) {
+        if (state.isLinked()) {
+            return;
+        }
+
+        SquigglyNode[] stateNodes = state.getNodes();
+        Set<String> viewStack = state.getViewStack();
+
+        for (int i = 0; i < stateNodes.length; i++) {
+            SquigglyNode node = stateNodes[i];
+            state.setNext(i, compileSimpleMatch(node, viewStack), compileViewMatch(node, viewStack));
+        }
+
+        state.setLinked();
+    }
+
+    private SquigglyState compile(SquigglyNodeIndex index, boolean view, Set<String> viewStack) {
+        StateKey key = new StateKey(view ? null : index, viewStack);
+        SquigglyState state = states.get(key);
+
+        if (state != null) {
+            return state;
+        }
+
+        state = view ? new SquigglyState(this, SquigglyState.Type.VIEW, null, viewStack) : new SquigglyState(this, SquigglyState.Type.NODES, index, viewStack);
+        states.put(key, state);
+
+        if (!state.isLinked()) {
+            unlinked.add(state);
+        }
+
+        return state;
+    }
+
+    // state to move to when the node matched the property name
+    private SquigglyState compileSimpleMatch(SquigglyNode node, Set<String> viewStack) {
+        if (node.isAnyDeep()) {
+            return SquigglyState.INCLUDE_ALL;
+        }
+
+        if (node.isNegated()) {
+            return SquigglyState.EXCLUDE;
+        }
+
+        boolean view = node.isAnyShallow() && !node.isSquiggly();
+        return compile(getNextNodes(node), view, viewStack);
+    }
+
+    // state to move to when the node matched a view containing the property
+    private SquigglyState compileViewMatch(SquigglyNode node, Set<String> viewStack) {
+        if (node.isNegated()) {
+            return SquigglyState.EXCLUDE;
+        }
+
+        return compile(getNextNodes(node), !node.isSquiggly(), addToViewStack(viewStack, node));
+    }
+
+    private SquigglyNodeIndex getNextNodes(SquigglyNode node) {
+        if (node.getChildren().isEmpty() && !node.isEmptyNested() && config.isFilterImplicitlyIncludeBaseFields()) {
+            return BASE_VIEW_NODES;
+        }
+
+        return node.getChildIndex();
+    }
+
+    private Set<String> addToViewStack(Set<String> viewStack, SquigglyNode viewNode) {
+        if (!config.isFilterPropagateViewToNestedFilters()) {
+            return null;
+        }
+
+        if (viewStack == null) {
+            return ImmutableSet.of(viewNode.getName());
+        }
+
+        return ImmutableSet.<String>builder().addAll(viewStack).add(viewNode.getName()).build();
+    }
+
+    // identifies a state by the nodes it matches (by identity) and its view stack
+    private static class StateKey {
+        private final SquigglyNodeIndex nodes;
+        private final Set<String> viewStack;
+
+        StateKey(SquigglyNodeIndex nodes, Set<String> viewStack) {
+            this.nodes = nodes;
+            this.viewStack = viewStack;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            StateKey stateKey = (StateKey) o;
+
+            if (nodes != stateKey.nodes) return false;
+            return viewStack != null ? viewStack.equals(stateKey.viewStack) : stateKey.viewStack == null;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = System.identityHashCode(nodes);
+            result = 31 * result + (viewStack != null ? viewStack.hashCode() : 0);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.github.bohnman.squiggly.automaton;
+
+import com.github.bohnman.squiggly.metric.source.SquigglyMetricsSource;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import net.jcip.annotations.ThreadSafe;
+
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Promotes the automatons of popular filters.  An automaton starts out linking its states as serializations first
+ * reach them, so a filter that is only used once never pays for the parts of it that the object graph doesn't reach.
+ * Once a filter has been used often enough, the rest of its automaton is linked on a background thread, after which
+ * transitions no longer take the automaton's lock.
+ * <p>
+ * All compilers share a single daemon thread, which stops when it has been idle for a minute.
+ */
+@ThreadSafe
+public class SquigglyAutomatonCompiler {
+
+    private static final ThreadPoolExecutor EXECUTOR;
+
+    static {
+        EXECUTOR = new ThreadPoolExecutor(1, 1, 1, TimeUnit.MINUTES, new LinkedBlockingQueue<Runnable>(),
+                new ThreadFactoryBuilder().setDaemon(true).setNameFormat("squiggly-automaton-compiler-%d").build());
+        EXECUTOR.allowCoreThreadTimeOut(true);
+    }
+
+    private final int threshold;
+    private final Executor executor;
+    private final AtomicInteger queueSize = new AtomicInteger();
+    private final AtomicLong promotionCount = new AtomicLong();
+    private final SquigglyMetricsSource metricsSource;
+
+    /**
+     * Constructor.
+     *
+     * @param threshold     number of uses after which a filter is compiled, 0 or less to compile every filter up front
+     * @param metricsPrefix prefix of the compiler's metric names, e.g. squiggly.parser.compiler.
+     */
+    public SquigglyAutomatonCompiler(int threshold, String metricsPrefix) {
+        this(threshold, metricsPrefix, EXECUTOR);
+    }
+
+    /**
+     * Constructor that compiles automatons with an executor of its own instead of the shared background thread.
+     *
+     * @param threshold     number of uses after which a filter is compiled, 0 or less to compile every filter up front
+     * @param metricsPrefix prefix of the compiler's metric names, e.g. squiggly.parser.compiler.
+     * @param executor      runs the compilations
+     */
+    public SquigglyAutomatonCompiler(int threshold, final String metricsPrefix, Executor executor) {
+        this.threshold = threshold;
+        this.executor = checkNotNull(executor);
+        this.metricsSource = new SquigglyMetricsSource() {
+            @Override
+            public void applyMetrics(Map<String, Object> map) {
+                map.put(metricsPrefix + "queueSize", queueSize.get());
+                map.put(metricsPrefix + "promotionCount", promotionCount.get());
+            }
+        };
+    }
+
+    /**
+     * Get the number of uses after which a filter is compiled.
+     *
+     * @return threshold, 0 or less if every filter is compiled up front
+     */
+    public int getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * Get the metrics of the compiler, which are how many automatons are waiting to be compiled and how many have been
+     * promoted.
+     *
+     * @return metrics source
+     */
+    public SquigglyMetricsSource getMetricsSource() {
+        return metricsSource;
+    }
+
+    // compile an automaton in the background, leaving it to link its states as they're reached if that fails
+    void submit(final SquigglyAutomaton automaton) {
+        queueSize.incrementAndGet();
+
+        try {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        automaton.compileAll();
+                        promotionCount.incrementAndGet();
+                    } finally {
+                        queueSize.decrementAndGet();
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            queueSize.decrementAndGet();
+        }
+    }
+}
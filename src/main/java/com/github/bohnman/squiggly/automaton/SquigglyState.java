@@ -0,0 +1,432 @@
+package com.github.bohnman.squiggly.automaton;
+
+import com.github.bohnman.squiggly.bean.BeanInfo;
+import com.github.bohnman.squiggly.bean.BeanInfoIntrospector;
+import com.github.bohnman.squiggly.config.SquigglyEngineConfig;
+import com.github.bohnman.squiggly.parser.SquigglyNode;
+import com.github.bohnman.squiggly.parser.SquigglyNodeIndex;
+import com.github.bohnman.squiggly.view.PropertyView;
+import net.jcip.annotations.ThreadSafe;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A state in a {@link SquigglyAutomaton}.  A state represents a position in the object graph being serialized and
+ * knows, for each node it can match, which state to move to next.
+ */
+@ThreadSafe
+public class SquigglyState {
+
+    // declared before the constants below, which take their ids from it
+    private static final AtomicInteger IDS = new AtomicInteger();
+
+    private static final int MAP_KEY_MATCHES_SIZE = 32;
+
+    // a state is seldom reached by beans of more than a few classes, those beyond that go through the path cache
+    private static final int MAX_CLASS_TABLES = 4;
+    private static final ClassTable[] NO_CLASS_TABLES = new ClassTable[0];
+
+    /**
+     * State that excludes the current property and everything beneath it.
+     */
+    public static final SquigglyState EXCLUDE = new SquigglyState(null, Type.EXCLUDE, null, null);
+
+    /**
+     * State that includes the current property and everything beneath it (eg. **).
+     */
+    public static final SquigglyState INCLUDE_ALL = new SquigglyState(null, Type.INCLUDE_ALL, null, null);
+
+    enum Type {
+        NODES,
+        VIEW,
+        INCLUDE_ALL,
+        EXCLUDE
+    }
+
+    private final int id;
+    private final SquigglyAutomaton automaton;
+    private final int filterId;
+    private final SquigglyEngineConfig config;
+    private final Type type;
+    private final SquigglyNodeIndex index;
+    private final SquigglyNode[] nodes;
+    private final Set<String> viewStack;
+    private final String[] viewNames;
+
+    // successor states, indexed the same as nodes
+    private final SquigglyState[] simpleNext;
+    private final SquigglyState[] viewNext;
+
+    // transitions for the properties of the bean classes seen so far, only built once the automaton is compiled
+    private volatile ClassTable[] classTables = NO_CLASS_TABLES;
+
+    // set once the successor states are filled in, which publishes them to other threads
+    private volatile boolean linked;
+
+    // position of the node that map keys fall back to when no node matches them by name, -1 if none
+    private final int mapViewPosition;
+
+    // bounded cache of which pattern node matches a map key, since map keys are too dynamic for the match cache
+    private final MapKeyMatch[] mapKeyMatches;
+
+    SquigglyState(SquigglyAutomaton automaton, Type type, SquigglyNodeIndex index, Set<String> viewStack) {
+        this.id = IDS.incrementAndGet();
+        this.automaton = automaton;
+        this.filterId = (automaton == null) ? 0 : automaton.getId();
+        this.config = (automaton == null) ? SquigglyEngineConfig.getDefault() : automaton.getConfig();
+        this.type = type;
+        this.index = (index == null) ? SquigglyNodeIndex.of(Collections.<SquigglyNode>emptyList()) : index;
+        this.nodes = this.index.getNodes().toArray(new SquigglyNode[this.index.getNodes().size()]);
+        this.viewStack = viewStack;
+        this.viewNames = (viewStack == null) ? null : viewStack.toArray(new String[viewStack.size()]);
+        this.simpleNext = new SquigglyState[this.nodes.length];
+        this.viewNext = new SquigglyState[this.nodes.length];
+        this.mapViewPosition = findMapViewNode();
+        this.mapKeyMatches = this.index.hasPatterns() ? new MapKeyMatch[MAP_KEY_MATCHES_SIZE] : null;
+        this.linked = (this.nodes.length == 0);
+    }
+
+    /**
+     * Move to the next state for a property of a bean.
+     *
+     * @param name         the name of the property
+     * @param beanClass    the class of the bean that owns the property
+     * @param introspector introspector used to look up views
+     * @return next state, {@link #EXCLUDE} if the property should not be serialized
+     */
+    public SquigglyState next(String name, Class beanClass, BeanInfoIntrospector introspector) {
+        switch (type) {
+            case EXCLUDE:
+            case INCLUDE_ALL:
+                return this;
+            case VIEW:
+                return nextInView(name, beanClass, introspector);
+            default:
+                return nextInNodes(name, beanClass, introspector);
+        }
+    }
+
+    /**
+     * Move to the next state for a property of a bean using a table of this state's transitions for the bean's class,
+     * with the view lookups already done.  Tables are only built for the states of compiled automatons, the first time
+     * such a state sees a class, and only if {@link SquigglyEngineConfig#isFilterTransitionTables()} is on.
+     *
+     * @param name         the name of the property
+     * @param beanClass    the class of the bean that owns the property, which must not be a map
+     * @param introspector introspector used to look up views
+     * @return next state, or null if there's no table for the property, in which case use
+     * {@link #next(String, Class, BeanInfoIntrospector)}
+     */
+    public SquigglyState nextFromTable(String name, Class beanClass, BeanInfoIntrospector introspector) {
+        if (type == Type.EXCLUDE || type == Type.INCLUDE_ALL) {
+            return this;
+        }
+
+        if (!automaton.isCompiled() || !config.isFilterTransitionTables()) {
+            return null;
+        }
+
+        ClassTable table = getClassTable(beanClass, introspector);
+
+        if (table == null) {
+            return null;
+        }
+
+        int propertyIndex = table.beanInfo.getPropertyIndex(name);
+        return (propertyIndex < 0) ? null : table.next[propertyIndex];
+    }
+
+    /**
+     * Move to the next state for an entry of a map.  Unlike {@link #next(String, Class, BeanInfoIntrospector)}, the
+     * decision is made from the state alone for keys that match no node, and matches of pattern nodes are kept in a
+     * small bounded cache, so arbitrary keys don't have to go through the match cache.
+     *
+     * @param key          the key of the entry
+     * @param mapClass     the class of the map
+     * @param introspector introspector used to look up unwrapped properties
+     * @return next state, {@link #EXCLUDE} if the entry should not be serialized
+     */
+    public SquigglyState nextMapKey(String key, Class mapClass, BeanInfoIntrospector introspector) {
+        if (type != Type.NODES) {
+            return this;
+        }
+
+        if (nodes.length == 0) {
+            return EXCLUDE;
+        }
+
+        if (!linked) {
+            automaton.link(this);
+        }
+
+        int position = findBestMapKeyMatch(key);
+
+        if (position >= 0) {
+            return simpleNext[position];
+        }
+
+        if (mapViewPosition >= 0) {
+            return viewNext[mapViewPosition];
+        }
+
+        if (introspector.introspect(mapClass).isUnwrapped(key)) {
+            return this;
+        }
+
+        return EXCLUDE;
+    }
+
+    /**
+     * Get the id of the state, which is a compact numeric key for the path that led to the state.  Ids come from a
+     * counter shared by all automatons, which wraps after 2^32 states, so a cache keyed by ids has to check that a hit
+     * belongs to the same state.
+     *
+     * @return id
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Get the id of the filter expression whose automaton the state belongs to.
+     *
+     * @return filter id, 0 for the shared {@link #EXCLUDE} and {@link #INCLUDE_ALL} states
+     * @see SquigglyAutomaton#getId()
+     */
+    public int getFilterId() {
+        return filterId;
+    }
+
+    /**
+     * Says whether a property that led to this state should be serialized.
+     *
+     * @return true if included, false if not
+     */
+    public boolean isIncluded() {
+        return type != Type.EXCLUDE;
+    }
+
+    /**
+     * Says whether everything beneath this state is included.
+     *
+     * @return true if **, false otherwise
+     */
+    public boolean isIncludeAll() {
+        return type == Type.INCLUDE_ALL;
+    }
+
+    Type getType() {
+        return type;
+    }
+
+    SquigglyNode[] getNodes() {
+        return nodes;
+    }
+
+    Set<String> getViewStack() {
+        return viewStack;
+    }
+
+    boolean isLinked() {
+        return linked;
+    }
+
+    void setNext(int index, SquigglyState simple, SquigglyState view) {
+        simpleNext[index] = simple;
+        viewNext[index] = view;
+    }
+
+    void setLinked() {
+        linked = true;
+    }
+
+    private ClassTable getClassTable(Class beanClass, BeanInfoIntrospector introspector) {
+        ClassTable[] tables = classTables;
+        int cleared = -1;
+
+        for (int i = 0; i < tables.length; i++) {
+            ClassTable table = tables[i];
+            Class tableClass = table.beanClass.get();
+            BeanInfoIntrospector tableIntrospector = table.introspector.get();
+
+            if (tableClass == beanClass && tableIntrospector == introspector) {
+                return table;
+            }
+
+            // the table of a class or introspector that has been collected can never match again
+            if (cleared < 0 && (tableClass == null || tableIntrospector == null)) {
+                cleared = i;
+            }
+        }
+
+        if (cleared < 0 && tables.length >= MAX_CLASS_TABLES) {
+            return null;
+        }
+
+        BeanInfo beanInfo = introspector.introspect(beanClass);
+        SquigglyState[] next = new SquigglyState[beanInfo.getPropertyCount()];
+
+        for (int i = 0; i < next.length; i++) {
+            next[i] = next(beanInfo.getPropertyName(i), beanClass, introspector);
+        }
+
+        // racing threads may each add a table for the same class, in which case one of them is built again later
+        ClassTable table = new ClassTable(beanClass, introspector, beanInfo, next);
+        ClassTable[] newTables;
+
+        if (cleared >= 0) {
+            newTables = tables.clone();
+            newTables[cleared] = table;
+        } else {
+            newTables = Arrays.copyOf(tables, tables.length + 1);
+            newTables[tables.length] = table;
+        }
+
+        classTables = newTables;
+        return table;
+    }
+
+    private SquigglyState nextInView(String name, Class beanClass, BeanInfoIntrospector introspector) {
+        if (beanClass != null && !Map.class.isAssignableFrom(beanClass)) {
+            BeanInfo beanInfo = introspector.introspect(beanClass);
+
+            if (!isInViewStack(beanInfo, beanInfo.getPropertyIndex(name))) {
+                return EXCLUDE;
+            }
+        }
+
+        return this;
+    }
+
+    private SquigglyState nextInNodes(String name, Class beanClass, BeanInfoIntrospector introspector) {
+        if (nodes.length == 0) {
+            return EXCLUDE;
+        }
+
+        if (!linked) {
+            automaton.link(this);
+        }
+
+        int position = index.findBestMatch(name);
+
+        if (position >= 0) {
+            return simpleNext[position];
+        }
+
+        position = findBestViewNode(name, beanClass, introspector);
+
+        if (position >= 0) {
+            return viewNext[position];
+        }
+
+        if (introspector.introspect(beanClass).isUnwrapped(name)) {
+            return this;
+        }
+
+        return EXCLUDE;
+    }
+
+    private int findBestMapKeyMatch(String key) {
+        if (mapKeyMatches == null) {
+            return index.findBestMatch(key);
+        }
+
+        int slot = key.hashCode() & (MAP_KEY_MATCHES_SIZE - 1);
+        MapKeyMatch match = mapKeyMatches[slot];
+
+        if (match != null && match.key.equals(key)) {
+            return match.position;
+        }
+
+        int position = index.findBestMatch(key);
+        mapKeyMatches[slot] = new MapKeyMatch(key, position);
+        return position;
+    }
+
+    private int findMapViewNode() {
+        for (int i = 0; i < nodes.length; i++) {
+            if (PropertyView.BASE_VIEW.equals(nodes[i].getName())) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    private int findBestViewNode(String name, Class beanClass, BeanInfoIntrospector introspector) {
+        if (Map.class.isAssignableFrom(beanClass)) {
+            return mapViewPosition;
+        }
+
+        BeanInfo beanInfo = introspector.introspect(beanClass);
+        int propertyIndex = beanInfo.getPropertyIndex(name);
+
+        if (propertyIndex < 0) {
+            return -1;
+        }
+
+        for (int i = 0; i < nodes.length; i++) {
+            // handle view
+            if (beanInfo.isInView(propertyIndex, nodes[i].getName())) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    private boolean isInViewStack(BeanInfo beanInfo, int propertyIndex) {
+        if (viewNames == null) {
+            return beanInfo.isInView(propertyIndex, PropertyView.BASE_VIEW);
+        }
+
+        for (String viewName : viewNames) {
+            if (beanInfo.isInView(propertyIndex, getEffectiveView(beanInfo, viewName))) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    // views without properties fall back to the base view if configured to do so
+    private String getEffectiveView(BeanInfo beanInfo, String viewName) {
+        if (!beanInfo.hasPropertiesInView(viewName) && config.isFilterImplicitlyIncludeBaseFields()) {
+            return PropertyView.BASE_VIEW;
+        }
+
+        return viewName;
+    }
+
+    // the transitions of a state for each property of a bean class, indexed the same as the class's bean info.  The
+    // class and introspector are held weakly, so a table never keeps a class loader from being unloaded.
+    private static class ClassTable {
+        private final WeakReference<Class> beanClass;
+        private final WeakReference<BeanInfoIntrospector> introspector;
+        private final BeanInfo beanInfo;
+        private final SquigglyState[] next;
+
+        ClassTable(Class beanClass, BeanInfoIntrospector introspector, BeanInfo beanInfo, SquigglyState[] next) {
+            this.beanClass = new WeakReference<>(beanClass);
+            this.introspector = new WeakReference<>(introspector);
+            this.beanInfo = beanInfo;
+            this.next = next;
+        }
+    }
+
+    // immutable, so entries can be replaced by racing threads without locking
+    private static class MapKeyMatch {
+        private final String key;
+        private final int position;
+
+        MapKeyMatch(String key, int position) {
+            this.key = key;
+            this.position = position;
+        }
+    }
+}
@@ -1,31 +1,173 @@
 package com.github.bohnman.squiggly.bean;
 
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
 
+/**
+ * Views and unwrapped properties of a bean class.
+ * <p>
+ * Each property of the class is assigned a dense index, and each view is stored as a bitset of those indexes, so that
+ * checking whether a property is in one or more views is a matter of testing bits.
+ */
 public class BeanInfo {
 
-    private Map<String, Set<String>> viewNameToPropertiesNames;
-    private Set<String> unwrappedProperties;
+    private final ImmutableMap<String, Integer> propertyIndexes;
+    private final String[] propertyNames;
+    private final ImmutableMap<String, long[]> viewNameToProperties;
+    private final long[] unwrappedProperties;
 
     public BeanInfo(Map<String, Set<String>> viewNameToPropertiesNames, Set<String> unwrappedProperties) {
-        this.viewNameToPropertiesNames = viewNameToPropertiesNames;
-        this.unwrappedProperties = unwrappedProperties;
+        Map<String, Integer> propertyIndexes = new LinkedHashMap<>();
+
+        for (Set<String> propertyNames : viewNameToPropertiesNames.values()) {
+            addIndexes(propertyIndexes, propertyNames);
+        }
+
+        addIndexes(propertyIndexes, unwrappedProperties);
+
+        this.propertyIndexes = ImmutableMap.copyOf(propertyIndexes);
+        this.propertyNames = propertyIndexes.keySet().toArray(new String[propertyIndexes.size()]);
+
+        ImmutableMap.Builder<String, long[]> viewNameToProperties = ImmutableMap.builder();
+
+        for (Map.Entry<String, Set<String>> entry : viewNameToPropertiesNames.entrySet()) {
+            viewNameToProperties.put(entry.getKey(), toBits(entry.getValue()));
+        }
+
+        this.viewNameToProperties = viewNameToProperties.build();
+        this.unwrappedProperties = toBits(unwrappedProperties);
+    }
+
+    private static void addIndexes(Map<String, Integer> propertyIndexes, Set<String> propertyNames) {
+        for (String propertyName : propertyNames) {
+            if (!propertyIndexes.containsKey(propertyName)) {
+                propertyIndexes.put(propertyName, propertyIndexes.size());
+            }
+        }
+    }
+
+    private long[] toBits(Set<String> propertyNames) {
+        long[] bits = new long[(propertyIndexes.size() + Long.SIZE - 1) / Long.SIZE];
+
+        for (String propertyName : propertyNames) {
+            int index = propertyIndexes.get(propertyName);
+            bits[index >>> 6] |= 1L << index;
+        }
+
+        return bits;
+    }
+
+    /**
+     * Roughly estimate the memory used by this bean info, for caches bounded by weight.
+     *
+     * @return estimated size in bytes
+     */
+    public int getEstimatedSize() {
+        int size = 96 + 16 + 8 * unwrappedProperties.length;
+
+        for (String propertyName : propertyNames) {
+            size += 88 + 2 * propertyName.length();
+        }
+
+        for (Map.Entry<String, long[]> entry : viewNameToProperties.entrySet()) {
+            size += 88 + 2 * entry.getKey().length() + 8 * entry.getValue().length;
+        }
+
+        return size;
+    }
+
+    /**
+     * Get the dense index of a property.
+     *
+     * @param property the name of the property
+     * @return index, or -1 if the property belongs to no view and isn't unwrapped
+     */
+    public int getPropertyIndex(String property) {
+        Integer index = propertyIndexes.get(property);
+        return (index == null) ? -1 : index;
+    }
+
+    /**
+     * Get the number of properties, which are indexed from 0 up to, but not including, this number.
+     *
+     * @return property count
+     */
+    public int getPropertyCount() {
+        return propertyNames.length;
+    }
+
+    /**
+     * Get the name of a property.
+     *
+     * @param propertyIndex the index of the property
+     * @return name
+     * @see #getPropertyIndex(String)
+     */
+    public String getPropertyName(int propertyIndex) {
+        return propertyNames[propertyIndex];
+    }
+
+    /**
+     * Says whether the view has any properties.
+     *
+     * @param view the name of the view
+     * @return true if the view has properties, false if not
+     */
+    public boolean hasPropertiesInView(String view) {
+        long[] bits = viewNameToProperties.get(view);
+
+        if (bits == null) {
+            return false;
+        }
+
+        for (long word : bits) {
+            if (word != 0) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Says whether a property is in a view.
+     *
+     * @param propertyIndex the index of the property
+     * @param view          the name of the view
+     * @return true if in view, false if not
+     * @see #getPropertyIndex(String)
+     */
+    public boolean isInView(int propertyIndex, String view) {
+        return propertyIndex >= 0 && isSet(viewNameToProperties.get(view), propertyIndex);
     }
 
     public Set<String> getPropertyNamesForView(String view) {
-        Set<String> properties = viewNameToPropertiesNames.get(view);
+        long[] bits = viewNameToProperties.get(view);
 
-        if (properties == null) {
-            properties = ImmutableSet.of();
+        if (bits == null) {
+            return ImmutableSet.of();
         }
 
-        return properties;
+        ImmutableSet.Builder<String> properties = ImmutableSet.builder();
+
+        for (int i = 0; i < propertyNames.length; i++) {
+            if (isSet(bits, i)) {
+                properties.add(propertyNames[i]);
+            }
+        }
+
+        return properties.build();
     }
 
     public boolean isUnwrapped(String property) {
-        return unwrappedProperties.contains(property);
+        return isSet(unwrappedProperties, getPropertyIndex(property));
+    }
+
+    private static boolean isSet(long[] bits, int index) {
+        return bits != null && index >= 0 && (bits[index >>> 6] & (1L << index)) != 0;
     }
 }
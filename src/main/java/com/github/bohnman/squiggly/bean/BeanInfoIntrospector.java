@@ -2,12 +2,12 @@ package com.github.bohnman.squiggly.bean;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonUnwrapped;
-import com.github.bohnman.squiggly.config.SquigglyConfig;
-import com.github.bohnman.squiggly.metric.source.GuavaCacheSquigglyMetricsSource;
+import com.github.bohnman.squiggly.config.SquigglyEngineConfig;
+import com.github.bohnman.squiggly.metric.source.ClassLoaderPartitionedCacheSquigglyMetricsSource;
+import com.github.bohnman.squiggly.util.ClassLoaderPartitionedCache;
 import com.github.bohnman.squiggly.view.PropertyView;
-import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
+import com.google.common.cache.Weigher;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
@@ -22,42 +22,146 @@ import java.beans.PropertyDescriptor;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
 
 /**
  * Introspects bean classes, looking for @{@link PropertyView} annotations on fields.
+ * <p>
+ * Classes compiled with the {@link com.github.bohnman.squiggly.bean.processor.BeanInfoProcessor} are described by a
+ * generated {@link BeanInfoTable} instead, which saves reflecting on them the first time they are serialized.
  */
 @ThreadSafe
 public class BeanInfoIntrospector {
 
+    private static final String METRICS_PREFIX = "squiggly.property.descriptorCache.";
+
+    // Estimates the size of a cached bean info in bytes, the class itself isn't counted since it's loaded anyway
+    static final Weigher<Class, BeanInfo> WEIGHER = new Weigher<Class, BeanInfo>() {
+        @Override
+        public int weigh(Class beanClass, BeanInfo beanInfo) {
+            return beanInfo.getEstimatedSize();
+        }
+    };
+
     /**
-     * Caches bean class to a map of views to property views.
+     * Caches bean class to a map of views to property views.  Classes are held weakly and partitioned by class loader,
+     * so that unloading an application's class loader frees its entries.  Shared by introspectors using the default
+     * config.
      */
-    private static final LoadingCache<Class, BeanInfo> CACHE;
-    private static final GuavaCacheSquigglyMetricsSource METRICS_SOURCE;
+    private static final ClassLoaderPartitionedCache<BeanInfo> CACHE;
+    private static final ClassLoaderPartitionedCacheSquigglyMetricsSource METRICS_SOURCE;
 
     static {
-        CACHE = CacheBuilder.from(SquigglyConfig.getPropertyDescriptorCacheSpec())
-                .build(new CacheLoader<Class, BeanInfo>() {
+        CACHE = createCache(SquigglyEngineConfig.getDefault());
+        METRICS_SOURCE = new ClassLoaderPartitionedCacheSquigglyMetricsSource(METRICS_PREFIX, CACHE);
+    }
+
+    private final SquigglyEngineConfig config;
+    private final ClassNormalizer classNormalizer;
+    private final ClassLoaderPartitionedCache<BeanInfo> cache;
+    private final ClassLoaderPartitionedCacheSquigglyMetricsSource metricsSource;
+
+    /**
+     * Constructor that normalizes proxies using a {@link ProxyClassNormalizer}.
+     */
+    public BeanInfoIntrospector() {
+        this(new ProxyClassNormalizer());
+    }
+
+    /**
+     * Constructor that uses the default config and shares the default descriptor cache.
+     *
+     * @param classNormalizer maps runtime classes to the classes they are introspected and cached as
+     */
+    public BeanInfoIntrospector(ClassNormalizer classNormalizer) {
+        this.config = SquigglyEngineConfig.getDefault();
+        this.classNormalizer = classNormalizer;
+        this.cache = CACHE;
+        this.metricsSource = METRICS_SOURCE;
+    }
+
+    /**
+     * Constructor that uses its own descriptor cache, built from the given config.
+     *
+     * @param config          the engine config
+     * @param classNormalizer maps runtime classes to the classes they are introspected and cached as
+     */
+    public BeanInfoIntrospector(SquigglyEngineConfig config, ClassNormalizer classNormalizer) {
+        this.config = config;
+        this.classNormalizer = classNormalizer;
+        this.cache = createCache(config);
+        this.metricsSource = new ClassLoaderPartitionedCacheSquigglyMetricsSource(METRICS_PREFIX, cache);
+    }
+
+    /**
+     * Constructor that shares the config, class normalizer and descriptor cache of another introspector.
+     *
+     * @param introspector the introspector to share with
+     */
+    protected BeanInfoIntrospector(BeanInfoIntrospector introspector) {
+        this.config = introspector.config;
+        this.classNormalizer = introspector.classNormalizer;
+        this.cache = introspector.cache;
+        this.metricsSource = introspector.metricsSource;
+    }
+
+    private static ClassLoaderPartitionedCache<BeanInfo> createCache(final SquigglyEngineConfig config) {
+        return new ClassLoaderPartitionedCache<>(config.getCacheProvider(), config.getPropertyDescriptorCacheSpec(), WEIGHER,
+                new CacheLoader<Class, BeanInfo>() {
                     @Override
                     public BeanInfo load(Class key) throws Exception {
-                        return introspectClass(key);
+                        return introspectClass(key, config);
                     }
                 });
-        METRICS_SOURCE = new GuavaCacheSquigglyMetricsSource("squiggly.property.descriptorCache.", CACHE);
     }
 
-
     public BeanInfo introspect(Class beanClass) {
-        return CACHE.getUnchecked(beanClass);
+        return cache.getUnchecked(normalize(beanClass));
+    }
+
+    /**
+     * Get the config that classes are introspected with.
+     *
+     * @return config
+     */
+    public SquigglyEngineConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * Get the metrics of this introspector's descriptor cache.
+     *
+     * @return metrics source
+     */
+    public ClassLoaderPartitionedCacheSquigglyMetricsSource getCacheMetricsSource() {
+        return metricsSource;
+    }
+
+    /**
+     * Get the class that a runtime class is introspected and cached as.
+     *
+     * @param beanClass the runtime class of a bean
+     * @return normalized class
+     */
+    public Class normalize(Class beanClass) {
+        return classNormalizer.normalize(beanClass);
     }
 
-    private static BeanInfo introspectClass(Class beanClass) {
+    private static BeanInfo introspectClass(Class beanClass, SquigglyEngineConfig config) {
+        BeanInfoTable table = loadTable(beanClass);
 
+        if (table != null) {
+            return introspectTable(table, config);
+        }
+
+        return introspectReflection(beanClass, config);
+    }
+
+    static BeanInfo introspectReflection(Class beanClass, SquigglyEngineConfig config) {
         Map<String, Set<String>> viewToPropertyNames = Maps.newHashMap();
-        Set<String> resolved = Sets.newHashSet();
         Set<String> unwrapped = Sets.newHashSet();
 
         for (PropertyDescriptor propertyDescriptor : getPropertyDescriptors(beanClass)) {
@@ -74,22 +178,70 @@ public class BeanInfoIntrospector {
                 unwrapped.add(propertyName);
             }
 
-            Set<String> views = introspectPropertyViews(propertyDescriptor, field);
+            Set<String> views = introspectPropertyViews(propertyDescriptor, field, config);
+            addPropertyToViews(viewToPropertyNames, propertyName, views);
+        }
 
-            for (String view : views) {
-                Set<String> fieldNames = viewToPropertyNames.get(view);
+        return createBeanInfo(viewToPropertyNames, unwrapped, config);
+    }
 
-                if (fieldNames == null) {
-                    fieldNames = Sets.newHashSet();
-                    viewToPropertyNames.put(view, fieldNames);
-                }
+    // use the table generated at build time, if the bean class was compiled with the BeanInfoProcessor.
+    static BeanInfoTable loadTable(Class beanClass) {
+        ClassLoader classLoader = beanClass.getClassLoader();
+
+        if (classLoader == null || beanClass.isArray() || beanClass.isPrimitive()) {
+            return null;
+        }
+
+        try {
+            Class<?> tableClass = Class.forName(beanClass.getName() + BeanInfoTable.CLASS_NAME_SUFFIX, true, classLoader);
+
+            if (!BeanInfoTable.class.isAssignableFrom(tableClass)) {
+                return null;
+            }
+
+            return (BeanInfoTable) tableClass.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            // not processed, or processed by an incompatible version, so introspect it the slow way
+            return null;
+        }
+    }
+
+    static BeanInfo introspectTable(BeanInfoTable table, SquigglyEngineConfig config) {
+        Map<String, Set<String>> viewToPropertyNames = Maps.newHashMap();
+        Set<String> unwrapped = Sets.newHashSet();
+
+        String[] propertyNames = table.getPropertyNames();
+        String[][] propertyViews = table.getPropertyViews();
+        boolean[] unwrappedProperties = table.getUnwrappedProperties();
 
-                fieldNames.add(propertyName);
+        for (int i = 0; i < propertyNames.length; i++) {
+            if (unwrappedProperties[i]) {
+                unwrapped.add(propertyNames[i]);
             }
+
+            Set<String> views = Sets.newHashSet(propertyViews[i]);
+            addPropertyToViews(viewToPropertyNames, propertyNames[i], applyDefaultView(views, config));
         }
 
+        return createBeanInfo(viewToPropertyNames, unwrapped, config);
+    }
 
-        viewToPropertyNames = makeUnmodifiable(expand(viewToPropertyNames));
+    static void addPropertyToViews(Map<String, Set<String>> viewToPropertyNames, String propertyName, Set<String> views) {
+        for (String view : views) {
+            Set<String> fieldNames = viewToPropertyNames.get(view);
+
+            if (fieldNames == null) {
+                fieldNames = Sets.newHashSet();
+                viewToPropertyNames.put(view, fieldNames);
+            }
+
+            fieldNames.add(propertyName);
+        }
+    }
+
+    static BeanInfo createBeanInfo(Map<String, Set<String>> viewToPropertyNames, Set<String> unwrapped, SquigglyEngineConfig config) {
+        viewToPropertyNames = makeUnmodifiable(expand(viewToPropertyNames, config));
         unwrapped = Collections.unmodifiableSet(unwrapped);
 
         return new BeanInfo(viewToPropertyNames, unwrapped);
@@ -188,7 +340,7 @@ public class BeanInfoIntrospector {
     }
 
     // apply the base fields to other views if configured to do so.
-    private static Map<String, Set<String>> expand(Map<String, Set<String>> viewToPropNames) {
+    private static Map<String, Set<String>> expand(Map<String, Set<String>> viewToPropNames, SquigglyEngineConfig config) {
 
         Set<String> baseProps = viewToPropNames.get(PropertyView.BASE_VIEW);
 
@@ -196,7 +348,7 @@ public class BeanInfoIntrospector {
             baseProps = ImmutableSet.of();
         }
 
-        if (!SquigglyConfig.isFilterImplicitlyIncludeBaseFieldsInView()) {
+        if (!config.isFilterImplicitlyIncludeBaseFieldsInView()) {
 
             // make an exception for full view
             Set<String> fullView = viewToPropNames.get(PropertyView.FULL_VIEW);
@@ -221,7 +373,7 @@ public class BeanInfoIntrospector {
     }
 
     // grab all the PropertyView (or derived) annotations and return their view names.
-    private static Set<String> introspectPropertyViews(PropertyDescriptor propertyDescriptor, Field field) {
+    private static Set<String> introspectPropertyViews(PropertyDescriptor propertyDescriptor, Field field, SquigglyEngineConfig config) {
 
         Set<String> views = Sets.newHashSet();
 
@@ -237,7 +389,11 @@ public class BeanInfoIntrospector {
             applyPropertyViews(views, field.getAnnotations());
         }
 
-        if (views.isEmpty() && SquigglyConfig.isPropertyAddNonAnnotatedFieldsToBaseView()) {
+        return applyDefaultView(views, config);
+    }
+
+    static Set<String> applyDefaultView(Set<String> views, SquigglyEngineConfig config) {
+        if (views.isEmpty() && config.isPropertyAddNonAnnotatedFieldsToBaseView()) {
             return Collections.singleton(PropertyView.BASE_VIEW);
         }
 
@@ -245,6 +401,10 @@ public class BeanInfoIntrospector {
     }
 
     private static void applyPropertyViews(Set<String> views, Annotation[] annotations) {
+        applyPropertyViews(views, Arrays.asList(annotations));
+    }
+
+    static void applyPropertyViews(Set<String> views, Iterable<Annotation> annotations) {
         for (Annotation ann : annotations) {
             if (ann instanceof PropertyView) {
                 views.addAll(Lists.newArrayList(((PropertyView) ann).value()));
@@ -258,7 +418,12 @@ public class BeanInfoIntrospector {
         }
     }
 
-    public static GuavaCacheSquigglyMetricsSource getMetricsSource() {
+    /**
+     * Get the metrics of the descriptor cache shared by introspectors using the default config.
+     *
+     * @return metrics source
+     */
+    public static ClassLoaderPartitionedCacheSquigglyMetricsSource getMetricsSource() {
         return METRICS_SOURCE;
     }
 }
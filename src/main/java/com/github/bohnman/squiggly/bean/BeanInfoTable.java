@@ -0,0 +1,39 @@
+package com.github.bohnman.squiggly.bean;
+
+/**
+ * The properties of a bean class as they were read at build time by the
+ * {@link com.github.bohnman.squiggly.bean.processor.BeanInfoProcessor}.
+ * <p>
+ * Implementations are generated next to the bean class, named after it with the {@link #CLASS_NAME_SUFFIX} appended.
+ * The tables only hold the declared annotations, the configured defaults are applied by the {@link BeanInfoIntrospector}
+ * when the table is loaded.
+ */
+public interface BeanInfoTable {
+
+    /**
+     * Appended to the binary name of a bean class to get the name of its table.
+     */
+    String CLASS_NAME_SUFFIX = "_SquigglyBeanInfo";
+
+    /**
+     * Get the names of the properties, taking @JsonProperty into account.
+     *
+     * @return property names
+     */
+    String[] getPropertyNames();
+
+    /**
+     * Get the views declared on each property, in the same order as the property names.  A property without any
+     * view annotations has an empty array.
+     *
+     * @return property views
+     */
+    String[][] getPropertyViews();
+
+    /**
+     * Get whether each property is annotated with @JsonUnwrapped, in the same order as the property names.
+     *
+     * @return unwrapped flags
+     */
+    boolean[] getUnwrappedProperties();
+}
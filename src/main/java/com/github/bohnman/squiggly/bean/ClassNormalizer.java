@@ -0,0 +1,20 @@
+package com.github.bohnman.squiggly.bean;
+
+/**
+ * Maps the runtime class of a bean to the class it should be introspected and cached as.
+ * <p>
+ * This lets proxies generated at runtime, such as lazy loading proxies of ORM frameworks, share the cache entries of
+ * the class they proxy instead of each one getting its own.
+ *
+ * @see ProxyClassNormalizer
+ */
+public interface ClassNormalizer {
+
+    /**
+     * Get the class to use in place of the given class.
+     *
+     * @param beanClass the runtime class of a bean
+     * @return the normalized class, which may be the same class
+     */
+    Class normalize(Class beanClass);
+}
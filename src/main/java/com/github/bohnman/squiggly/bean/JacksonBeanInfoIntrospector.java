@@ -0,0 +1,140 @@
+package com.github.bohnman.squiggly.bean;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.introspect.AnnotatedMember;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.DefaultSerializerProvider;
+import com.fasterxml.jackson.databind.ser.PropertyWriter;
+import com.fasterxml.jackson.databind.ser.std.BeanSerializerBase;
+import com.github.bohnman.squiggly.util.ClassLoaderPartitionedCache;
+import com.github.bohnman.squiggly.view.PropertyView;
+import com.google.common.cache.CacheLoader;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import net.jcip.annotations.ThreadSafe;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Introspects bean classes using the metadata Jackson has already computed for an ObjectMapper, instead of reflecting
+ * on each class a second time.
+ * <p>
+ * The properties of a class are read from the bean serializer the mapper uses for it, so property names follow the
+ * mapper's naming strategy and mix-ins are taken into account.  Jackson merges the annotations of a property's getter,
+ * field and setter, so when more than one of them has the same @{@link PropertyView} annotation, only the getter's
+ * counts, or else the field's.  Classes that aren't serialized as beans are introspected with reflection.
+ * <p>
+ * Since the metadata belongs to a mapper, each instance has its own cache.
+ */
+@ThreadSafe
+public class JacksonBeanInfoIntrospector extends BeanInfoIntrospector {
+
+    private final ObjectMapper mapper;
+    private final ClassLoaderPartitionedCache<BeanInfo> cache;
+
+    /**
+     * Constructor.
+     *
+     * @param mapper the Jackson Object Mapper whose metadata is used
+     */
+    public JacksonBeanInfoIntrospector(ObjectMapper mapper) {
+        this(mapper, new ProxyClassNormalizer());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param mapper          the Jackson Object Mapper whose metadata is used
+     * @param classNormalizer maps runtime classes to the classes they are introspected and cached as
+     */
+    public JacksonBeanInfoIntrospector(ObjectMapper mapper, ClassNormalizer classNormalizer) {
+        super(classNormalizer);
+        this.mapper = mapper;
+        this.cache = createMetadataCache();
+    }
+
+    /**
+     * Constructor that takes its config and class normalizer from a reflection-based introspector, which also
+     * introspects and caches the classes that aren't serialized as beans.
+     *
+     * @param mapper       the Jackson Object Mapper whose metadata is used
+     * @param introspector the reflection-based introspector
+     */
+    public JacksonBeanInfoIntrospector(ObjectMapper mapper, BeanInfoIntrospector introspector) {
+        super(introspector);
+        this.mapper = mapper;
+        this.cache = createMetadataCache();
+    }
+
+    private ClassLoaderPartitionedCache<BeanInfo> createMetadataCache() {
+        return new ClassLoaderPartitionedCache<>(getConfig().getCacheProvider(), getConfig().getPropertyDescriptorCacheSpec(), WEIGHER,
+                new CacheLoader<Class, BeanInfo>() {
+                    @Override
+                    public BeanInfo load(Class key) throws Exception {
+                        return introspectMetadata(key);
+                    }
+                });
+    }
+
+    @Override
+    public BeanInfo introspect(Class beanClass) {
+        return cache.getUnchecked(normalize(beanClass));
+    }
+
+    BeanInfo introspectMetadata(Class beanClass) {
+        JsonSerializer<Object> serializer = findSerializer(beanClass);
+
+        if (!(serializer instanceof BeanSerializerBase)) {
+            return super.introspect(beanClass);
+        }
+
+        Map<String, Set<String>> viewToPropertyNames = Maps.newHashMap();
+        Set<String> unwrapped = Sets.newHashSet();
+
+        for (Iterator<PropertyWriter> iterator = serializer.properties(); iterator.hasNext(); ) {
+            PropertyWriter writer = iterator.next();
+            Set<String> views = Sets.newHashSet();
+
+            if (writer instanceof BeanPropertyWriter) {
+                BeanPropertyWriter beanWriter = (BeanPropertyWriter) writer;
+                AnnotatedMember member = beanWriter.getMember();
+
+                if (member != null) {
+                    applyPropertyViews(views, member.annotations());
+                }
+
+                if (beanWriter.isUnwrapping() || (member != null && member.hasAnnotation(JsonUnwrapped.class))) {
+                    unwrapped.add(writer.getName());
+                }
+            }
+
+            addPropertyToViews(viewToPropertyNames, writer.getName(), applyDefaultView(views, getConfig()));
+        }
+
+        return createBeanInfo(viewToPropertyNames, unwrapped, getConfig());
+    }
+
+    // the serializers are shared by all providers of the mapper, so this normally finds the one already in use
+    private JsonSerializer<Object> findSerializer(Class beanClass) {
+        SerializerProvider serializerProvider = mapper.getSerializerProvider();
+
+        if (!(serializerProvider instanceof DefaultSerializerProvider)) {
+            return null;
+        }
+
+        DefaultSerializerProvider provider = ((DefaultSerializerProvider) serializerProvider)
+                .createInstance(mapper.getSerializationConfig(), mapper.getSerializerFactory());
+
+        try {
+            return provider.findValueSerializer(beanClass, null);
+        } catch (JsonMappingException e) {
+            return null;
+        }
+    }
+}
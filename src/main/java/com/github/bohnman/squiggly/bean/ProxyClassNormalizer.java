@@ -0,0 +1,69 @@
+package com.github.bohnman.squiggly.bean;
+
+import net.jcip.annotations.ThreadSafe;
+
+/**
+ * Normalizes proxy subclasses to the class they proxy, recognizing them by the names that common proxy libraries give
+ * their classes.
+ * <p>
+ * It recognizes CGLIB and Spring (Foo$$EnhancerBySpringCGLIB$$1a2b), Javassist (Foo_$$_javassist_1, Foo_$$_jvst1a2b),
+ * ByteBuddy (Foo$ByteBuddy$1a2b), Hibernate (Foo$HibernateProxy$1a2b) and Mockito (Foo$MockitoMock$1a2b) proxies.  The
+ * result is computed once per class.
+ */
+@ThreadSafe
+public class ProxyClassNormalizer implements ClassNormalizer {
+
+    private static final String[] PROXY_MARKERS = {"$$", "$ByteBuddy$", "$HibernateProxy$", "$MockitoMock$"};
+
+    private final ClassValue<Class> normalizedClasses = new ClassValue<Class>() {
+        @Override
+        protected Class computeValue(Class<?> type) {
+            return findProxiedClass(type);
+        }
+    };
+
+    @Override
+    public Class normalize(Class beanClass) {
+        return normalizedClasses.get(beanClass);
+    }
+
+    private Class findProxiedClass(Class beanClass) {
+        Class current = beanClass;
+
+        while (isProxy(current)) {
+            Class superclass = current.getSuperclass();
+
+            // not a subclass proxy, e.g. a lambda
+            if (superclass == null || superclass == Object.class) {
+                return beanClass;
+            }
+
+            current = superclass;
+        }
+
+        return current;
+    }
+
+    /**
+     * Says whether a class is a proxy that should be normalized to its superclass.
+     *
+     * @param beanClass the class
+     * @return true if a proxy, false if not
+     */
+    protected boolean isProxy(Class beanClass) {
+        String name = beanClass.getName();
+
+        // scala names anonymous classes this way
+        if (name.contains("$$anon")) {
+            return false;
+        }
+
+        for (String marker : PROXY_MARKERS) {
+            if (name.contains(marker)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
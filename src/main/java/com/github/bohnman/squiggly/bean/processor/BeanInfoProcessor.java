@@ -0,0 +1,453 @@
+package com.github.bohnman.squiggly.bean.processor;
+
+import com.github.bohnman.squiggly.bean.BeanInfoTable;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Annotation processor that generates a {@link BeanInfoTable} for each bean class whose properties are annotated
+ * with @PropertyView, @JsonProperty or @JsonUnwrapped, including properties it inherits.
+ * <p>
+ * Properties are found with the same JavaBeans naming rules that the {@link java.beans.Introspector} applies at runtime,
+ * and their annotations are read from the getter, the setter and the field of the same name.  Only annotations that are
+ * retained at runtime count, since the introspector would not see any others.
+ * <p>
+ * The processor isn't registered as a service, it has to be named explicitly, e.g. with javac's -processor option or
+ * the annotationProcessors setting of the maven compiler plugin.
+ */
+@SupportedAnnotationTypes("*")
+public class BeanInfoProcessor extends AbstractProcessor {
+
+    private static final String PROPERTY_VIEW = "com.github.bohnman.squiggly.view.PropertyView";
+    private static final String JSON_PROPERTY = "com.fasterxml.jackson.annotation.JsonProperty";
+    private static final String JSON_UNWRAPPED = "com.fasterxml.jackson.annotation.JsonUnwrapped";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement type : ElementFilter.typesIn(roundEnv.getRootElements())) {
+            processType(type);
+        }
+
+        return false;
+    }
+
+    private void processType(TypeElement type) {
+        for (TypeElement nested : ElementFilter.typesIn(type.getEnclosedElements())) {
+            processType(nested);
+        }
+
+        if (type.getKind() != ElementKind.CLASS
+                || type.getModifiers().contains(Modifier.ABSTRACT)
+                || type.getQualifiedName().toString().endsWith(BeanInfoTable.CLASS_NAME_SUFFIX)) {
+            return;
+        }
+
+        List<Property> properties = getProperties(type);
+
+        if (!isAnnotated(properties)) {
+            return;
+        }
+
+        try {
+            writeTable(type, properties);
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Unable to write bean info table: " + e.getMessage(), type);
+        }
+    }
+
+    private boolean isAnnotated(List<Property> properties) {
+        for (Property property : properties) {
+            if (!property.views.isEmpty() || property.unwrapped || !property.name.equals(property.descriptorName)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    // mirrors java.beans.Introspector: public instance getters and setters of the class and its superclasses
+    private List<Property> getProperties(TypeElement type) {
+        Map<String, ExecutableElement> readMethods = new LinkedHashMap<>();
+        Map<String, List<ExecutableElement>> writeMethods = new LinkedHashMap<>();
+        Set<String> seenSignatures = new LinkedHashSet<>();
+
+        for (TypeElement current = type; current != null; current = getSuperclass(current)) {
+            for (ExecutableElement method : ElementFilter.methodsIn(current.getEnclosedElements())) {
+                Set<Modifier> modifiers = method.getModifiers();
+
+                if (!modifiers.contains(Modifier.PUBLIC) || modifiers.contains(Modifier.STATIC)) {
+                    continue;
+                }
+
+                // the most derived declaration wins, as that is the method reflection returns
+                if (!seenSignatures.add(getSignature(method))) {
+                    continue;
+                }
+
+                addAccessor(method, readMethods, writeMethods);
+            }
+        }
+
+        List<Property> properties = new ArrayList<>();
+
+        for (Map.Entry<String, ExecutableElement> entry : readMethods.entrySet()) {
+            String descriptorName = entry.getKey();
+            ExecutableElement readMethod = entry.getValue();
+            ExecutableElement writeMethod = findWriteMethod(readMethod, writeMethods.get(descriptorName));
+            VariableElement field = findField((TypeElement) readMethod.getEnclosingElement(), descriptorName);
+
+            List<Element> elements = new ArrayList<>(3);
+            elements.add(readMethod);
+
+            if (writeMethod != null) {
+                elements.add(writeMethod);
+            }
+
+            if (field != null) {
+                elements.add(field);
+            }
+
+            properties.add(new Property(descriptorName, getPropertyName(descriptorName, elements), getViews(elements), isUnwrapped(elements)));
+        }
+
+        return properties;
+    }
+
+    private void addAccessor(ExecutableElement method, Map<String, ExecutableElement> readMethods, Map<String, List<ExecutableElement>> writeMethods) {
+        String name = method.getSimpleName().toString();
+        int parameterCount = method.getParameters().size();
+        TypeKind returnKind = method.getReturnType().getKind();
+
+        if (parameterCount == 0 && name.startsWith("get") && name.length() > 3 && returnKind != TypeKind.VOID) {
+            String descriptorName = decapitalize(name.substring(3));
+            ExecutableElement existing = readMethods.get(descriptorName);
+
+            // boolean "is" getters take precedence over "get" getters
+            if (existing == null || !existing.getSimpleName().toString().startsWith("is")) {
+                readMethods.put(descriptorName, method);
+            }
+        } else if (parameterCount == 0 && name.startsWith("is") && name.length() > 2 && returnKind == TypeKind.BOOLEAN) {
+            readMethods.put(decapitalize(name.substring(2)), method);
+        } else if (parameterCount == 1 && name.startsWith("set") && name.length() > 3 && returnKind == TypeKind.VOID) {
+            String descriptorName = decapitalize(name.substring(3));
+            List<ExecutableElement> methods = writeMethods.get(descriptorName);
+
+            if (methods == null) {
+                methods = new ArrayList<>();
+                writeMethods.put(descriptorName, methods);
+            }
+
+            methods.add(method);
+        }
+    }
+
+    private ExecutableElement findWriteMethod(ExecutableElement readMethod, List<ExecutableElement> candidates) {
+        if (candidates == null) {
+            return null;
+        }
+
+        Types types = processingEnv.getTypeUtils();
+        TypeMirror propertyType = types.erasure(readMethod.getReturnType());
+
+        for (ExecutableElement candidate : candidates) {
+            if (types.isSameType(propertyType, types.erasure(candidate.getParameters().get(0).asType()))) {
+                return candidate;
+            }
+        }
+
+        return null;
+    }
+
+    // mirrors FieldUtils.getField: the declaring class and its superclasses, then their interfaces
+    private VariableElement findField(TypeElement declaringType, String name) {
+        List<TypeElement> interfaces = new ArrayList<>();
+
+        for (TypeElement current = declaringType; current != null; current = getSuperclass(current)) {
+            VariableElement field = findDeclaredField(current, name);
+
+            if (field != null) {
+                return field;
+            }
+
+            addInterfaces(current, interfaces);
+        }
+
+        for (TypeElement iface : interfaces) {
+            VariableElement field = findDeclaredField(iface, name);
+
+            if (field != null) {
+                return field;
+            }
+        }
+
+        return null;
+    }
+
+    private VariableElement findDeclaredField(TypeElement type, String name) {
+        for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+            if (field.getSimpleName().contentEquals(name)) {
+                return field;
+            }
+        }
+
+        return null;
+    }
+
+    private void addInterfaces(TypeElement type, List<TypeElement> interfaces) {
+        for (TypeMirror mirror : type.getInterfaces()) {
+            TypeElement iface = (TypeElement) processingEnv.getTypeUtils().asElement(mirror);
+
+            if (iface != null && !interfaces.contains(iface)) {
+                interfaces.add(iface);
+                addInterfaces(iface, interfaces);
+            }
+        }
+    }
+
+    private TypeElement getSuperclass(TypeElement type) {
+        TypeMirror superclass = type.getSuperclass();
+
+        if (superclass.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+
+        return (TypeElement) ((DeclaredType) superclass).asElement();
+    }
+
+    private String getSignature(ExecutableElement method) {
+        StringBuilder signature = new StringBuilder(method.getSimpleName());
+        Types types = processingEnv.getTypeUtils();
+
+        for (VariableElement parameter : method.getParameters()) {
+            signature.append(',').append(types.erasure(parameter.asType()));
+        }
+
+        return signature.toString();
+    }
+
+    private String getPropertyName(String descriptorName, List<Element> elements) {
+        for (Element element : elements) {
+            for (AnnotationMirror annotation : getRuntimeAnnotations(element)) {
+                String propertyName = getJsonPropertyName(annotation);
+
+                if (propertyName != null) {
+                    return propertyName;
+                }
+
+                for (AnnotationMirror metaAnnotation : getRuntimeAnnotations(annotation.getAnnotationType().asElement())) {
+                    propertyName = getJsonPropertyName(metaAnnotation);
+
+                    if (propertyName != null) {
+                        return propertyName;
+                    }
+                }
+            }
+        }
+
+        return descriptorName;
+    }
+
+    private String getJsonPropertyName(AnnotationMirror annotation) {
+        if (!isType(annotation, JSON_PROPERTY)) {
+            return null;
+        }
+
+        Object value = getValue(annotation);
+        return (value == null || value.toString().isEmpty()) ? null : value.toString();
+    }
+
+    private Set<String> getViews(List<Element> elements) {
+        Set<String> views = new LinkedHashSet<>();
+
+        for (Element element : elements) {
+            for (AnnotationMirror annotation : getRuntimeAnnotations(element)) {
+                addViews(views, annotation);
+
+                for (AnnotationMirror metaAnnotation : getRuntimeAnnotations(annotation.getAnnotationType().asElement())) {
+                    addViews(views, metaAnnotation);
+                }
+            }
+        }
+
+        return views;
+    }
+
+    private void addViews(Set<String> views, AnnotationMirror annotation) {
+        if (!isType(annotation, PROPERTY_VIEW)) {
+            return;
+        }
+
+        Object value = getValue(annotation);
+
+        if (value instanceof List) {
+            for (Object view : (List<?>) value) {
+                views.add(((AnnotationValue) view).getValue().toString());
+            }
+        } else if (value != null) {
+            views.add(value.toString());
+        }
+    }
+
+    private boolean isUnwrapped(List<Element> elements) {
+        for (Element element : elements) {
+            for (AnnotationMirror annotation : getRuntimeAnnotations(element)) {
+                if (isType(annotation, JSON_UNWRAPPED)) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    private List<AnnotationMirror> getRuntimeAnnotations(Element element) {
+        List<AnnotationMirror> annotations = new ArrayList<>();
+
+        for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+            Retention retention = annotation.getAnnotationType().asElement().getAnnotation(Retention.class);
+
+            if (retention != null && retention.value() == RetentionPolicy.RUNTIME) {
+                annotations.add(annotation);
+            }
+        }
+
+        return annotations;
+    }
+
+    private boolean isType(AnnotationMirror annotation, String typeName) {
+        return ((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName().contentEquals(typeName);
+    }
+
+    private Object getValue(AnnotationMirror annotation) {
+        Elements elements = processingEnv.getElementUtils();
+
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : elements.getElementValuesWithDefaults(annotation).entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals("value")) {
+                return entry.getValue().getValue();
+            }
+        }
+
+        return null;
+    }
+
+    private void writeTable(TypeElement type, List<Property> properties) throws IOException {
+        Elements elements = processingEnv.getElementUtils();
+        String packageName = elements.getPackageOf(type).getQualifiedName().toString();
+        String binaryName = elements.getBinaryName(type).toString();
+        String tableName = binaryName + BeanInfoTable.CLASS_NAME_SUFFIX;
+        String simpleName = packageName.isEmpty() ? tableName : tableName.substring(packageName.length() + 1);
+
+        List<String> propertyNames = new ArrayList<>();
+        List<String> propertyViews = new ArrayList<>();
+        List<String> unwrapped = new ArrayList<>();
+
+        for (Property property : properties) {
+            propertyNames.add(elements.getConstantExpression(property.name));
+            propertyViews.add("{" + join(quote(property.views)) + "}");
+            unwrapped.add(String.valueOf(property.unwrapped));
+        }
+
+        try (Writer writer = processingEnv.getFiler().createSourceFile(tableName, type).openWriter()) {
+            if (!packageName.isEmpty()) {
+                writer.write("package " + packageName + ";\n\n");
+            }
+
+            writer.write("/**\n * Bean info table for {@link " + type.getQualifiedName() + "}, generated by " + getClass().getName() + ".\n */\n");
+            writer.write("public final class " + simpleName + " implements " + BeanInfoTable.class.getName() + " {\n");
+            writeMethod(writer, "String[]", "getPropertyNames", "new String[]{" + join(propertyNames) + "}");
+            writeMethod(writer, "String[][]", "getPropertyViews", "new String[][]{" + join(propertyViews) + "}");
+            writeMethod(writer, "boolean[]", "getUnwrappedProperties", "new boolean[]{" + join(unwrapped) + "}");
+            writer.write("}\n");
+        }
+    }
+
+    private void writeMethod(Writer writer, String returnType, String name, String expression) throws IOException {
+        writer.write("\n    @Override\n");
+        writer.write("    public " + returnType + " " + name + "() {\n");
+        writer.write("        return " + expression + ";\n");
+        writer.write("    }\n");
+    }
+
+    private List<String> quote(Collection<String> values) {
+        List<String> quoted = new ArrayList<>(values.size());
+
+        for (String value : values) {
+            quoted.add(processingEnv.getElementUtils().getConstantExpression(value));
+        }
+
+        return quoted;
+    }
+
+    private static String join(List<String> values) {
+        StringBuilder builder = new StringBuilder();
+
+        for (String value : values) {
+            if (builder.length() > 0) {
+                builder.append(", ");
+            }
+
+            builder.append(value);
+        }
+
+        return builder.toString();
+    }
+
+    // same as java.beans.Introspector.decapitalize
+    private static String decapitalize(String name) {
+        if (name.length() > 1 && Character.isUpperCase(name.charAt(1)) && Character.isUpperCase(name.charAt(0))) {
+            return name;
+        }
+
+        char[] chars = name.toCharArray();
+        chars[0] = Character.toLowerCase(chars[0]);
+        return new String(chars);
+    }
+
+    private static class Property {
+        private final String descriptorName;
+        private final String name;
+        private final Set<String> views;
+        private final boolean unwrapped;
+
+        Property(String descriptorName, String name, Set<String> views, boolean unwrapped) {
+            this.descriptorName = descriptorName;
+            this.name = name;
+            this.views = views;
+            this.unwrapped = unwrapped;
+        }
+    }
+}
@@ -1,12 +1,16 @@
 package com.github.bohnman.squiggly.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.bohnman.squiggly.util.GuavaSquigglyCacheProvider;
+import com.github.bohnman.squiggly.util.SquigglyCacheProvider;
 import com.github.bohnman.squiggly.util.SquigglyUtils;
+import com.github.bohnman.squiggly.util.TinyLfuSquigglyCacheProvider;
 import com.github.bohnman.squiggly.bean.BeanInfoIntrospector;
 import com.google.common.cache.CacheBuilderSpec;
 import com.google.common.collect.ImmutableSortedMap;
 import com.google.common.collect.Maps;
 import net.jcip.annotations.ThreadSafe;
+import org.apache.commons.lang3.StringUtils;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -26,15 +30,28 @@ public class SquigglyConfig {
     private static final SortedMap<String, String> PROPS_MAP;
     private static final SortedMap<String, String> SOURCE_MAP;
 
+    private static final SquigglyCacheProvider cacheProvider;
+
     private static final boolean filterImplicitlyIncludeBaseFields;
     private static final boolean filterImplicitlyIncludeBaseFieldsInView;
+    private static final CacheBuilderSpec filterLocalPathCacheSpec;
     private static final CacheBuilderSpec filterPathCacheSpec;
     private static final boolean filterPropagateViewToNestedFilters;
-
+    private static final boolean filterPruneBeanProperties;
+    private static final boolean filterTransitionTables;
+
+    private static final int parserCompileThreshold;
+    private static final int parserMaxBreadth;
+    private static final int parserMaxDepth;
+    private static final int parserMaxFieldCount;
+    private static final int parserMaxLength;
+    private static final int parserMaxRegexCount;
     private static final CacheBuilderSpec parserNodeCacheSpec;
+    private static final String parserOverLimitFilter;
 
     private static boolean propertyAddNonAnnotatedFieldsToBaseView;
     private static final CacheBuilderSpec propertyDescriptorCacheSpec;
+    private static final boolean propertyUseJacksonMetadata;
 
     static {
         Map<String, String> propsMap = Maps.newHashMap();
@@ -46,16 +63,28 @@ public class SquigglyConfig {
         PROPS_MAP = ImmutableSortedMap.copyOf(propsMap);
         SOURCE_MAP = ImmutableSortedMap.copyOf(sourceMap);
 
+        cacheProvider = getCacheProvider(PROPS_MAP, "cache.provider");
         filterImplicitlyIncludeBaseFields = getBool(PROPS_MAP, "filter.implicitlyIncludeBaseFields");
         filterImplicitlyIncludeBaseFieldsInView = getBool(PROPS_MAP, "filter.implicitlyIncludeBaseFieldsInView");
+        filterLocalPathCacheSpec = getCacheSpec(PROPS_MAP, "filter.localPathCache.spec");
         filterPathCacheSpec = getCacheSpec(PROPS_MAP, "filter.pathCache.spec");
         filterPropagateViewToNestedFilters = getBool(PROPS_MAP, "filter.propagateViewToNestedFilters");
+        filterPruneBeanProperties = getBool(PROPS_MAP, "filter.pruneBeanProperties");
+        filterTransitionTables = getBool(PROPS_MAP, "filter.transitionTables");
+        parserCompileThreshold = getInt(PROPS_MAP, "parser.compileThreshold");
+        parserMaxBreadth = getInt(PROPS_MAP, "parser.maxBreadth");
+        parserMaxDepth = getInt(PROPS_MAP, "parser.maxDepth");
+        parserMaxFieldCount = getInt(PROPS_MAP, "parser.maxFieldCount");
+        parserMaxLength = getInt(PROPS_MAP, "parser.maxLength");
+        parserMaxRegexCount = getInt(PROPS_MAP, "parser.maxRegexCount");
         parserNodeCacheSpec = getCacheSpec(PROPS_MAP, "parser.nodeCache.spec");
+        parserOverLimitFilter = StringUtils.trimToEmpty(PROPS_MAP.get("parser.overLimitFilter"));
         propertyAddNonAnnotatedFieldsToBaseView = getBool(PROPS_MAP, "property.addNonAnnotatedFieldsToBaseView");
         propertyDescriptorCacheSpec = getCacheSpec(PROPS_MAP, "property.descriptorCache.spec");
+        propertyUseJacksonMetadata = getBool(PROPS_MAP, "property.useJacksonMetadata");
     }
 
-    private static CacheBuilderSpec getCacheSpec(Map<String, String> props, String key) {
+    static CacheBuilderSpec getCacheSpec(Map<String, String> props, String key) {
         String value = props.get(key);
 
         if (value == null) {
@@ -65,11 +94,29 @@ public class SquigglyConfig {
         return CacheBuilderSpec.parse(value);
     }
 
-    private static boolean getBool(Map<String, String> props, String key) {
+    static SquigglyCacheProvider getCacheProvider(Map<String, String> props, String key) {
+        String value = StringUtils.trimToEmpty(props.get(key));
+
+        if (value.isEmpty() || value.equals("guava")) {
+            return new GuavaSquigglyCacheProvider();
+        }
+
+        if (value.equals("tinyLfu")) {
+            return new TinyLfuSquigglyCacheProvider();
+        }
+
+        try {
+            return (SquigglyCacheProvider) Class.forName(value, true, Thread.currentThread().getContextClassLoader()).getConstructor().newInstance();
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            throw new RuntimeException("Unable to create cache provider " + value + " for key " + key, e);
+        }
+    }
+
+    static boolean getBool(Map<String, String> props, String key) {
         return "true".equals(props.get(key));
     }
 
-    private static int getInt(Map<String, String> props, String key) {
+    static int getInt(Map<String, String> props, String key) {
         try {
             return Integer.parseInt(props.get(key));
         } catch (NumberFormatException e) {
@@ -113,6 +160,16 @@ public class SquigglyConfig {
     private SquigglyConfig() {
     }
 
+    /**
+     * Get the provider that creates the caches of the parser and the property view introspector.
+     *
+     * @return cache provider
+     * @see SquigglyCacheProvider
+     */
+    public static SquigglyCacheProvider getCacheProvider() {
+        return cacheProvider;
+    }
+
     /**
      * Determines whether or not to include base fields for nested objects
      *
@@ -132,6 +189,17 @@ public class SquigglyConfig {
         return filterImplicitlyIncludeBaseFieldsInView;
     }
 
+    /**
+     * Get the {@link CacheBuilderSpec} of the per-thread path cache that sits in front of the path cache in the squiggly
+     * filter.  Only the maximumSize, which applies to each thread, is used.
+     *
+     * @return spec
+     * @see com.github.bohnman.squiggly.filter.SquigglyPropertyFilter
+     */
+    public static CacheBuilderSpec getFilterLocalPathCacheSpec() {
+        return filterLocalPathCacheSpec;
+    }
+
     /**
      * Get the {@link CacheBuilderSpec} of the path cache in the squiggly filter.
      *
@@ -154,6 +222,96 @@ public class SquigglyConfig {
         return filterPropagateViewToNestedFilters;
     }
 
+    /**
+     * Determines whether or not {@link com.github.bohnman.squiggly.Squiggly#init} registers serializers that resolve
+     * the included properties of a bean up front, so that excluded properties are never visited.
+     *
+     * @return true if prunes, false if not
+     * @see com.github.bohnman.squiggly.filter.SquigglyBeanSerializerModifier
+     */
+    public static boolean isFilterPruneBeanProperties() {
+        return filterPruneBeanProperties;
+    }
+
+    /**
+     * Determines whether or not the states of compiled filters keep a table of their transitions for each bean class
+     * they see, so that filtering a property of a popular filter is an array lookup.  When off, or for filters that
+     * aren't compiled yet, transitions go through the path cache.
+     *
+     * @return true if tables are built, false if not
+     * @see com.github.bohnman.squiggly.automaton.SquigglyState#nextFromTable
+     */
+    public static boolean isFilterTransitionTables() {
+        return filterTransitionTables;
+    }
+
+    /**
+     * Get the number of serializations that use a filter before its automaton is compiled completely in the
+     * background.  Until then, the automaton works out the states of a filter as they're reached.  A value of 0 or less
+     * compiles every filter up front.
+     *
+     * @return threshold
+     * @see com.github.bohnman.squiggly.automaton.SquigglyAutomatonCompiler
+     */
+    public static int getParserCompileThreshold() {
+        return parserCompileThreshold;
+    }
+
+    /**
+     * Get the maximum number of fields directly inside a nested filter, or at the top level of a filter.  A value of 0
+     * or less means no limit.
+     *
+     * @return limit
+     * @see #getParserOverLimitFilter()
+     */
+    public static int getParserMaxBreadth() {
+        return parserMaxBreadth;
+    }
+
+    /**
+     * Get the maximum depth of a filter, counting both nested filters and dot paths, e.g. a{b.c} has a depth of 3.  A
+     * value of 0 or less means no limit.
+     *
+     * @return limit
+     * @see #getParserOverLimitFilter()
+     */
+    public static int getParserMaxDepth() {
+        return parserMaxDepth;
+    }
+
+    /**
+     * Get the maximum number of fields a filter may expand to, counting each copy a field list makes of its nested
+     * filter, e.g. (a|b){c,d} expands to 6 fields.  A value of 0 or less means no limit.
+     *
+     * @return limit
+     * @see #getParserOverLimitFilter()
+     */
+    public static int getParserMaxFieldCount() {
+        return parserMaxFieldCount;
+    }
+
+    /**
+     * Get the maximum length of a filter, which is checked before the filter is looked up in the node cache.  A value
+     * of 0 or less means no limit.
+     *
+     * @return limit
+     * @see #getParserOverLimitFilter()
+     */
+    public static int getParserMaxLength() {
+        return parserMaxLength;
+    }
+
+    /**
+     * Get the maximum number of regex fields in a filter, counting each copy a field list makes of its nested filter.
+     * A value of 0 or less means no limit.
+     *
+     * @return limit
+     * @see #getParserOverLimitFilter()
+     */
+    public static int getParserMaxRegexCount() {
+        return parserMaxRegexCount;
+    }
+
     /**
      * Get the {@link CacheBuilderSpec} of the node cache in the squiggly parser.
      *
@@ -164,6 +322,16 @@ public class SquigglyConfig {
         return parserNodeCacheSpec;
     }
 
+    /**
+     * Get the filter that the parser uses in place of a filter that exceeds one of its limits, e.g. base.  When empty,
+     * such filters are rejected with a {@link com.github.bohnman.squiggly.parser.SquigglyFilterLimitException}.
+     *
+     * @return filter, empty to reject
+     */
+    public static String getParserOverLimitFilter() {
+        return parserOverLimitFilter;
+    }
+
     /**
      * Determines whether or not non-annotated fields are added to the "base" view.
      *
@@ -184,6 +352,17 @@ public class SquigglyConfig {
         return propertyDescriptorCacheSpec;
     }
 
+    /**
+     * Determines whether or not bean classes are introspected using the metadata of the ObjectMapper's serializers
+     * rather than reflection.
+     *
+     * @return true/false
+     * @see com.github.bohnman.squiggly.bean.JacksonBeanInfoIntrospector
+     */
+    public static boolean isPropertyUseJacksonMetadata() {
+        return propertyUseJacksonMetadata;
+    }
+
     /**
      * Gets all the config as a map.
      *
@@ -0,0 +1,427 @@
+package com.github.bohnman.squiggly.config;
+
+import com.github.bohnman.squiggly.util.SquigglyCacheProvider;
+import com.google.common.cache.CacheBuilderSpec;
+import com.google.common.collect.ImmutableSortedMap;
+import net.jcip.annotations.ThreadSafe;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * The configuration of a single {@link com.github.bohnman.squiggly.SquigglyEngine}.
+ * <p>
+ * A config starts out as the classpath configuration described by {@link SquigglyConfig} and takes the same keys, so
+ * each engine only needs to override the values it wants to change.  Configs are immutable.
+ */
+@ThreadSafe
+public class SquigglyEngineConfig {
+
+    private static final SquigglyEngineConfig DEFAULT = new DefaultConfig();
+
+    private final SortedMap<String, String> props;
+
+    private final SquigglyCacheProvider cacheProvider;
+
+    private final boolean filterImplicitlyIncludeBaseFields;
+    private final boolean filterImplicitlyIncludeBaseFieldsInView;
+    private final CacheBuilderSpec filterLocalPathCacheSpec;
+    private final CacheBuilderSpec filterPathCacheSpec;
+    private final boolean filterPropagateViewToNestedFilters;
+    private final boolean filterPruneBeanProperties;
+    private final boolean filterTransitionTables;
+
+    private final int parserCompileThreshold;
+    private final int parserMaxBreadth;
+    private final int parserMaxDepth;
+    private final int parserMaxFieldCount;
+    private final int parserMaxLength;
+    private final int parserMaxRegexCount;
+    private final CacheBuilderSpec parserNodeCacheSpec;
+    private final String parserOverLimitFilter;
+
+    private final boolean propertyAddNonAnnotatedFieldsToBaseView;
+    private final CacheBuilderSpec propertyDescriptorCacheSpec;
+    private final boolean propertyUseJacksonMetadata;
+
+    private SquigglyEngineConfig(SortedMap<String, String> props) {
+        this.props = ImmutableSortedMap.copyOfSorted(props);
+
+        cacheProvider = SquigglyConfig.getCacheProvider(props, "cache.provider");
+        filterImplicitlyIncludeBaseFields = SquigglyConfig.getBool(props, "filter.implicitlyIncludeBaseFields");
+        filterImplicitlyIncludeBaseFieldsInView = SquigglyConfig.getBool(props, "filter.implicitlyIncludeBaseFieldsInView");
+        filterLocalPathCacheSpec = SquigglyConfig.getCacheSpec(props, "filter.localPathCache.spec");
+        filterPathCacheSpec = SquigglyConfig.getCacheSpec(props, "filter.pathCache.spec");
+        filterPropagateViewToNestedFilters = SquigglyConfig.getBool(props, "filter.propagateViewToNestedFilters");
+        filterPruneBeanProperties = SquigglyConfig.getBool(props, "filter.pruneBeanProperties");
+        filterTransitionTables = SquigglyConfig.getBool(props, "filter.transitionTables");
+        parserCompileThreshold = SquigglyConfig.getInt(props, "parser.compileThreshold");
+        parserMaxBreadth = SquigglyConfig.getInt(props, "parser.maxBreadth");
+        parserMaxDepth = SquigglyConfig.getInt(props, "parser.maxDepth");
+        parserMaxFieldCount = SquigglyConfig.getInt(props, "parser.maxFieldCount");
+        parserMaxLength = SquigglyConfig.getInt(props, "parser.maxLength");
+        parserMaxRegexCount = SquigglyConfig.getInt(props, "parser.maxRegexCount");
+        parserNodeCacheSpec = SquigglyConfig.getCacheSpec(props, "parser.nodeCache.spec");
+        parserOverLimitFilter = StringUtils.trimToEmpty(props.get("parser.overLimitFilter"));
+        propertyAddNonAnnotatedFieldsToBaseView = SquigglyConfig.getBool(props, "property.addNonAnnotatedFieldsToBaseView");
+        propertyDescriptorCacheSpec = SquigglyConfig.getCacheSpec(props, "property.descriptorCache.spec");
+        propertyUseJacksonMetadata = SquigglyConfig.getBool(props, "property.useJacksonMetadata");
+    }
+
+    /**
+     * Get the config of the default engine, which is the one in {@link SquigglyConfig}.
+     *
+     * @return default config
+     */
+    public static SquigglyEngineConfig getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Create a config that overrides some of the values of the classpath configuration.
+     *
+     * @param overrides config keys and their values
+     * @return config
+     * @throws IllegalArgumentException if a key isn't a known config key
+     */
+    public static SquigglyEngineConfig of(Map<String, String> overrides) throws IllegalArgumentException {
+        return DEFAULT.with(overrides);
+    }
+
+    /**
+     * Create a copy of this config with a value overridden.
+     *
+     * @param key   the config key, e.g. filter.pathCache.spec
+     * @param value the value
+     * @return config
+     * @throws IllegalArgumentException if the key isn't a known config key
+     */
+    public SquigglyEngineConfig with(String key, String value) throws IllegalArgumentException {
+        return with(ImmutableSortedMap.of(key, value));
+    }
+
+    /**
+     * Create a copy of this config with some values overridden.
+     *
+     * @param overrides config keys and their values
+     * @return config
+     * @throws IllegalArgumentException if a key isn't a known config key
+     */
+    public SquigglyEngineConfig with(Map<String, String> overrides) throws IllegalArgumentException {
+        SortedMap<String, String> newProps = new TreeMap<>(asMap());
+
+        for (Map.Entry<String, String> entry : overrides.entrySet()) {
+            checkArgument(newProps.containsKey(entry.getKey()), "Unknown squiggly config key %s", entry.getKey());
+            newProps.put(entry.getKey(), checkNotNull(entry.getValue()));
+        }
+
+        return new SquigglyEngineConfig(newProps);
+    }
+
+    /**
+     * Get the provider that creates the caches of the parser and the introspector.
+     *
+     * @return cache provider
+     * @see SquigglyConfig#getCacheProvider()
+     */
+    public SquigglyCacheProvider getCacheProvider() {
+        return cacheProvider;
+    }
+
+    /**
+     * Determines whether or not to include base fields for nested objects
+     *
+     * @return true if includes, false if not
+     * @see SquigglyConfig#isFilterImplicitlyIncludeBaseFields()
+     */
+    public boolean isFilterImplicitlyIncludeBaseFields() {
+        return filterImplicitlyIncludeBaseFields;
+    }
+
+    /**
+     * Determines whether or not filters that specify a view also include "base" fields.
+     *
+     * @return true if includes, false if not
+     * @see SquigglyConfig#isFilterImplicitlyIncludeBaseFieldsInView()
+     */
+    public boolean isFilterImplicitlyIncludeBaseFieldsInView() {
+        return filterImplicitlyIncludeBaseFieldsInView;
+    }
+
+    /**
+     * Get the {@link CacheBuilderSpec} of the per-thread path cache.
+     *
+     * @return spec
+     * @see SquigglyConfig#getFilterLocalPathCacheSpec()
+     */
+    public CacheBuilderSpec getFilterLocalPathCacheSpec() {
+        return filterLocalPathCacheSpec;
+    }
+
+    /**
+     * Get the {@link CacheBuilderSpec} of the path cache.
+     *
+     * @return spec
+     * @see SquigglyConfig#getFilterPathCacheSpec()
+     */
+    public CacheBuilderSpec getFilterPathCacheSpec() {
+        return filterPathCacheSpec;
+    }
+
+    /**
+     * Determines whether or not filters that specify a view also propagtes that view to nested filters.
+     *
+     * @return true if includes, false if not
+     * @see SquigglyConfig#isFilterPropagateViewToNestedFilters()
+     */
+    public boolean isFilterPropagateViewToNestedFilters() {
+        return filterPropagateViewToNestedFilters;
+    }
+
+    /**
+     * Determines whether or not excluded properties are pruned from bean serializers up front.
+     *
+     * @return true if prunes, false if not
+     * @see SquigglyConfig#isFilterPruneBeanProperties()
+     */
+    public boolean isFilterPruneBeanProperties() {
+        return filterPruneBeanProperties;
+    }
+
+    /**
+     * Determines whether or not the states of compiled filters keep a table of their transitions for each bean class.
+     *
+     * @return true if tables are built, false if not
+     * @see SquigglyConfig#isFilterTransitionTables()
+     */
+    public boolean isFilterTransitionTables() {
+        return filterTransitionTables;
+    }
+
+    /**
+     * Get the number of serializations that use a filter before its automaton is compiled in the background.
+     *
+     * @return threshold
+     * @see SquigglyConfig#getParserCompileThreshold()
+     */
+    public int getParserCompileThreshold() {
+        return parserCompileThreshold;
+    }
+
+    /**
+     * Get the maximum number of fields directly inside a nested filter, or at the top level of a filter.
+     *
+     * @return limit, 0 or less for none
+     * @see SquigglyConfig#getParserMaxBreadth()
+     */
+    public int getParserMaxBreadth() {
+        return parserMaxBreadth;
+    }
+
+    /**
+     * Get the maximum depth of a filter, counting both nested filters and dot paths.
+     *
+     * @return limit, 0 or less for none
+     * @see SquigglyConfig#getParserMaxDepth()
+     */
+    public int getParserMaxDepth() {
+        return parserMaxDepth;
+    }
+
+    /**
+     * Get the maximum number of fields a filter may expand to.
+     *
+     * @return limit, 0 or less for none
+     * @see SquigglyConfig#getParserMaxFieldCount()
+     */
+    public int getParserMaxFieldCount() {
+        return parserMaxFieldCount;
+    }
+
+    /**
+     * Get the maximum length of a filter.
+     *
+     * @return limit, 0 or less for none
+     * @see SquigglyConfig#getParserMaxLength()
+     */
+    public int getParserMaxLength() {
+        return parserMaxLength;
+    }
+
+    /**
+     * Get the maximum number of regex fields in a filter.
+     *
+     * @return limit, 0 or less for none
+     * @see SquigglyConfig#getParserMaxRegexCount()
+     */
+    public int getParserMaxRegexCount() {
+        return parserMaxRegexCount;
+    }
+
+    /**
+     * Get the {@link CacheBuilderSpec} of the node cache in the parser.
+     *
+     * @return spec
+     * @see SquigglyConfig#getParserNodeCacheSpec()
+     */
+    public CacheBuilderSpec getParserNodeCacheSpec() {
+        return parserNodeCacheSpec;
+    }
+
+    /**
+     * Get the filter that the parser uses in place of a filter that exceeds one of its limits.
+     *
+     * @return filter, empty to reject
+     * @see SquigglyConfig#getParserOverLimitFilter()
+     */
+    public String getParserOverLimitFilter() {
+        return parserOverLimitFilter;
+    }
+
+    /**
+     * Determines whether or not non-annotated fields are added to the "base" view.
+     *
+     * @return true/false
+     * @see SquigglyConfig#isPropertyAddNonAnnotatedFieldsToBaseView()
+     */
+    public boolean isPropertyAddNonAnnotatedFieldsToBaseView() {
+        return propertyAddNonAnnotatedFieldsToBaseView;
+    }
+
+    /**
+     * Get the {@link CacheBuilderSpec} of the descriptor cache in the introspector.
+     *
+     * @return spec
+     * @see SquigglyConfig#getPropertyDescriptorCacheSpec()
+     */
+    public CacheBuilderSpec getPropertyDescriptorCacheSpec() {
+        return propertyDescriptorCacheSpec;
+    }
+
+    /**
+     * Determines whether or not bean classes are introspected using the metadata of the ObjectMapper's serializers.
+     *
+     * @return true/false
+     * @see SquigglyConfig#isPropertyUseJacksonMetadata()
+     */
+    public boolean isPropertyUseJacksonMetadata() {
+        return propertyUseJacksonMetadata;
+    }
+
+    /**
+     * Gets all the config as a map.
+     *
+     * @return map
+     */
+    public SortedMap<String, String> asMap() {
+        return props;
+    }
+
+    // reads SquigglyConfig on every call, so that the default engine always agrees with it
+    private static class DefaultConfig extends SquigglyEngineConfig {
+
+        DefaultConfig() {
+            super(SquigglyConfig.asMap());
+        }
+
+        @Override
+        public SquigglyCacheProvider getCacheProvider() {
+            return SquigglyConfig.getCacheProvider();
+        }
+
+        @Override
+        public boolean isFilterImplicitlyIncludeBaseFields() {
+            return SquigglyConfig.isFilterImplicitlyIncludeBaseFields();
+        }
+
+        @Override
+        public boolean isFilterImplicitlyIncludeBaseFieldsInView() {
+            return SquigglyConfig.isFilterImplicitlyIncludeBaseFieldsInView();
+        }
+
+        @Override
+        public CacheBuilderSpec getFilterLocalPathCacheSpec() {
+            return SquigglyConfig.getFilterLocalPathCacheSpec();
+        }
+
+        @Override
+        public CacheBuilderSpec getFilterPathCacheSpec() {
+            return SquigglyConfig.getFilterPathCacheSpec();
+        }
+
+        @Override
+        public boolean isFilterPropagateViewToNestedFilters() {
+            return SquigglyConfig.isFilterPropagateViewToNestedFilters();
+        }
+
+        @Override
+        public boolean isFilterPruneBeanProperties() {
+            return SquigglyConfig.isFilterPruneBeanProperties();
+        }
+
+        @Override
+        public boolean isFilterTransitionTables() {
+            return SquigglyConfig.isFilterTransitionTables();
+        }
+
+        @Override
+        public int getParserCompileThreshold() {
+            return SquigglyConfig.getParserCompileThreshold();
+        }
+
+        @Override
+        public int getParserMaxBreadth() {
+            return SquigglyConfig.getParserMaxBreadth();
+        }
+
+        @Override
+        public int getParserMaxDepth() {
+            return SquigglyConfig.getParserMaxDepth();
+        }
+
+        @Override
+        public int getParserMaxFieldCount() {
+            return SquigglyConfig.getParserMaxFieldCount();
+        }
+
+        @Override
+        public int getParserMaxLength() {
+            return SquigglyConfig.getParserMaxLength();
+        }
+
+        @Override
+        public int getParserMaxRegexCount() {
+            return SquigglyConfig.getParserMaxRegexCount();
+        }
+
+        @Override
+        public CacheBuilderSpec getParserNodeCacheSpec() {
+            return SquigglyConfig.getParserNodeCacheSpec();
+        }
+
+        @Override
+        public String getParserOverLimitFilter() {
+            return SquigglyConfig.getParserOverLimitFilter();
+        }
+
+        @Override
+        public boolean isPropertyAddNonAnnotatedFieldsToBaseView() {
+            return SquigglyConfig.isPropertyAddNonAnnotatedFieldsToBaseView();
+        }
+
+        @Override
+        public CacheBuilderSpec getPropertyDescriptorCacheSpec() {
+            return SquigglyConfig.getPropertyDescriptorCacheSpec();
+        }
+
+        @Override
+        public boolean isPropertyUseJacksonMetadata() {
+            return SquigglyConfig.isPropertyUseJacksonMetadata();
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.github.bohnman.squiggly.context;
+
+import com.github.bohnman.squiggly.automaton.SquigglyAutomaton;
+
+/**
+ * A squiggly context that also provides the compiled automaton of its filter expression.  The filter compiles the
+ * filter expression of other contexts itself.
+ */
+public interface CompiledSquigglyContext extends SquigglyContext {
+
+    /**
+     * Get the compiled automaton of the filter expression.
+     *
+     * @return automaton
+     */
+    SquigglyAutomaton getAutomaton();
+}
@@ -1,5 +1,6 @@
 package com.github.bohnman.squiggly.context;
 
+import com.github.bohnman.squiggly.automaton.SquigglyAutomaton;
 import com.github.bohnman.squiggly.parser.SquigglyNode;
 import com.github.bohnman.squiggly.parser.SquigglyParser;
 import net.jcip.annotations.NotThreadSafe;
@@ -10,11 +11,11 @@ import java.util.List;
  * Squiggly context that loads the parsed nodes on demand.
  */
 @NotThreadSafe
-public class LazySquigglyContext implements SquigglyContext {
+public class LazySquigglyContext implements CompiledSquigglyContext {
 
     private final Class beanClass;
     private final String filter;
-    private List<SquigglyNode> nodes;
+    private SquigglyAutomaton automaton;
     private final SquigglyParser parser;
 
     public LazySquigglyContext(Class beanClass, SquigglyParser parser, String filter) {
@@ -30,11 +31,16 @@ public class LazySquigglyContext implements SquigglyContext {
 
     @Override
     public List<SquigglyNode> getNodes() {
-        if (nodes == null) {
-            nodes = parser.parse(filter);
+        return getAutomaton().getNodes();
+    }
+
+    @Override
+    public SquigglyAutomaton getAutomaton() {
+        if (automaton == null) {
+            automaton = parser.compile(filter);
         }
 
-        return nodes;
+        return automaton;
     }
 
     @Override
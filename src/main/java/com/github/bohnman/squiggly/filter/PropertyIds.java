@@ -0,0 +1,83 @@
+package com.github.bohnman.squiggly.filter;
+
+import com.github.bohnman.squiggly.bean.BeanInfoIntrospector;
+import net.jcip.annotations.ThreadSafe;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Interns the properties of bean classes to integer ids, so that a property can be part of a numeric cache key.
+ */
+@ThreadSafe
+class PropertyIds {
+
+    // guards against classes with dynamic property names, such as ones using @JsonAnyGetter
+    private static final int MAX_NAMES_PER_CLASS = 1024;
+
+    private final AtomicInteger ids = new AtomicInteger();
+
+    // a class value is dropped along with its class, so interning never keeps a class loader from being unloaded
+    private final ClassValue<ClassNames> classes = new ClassValue<ClassNames>() {
+        @Override
+        protected ClassNames computeValue(Class<?> type) {
+            return new ClassNames();
+        }
+    };
+
+    /**
+     * Get the id of a property.  A class shares the ids of the class it normalizes to, so that proxies map to the same
+     * cache keys as the class they proxy.
+     *
+     * @param beanClass    the class of the bean that owns the property
+     * @param name         the name of the property
+     * @param introspector introspector used to normalize classes the first time they are seen
+     * @return id, or -1 if the class has too many distinct property names to intern
+     */
+    int get(Class beanClass, String name, BeanInfoIntrospector introspector) {
+        ClassNames classNames = classes.get(beanClass);
+        ConcurrentMap<String, Integer> names = classNames.names;
+
+        if (names == null) {
+            Class normalizedClass = introspector.normalize(beanClass);
+            names = getOrCreateNames(normalizedClass);
+
+            if (normalizedClass != beanClass) {
+                names = classNames.initialize(names);
+            }
+        }
+
+        Integer id = names.get(name);
+
+        if (id != null) {
+            return id;
+        }
+
+        if (names.size() >= MAX_NAMES_PER_CLASS) {
+            return -1;
+        }
+
+        Integer newId = ids.incrementAndGet();
+        id = names.putIfAbsent(name, newId);
+        return (id == null) ? newId : id;
+    }
+
+    private ConcurrentMap<String, Integer> getOrCreateNames(Class beanClass) {
+        ClassNames classNames = classes.get(beanClass);
+        ConcurrentMap<String, Integer> names = classNames.names;
+        return (names == null) ? classNames.initialize(new ConcurrentHashMap<String, Integer>()) : names;
+    }
+
+    private static class ClassNames {
+        private volatile ConcurrentMap<String, Integer> names;
+
+        synchronized ConcurrentMap<String, Integer> initialize(ConcurrentMap<String, Integer> newNames) {
+            if (names == null) {
+                names = newNames;
+            }
+
+            return names;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.github.bohnman.squiggly.filter;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.BeanSerializer;
+import com.fasterxml.jackson.databind.ser.PropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.ObjectIdWriter;
+import com.fasterxml.jackson.databind.ser.std.BeanSerializerBase;
+import com.github.bohnman.squiggly.automaton.SquigglyState;
+import com.github.bohnman.squiggly.util.LongKeyCache;
+import net.jcip.annotations.ThreadSafe;
+
+import java.io.IOException;
+
+/**
+ * A bean serializer that only visits the properties that pass through a {@link SquigglyPropertyFilter}.
+ * <p>
+ * The included properties are resolved once for each filter state that the bean is serialized in and cached as a
+ * pruned property array, so excluded properties are never visited.  Serialization falls back to Jackson's regular
+ * filtering whenever the properties can't be pruned up front, such as with an active Jackson view or a generator that
+ * can't omit fields.
+ *
+ * @see SquigglyBeanSerializerModifier
+ */
+@ThreadSafe
+public class SquigglyBeanSerializer extends BeanSerializer {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int PRUNED_PROPERTIES_CACHE_SIZE = 64;
+
+    // pruned properties keyed by state id, along with their state since ids may repeat
+    private final LongKeyCache<PrunedProperties> prunedProperties = new LongKeyCache<>(PRUNED_PROPERTIES_CACHE_SIZE, false);
+
+    public SquigglyBeanSerializer(BeanSerializerBase src) {
+        super(src);
+    }
+
+    protected SquigglyBeanSerializer(BeanSerializerBase src, ObjectIdWriter objectIdWriter) {
+        super(src, objectIdWriter);
+    }
+
+    protected SquigglyBeanSerializer(BeanSerializerBase src, ObjectIdWriter objectIdWriter, Object filterId) {
+        super(src, objectIdWriter, filterId);
+    }
+
+    protected SquigglyBeanSerializer(BeanSerializerBase src, String[] toIgnore) {
+        super(src, toIgnore);
+    }
+
+    @Override
+    public BeanSerializerBase withObjectIdWriter(ObjectIdWriter objectIdWriter) {
+        return new SquigglyBeanSerializer(this, objectIdWriter, _propertyFilterId);
+    }
+
+    @Override
+    public BeanSerializerBase withFilterId(Object filterId) {
+        return new SquigglyBeanSerializer(this, _objectIdWriter, filterId);
+    }
+
+    @Override
+    protected BeanSerializerBase withIgnorals(String[] toIgnore) {
+        return new SquigglyBeanSerializer(this, toIgnore);
+    }
+
+    @Override
+    protected void serializeFieldsFiltered(Object bean, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        PropertyFilter filter = findPropertyFilter(provider, _propertyFilterId, bean);
+
+        if (!(filter instanceof SquigglyPropertyFilter) || !canPrune(bean, gen, provider)) {
+            super.serializeFieldsFiltered(bean, gen, provider);
+            return;
+        }
+
+        SquigglyPropertyFilter squigglyFilter = (SquigglyPropertyFilter) filter;
+        BeanPropertyWriter[] props = getIncludedProperties(squigglyFilter, bean, gen, provider);
+        int i = 0;
+
+        try {
+            for (final int len = props.length; i < len; ++i) {
+                squigglyFilter.serializeAsIncludedField(bean, gen, provider, props[i]);
+            }
+
+            if (_anyGetterWriter != null) {
+                _anyGetterWriter.getAndFilter(bean, gen, provider, filter);
+            }
+        } catch (Exception e) {
+            String name = (i == props.length) ? "[anySetter]" : props[i].getName();
+            wrapAndThrow(provider, e, bean, name);
+        } catch (StackOverflowError e) {
+            JsonMappingException mapE = new JsonMappingException("Infinite recursion (StackOverflowError)", e);
+            String name = (i == props.length) ? "[anySetter]" : props[i].getName();
+            mapE.prependPath(new JsonMappingException.Reference(bean, name));
+            throw mapE;
+        }
+    }
+
+    private boolean canPrune(Object bean, JsonGenerator gen, SerializerProvider provider) {
+        // excluded properties have to be visited when they can't be omitted
+        if (!gen.canOmitFields()) {
+            return false;
+        }
+
+        // views are resolved against the class of the bean, which may not be the class the properties were built for
+        if (bean.getClass() != handledType()) {
+            return false;
+        }
+
+        return _filteredProps == null || provider.getActiveView() == null;
+    }
+
+    private BeanPropertyWriter[] getIncludedProperties(SquigglyPropertyFilter filter, Object bean, JsonGenerator gen, SerializerProvider provider) {
+        SquigglyState state = filter.getState(gen, provider);
+        PrunedProperties pruned = prunedProperties.get(state.getId());
+
+        if (pruned == null || pruned.state != state) {
+            pruned = new PrunedProperties(state, filter.filterProperties(state, bean.getClass(), _props));
+            prunedProperties.put(state.getId(), pruned);
+        }
+
+        return pruned.props;
+    }
+
+    private static class PrunedProperties {
+        private final SquigglyState state;
+        private final BeanPropertyWriter[] props;
+
+        PrunedProperties(SquigglyState state, BeanPropertyWriter[] props) {
+            this.state = state;
+            this.props = props;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.github.bohnman.squiggly.filter;
+
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.ser.BeanSerializer;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+import net.jcip.annotations.ThreadSafe;
+
+/**
+ * Jackson serializer modifier that replaces standard bean serializers with a {@link SquigglyBeanSerializer}, so that
+ * beans only visit the properties included by the squiggly filter.
+ */
+@ThreadSafe
+public class SquigglyBeanSerializerModifier extends BeanSerializerModifier {
+
+    @Override
+    public JsonSerializer<?> modifySerializer(SerializationConfig config, BeanDescription beanDesc, JsonSerializer<?> serializer) {
+        // only replace jackson's own serializer, subclasses may override the serialization of fields
+        if (serializer.getClass() == BeanSerializer.class) {
+            return new SquigglyBeanSerializer((BeanSerializer) serializer);
+        }
+
+        return serializer;
+    }
+}
@@ -0,0 +1,67 @@
+package com.github.bohnman.squiggly.filter;
+
+import com.fasterxml.jackson.databind.AnnotationIntrospector;
+import com.fasterxml.jackson.databind.introspect.Annotated;
+import com.fasterxml.jackson.databind.introspect.AnnotatedClass;
+import com.fasterxml.jackson.databind.introspect.NopAnnotationIntrospector;
+import net.jcip.annotations.ThreadSafe;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Jackson annotation introspector that assigns the filter id of the @{@link SquigglyPropertyFilter} to the classes in a
+ * {@link SquigglyFilterScope}.
+ * <p>
+ * It's meant to be paired after a mapper's own introspector, so that a class's own filter annotation takes precedence.
+ */
+@ThreadSafe
+public class SquigglyFilterAnnotationIntrospector extends NopAnnotationIntrospector {
+
+    private static final long serialVersionUID = 1L;
+
+    private final SquigglyFilterScope scope;
+
+    public SquigglyFilterAnnotationIntrospector(SquigglyFilterScope scope) {
+        this.scope = checkNotNull(scope);
+    }
+
+    @Override
+    public Object findFilterId(Annotated annotated) {
+        if (annotated instanceof AnnotatedClass && scope.contains(annotated.getRawType())) {
+            return SquigglyPropertyFilter.FILTER_ID;
+        }
+
+        return null;
+    }
+
+    /**
+     * Remove the squiggly filter introspectors from an introspector, keeping the others in the same order.
+     *
+     * @param annotationIntrospector the introspector, which may be a pair
+     * @return introspector
+     */
+    public static AnnotationIntrospector removeFrom(AnnotationIntrospector annotationIntrospector) {
+        List<AnnotationIntrospector> introspectors = new ArrayList<>();
+
+        for (AnnotationIntrospector introspector : annotationIntrospector.allIntrospectors()) {
+            if (!(introspector instanceof SquigglyFilterAnnotationIntrospector)) {
+                introspectors.add(introspector);
+            }
+        }
+
+        if (introspectors.isEmpty()) {
+            return AnnotationIntrospector.nopInstance();
+        }
+
+        AnnotationIntrospector result = introspectors.get(introspectors.size() - 1);
+
+        for (int i = introspectors.size() - 2; i >= 0; i--) {
+            result = AnnotationIntrospector.pair(introspectors.get(i), result);
+        }
+
+        return result;
+    }
+}
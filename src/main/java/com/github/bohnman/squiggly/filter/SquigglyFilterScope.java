@@ -0,0 +1,158 @@
+package com.github.bohnman.squiggly.filter;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableSet;
+import net.jcip.annotations.Immutable;
+import net.jcip.annotations.NotThreadSafe;
+
+import java.lang.annotation.Annotation;
+import java.util.Arrays;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Selects the classes that are serialized through the {@link SquigglyPropertyFilter}.
+ * <p>
+ * A class is in scope if it belongs to one of the packages, is assignable to one of the types or carries one of the
+ * annotations.  Classes that are out of scope keep Jackson's unfiltered serializers, so all of their properties are
+ * written, while beans nested beneath them are still filtered by their full path.  Maps are only filtered when they're
+ * in scope too, e.g. by adding Map.class to the types.
+ */
+@Immutable
+public class SquigglyFilterScope {
+
+    /**
+     * Scope that contains every class.
+     */
+    public static final SquigglyFilterScope ALL = new SquigglyFilterScope(true, ImmutableSet.<String>of(),
+            ImmutableSet.<Class<?>>of(), ImmutableSet.<Class<? extends Annotation>>of());
+
+    private final boolean all;
+    private final ImmutableSet<String> packagePrefixes;
+    private final ImmutableSet<Class<?>> types;
+    private final ImmutableSet<Class<? extends Annotation>> annotations;
+
+    private SquigglyFilterScope(boolean all, ImmutableSet<String> packagePrefixes, ImmutableSet<Class<?>> types,
+                                ImmutableSet<Class<? extends Annotation>> annotations) {
+        this.all = all;
+        this.packagePrefixes = packagePrefixes;
+        this.types = types;
+        this.annotations = annotations;
+    }
+
+    /**
+     * Create a builder for a scope that starts out empty.
+     *
+     * @return builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Determine whether a class is serialized through the filter.
+     *
+     * @param beanClass the class
+     * @return true if in scope
+     */
+    public boolean contains(Class<?> beanClass) {
+        if (all) {
+            return true;
+        }
+
+        String name = beanClass.getName();
+
+        for (String packagePrefix : packagePrefixes) {
+            if (name.startsWith(packagePrefix)) {
+                return true;
+            }
+        }
+
+        for (Class<?> type : types) {
+            if (type.isAssignableFrom(beanClass)) {
+                return true;
+            }
+        }
+
+        for (Class<? extends Annotation> annotation : annotations) {
+            if (beanClass.isAnnotationPresent(annotation)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        if (all) {
+            return "SquigglyFilterScope{ALL}";
+        }
+
+        return MoreObjects.toStringHelper(this)
+                .add("packagePrefixes", packagePrefixes)
+                .add("types", types)
+                .add("annotations", annotations)
+                .toString();
+    }
+
+    /**
+     * Builds a {@link SquigglyFilterScope}.
+     */
+    @NotThreadSafe
+    public static class Builder {
+
+        private final ImmutableSet.Builder<String> packagePrefixes = ImmutableSet.builder();
+        private final ImmutableSet.Builder<Class<?>> types = ImmutableSet.builder();
+        private final ImmutableSet.Builder<Class<? extends Annotation>> annotations = ImmutableSet.builder();
+
+        private Builder() {
+        }
+
+        /**
+         * Add packages whose classes, including those of their subpackages, are in scope.
+         *
+         * @param packageNames the package names
+         * @return this, for chaining
+         */
+        public Builder packages(String... packageNames) {
+            for (String packageName : packageNames) {
+                packagePrefixes.add(checkNotNull(packageName) + ".");
+            }
+
+            return this;
+        }
+
+        /**
+         * Add base types whose subtypes, including the types themselves, are in scope.
+         *
+         * @param types the base classes or interfaces
+         * @return this, for chaining
+         */
+        public Builder types(Class<?>... types) {
+            this.types.addAll(Arrays.asList(types));
+            return this;
+        }
+
+        /**
+         * Add an annotation whose annotated classes are in scope.  An annotation that is @{@link java.lang.annotation.Inherited}
+         * also brings the subclasses of the annotated classes in scope.  Call it once for each annotation.
+         *
+         * @param annotation the annotation type, which must have runtime retention
+         * @return this, for chaining
+         */
+        public Builder annotatedWith(Class<? extends Annotation> annotation) {
+            annotations.add(checkNotNull(annotation));
+            return this;
+        }
+
+        /**
+         * Build the scope.
+         *
+         * @return scope
+         */
+        public SquigglyFilterScope build() {
+            return new SquigglyFilterScope(false, packagePrefixes.build(), types.build(), annotations.build());
+        }
+    }
+}
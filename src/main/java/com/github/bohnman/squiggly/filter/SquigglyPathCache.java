@@ -0,0 +1,95 @@
+package com.github.bohnman.squiggly.filter;
+
+import com.github.bohnman.squiggly.automaton.SquigglyState;
+import com.github.bohnman.squiggly.config.SquigglyEngineConfig;
+import com.github.bohnman.squiggly.metric.source.CompositeSquigglyMetricsSource;
+import com.github.bohnman.squiggly.metric.source.GuavaCacheSquigglyMetricsSource;
+import com.github.bohnman.squiggly.metric.source.SquigglyMetricsSource;
+import com.github.bohnman.squiggly.util.FrequencySketch;
+import com.github.bohnman.squiggly.util.LongKeyCache;
+import com.github.bohnman.squiggly.util.ThreadLocalLongKeyCache;
+import net.jcip.annotations.ThreadSafe;
+
+/**
+ * The caches that a {@link SquigglyPropertyFilter} keeps its evaluated transitions in.  Filters sharing a path cache
+ * also share what they have learned, so each engine normally has one.
+ */
+@ThreadSafe
+public class SquigglyPathCache {
+
+    private static final SquigglyPathCache DEFAULT = new SquigglyPathCache(SquigglyEngineConfig.getDefault());
+
+    /**
+     * Cache that stores previous evaluated transitions.  A transition is the state of a parent bean combined with the
+     * class and name of one of its properties, which makes it a compact representation of the path to that property.
+     * The key packs the id of the state and the id of the property into a long.  State ids may repeat once their
+     * counter wraps, so a hit only counts if the transition leads from the same state.
+     */
+    final LongKeyCache<Transition> matchCache;
+
+    /**
+     * Per-thread cache of recent transitions that is checked before the shared match cache.
+     */
+    final ThreadLocalLongKeyCache<Transition> localMatchCache;
+    final PropertyIds propertyIds = new PropertyIds();
+
+    /**
+     * How often each filter has been used recently, which decides whether its transitions are admitted to the match
+     * cache.
+     */
+    final FrequencySketch filterFrequency = new FrequencySketch(1024);
+
+    private final SquigglyMetricsSource metricsSource;
+
+    /**
+     * Constructor.
+     *
+     * @param config the engine config whose cache specs are used
+     */
+    public SquigglyPathCache(SquigglyEngineConfig config) {
+        matchCache = LongKeyCache.from(config.getFilterPathCacheSpec());
+        localMatchCache = ThreadLocalLongKeyCache.from(config.getFilterLocalPathCacheSpec());
+        metricsSource = new CompositeSquigglyMetricsSource(
+                new GuavaCacheSquigglyMetricsSource("squiggly.filter.localPathCache.", localMatchCache),
+                new GuavaCacheSquigglyMetricsSource("squiggly.filter.pathCache.", matchCache)
+        );
+    }
+
+    /**
+     * Get the path cache shared by filters that aren't given one.
+     *
+     * @return default path cache
+     */
+    public static SquigglyPathCache getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Remove every cached transition, including those cached by each thread, e.g. when a webapp that shares the cache
+     * is undeployed.
+     */
+    public void invalidateAll() {
+        matchCache.invalidateAll();
+        localMatchCache.invalidateAll();
+    }
+
+    /**
+     * Get the metrics of the path cache and the per-thread path cache.
+     *
+     * @return metrics source
+     */
+    public SquigglyMetricsSource getMetricsSource() {
+        return metricsSource;
+    }
+
+    // a cached transition, which remembers the state it leads from
+    static final class Transition {
+        final SquigglyState from;
+        final SquigglyState to;
+
+        Transition(SquigglyState from, SquigglyState to) {
+            this.from = from;
+            this.to = to;
+        }
+    }
+}
@@ -6,28 +6,22 @@ import com.fasterxml.jackson.databind.SerializerProvider;
 import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
 import com.fasterxml.jackson.databind.ser.PropertyWriter;
 import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
-import com.github.bohnman.squiggly.bean.BeanInfo;
+import com.github.bohnman.squiggly.automaton.SquigglyAutomaton;
+import com.github.bohnman.squiggly.automaton.SquigglyState;
 import com.github.bohnman.squiggly.bean.BeanInfoIntrospector;
-import com.github.bohnman.squiggly.config.SquigglyConfig;
+import com.github.bohnman.squiggly.context.CompiledSquigglyContext;
 import com.github.bohnman.squiggly.context.SquigglyContext;
 import com.github.bohnman.squiggly.context.provider.SquigglyContextProvider;
-import com.github.bohnman.squiggly.metric.source.GuavaCacheSquigglyMetricsSource;
 import com.github.bohnman.squiggly.metric.source.SquigglyMetricsSource;
 import com.github.bohnman.squiggly.name.AnyDeepName;
-import com.github.bohnman.squiggly.name.ExactName;
-import com.github.bohnman.squiggly.parser.SquigglyNode;
-import com.github.bohnman.squiggly.view.PropertyView;
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
-import com.google.common.collect.Sets;
+import com.github.bohnman.squiggly.parser.SquigglyParser;
 import net.jcip.annotations.ThreadSafe;
-import org.apache.commons.lang3.tuple.Pair;
+import org.apache.commons.lang3.StringUtils;
 
-import java.util.Collections;
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 
 /**
@@ -72,19 +66,15 @@ public class SquigglyPropertyFilter extends SimpleBeanPropertyFilter {
     public static final String FILTER_ID = "squigglyFilter";
 
     /**
-     * Cache that stores previous evalulated matches.
+     * Transitions are only admitted to the match cache once their filter has been used at least this many times, so
+     * one-off filters can't evict popular ones.
      */
-    private static final Cache<Pair<Path, String>, Boolean> MATCH_CACHE;
-    private static final SquigglyMetricsSource METRICS_SOURCE;
-    private static final List<SquigglyNode> BASE_VIEW_NODES = Collections.singletonList(new SquigglyNode(new ExactName(PropertyView.BASE_VIEW), Collections.<SquigglyNode>emptyList(), false, true, false));
-
-    static {
-        MATCH_CACHE = CacheBuilder.from(SquigglyConfig.getFilterPathCacheSpec()).build();
-        METRICS_SOURCE = new GuavaCacheSquigglyMetricsSource("squiggly.filter.pathCache.", MATCH_CACHE);
-    }
+    private static final int MIN_ADMISSION_FREQUENCY = 2;
 
     private final BeanInfoIntrospector beanInfoIntrospector;
     private final SquigglyContextProvider contextProvider;
+    private final SquigglyPathCache pathCache;
+    private final SquigglyParser parser;
 
     /**
      * Construct with a specified context provider.
@@ -102,27 +92,82 @@ public class SquigglyPropertyFilter extends SimpleBeanPropertyFilter {
      * @param beanInfoIntrospector introspector
      */
     public SquigglyPropertyFilter(SquigglyContextProvider contextProvider, BeanInfoIntrospector beanInfoIntrospector) {
+        this(contextProvider, beanInfoIntrospector, SquigglyPathCache.getDefault());
+    }
+
+    /**
+     * Construct with a context provider, an introspector and the path cache to keep transitions in.
+     *
+     * @param contextProvider      context provider
+     * @param beanInfoIntrospector introspector
+     * @param pathCache            path cache
+     */
+    public SquigglyPropertyFilter(SquigglyContextProvider contextProvider, BeanInfoIntrospector beanInfoIntrospector,
+                                  SquigglyPathCache pathCache) {
+        this(contextProvider, beanInfoIntrospector, pathCache, new SquigglyParser());
+    }
+
+    /**
+     * Construct with a context provider, an introspector, the path cache to keep transitions in and the parser that
+     * compiles the filter expressions of contexts that don't provide their own automaton.
+     *
+     * @param contextProvider      context provider
+     * @param beanInfoIntrospector introspector
+     * @param pathCache            path cache
+     * @param parser               parser
+     * @see CompiledSquigglyContext
+     */
+    public SquigglyPropertyFilter(SquigglyContextProvider contextProvider, BeanInfoIntrospector beanInfoIntrospector,
+                                  SquigglyPathCache pathCache, SquigglyParser parser) {
         this.contextProvider = contextProvider;
         this.beanInfoIntrospector = beanInfoIntrospector;
+        this.pathCache = pathCache;
+        this.parser = parser;
     }
 
-    // create a path structure representing the object graph
-    private Path getPath(PropertyWriter writer, JsonStreamContext sc) {
-        LinkedList<PathElement> elements = new LinkedList<>();
+    /**
+     * Get the introspector that bean classes are introspected with.
+     *
+     * @return introspector
+     */
+    public BeanInfoIntrospector getBeanInfoIntrospector() {
+        return beanInfoIntrospector;
+    }
 
-        if (sc != null) {
-            elements.add(new PathElement(writer.getName(), sc.getCurrentValue()));
-            sc = sc.getParent();
-        }
+    /**
+     * Get the path cache that transitions are kept in.
+     *
+     * @return path cache
+     */
+    public SquigglyPathCache getPathCache() {
+        return pathCache;
+    }
 
-        while (sc != null) {
-            if (sc.getCurrentName() != null && sc.getCurrentValue() != null) {
-                elements.addFirst(new PathElement(sc.getCurrentName(), sc.getCurrentValue()));
-            }
-            sc = sc.getParent();
+    /**
+     * Determine whether the filter would filter a serialization starting now.
+     *
+     * @return true if filtering is enabled
+     */
+    public boolean isFilteringEnabled() {
+        return contextProvider.isFilteringEnabled();
+    }
+
+    // start a serialization whose serializer provider has already found that filtering is enabled
+    void startFilteredSerialization(SerializerProvider provider) {
+        provider.setAttribute(this, new PathTracker(true));
+    }
+
+    // get the path tracker for the current serialization, creating it if necessary
+    private PathTracker getPathTracker(JsonGenerator jgen, SerializerProvider provider) {
+        PathTracker tracker = (PathTracker) provider.getAttribute(this);
+
+        if (tracker == null) {
+            tracker = new PathTracker(contextProvider.isFilteringEnabled());
+            provider.setAttribute(this, tracker);
         }
 
-        return new Path(elements);
+        tracker.setGenerator(jgen);
+        return tracker;
     }
 
     private JsonStreamContext getStreamContext(JsonGenerator jgen) {
@@ -140,8 +185,10 @@ public class SquigglyPropertyFilter extends SimpleBeanPropertyFilter {
         throw new UnsupportedOperationException("Cannot call include without JsonGenerator");
     }
 
-    protected boolean include(final PropertyWriter writer, final JsonGenerator jgen) {
-        if (!contextProvider.isFilteringEnabled()) {
+    protected boolean include(final PropertyWriter writer, final JsonGenerator jgen, final SerializerProvider provider) {
+        PathTracker tracker = getPathTracker(jgen, provider);
+
+        if (!tracker.isFilteringEnabled()) {
             return true;
         }
 
@@ -151,8 +198,8 @@ public class SquigglyPropertyFilter extends SimpleBeanPropertyFilter {
             return true;
         }
 
-        Path path = getPath(writer, streamContext);
-        SquigglyContext context = contextProvider.getContext(path.getFirst().getBeanClass());
+        int index = tracker.resolve(streamContext);
+        SquigglyContext context = tracker.getContext();
         String filter = context.getFilter();
 
 
@@ -160,284 +207,384 @@ public class SquigglyPropertyFilter extends SimpleBeanPropertyFilter {
             return true;
         }
 
-        if (path.isCachable()) {
-            // cache the match result using the path and filter expression
-            Pair<Path, String> pair = Pair.of(path, filter);
-            Boolean match = MATCH_CACHE.getIfPresent(pair);
-
-            if (match == null) {
-                match = pathMatches(path, context);
-            }
-
-            MATCH_CACHE.put(pair, match);
-            return match;
-        }
+        SquigglyState state = tracker.getState(index, tracker.getAutomaton());
+        SquigglyState next = transition(state, writer.getName(), streamContext.getCurrentValue().getClass());
+        tracker.setChild(index, writer.getName(), next);
 
-        return pathMatches(path, context);
+        return next.isIncluded();
     }
 
-    // perform the actual matching
-    private boolean pathMatches(Path path, SquigglyContext context) {
-        List<SquigglyNode> nodes = context.getNodes();
-        Set<String> viewStack = null;
-        SquigglyNode viewNode = null;
-
-        int pathSize = path.getElements().size();
-        int lastIdx = pathSize - 1;
-
-        for (int i = 0; i < pathSize; i++) {
-            PathElement element = path.getElements().get(i);
-
-            if (viewNode != null && !viewNode.isSquiggly()) {
-                Class beanClass = element.getBeanClass();
-
-                if (beanClass != null && !Map.class.isAssignableFrom(beanClass)) {
-                    Set<String> propertyNames = getPropertyNamesFromViewStack(element, viewStack);
-
-                    if (!propertyNames.contains(element.getName())) {
-                        return false;
-                    }
-                }
-
-            } else if (nodes.isEmpty()) {
-                return false;
-            } else {
+    // get the state of the bean currently being written, used to prune its properties up front
+    SquigglyState getState(final JsonGenerator jgen, final SerializerProvider provider) {
+        PathTracker tracker = getPathTracker(jgen, provider);
 
-                SquigglyNode match = findBestSimpleNode(element, nodes);
+        if (!tracker.isFilteringEnabled()) {
+            return SquigglyState.INCLUDE_ALL;
+        }
 
-                if (match == null) {
-                    match = findBestViewNode(element, nodes);
+        JsonStreamContext streamContext = getStreamContext(jgen);
 
-                    if (match != null) {
-                        viewNode = match;
-                        viewStack = addToViewStack(viewStack, viewNode);
-                    }
-                } else if (match.isAnyShallow()) {
-                    viewNode = match;
-                } else if (match.isAnyDeep()) {
-                    return true;
-                }
+        if (streamContext == null) {
+            return SquigglyState.INCLUDE_ALL;
+        }
 
-                if (match == null) {
-                    if (isJsonUnwrapped(element)) {
-                        continue;
-                    }
+        int index = tracker.resolve(streamContext);
+        SquigglyContext context = tracker.getContext();
 
-                    return false;
-                }
+        if (AnyDeepName.ID.equals(context.getFilter())) {
+            return SquigglyState.INCLUDE_ALL;
+        }
 
-                if (match.isNegated()) {
-                    return false;
-                }
+        SquigglyState state = tracker.getState(index, tracker.getAutomaton());
+        tracker.setObserved(index);
+        return state;
+    }
 
-                nodes = match.getChildren();
+    // get the properties of a bean that pass through the filter in the given state
+    BeanPropertyWriter[] filterProperties(SquigglyState state, Class beanClass, BeanPropertyWriter[] properties) {
+        List<BeanPropertyWriter> included = new ArrayList<>(properties.length);
 
-                if (i < lastIdx && nodes.isEmpty() && !match.isEmptyNested() && SquigglyConfig.isFilterImplicitlyIncludeBaseFields()) {
-                    nodes = BASE_VIEW_NODES;
-                }
+        for (BeanPropertyWriter property : properties) {
+            if (property != null && transition(state, property.getName(), beanClass).isIncluded()) {
+                included.add(property);
             }
         }
 
-        return true;
+        return included.toArray(new BeanPropertyWriter[included.size()]);
     }
 
-    private boolean isJsonUnwrapped(PathElement element) {
-        BeanInfo info = beanInfoIntrospector.introspect(element.getBeanClass());
-        return info.isUnwrapped(element.getName());
+    void serializeAsIncludedField(final Object pojo, final JsonGenerator jgen, final SerializerProvider provider,
+                                  final PropertyWriter writer) throws Exception {
+        contextProvider.serializeAsIncludedField(pojo, jgen, provider, writer);
     }
 
-    private Set<String> getPropertyNamesFromViewStack(PathElement element, Set<String> viewStack) {
-        if (viewStack == null) {
-            return getPropertyNames(element, PropertyView.BASE_VIEW);
+    // move from the state of a bean to the state of one of its properties, using the cache where possible
+    private SquigglyState transition(SquigglyState state, String name, Class beanClass) {
+        // map keys are dynamic, so the state makes the decision with its own bounded caching
+        if (Map.class.isAssignableFrom(beanClass)) {
+            return state.nextMapKey(name, beanClass, beanInfoIntrospector);
         }
 
-        Set<String> propertyNames = Sets.newHashSet();
-
-        for (String viewName : viewStack) {
-            Set<String> names = getPropertyNames(element, viewName);
+        // popular filters look the transition up in a table of the state
+        SquigglyState next = state.nextFromTable(name, beanClass, beanInfoIntrospector);
 
-            if (names.isEmpty() && SquigglyConfig.isFilterImplicitlyIncludeBaseFields()) {
-                names = getPropertyNames(element, PropertyView.BASE_VIEW);
-            }
-
-            propertyNames.addAll(names);
+        if (next != null) {
+            return next;
         }
 
-        return propertyNames;
-    }
+        int propertyId = pathCache.propertyIds.get(beanClass, name, beanInfoIntrospector);
 
-    private SquigglyNode findBestViewNode(PathElement element, List<SquigglyNode> nodes) {
-        if (Map.class.isAssignableFrom(element.getBeanClass())) {
-            for (SquigglyNode node : nodes) {
-                if (PropertyView.BASE_VIEW.equals(node.getName())) {
-                    return node;
-                }
-            }
-        } else {
-            for (SquigglyNode node : nodes) {
-                // handle view
-                Set<String> propertyNames = getPropertyNames(element, node.getName());
-
-                if (propertyNames.contains(element.getName())) {
-                    return node;
-                }
-            }
+        if (propertyId < 0) {
+            return state.next(name, beanClass, beanInfoIntrospector);
         }
 
-        return null;
-    }
+        long key = getTransitionKey(state, propertyId);
+        SquigglyPathCache.Transition transition = pathCache.localMatchCache.get(key);
 
-    private SquigglyNode findBestSimpleNode(PathElement element, List<SquigglyNode> nodes) {
-        SquigglyNode match = null;
-        int lastMatchStrength = -1;
+        if (transition != null && transition.from == state) {
+            return transition.to;
+        }
 
-        for (SquigglyNode node : nodes) {
-            int matchStrength = node.match(element.getName());
+        transition = pathCache.matchCache.get(key);
 
-            if (matchStrength < 0) {
-                continue;
-            }
+        if (transition == null || transition.from != state) {
+            transition = new SquigglyPathCache.Transition(state, state.next(name, beanClass, beanInfoIntrospector));
 
-            if (lastMatchStrength < 0 || matchStrength >= lastMatchStrength) {
-                match = node;
-                lastMatchStrength = matchStrength;
+            if (pathCache.filterFrequency.frequency(state.getFilterId()) >= MIN_ADMISSION_FREQUENCY) {
+                pathCache.matchCache.put(key, transition);
             }
-
         }
 
-        return match;
-    }
+        pathCache.localMatchCache.put(key, transition);
 
-    private Set<String> addToViewStack(Set<String> viewStack, SquigglyNode viewNode) {
-        if (!SquigglyConfig.isFilterPropagateViewToNestedFilters()) {
-            return null;
-        }
+        return transition.to;
+    }
 
-        if (viewStack == null) {
-            viewStack = Sets.newHashSet();
+    /**
+     * Compute the transition from the state of a bean to one of its properties ahead of time.  Unlike transitions made
+     * during serialization, it is admitted to the path cache no matter how often its filter has been used.
+     *
+     * @param state     the state of the bean
+     * @param name      the name of the property
+     * @param beanClass the class of the bean
+     * @return the state of the property
+     */
+    public SquigglyState warmUp(SquigglyState state, String name, Class beanClass) {
+        if (Map.class.isAssignableFrom(beanClass)) {
+            return state.nextMapKey(name, beanClass, beanInfoIntrospector);
         }
 
-        viewStack.add(viewNode.getName());
+        int propertyId = pathCache.propertyIds.get(beanClass, name, beanInfoIntrospector);
 
-        return viewStack;
-    }
+        if (propertyId < 0) {
+            return state.next(name, beanClass, beanInfoIntrospector);
+        }
 
-    private Set<String> getPropertyNames(PathElement element, String viewName) {
-        Class beanClass = element.getBeanClass();
+        long key = getTransitionKey(state, propertyId);
+        SquigglyPathCache.Transition transition = pathCache.matchCache.get(key);
 
-        if (beanClass == null) {
-            return Collections.emptySet();
+        if (transition == null || transition.from != state) {
+            transition = new SquigglyPathCache.Transition(state, state.next(name, beanClass, beanInfoIntrospector));
+            pathCache.matchCache.put(key, transition);
         }
 
-        return beanInfoIntrospector.introspect(beanClass).getPropertyNamesForView(viewName);
+        return transition.to;
+    }
+
+    private static long getTransitionKey(SquigglyState state, int propertyId) {
+        return ((long) state.getId() << 32) | (propertyId & 0xFFFFFFFFL);
     }
 
     @Override
     public void serializeAsField(final Object pojo, final JsonGenerator jgen, final SerializerProvider provider,
                                  final PropertyWriter writer) throws Exception {
-        if (include(writer, jgen)) {
+        if (include(writer, jgen, provider)) {
             contextProvider.serializeAsIncludedField(pojo, jgen, provider, writer);
         } else if (!jgen.canOmitFields()) {
             contextProvider.serializeAsExcludedField(pojo, jgen, provider, writer);
         }
     }
 
+    /**
+     * Get the metrics of the default path cache.
+     *
+     * @return metrics source
+     * @see SquigglyPathCache#getDefault()
+     */
     public static SquigglyMetricsSource getMetricsSource() {
-        return METRICS_SOURCE;
+        return SquigglyPathCache.getDefault().getMetricsSource();
     }
 
     /*
-            Represents the path structuore in the object graph
-         */
-    private static class Path {
+        Tracks the automaton state of each object currently being written by a generator, so that filtering a property
+        is a single transition from the state of its bean instead of a walk from the root of the object graph.  The
+        tracker lives for a single serialization, which also makes it the place to hold the context of that
+        serialization.
+
+        Jackson reuses one stream context per nesting level, so the tracker mirrors the chain of named contexts as a
+        stack.  A property passing through the filter truncates everything deeper than its bean, and an entry is only
+        reused as long as its context is still linked to the entry beneath it under the same property name.
+     */
+    private class PathTracker {
+
+        // resolved once per serialization rather than once per property
+        private final boolean filteringEnabled;
+        private SquigglyContext context;
+        private SquigglyAutomaton contextAutomaton;
+        private Class contextBeanClass;
+
+        private JsonGenerator generator;
+        private SquigglyAutomaton automaton;
+        private PathEntry[] entries = new PathEntry[8];
+        private JsonStreamContext[] buffer = new JsonStreamContext[8];
+        private int size;
+
+        PathTracker(boolean filteringEnabled) {
+            this.filteringEnabled = filteringEnabled;
+        }
 
-        private final String id;
-        private final LinkedList<PathElement> elements;
+        boolean isFilteringEnabled() {
+            return filteringEnabled;
+        }
 
-        public Path(LinkedList<PathElement> elements) {
-            StringBuilder idBuilder = new StringBuilder();
+        // get the context for the top-level bean, only asking the context provider again if that bean's class changes
+        SquigglyContext getContext() {
+            Class rootBeanClass = getRootBeanClass();
 
-            for (int i = 0; i < elements.size(); i++) {
-                PathElement element = elements.get(i);
+            if (context == null || contextBeanClass != rootBeanClass) {
+                context = contextProvider.getContext(beanInfoIntrospector.normalize(rootBeanClass));
+                contextAutomaton = null;
+                contextBeanClass = rootBeanClass;
+            }
 
-                if (i > 0) {
-                    idBuilder.append('.');
-                }
+            return context;
+        }
 
-                idBuilder.append(element.getName());
+        // get the automaton of the current context, compiling the filter expression if the context doesn't have one
+        SquigglyAutomaton getAutomaton() {
+            if (contextAutomaton == null) {
+                contextAutomaton = (context instanceof CompiledSquigglyContext)
+                        ? ((CompiledSquigglyContext) context).getAutomaton()
+                        : parser.compile(context.getFilter());
             }
 
-            id = idBuilder.toString();
-            this.elements = elements;
+            return contextAutomaton;
         }
 
-        public String getId() {
-            return id;
+        void setGenerator(JsonGenerator generator) {
+            if (this.generator != generator) {
+                this.generator = generator;
+                this.size = 0;
+            }
         }
 
-        public List<PathElement> getElements() {
-            return elements;
+        // find or create the entry for the bean being written in the given context
+        int resolve(JsonStreamContext context) {
+            int index = indexOf(context);
+
+            if (index >= 0) {
+                size = index + 1;
+
+                if (isValid(index)) {
+                    return index;
+                }
+            }
+
+            JsonStreamContext parent = getNamedParent(context);
+            index = (parent == null) ? -1 : indexOf(parent);
+
+            if (index >= 0 && isValid(index)) {
+                PathEntry parentEntry = entries[index];
+                boolean observed = parentEntry.observedValue == parent.getCurrentValue() && StringUtils.equals(parentEntry.childName, parent.getCurrentName());
+                size = index + 1;
+                return push(context, parent.getCurrentName(), observed ? parentEntry.childState : null);
+            }
+
+            return rebuild(context);
         }
 
-        public PathElement getFirst() {
-            return elements.getFirst();
+        Class getRootBeanClass() {
+            return entries[0].context.getCurrentValue().getClass();
         }
 
-        public PathElement getLast() {
-            return elements.getLast();
+        // get the state of an entry, computing it from the entries beneath it if needed
+        SquigglyState getState(int index, SquigglyAutomaton automaton) {
+            if (this.automaton != automaton) {
+                this.automaton = automaton;
+                pathCache.filterFrequency.increment(automaton.getId());
+                automaton.recordUse();
+
+                for (int i = 0; i < size; i++) {
+                    entries[i].state = null;
+                    entries[i].childState = null;
+                }
+            }
+
+            PathEntry entry = entries[index];
+
+            if (entry.state == null) {
+                if (index == 0) {
+                    entry.state = automaton.getStart();
+                } else {
+                    PathEntry parent = entries[index - 1];
+                    SquigglyState parentState = getState(index - 1, automaton);
+                    Class parentClass = parent.context.getCurrentValue().getClass();
+                    entry.state = transition(parentState, entry.name, parentClass);
+                }
+            }
+
+            return entry.state;
         }
 
-        // we use the last element because that is where the json stream context started
-        public Class getBeanClass() {
-            return getLast().getBeanClass();
+        // marks the bean of an entry as seen by the filter without recording a child
+        void setObserved(int index) {
+            setChild(index, null, null);
         }
 
-        // maps aren't cachable
-        public boolean isCachable() {
-            Class beanClass = getBeanClass();
-            return beanClass != null && !Map.class.isAssignableFrom(beanClass);
+        void setChild(int index, String name, SquigglyState state) {
+            PathEntry entry = entries[index];
+            entry.childName = name;
+            entry.childState = state;
+            entry.observedValue = entry.context.getCurrentValue();
         }
 
-        @Override
-        public boolean equals(Object o) {
-            if (this == o) return true;
-            if (o == null || getClass() != o.getClass()) return false;
+        private int indexOf(JsonStreamContext context) {
+            for (int i = size - 1; i >= 0; i--) {
+                if (entries[i].context == context) {
+                    return i;
+                }
+            }
 
-            Path path = (Path) o;
-            Class beanClass = getBeanClass();
-            Class oBeanClass = path.getBeanClass();
+            return -1;
+        }
 
-            if (!id.equals(path.id)) return false;
-            if (beanClass != null ? !beanClass.equals(oBeanClass) : oBeanClass != null) return false;
+        // checks that the entry is still linked to the entries beneath it
+        private boolean isValid(int index) {
+            for (int i = index; i > 0; i--) {
+                PathEntry entry = entries[i];
+                PathEntry parent = entries[i - 1];
 
-            return true;
-        }
+                if (getNamedParent(entry.context) != parent.context) {
+                    return false;
+                }
 
-        @Override
-        public int hashCode() {
-            int result = id.hashCode();
-            Class beanClass = getBeanClass();
-            result = 31 * result + (beanClass != null ? beanClass.hashCode() : 0);
-            return result;
+                if (!StringUtils.equals(parent.context.getCurrentName(), entry.name)) {
+                    return false;
+                }
+
+                // the filter has seen the parent's current bean, so everything beneath it was validated then
+                if (parent.observedValue != null && parent.observedValue == parent.context.getCurrentValue()) {
+                    return true;
+                }
+            }
+
+            return getNamedParent(entries[0].context) == null;
         }
-    }
 
-    // represent a specific point in the path.
-    private static class PathElement {
-        private final String name;
-        private final Class bean;
+        private int push(JsonStreamContext context, String name, SquigglyState state) {
+            if (size == entries.length) {
+                entries = Arrays.copyOf(entries, size * 2);
+            }
+
+            PathEntry entry = entries[size];
+
+            if (entry == null) {
+                entry = new PathEntry();
+                entries[size] = entry;
+            }
 
-        public PathElement(String name, Object bean) {
-            this.name = name;
-            this.bean = bean.getClass();
+            entry.context = context;
+            entry.name = name;
+            entry.state = state;
+            entry.childName = null;
+            entry.childState = null;
+            entry.observedValue = null;
+
+            return size++;
         }
 
-        public String getName() {
-            return name;
+        // rebuild the stack from the chain of named contexts leading to the given context
+        private int rebuild(JsonStreamContext context) {
+            int count = 0;
+
+            for (JsonStreamContext current = context; current != null; current = getNamedParent(current)) {
+                if (count == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, count * 2);
+                }
+
+                buffer[count++] = current;
+            }
+
+            size = 0;
+            push(buffer[count - 1], null, null);
+
+            for (int i = count - 2; i >= 0; i--) {
+                push(buffer[i], buffer[i + 1].getCurrentName(), null);
+            }
+
+            Arrays.fill(buffer, 0, count, null);
+            return size - 1;
         }
 
-        public Class getBeanClass() {
-            return bean;
+        // the closest ancestor that represents a named property of a bean
+        private JsonStreamContext getNamedParent(JsonStreamContext context) {
+            JsonStreamContext parent = context.getParent();
+
+            while (parent != null && (parent.getCurrentName() == null || parent.getCurrentValue() == null)) {
+                parent = parent.getParent();
+            }
+
+            return parent;
         }
     }
+
+    // represents a bean currently being written
+    private static class PathEntry {
+        private JsonStreamContext context;
+        private String name;
+        private SquigglyState state;
+        private String childName;
+        private SquigglyState childState;
+        private Object observedValue;
+    }
 }
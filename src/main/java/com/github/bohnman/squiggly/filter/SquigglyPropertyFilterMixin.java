@@ -4,7 +4,8 @@ import com.fasterxml.jackson.annotation.JsonFilter;
 import net.jcip.annotations.ThreadSafe;
 
 /**
- * Jackson mixin that register the filter id for the @{@link SquigglyPropertyFilter}.
+ * Jackson mixin that register the filter id for the @{@link SquigglyPropertyFilter}.  Squiggly.init uses a
+ * {@link SquigglyFilterAnnotationIntrospector} instead, but the mixin can still be used to register the filter manually.
  */
 @ThreadSafe
 @JsonFilter(SquigglyPropertyFilter.FILTER_ID)
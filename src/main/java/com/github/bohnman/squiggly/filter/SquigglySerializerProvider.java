@@ -0,0 +1,174 @@
+package com.github.bohnman.squiggly.filter;
+
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.ser.DefaultSerializerProvider;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.PropertyFilter;
+import com.fasterxml.jackson.databind.ser.SerializerFactory;
+import net.jcip.annotations.ThreadSafe;
+
+/**
+ * Jackson serializer provider that skips the @{@link SquigglyPropertyFilter} entirely for serializations that it
+ * wouldn't filter.
+ * <p>
+ * Whether filtering is enabled is decided once when a serialization starts.  When it isn't, the serialization uses a
+ * second set of serializers, built without the filter ids that a {@link SquigglyFilterAnnotationIntrospector} assigns,
+ * so every property is written by Jackson directly.  The two sets are cached separately, so switching between them
+ * doesn't rebuild any serializers.
+ */
+@ThreadSafe
+public class SquigglySerializerProvider extends DefaultSerializerProvider {
+
+    private static final long serialVersionUID = 1L;
+
+    // blueprint of the unfiltered serializers, shared by every instance created from this one
+    private final UnfilteredProvider unfilteredProvider;
+    private transient volatile ConfigPair unfilteredConfig;
+
+    public SquigglySerializerProvider() {
+        super();
+        this.unfilteredProvider = new UnfilteredProvider(this);
+    }
+
+    /**
+     * Constructor that keeps the settings of another provider, such as the mapper's current one, including its null
+     * value, null key and unknown type serializers.  Serializers cached by the other provider aren't copied.
+     *
+     * @param src the provider to copy the settings of
+     */
+    public SquigglySerializerProvider(DefaultSerializerProvider src) {
+        super(src);
+        this.unfilteredProvider = new UnfilteredProvider(src);
+    }
+
+    protected SquigglySerializerProvider(SquigglySerializerProvider src, SerializationConfig config, SerializerFactory f) {
+        super(src, config, f);
+        this.unfilteredProvider = src.unfilteredProvider;
+    }
+
+    @Override
+    public DefaultSerializerProvider copy() {
+        return new SquigglySerializerProvider(this);
+    }
+
+    // settings made after construction apply to both sets of serializers
+
+    @Override
+    public void setDefaultKeySerializer(JsonSerializer<Object> ks) {
+        super.setDefaultKeySerializer(ks);
+        unfilteredProvider.setDefaultKeySerializer(ks);
+    }
+
+    @Override
+    public void setNullValueSerializer(JsonSerializer<Object> nvs) {
+        super.setNullValueSerializer(nvs);
+        unfilteredProvider.setNullValueSerializer(nvs);
+    }
+
+    @Override
+    public void setNullKeySerializer(JsonSerializer<Object> nks) {
+        super.setNullKeySerializer(nks);
+        unfilteredProvider.setNullKeySerializer(nks);
+    }
+
+    @Override
+    public DefaultSerializerProvider createInstance(SerializationConfig config, SerializerFactory jsf) {
+        SquigglyPropertyFilter filter = findSquigglyFilter(config);
+
+        if (filter == null) {
+            return new SquigglySerializerProvider(this, config, jsf);
+        }
+
+        if (!filter.isFilteringEnabled()) {
+            return unfilteredProvider.createInstance(getUnfilteredConfig(config), jsf);
+        }
+
+        // the filter reuses the decision rather than asking the context provider again
+        DefaultSerializerProvider instance = new SquigglySerializerProvider(this, config, jsf);
+        filter.startFilteredSerialization(instance);
+        return instance;
+    }
+
+    // the squiggly filter registered with the config, null if there's none
+    private static SquigglyPropertyFilter findSquigglyFilter(SerializationConfig config) {
+        FilterProvider filterProvider = config.getFilterProvider();
+
+        if (filterProvider == null) {
+            return null;
+        }
+
+        PropertyFilter filter;
+
+        try {
+            filter = filterProvider.findPropertyFilter(SquigglyPropertyFilter.FILTER_ID, null);
+        } catch (IllegalArgumentException e) {
+            // no filter is registered, which only fails the serialization if it writes a filtered bean
+            return null;
+        }
+
+        return (filter instanceof SquigglyPropertyFilter) ? (SquigglyPropertyFilter) filter : null;
+    }
+
+    // the same config is normally used for every serialization, so the last one converted is kept
+    private SerializationConfig getUnfilteredConfig(SerializationConfig config) {
+        ConfigPair pair = unfilteredConfig;
+
+        if (pair == null || pair.config != config) {
+            pair = new ConfigPair(config, config.with(SquigglyFilterAnnotationIntrospector.removeFrom(config.getAnnotationIntrospector())));
+            unfilteredConfig = pair;
+        }
+
+        return pair.unfilteredConfig;
+    }
+
+    /**
+     * Get the number of serializers cached for serializations that are filtered and those that aren't.
+     *
+     * @return cached serializer count
+     */
+    @Override
+    public int cachedSerializersCount() {
+        return super.cachedSerializersCount() + unfilteredProvider.cachedSerializersCount();
+    }
+
+    @Override
+    public void flushCachedSerializers() {
+        super.flushCachedSerializers();
+        unfilteredProvider.flushCachedSerializers();
+    }
+
+    // keeps the unfiltered serializers in a cache of its own, with the same settings as the provider it was copied from
+    private static class UnfilteredProvider extends DefaultSerializerProvider {
+
+        private static final long serialVersionUID = 1L;
+
+        UnfilteredProvider(DefaultSerializerProvider src) {
+            super(src);
+        }
+
+        UnfilteredProvider(UnfilteredProvider src, SerializationConfig config, SerializerFactory f) {
+            super(src, config, f);
+        }
+
+        @Override
+        public DefaultSerializerProvider copy() {
+            return new UnfilteredProvider(this);
+        }
+
+        @Override
+        public DefaultSerializerProvider createInstance(SerializationConfig config, SerializerFactory jsf) {
+            return new UnfilteredProvider(this, config, jsf);
+        }
+    }
+
+    private static class ConfigPair {
+        private final SerializationConfig config;
+        private final SerializationConfig unfilteredConfig;
+
+        ConfigPair(SerializationConfig config, SerializationConfig unfilteredConfig) {
+            this.config = config;
+            this.unfilteredConfig = unfilteredConfig;
+        }
+    }
+}
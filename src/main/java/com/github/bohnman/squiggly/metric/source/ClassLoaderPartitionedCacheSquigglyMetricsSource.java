@@ -0,0 +1,41 @@
+package com.github.bohnman.squiggly.metric.source;
+
+import com.github.bohnman.squiggly.util.ClassLoaderPartitionedCache;
+import net.jcip.annotations.ThreadSafe;
+
+import java.util.Map;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A source that provides the statistics of a {@link ClassLoaderPartitionedCache}, along with the number of class
+ * loaders it holds entries for and the size of each one's partition.
+ */
+@ThreadSafe
+public class ClassLoaderPartitionedCacheSquigglyMetricsSource implements SquigglyMetricsSource {
+
+    private final String prefix;
+    private final ClassLoaderPartitionedCache cache;
+    private final GuavaCacheSquigglyMetricsSource statsSource;
+
+    public ClassLoaderPartitionedCacheSquigglyMetricsSource(String prefix, ClassLoaderPartitionedCache cache) {
+        checkNotNull(prefix);
+        checkNotNull(cache);
+        this.prefix = prefix;
+        this.cache = cache;
+        this.statsSource = new GuavaCacheSquigglyMetricsSource(prefix, cache);
+    }
+
+    @Override
+    public void applyMetrics(Map<String, Object> map) {
+        statsSource.applyMetrics(map);
+
+        @SuppressWarnings("unchecked")
+        Map<String, Long> partitionSizes = cache.getPartitionSizes();
+        map.put(prefix + "classLoaderCount", partitionSizes.size());
+
+        for (Map.Entry<String, Long> entry : partitionSizes.entrySet()) {
+            map.put(prefix + "classLoaders." + entry.getKey() + ".size", entry.getValue());
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.github.bohnman.squiggly.metric.source;
 
+import com.github.bohnman.squiggly.util.TinyLfuCache;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheStats;
 import net.jcip.annotations.ThreadSafe;
@@ -9,7 +10,7 @@ import java.util.Map;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
- * A source that provides metrics from a Guava {@link Cache}.
+ * A source that provides metrics from a Guava {@link Cache}, including the weighted size of a {@link TinyLfuCache}.
  */
 @ThreadSafe
 public class GuavaCacheSquigglyMetricsSource implements SquigglyMetricsSource {
@@ -39,5 +40,9 @@ public class GuavaCacheSquigglyMetricsSource implements SquigglyMetricsSource {
         map.put(prefix + "missRate", stats.missRate());
         map.put(prefix + "requestCount", stats.requestCount());
         map.put(prefix + "totalLoadTime", stats.totalLoadTime());
+
+        if (cache instanceof TinyLfuCache) {
+            map.put(prefix + "weightedSize", ((TinyLfuCache) cache).weightedSize());
+        }
     }
 }
@@ -0,0 +1,250 @@
+package com.github.bohnman.squiggly.name;
+
+import net.jcip.annotations.ThreadSafe;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Matches names against a glob, where * matches any run of characters and ? matches zero or one character.
+ * <p>Common shapes (eg. eco*, *Time, *Weight*) get a dedicated matcher that runs without regex or allocation.</p>
+ */
+@ThreadSafe
+abstract class GlobMatcher {
+
+    private static final char ANY = '*';
+    private static final char OPTIONAL = '?';
+
+    /**
+     * Says whether the name matches the glob.
+     *
+     * @param name the name
+     * @return true if matches, false if not
+     */
+    abstract boolean matches(String name);
+
+    /**
+     * Build the fastest matcher for the glob.
+     *
+     * @param glob the glob
+     * @return matcher
+     */
+    static GlobMatcher compile(String glob) {
+        if (glob.isEmpty()) {
+            return new ExactMatcher(glob);
+        }
+
+        if (glob.indexOf(OPTIONAL) < 0) {
+            String literal = StringUtils.strip(glob, "*");
+
+            if (literal.indexOf(ANY) < 0) {
+                boolean leading = glob.charAt(0) == ANY;
+                boolean trailing = glob.charAt(glob.length() - 1) == ANY;
+
+                if (leading && trailing) {
+                    return new ContainsMatcher(literal);
+                }
+
+                if (trailing) {
+                    return new PrefixMatcher(literal);
+                }
+
+                if (leading) {
+                    return new SuffixMatcher(literal);
+                }
+
+                return new ExactMatcher(literal);
+            }
+
+            return new StarMatcher(glob);
+        }
+
+        return new OptionalMatcher(glob);
+    }
+
+    private static class ExactMatcher extends GlobMatcher {
+        private final String literal;
+
+        ExactMatcher(String literal) {
+            this.literal = literal;
+        }
+
+        @Override
+        boolean matches(String name) {
+            return literal.equals(name);
+        }
+    }
+
+    private static class PrefixMatcher extends GlobMatcher {
+        private final String prefix;
+
+        PrefixMatcher(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        boolean matches(String name) {
+            return name.startsWith(prefix);
+        }
+    }
+
+    private static class SuffixMatcher extends GlobMatcher {
+        private final String suffix;
+
+        SuffixMatcher(String suffix) {
+            this.suffix = suffix;
+        }
+
+        @Override
+        boolean matches(String name) {
+            return name.endsWith(suffix);
+        }
+    }
+
+    private static class ContainsMatcher extends GlobMatcher {
+        private final String infix;
+
+        ContainsMatcher(String infix) {
+            this.infix = infix;
+        }
+
+        @Override
+        boolean matches(String name) {
+            return name.contains(infix);
+        }
+    }
+
+    // only * wildcards: greedy matching that backtracks to the last * seen
+    private static class StarMatcher extends GlobMatcher {
+        private final String glob;
+
+        StarMatcher(String glob) {
+            this.glob = glob;
+        }
+
+        @Override
+        boolean matches(String name) {
+            int g = 0;
+            int n = 0;
+            int starG = -1;
+            int starN = 0;
+
+            while (n < name.length()) {
+                if (g < glob.length() && glob.charAt(g) == ANY) {
+                    starG = g++;
+                    starN = n;
+                } else if (g < glob.length() && glob.charAt(g) == name.charAt(n)) {
+                    g++;
+                    n++;
+                } else if (starG >= 0) {
+                    g = starG + 1;
+                    n = ++starN;
+                } else {
+                    return false;
+                }
+            }
+
+            while (g < glob.length() && glob.charAt(g) == ANY) {
+                g++;
+            }
+
+            return g == glob.length();
+        }
+    }
+
+    // globs with ?: simulates the glob as an automaton whose states are positions in the glob
+    private static class OptionalMatcher extends GlobMatcher {
+        private static final int MAX_MASK_LENGTH = Long.SIZE - 1;
+
+        private final String glob;
+        private final long skippable;
+        private final long accept;
+
+        OptionalMatcher(String glob) {
+            this.glob = glob;
+
+            long skippable = 0;
+
+            for (int i = 0; i < glob.length() && i < MAX_MASK_LENGTH; i++) {
+                char c = glob.charAt(i);
+
+                if (c == ANY || c == OPTIONAL) {
+                    skippable |= 1L << i;
+                }
+            }
+
+            this.skippable = skippable;
+            this.accept = 1L << Math.min(glob.length(), MAX_MASK_LENGTH);
+        }
+
+        @Override
+        boolean matches(String name) {
+            if (glob.length() > MAX_MASK_LENGTH) {
+                return matches(name, 0, 0);
+            }
+
+            long states = close(1L);
+
+            for (int n = 0; n < name.length() && states != 0; n++) {
+                char c = name.charAt(n);
+                long next = 0;
+
+                for (long remaining = states; remaining != 0; remaining &= remaining - 1) {
+                    int g = Long.numberOfTrailingZeros(remaining);
+
+                    if (g == glob.length()) {
+                        continue;
+                    }
+
+                    char gc = glob.charAt(g);
+
+                    if (gc == ANY) {
+                        next |= 1L << g;
+                    } else if (gc == OPTIONAL || gc == c) {
+                        next |= 1L << (g + 1);
+                    }
+                }
+
+                states = close(next);
+            }
+
+            return (states & accept) != 0;
+        }
+
+        // adds the states reachable by letting * and ? match nothing
+        private long close(long states) {
+            long closed = states;
+            long previous;
+
+            do {
+                previous = closed;
+                closed |= (closed & skippable) << 1;
+            } while (closed != previous);
+
+            return closed;
+        }
+
+        // fallback for globs too long for a mask
+        private boolean matches(String name, int g, int n) {
+            if (g == glob.length()) {
+                return n == name.length();
+            }
+
+            char gc = glob.charAt(g);
+
+            if (gc == ANY) {
+                for (int i = n; i <= name.length(); i++) {
+                    if (matches(name, g + 1, i)) {
+                        return true;
+                    }
+                }
+
+                return false;
+            }
+
+            if (gc == OPTIONAL) {
+                return matches(name, g + 1, n) || (n < name.length() && matches(name, g + 1, n + 1));
+            }
+
+            return n < name.length() && gc == name.charAt(n) && matches(name, g + 1, n + 1);
+        }
+    }
+}
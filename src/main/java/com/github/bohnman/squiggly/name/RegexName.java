@@ -43,6 +43,10 @@ public class RegexName implements SquigglyName {
         return rawName;
     }
 
+    public Pattern getPattern() {
+        return pattern;
+    }
+
     @Override
     public int match(String name) {
         if (pattern.matcher(name).matches()) {
@@ -2,25 +2,16 @@ package com.github.bohnman.squiggly.name;
 
 import org.apache.commons.lang3.StringUtils;
 
-import java.util.regex.Pattern;
-
 public class WildcardName implements SquigglyName {
 
     private final String name;
     private final String rawName;
-    private final Pattern pattern;
+    private final GlobMatcher matcher;
 
     public WildcardName(String name) {
         this.name = name;
         this.rawName = StringUtils.remove(this.name, '*');
-        this.pattern = buildPattern();
-    }
-
-    private Pattern buildPattern() {
-        String[] search = {"*", "?"};
-        String[] replace = {".*", ".?"};
-
-        return Pattern.compile("^" + StringUtils.replaceEach(name, search, replace) + "$");
+        this.matcher = GlobMatcher.compile(name);
     }
 
     @Override
@@ -35,7 +26,7 @@ public class WildcardName implements SquigglyName {
 
     @Override
     public int match(String name) {
-        if (pattern.matcher(name).matches()) {
+        if (matcher.matches(name)) {
             return rawName.length() + 2;
         }
 
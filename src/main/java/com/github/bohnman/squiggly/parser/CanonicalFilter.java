@@ -0,0 +1,153 @@
+package com.github.bohnman.squiggly.parser;
+
+import com.github.bohnman.squiggly.config.SquigglyEngineConfig;
+import com.github.bohnman.squiggly.name.RegexName;
+import com.github.bohnman.squiggly.name.SquigglyName;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Puts parsed filters in a canonical form, so that filters which only differ in how they are written have the same
+ * nodes and the same expression, e.g. name,id and id,name or a.b,a.c and a{b,c}.
+ * <p>
+ * The parser has already merged siblings with the same name and expanded dot paths and field lists.  On top of that,
+ * siblings are sorted by name, but only where their order can't change what the filter matches.  A property that
+ * isn't named by any sibling is matched against the first sibling naming one of its views, and the latter of two
+ * equally specific patterns wins.  So only runs of adjacent siblings with exact names that would match a view the
+ * same way are sorted: excluded fields, and fields without nested filters when views aren't propagated to them.
+ */
+class CanonicalFilter {
+
+    private static final int EXCLUDED = 0;
+    private static final int FIELD = 1;
+    private static final int FIXED = 2;
+
+    private static final Comparator<SquigglyNode> BY_NAME = new Comparator<SquigglyNode>() {
+        @Override
+        public int compare(SquigglyNode o1, SquigglyNode o2) {
+            return o1.getName().compareTo(o2.getName());
+        }
+    };
+
+    private CanonicalFilter() {
+    }
+
+    /**
+     * Put nodes in canonical order.
+     *
+     * @param nodes  the nodes
+     * @param config the config of the engine the nodes are compiled for
+     * @return the same list if it was already in canonical order, otherwise a sorted copy
+     */
+    static List<SquigglyNode> sort(List<SquigglyNode> nodes, SquigglyEngineConfig config) {
+        if (nodes.isEmpty()) {
+            return nodes;
+        }
+
+        List<SquigglyNode> sorted = new ArrayList<>(nodes.size());
+        boolean changed = false;
+
+        for (SquigglyNode node : nodes) {
+            SquigglyNode sortedNode = sort(node, config);
+            changed |= (sortedNode != node);
+            sorted.add(sortedNode);
+        }
+
+        boolean propagateViews = config.isFilterPropagateViewToNestedFilters();
+        int runStart = 0;
+
+        for (int i = 1; i <= sorted.size(); i++) {
+            int runKind = kind(sorted.get(runStart), propagateViews);
+
+            if (i == sorted.size() || runKind == FIXED || kind(sorted.get(i), propagateViews) != runKind) {
+                Collections.sort(sorted.subList(runStart, i), BY_NAME);
+                runStart = i;
+            }
+        }
+
+        for (int i = 0; !changed && i < sorted.size(); i++) {
+            changed = (sorted.get(i) != nodes.get(i));
+        }
+
+        return changed ? Collections.unmodifiableList(sorted) : nodes;
+    }
+
+    private static SquigglyNode sort(SquigglyNode node, SquigglyEngineConfig config) {
+        List<SquigglyNode> children = sort(node.getChildren(), config);
+
+        if (children == node.getChildren()) {
+            return node;
+        }
+
+        return new SquigglyNode(node.getSquigglyName(), children, node.isNegated(), node.isSquiggly(), node.isEmptyNested());
+    }
+
+    // Siblings of the same kind, other than FIXED, can swap places without changing what the filter matches
+    private static int kind(SquigglyNode node, boolean propagateViews) {
+        if (!node.isExact()) {
+            return FIXED;
+        }
+
+        if (node.isNegated()) {
+            return EXCLUDED;
+        }
+
+        return (node.isSquiggly() || propagateViews) ? FIXED : FIELD;
+    }
+
+    /**
+     * Write nodes that are in canonical order as a filter expression.  Parts of the nodes that don't change what the
+     * filter matches are left out, such as the children of an excluded field.
+     *
+     * @param nodes the nodes
+     * @return filter expression
+     */
+    static String format(List<SquigglyNode> nodes) {
+        StringBuilder builder = new StringBuilder();
+        format(nodes, builder);
+        return builder.toString();
+    }
+
+    private static void format(List<SquigglyNode> nodes, StringBuilder builder) {
+        for (int i = 0; i < nodes.size(); i++) {
+            SquigglyNode node = nodes.get(i);
+
+            if (i > 0) {
+                builder.append(',');
+            }
+
+            if (node.isNegated()) {
+                builder.append('-');
+                formatName(node.getSquigglyName(), builder);
+                continue;
+            }
+
+            formatName(node.getSquigglyName(), builder);
+
+            if (!node.getChildren().isEmpty()) {
+                builder.append('{');
+                format(node.getChildren(), builder);
+                builder.append('}');
+            } else if (node.isEmptyNested()) {
+                builder.append("{}");
+            }
+        }
+    }
+
+    private static void formatName(SquigglyName name, StringBuilder builder) {
+        if (!(name instanceof RegexName)) {
+            builder.append(name.getName());
+            return;
+        }
+
+        builder.append('~').append(name.getName()).append('~');
+
+        if ((((RegexName) name).getPattern().flags() & Pattern.CASE_INSENSITIVE) != 0) {
+            builder.append('i');
+        }
+    }
+}
@@ -0,0 +1,588 @@
+package com.github.bohnman.squiggly.parser;
+
+import com.github.bohnman.squiggly.name.AnyDeepName;
+import com.github.bohnman.squiggly.name.AnyShallowName;
+import com.github.bohnman.squiggly.name.ExactName;
+import com.github.bohnman.squiggly.name.RegexName;
+import com.github.bohnman.squiggly.name.SquigglyName;
+import com.github.bohnman.squiggly.name.WildcardName;
+import com.github.bohnman.squiggly.view.PropertyView;
+import net.jcip.annotations.NotThreadSafe;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A recursive descent parser for the grammar in SquigglyExpression.g4, which reads a filter expression in a single pass
+ * and builds its nodes as it goes.
+ * <p>
+ * It accepts exactly what the grammar accepts, including its quirks, such as "i" lexing as the regex flag rather than
+ * as a field name.  Syntax errors are reported the same way the ANTLR parser reported them, as a
+ * {@link ParseCancellationException} whose message starts with the line and the column of the offending token.  Like
+ * the ANTLR visitor, a field name that can't be built, such as an invalid regex, is only thrown once the whole
+ * expression has been parsed, so a syntax error later on takes precedence.
+ * <p>
+ * The parser also checks the expression against the limits it's given as it goes, so an expression that exceeds one is
+ * rejected before any more work is spent on it.
+ * <p>
+ * A parser instance parses a single expression.
+ */
+@NotThreadSafe
+class ExpressionParser {
+
+    private static final int EOF = 0;
+    private static final int IDENTIFIER = 1;
+    private static final int WILDCARD_SHALLOW = 2;
+    private static final int WILDCARD_DEEP = 3;
+    private static final int QUESTION = 4;
+    private static final int COMMA = 5;
+    private static final int PIPE = 6;
+    private static final int DOT = 7;
+    private static final int MINUS = 8;
+    private static final int LPAREN = 9;
+    private static final int RPAREN = 10;
+    private static final int LSQUIGGLY = 11;
+    private static final int RSQUIGGLY = 12;
+    private static final int LBRACE = 13;
+    private static final int RBRACE = 14;
+    private static final int TILDE = 15;
+    private static final int SLASH = 16;
+    private static final int FLAG = 17;
+    private static final int REGEX_CHAR = 18;
+
+    private final String filter;
+    private final FilterLimits limits;
+
+    // the current token, tokens cover the whole filter because the grammar doesn't skip anything
+    private int type;
+    private int start;
+    private int end;
+
+    // the first field name that couldn't be built
+    private RuntimeException nameError;
+
+    // what the expression has cost so far, counting each copy of a nested expression made by a field list
+    private int fieldCount;
+    private int regexCount;
+
+    ExpressionParser(String filter) {
+        this(filter, FilterLimits.NONE);
+    }
+
+    ExpressionParser(String filter, FilterLimits limits) {
+        this.filter = filter;
+        this.limits = limits;
+    }
+
+    /**
+     * Parse the expression.
+     *
+     * @return the top level nodes
+     * @throws ParseCancellationException   if the expression has a syntax error
+     * @throws SquigglyFilterLimitException if the expression exceeds a limit
+     */
+    List<SquigglyNode> parse() {
+        next(0);
+
+        MutableNode root = new MutableNode(new ExactName("root")).dotPathed(true);
+        expressionList(root);
+        expect(EOF);
+
+        if (nameError != null) {
+            throw nameError;
+        }
+
+        return analyze(root).toSquigglyNode().getChildren();
+    }
+
+    // expression_list : expression (',' expression)*
+    private void expressionList(MutableNode parent) {
+        expression(parent);
+
+        while (type == COMMA) {
+            next(end);
+            expression(parent);
+        }
+    }
+
+    private void expression(MutableNode parent) {
+        if (type == MINUS) {
+            next(end);
+            negatedExpression(parent);
+            return;
+        }
+
+        if (type == WILDCARD_DEEP) {
+            next(end);
+            addChild(parent, new MutableNode(AnyDeepName.get()));
+            return;
+        }
+
+        List<SquigglyName> names;
+
+        if (type == LPAREN) {
+            names = fieldList();
+
+            if (type != LSQUIGGLY && type != LBRACE) {
+                throw syntaxError();
+            }
+        } else {
+            SquigglyName name = field();
+
+            if (type == DOT) {
+                parent.squiggly = true;
+
+                while (type == DOT) {
+                    next(end);
+                    SquigglyName nextName = field();
+                    parent = addChild(parent, new MutableNode(name).dotPathed(true));
+                    parent.squiggly = true;
+                    name = nextName;
+                }
+            }
+
+            names = Collections.singletonList(name);
+        }
+
+        if (type != LSQUIGGLY && type != LBRACE) {
+            addChild(parent, new MutableNode(names.get(0)));
+            return;
+        }
+
+        int close = (type == LSQUIGGLY) ? RSQUIGGLY : RBRACE;
+        next(end);
+
+        if (type == close) {
+            next(end);
+
+            for (SquigglyName name : names) {
+                addChild(parent, new MutableNode(name)).emptyNested = true;
+            }
+
+            return;
+        }
+
+        // each name of a field list gets its own copy of the nested expression, so parse it again for each of them
+        int nestedStart = start;
+        int nestedEnd = -1;
+
+        for (SquigglyName name : names) {
+            MutableNode node = addChild(parent, new MutableNode(name));
+            node.squiggly = true;
+
+            next(nestedStart);
+            expressionList(node);
+            expect(close);
+            nestedEnd = start;
+        }
+
+        next(nestedEnd);
+    }
+
+    // negated_expression : '-' field | '-' dot_path
+    private void negatedExpression(MutableNode parent) {
+        SquigglyName name = field();
+
+        if (type != DOT) {
+            addChild(parent, new MutableNode(name).negated(true));
+            return;
+        }
+
+        List<SquigglyName> names = new ArrayList<>();
+        names.add(name);
+
+        while (type == DOT) {
+            next(end);
+            names.add(field());
+        }
+
+        for (SquigglyName pathName : names) {
+            parent.squiggly = true;
+
+            MutableNode node = new MutableNode(pathName);
+            node.negativeParent = true;
+
+            parent = addChild(parent, node.dotPathed(true));
+        }
+
+        parent.negated(true);
+        parent.negativeParent = false;
+    }
+
+    // field_list : '(' field (('|'|',') field)* ')'
+    private List<SquigglyName> fieldList() {
+        next(end);
+
+        List<SquigglyName> names = new ArrayList<>();
+        names.add(field());
+
+        while (type == PIPE || type == COMMA) {
+            next(end);
+            names.add(field());
+        }
+
+        expect(RPAREN);
+        return names;
+    }
+
+    private SquigglyName field() {
+        if (type == TILDE || type == SLASH) {
+            return regexField();
+        }
+
+        if (type != IDENTIFIER && type != WILDCARD_SHALLOW && type != QUESTION) {
+            throw syntaxError();
+        }
+
+        // identifiers and wildcards alternate, e.g. a*b?c
+        int fieldStart = start;
+        int first = type;
+        int tokens = 0;
+        boolean identifier = false;
+
+        while (isWildcardChar(type) || type == IDENTIFIER) {
+            identifier |= (type == IDENTIFIER);
+            int previous = type;
+            next(end);
+            tokens++;
+
+            if ((previous == IDENTIFIER) == (type == IDENTIFIER)) {
+                break;
+            }
+        }
+
+        if (!identifier) {
+            if (first == WILDCARD_SHALLOW) {
+                return AnyShallowName.get();
+            }
+
+            throw syntaxError();
+        }
+
+        String text = filter.substring(fieldStart, start);
+        return (tokens == 1) ? new ExactName(text) : new WildcardName(text);
+    }
+
+    // regex_field : '~' regex_pattern '~' regex_flag* | '/' regex_pattern '/' regex_flag*
+    private SquigglyName regexField() {
+        int delimiter = type;
+        next(end);
+
+        int patternStart = start;
+
+        while (isRegexPattern(type)) {
+            next(end);
+        }
+
+        if (start == patternStart) {
+            throw syntaxError();
+        }
+
+        String pattern = filter.substring(patternStart, start);
+        expect(delimiter);
+
+        if (FilterLimits.exceeds(++regexCount, limits.maxRegexCount)) {
+            throw new SquigglyFilterLimitException("Filter has more than the maximum of " + limits.maxRegexCount + " regex fields");
+        }
+
+        Set<String> flags = new HashSet<>();
+
+        while (type == FLAG) {
+            flags.add(filter.substring(start, end));
+            next(end);
+        }
+
+        try {
+            return new RegexName(pattern, flags);
+        } catch (RuntimeException e) {
+            if (nameError == null) {
+                nameError = e;
+            }
+
+            return new ExactName(pattern);
+        }
+    }
+
+    // add a field to its parent, checking the expression against the limits as it grows
+    private MutableNode addChild(MutableNode parent, MutableNode child) {
+        if (FilterLimits.exceeds(++fieldCount, limits.maxFieldCount)) {
+            throw new SquigglyFilterLimitException("Filter expands to more than the maximum of " + limits.maxFieldCount + " fields");
+        }
+
+        if (FilterLimits.exceeds(parent.depth + 1, limits.maxDepth)) {
+            throw new SquigglyFilterLimitException("Filter is deeper than the maximum depth of " + limits.maxDepth);
+        }
+
+        MutableNode added = parent.addChild(child);
+        added.depth = parent.depth + 1;
+
+        if (FilterLimits.exceeds(parent.children.size(), limits.maxBreadth)) {
+            throw new SquigglyFilterLimitException("Filter has more than the maximum of " + limits.maxBreadth + " fields in one nested filter");
+        }
+
+        return added;
+    }
+
+    private static boolean isWildcardChar(int type) {
+        return type == WILDCARD_SHALLOW || type == QUESTION;
+    }
+
+    // regex_pattern : ('.' | '|' | ',' | LSQUIGGLY | RSQUIGGLY | LBRACE | RBRACE | '-' | REGEX_CHAR  | IDENTIFIER | WILDCARD_SHALLOW)+
+    private static boolean isRegexPattern(int type) {
+        switch (type) {
+            case DOT:
+            case PIPE:
+            case COMMA:
+            case LSQUIGGLY:
+            case RSQUIGGLY:
+            case LBRACE:
+            case RBRACE:
+            case MINUS:
+            case REGEX_CHAR:
+            case IDENTIFIER:
+            case WILDCARD_SHALLOW:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private void expect(int expectedType) {
+        if (type != expectedType) {
+            throw syntaxError();
+        }
+
+        if (type != EOF) {
+            next(end);
+        }
+    }
+
+    // reads the token starting at the given offset, with the same longest match rules as the ANTLR lexer
+    private void next(int offset) {
+        start = offset;
+
+        if (offset >= filter.length()) {
+            type = EOF;
+            end = offset;
+            return;
+        }
+
+        char c = filter.charAt(offset);
+        end = offset + 1;
+
+        switch (c) {
+            case ',':
+                type = COMMA;
+                return;
+            case '|':
+                type = PIPE;
+                return;
+            case '.':
+                type = DOT;
+                return;
+            case '-':
+                type = MINUS;
+                return;
+            case '(':
+                type = LPAREN;
+                return;
+            case ')':
+                type = RPAREN;
+                return;
+            case '{':
+                type = LSQUIGGLY;
+                return;
+            case '}':
+                type = RSQUIGGLY;
+                return;
+            case '[':
+                type = LBRACE;
+                return;
+            case ']':
+                type = RBRACE;
+                return;
+            case '~':
+                type = TILDE;
+                return;
+            case '/':
+                type = SLASH;
+                return;
+            case '?':
+                type = QUESTION;
+                return;
+            case '*':
+                if (end < filter.length() && filter.charAt(end) == '*') {
+                    end++;
+                    type = WILDCARD_DEEP;
+                } else {
+                    type = WILDCARD_SHALLOW;
+                }
+                return;
+            default:
+                break;
+        }
+
+        if (!isFieldChar(c)) {
+            type = REGEX_CHAR;
+            return;
+        }
+
+        while (end < filter.length() && isFieldChar(filter.charAt(end))) {
+            end++;
+        }
+
+        // a lone "i" is the regex flag, which the grammar defines before IDENTIFIER
+        type = (c == 'i' && end == offset + 1) ? FLAG : IDENTIFIER;
+    }
+
+    private static boolean isFieldChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '$' || c == '_';
+    }
+
+    private ParseCancellationException syntaxError() {
+        int line = 1;
+        int lineStart = 0;
+
+        for (int i = 0; i < start; i++) {
+            if (filter.charAt(i) == '\n') {
+                line++;
+                lineStart = i + 1;
+            }
+        }
+
+        String text = (type == EOF) ? "<EOF>" : filter.substring(start, end);
+        return new ParseCancellationException("line " + line + ":" + (start - lineStart) + " mismatched input '" + text + "'");
+    }
+
+    private static MutableNode analyze(MutableNode node) {
+        Map<MutableNode, MutableNode> nodesToAdd = new IdentityHashMap<>();
+        MutableNode analyze = analyze(node, nodesToAdd);
+
+        for (Map.Entry<MutableNode, MutableNode> entry : nodesToAdd.entrySet()) {
+            entry.getKey().addChild(entry.getValue());
+        }
+
+        return analyze;
+    }
+
+    private static MutableNode analyze(MutableNode node, Map<MutableNode, MutableNode> nodesToAdd) {
+        if (node.children != null && !node.children.isEmpty()) {
+            boolean allNegated = true;
+
+            for (MutableNode child : node.children.values()) {
+                if (!child.negated && !child.negativeParent) {
+                    allNegated = false;
+                    break;
+                }
+            }
+
+            if (allNegated) {
+                nodesToAdd.put(node, new MutableNode(newBaseViewName()).dotPathed(node.dotPathed));
+            }
+
+            for (MutableNode child : node.children.values()) {
+                analyze(child, nodesToAdd);
+            }
+        }
+
+        return node;
+    }
+
+    private static ExactName newBaseViewName() {
+        return new ExactName(PropertyView.BASE_VIEW);
+    }
+
+    private static class MutableNode {
+        public boolean negativeParent;
+        private SquigglyName name;
+        private boolean negated;
+        private boolean squiggly;
+        private boolean emptyNested;
+        private Map<String, MutableNode> children;
+        private boolean dotPathed;
+        private MutableNode parent;
+        private int depth;
+
+        MutableNode(SquigglyName name) {
+            this.name = name;
+        }
+
+        SquigglyNode toSquigglyNode() {
+            if (name == null) {
+                throw new IllegalArgumentException("No Names specified");
+            }
+
+            List<SquigglyNode> childNodes;
+
+            if (children == null || children.isEmpty()) {
+                childNodes = Collections.emptyList();
+            } else {
+                childNodes = new ArrayList<>(children.size());
+
+                for (MutableNode child : children.values()) {
+                    childNodes.add(child.toSquigglyNode());
+                }
+
+            }
+
+            return newSquigglyNode(name, childNodes);
+        }
+
+        private SquigglyNode newSquigglyNode(SquigglyName name, List<SquigglyNode> childNodes) {
+            return new SquigglyNode(name, childNodes, negated, squiggly, emptyNested);
+        }
+
+        public MutableNode dotPathed(boolean dotPathed) {
+            this.dotPathed = dotPathed;
+            return this;
+        }
+
+        public MutableNode negated(boolean negated) {
+            this.negated = negated;
+            return this;
+        }
+
+        public MutableNode addChild(MutableNode childToAdd) {
+            if (children == null) {
+                children = new LinkedHashMap<>();
+            }
+
+            String name = childToAdd.name.getName();
+            MutableNode existingChild = children.get(name);
+
+            if (existingChild == null) {
+                childToAdd.parent = this;
+                children.put(name, childToAdd);
+            } else {
+                if (childToAdd.children != null) {
+
+                    if (existingChild.children == null) {
+                        existingChild.children = childToAdd.children;
+                    } else {
+                        existingChild.children.putAll(childToAdd.children);
+                    }
+                }
+
+
+                existingChild.squiggly = existingChild.squiggly || childToAdd.squiggly;
+                existingChild.emptyNested = existingChild.emptyNested && childToAdd.emptyNested;
+                existingChild.dotPathed = existingChild.dotPathed && childToAdd.dotPathed;
+                existingChild.negativeParent = existingChild.negativeParent && childToAdd.negativeParent;
+                childToAdd = existingChild;
+            }
+
+            if (!childToAdd.dotPathed && dotPathed) {
+                dotPathed = false;
+            }
+
+            return childToAdd;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.github.bohnman.squiggly.parser;
+
+import com.github.bohnman.squiggly.config.SquigglyEngineConfig;
+import com.github.bohnman.squiggly.metric.source.SquigglyMetricsSource;
+import net.jcip.annotations.ThreadSafe;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The limits a parser puts on filter expressions, along with counts of the filters that exceeded them.  A limit of 0 or
+ * less means no limit.
+ */
+@ThreadSafe
+class FilterLimits {
+
+    /**
+     * Limits that let every filter through.
+     */
+    static final FilterLimits NONE = new FilterLimits(0, 0, 0, 0, 0, "", "squiggly.parser.limits.");
+
+    final int maxBreadth;
+    final int maxDepth;
+    final int maxFieldCount;
+    final int maxLength;
+    final int maxRegexCount;
+    private final String overLimitFilter;
+
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicLong downgradedCount = new AtomicLong();
+    private final SquigglyMetricsSource metricsSource;
+
+    /**
+     * Constructor.
+     *
+     * @param config        the config whose limits are used
+     * @param metricsPrefix the prefix of the metric names
+     * @throws IllegalArgumentException if the over limit filter is invalid or exceeds the limits itself
+     */
+    FilterLimits(SquigglyEngineConfig config, String metricsPrefix) {
+        this(config.getParserMaxBreadth(), config.getParserMaxDepth(), config.getParserMaxFieldCount(),
+                config.getParserMaxLength(), config.getParserMaxRegexCount(), config.getParserOverLimitFilter(),
+                metricsPrefix);
+    }
+
+    private FilterLimits(int maxBreadth, int maxDepth, int maxFieldCount, int maxLength, int maxRegexCount,
+                         String overLimitFilter, final String metricsPrefix) {
+        this.maxBreadth = maxBreadth;
+        this.maxDepth = maxDepth;
+        this.maxFieldCount = maxFieldCount;
+        this.maxLength = maxLength;
+        this.maxRegexCount = maxRegexCount;
+        this.overLimitFilter = overLimitFilter;
+        this.metricsSource = new SquigglyMetricsSource() {
+            @Override
+            public void applyMetrics(Map<String, Object> map) {
+                map.put(metricsPrefix + "downgradedCount", downgradedCount.get());
+                map.put(metricsPrefix + "rejectedCount", rejectedCount.get());
+            }
+        };
+
+        // the over limit filter is compiled in place of filters that fail, so it mustn't fail itself
+        if (isDowngrading()) {
+            try {
+                checkLength(overLimitFilter);
+                new ExpressionParser(overLimitFilter, this).parse();
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid over limit filter " + overLimitFilter + ": " + e.getMessage(), e);
+            }
+        }
+    }
+
+    static boolean exceeds(int value, int limit) {
+        return limit > 0 && value > limit;
+    }
+
+    /**
+     * Check the length of a filter, before it's looked up in a cache.
+     *
+     * @param filter the filter expression
+     * @throws SquigglyFilterLimitException if the filter is too long
+     */
+    void checkLength(String filter) {
+        if (exceeds(filter.length(), maxLength)) {
+            throw new SquigglyFilterLimitException("Filter is longer than the maximum length of " + maxLength);
+        }
+    }
+
+    /**
+     * Says whether filters that exceed a limit are replaced with another filter rather than rejected.
+     *
+     * @return true if downgraded, false if rejected
+     */
+    boolean isDowngrading() {
+        return !overLimitFilter.isEmpty();
+    }
+
+    /**
+     * Get the filter that replaces filters which exceed a limit.
+     *
+     * @return filter, empty if such filters are rejected
+     */
+    String getOverLimitFilter() {
+        return overLimitFilter;
+    }
+
+    void recordRejected() {
+        rejectedCount.incrementAndGet();
+    }
+
+    void recordDowngraded() {
+        downgradedCount.incrementAndGet();
+    }
+
+    SquigglyMetricsSource getMetricsSource() {
+        return metricsSource;
+    }
+}
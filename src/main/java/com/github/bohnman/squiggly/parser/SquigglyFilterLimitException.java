@@ -0,0 +1,18 @@
+package com.github.bohnman.squiggly.parser;
+
+import org.antlr.v4.runtime.misc.ParseCancellationException;
+
+/**
+ * Thrown when a filter expression exceeds one of the parser's limits, such as its maximum length or depth.  It's a
+ * kind of parse error, so code that already treats parse errors as bad input treats these the same way.
+ *
+ * @see com.github.bohnman.squiggly.config.SquigglyConfig#getParserOverLimitFilter()
+ */
+public class SquigglyFilterLimitException extends ParseCancellationException {
+
+    private static final long serialVersionUID = 1L;
+
+    public SquigglyFilterLimitException(String message) {
+        super(message);
+    }
+}
@@ -2,6 +2,7 @@ package com.github.bohnman.squiggly.parser;
 
 import com.github.bohnman.squiggly.name.AnyDeepName;
 import com.github.bohnman.squiggly.name.AnyShallowName;
+import com.github.bohnman.squiggly.name.ExactName;
 import com.github.bohnman.squiggly.name.SquigglyName;
 import com.google.common.collect.ImmutableList;
 import net.jcip.annotations.ThreadSafe;
@@ -19,6 +20,7 @@ public class SquigglyNode {
     private final boolean squiggly;
     private final boolean negated;
     private final boolean emptyNested;
+    private final SquigglyNodeIndex childIndex;
 
     /**
      * Constructor.
@@ -36,6 +38,7 @@ public class SquigglyNode {
         this.children = ImmutableList.copyOf(children);
         this.squiggly = squiggly;
         this.emptyNested = emptyNested;
+        this.childIndex = SquigglyNodeIndex.of(this.children);
     }
 
     /**
@@ -57,6 +60,10 @@ public class SquigglyNode {
         return name.getName();
     }
 
+    SquigglyName getSquigglyName() {
+        return name;
+    }
+
     /**
      * Get the node's children.
      *
@@ -66,6 +73,15 @@ public class SquigglyNode {
         return children;
     }
 
+    /**
+     * Get an index of the node's children for finding the best matching child by name.
+     *
+     * @return child index
+     */
+    public SquigglyNodeIndex getChildIndex() {
+        return childIndex;
+    }
+
     /**
      * A node is considered squiggly if it is comes right before a nested expression.
      * <p>For example, given the filter expression:</p>
@@ -78,6 +94,15 @@ public class SquigglyNode {
         return squiggly;
     }
 
+    /**
+     * Says whether this node only matches its exact name.
+     *
+     * @return true if exact, false if not
+     */
+    public boolean isExact() {
+        return name instanceof ExactName;
+    }
+
     /**
      * Says whether this node is **
      *
@@ -0,0 +1,116 @@
+package com.github.bohnman.squiggly.parser;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.primitives.Ints;
+import net.jcip.annotations.ThreadSafe;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An index over a list of sibling nodes that finds the best matching node for a name.  Exact names are hashed, so only
+ * wildcard, regex and other pattern nodes need to be evaluated one by one.
+ */
+@ThreadSafe
+public class SquigglyNodeIndex {
+
+    private static final SquigglyNodeIndex EMPTY = new SquigglyNodeIndex(ImmutableList.<SquigglyNode>of());
+
+    private final List<SquigglyNode> nodes;
+    private final Map<String, Integer> exactPositions;
+    private final int[] patternPositions;
+
+    /**
+     * Constructor.
+     *
+     * @param nodes the sibling nodes to index
+     */
+    public SquigglyNodeIndex(List<SquigglyNode> nodes) {
+        this.nodes = ImmutableList.copyOf(nodes);
+
+        Map<String, Integer> exactPositions = new HashMap<>();
+        List<Integer> patternPositions = new ArrayList<>();
+
+        for (int i = 0; i < this.nodes.size(); i++) {
+            SquigglyNode node = this.nodes.get(i);
+
+            if (node.isExact()) {
+                // later nodes win ties, so a duplicate exact name replaces the earlier one
+                exactPositions.put(node.getName(), i);
+            } else {
+                patternPositions.add(i);
+            }
+        }
+
+        this.exactPositions = exactPositions;
+        this.patternPositions = Ints.toArray(patternPositions);
+    }
+
+    /**
+     * Get an index for the specified nodes, sharing a single instance for empty lists.
+     *
+     * @param nodes the sibling nodes to index
+     * @return index
+     */
+    public static SquigglyNodeIndex of(List<SquigglyNode> nodes) {
+        if (nodes.isEmpty()) {
+            return EMPTY;
+        }
+
+        return new SquigglyNodeIndex(nodes);
+    }
+
+    /**
+     * Find the position of the node that best matches the name.  An exact match always wins, otherwise the node with
+     * the highest match strength wins, with later nodes winning ties.
+     *
+     * @param name the name to match
+     * @return position of the best node, or -1 if no node matches
+     * @see SquigglyNode#match(String)
+     */
+    public int findBestMatch(String name) {
+        Integer exactPosition = exactPositions.get(name);
+
+        if (exactPosition != null) {
+            return exactPosition;
+        }
+
+        int match = -1;
+        int lastMatchStrength = -1;
+
+        for (int position : patternPositions) {
+            int matchStrength = nodes.get(position).match(name);
+
+            if (matchStrength < 0) {
+                continue;
+            }
+
+            if (lastMatchStrength < 0 || matchStrength >= lastMatchStrength) {
+                match = position;
+                lastMatchStrength = matchStrength;
+            }
+        }
+
+        return match;
+    }
+
+    /**
+     * Says whether any of the nodes has to be matched by evaluating a pattern rather than by hashing its name.
+     *
+     * @return true if there are pattern nodes, false if not
+     */
+    public boolean hasPatterns() {
+        return patternPositions.length > 0;
+    }
+
+    /**
+     * Get the indexed nodes.
+     *
+     * @return nodes
+     */
+    public List<SquigglyNode> getNodes() {
+        return nodes;
+    }
+}
@@ -1,22 +1,19 @@
 package com.github.bohnman.squiggly.parser;
 
-import com.github.bohnman.squiggly.config.SquigglyConfig;
+import com.github.bohnman.squiggly.automaton.SquigglyAutomaton;
+import com.github.bohnman.squiggly.automaton.SquigglyAutomatonCompiler;
+import com.github.bohnman.squiggly.config.SquigglyEngineConfig;
+import com.github.bohnman.squiggly.metric.source.CompositeSquigglyMetricsSource;
 import com.github.bohnman.squiggly.metric.source.GuavaCacheSquigglyMetricsSource;
 import com.github.bohnman.squiggly.metric.source.SquigglyMetricsSource;
-import com.github.bohnman.squiggly.name.*;
-import com.github.bohnman.squiggly.parser.antlr4.SquigglyExpressionBaseVisitor;
-import com.github.bohnman.squiggly.parser.antlr4.SquigglyExpressionLexer;
-import com.github.bohnman.squiggly.parser.antlr4.SquigglyExpressionParser;
-import com.github.bohnman.squiggly.util.antlr4.ThrowingErrorListener;
-import com.github.bohnman.squiggly.view.PropertyView;
 import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.Weigher;
 import net.jcip.annotations.ThreadSafe;
-import org.antlr.v4.runtime.ANTLRInputStream;
-import org.antlr.v4.runtime.CommonTokenStream;
 import org.apache.commons.lang3.StringUtils;
 
-import java.util.*;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * The parser takes a filter expression and compiles it to an Abstract Syntax Tree (AST).  In this parser's case, the
@@ -25,20 +22,98 @@ import java.util.*;
 @ThreadSafe
 public class SquigglyParser {
 
-    // Caches parsed filter expressions
-    private static final Cache<String, List<SquigglyNode>> CACHE;
+    private static final String METRICS_PREFIX = "squiggly.parser.nodeCache.";
+    private static final String COMPILER_METRICS_PREFIX = "squiggly.parser.compiler.";
+    private static final String LIMITS_METRICS_PREFIX = "squiggly.parser.limits.";
+
+    // Caches parsed filter expressions along with their compiled automaton, shared by parsers using the default config
+    private static final Cache<String, CachedFilter> CACHE;
+    private static final SquigglyAutomatonCompiler COMPILER;
+    private static final FilterLimits LIMITS;
     private static final SquigglyMetricsSource METRICS_SOURCE;
 
+    // Estimates the size of a cached filter expression and its automaton in bytes.  A filter that isn't in canonical
+    // form shares the automaton of its canonical form, so only the filter and its own nodes count.
+    private static final Weigher<String, CachedFilter> WEIGHER = new Weigher<String, CachedFilter>() {
+        @Override
+        public int weigh(String filter, CachedFilter cachedFilter) {
+            int weight = 56 + 2 * filter.length();
+
+            if (filter.equals(cachedFilter.automaton.getFilter())) {
+                return weight + cachedFilter.automaton.getEstimatedSize();
+            }
+
+            return weight + 96 * countNodes(cachedFilter.nodes);
+        }
+    };
+
+    // Source of filter ids, 0 is reserved for the empty filter.  Ids are shared across engines and may repeat once the
+    // counter wraps, which is fine since they only estimate how popular a filter is.
+    private static final AtomicInteger FILTER_IDS = new AtomicInteger();
+
     static {
-        CACHE = CacheBuilder.from(SquigglyConfig.getParserNodeCacheSpec()).build();
-        METRICS_SOURCE = new GuavaCacheSquigglyMetricsSource("squiggly.parser.nodeCache.", CACHE);
+        CACHE = createCache(SquigglyEngineConfig.getDefault());
+        COMPILER = new SquigglyAutomatonCompiler(SquigglyEngineConfig.getDefault().getParserCompileThreshold(), COMPILER_METRICS_PREFIX);
+        LIMITS = new FilterLimits(SquigglyEngineConfig.getDefault(), LIMITS_METRICS_PREFIX);
+        METRICS_SOURCE = new CompositeSquigglyMetricsSource(
+                new GuavaCacheSquigglyMetricsSource(METRICS_PREFIX, CACHE),
+                COMPILER.getMetricsSource(),
+                LIMITS.getMetricsSource()
+        );
     }
 
+    private final SquigglyEngineConfig config;
+    private final Cache<String, CachedFilter> cache;
+    private final SquigglyAutomatonCompiler compiler;
+    private final FilterLimits limits;
+    private final SquigglyMetricsSource metricsSource;
+    private final SquigglyAutomaton emptyAutomaton;
+
     /**
-     * Parse a filter expression.
+     * Constructor that uses the default config and shares the default node cache.
+     */
+    public SquigglyParser() {
+        this.config = SquigglyEngineConfig.getDefault();
+        this.cache = CACHE;
+        this.compiler = COMPILER;
+        this.limits = LIMITS;
+        this.metricsSource = METRICS_SOURCE;
+        this.emptyAutomaton = new SquigglyAutomaton(0, Collections.<SquigglyNode>emptyList(), config);
+    }
+
+    /**
+     * Constructor that uses its own node cache, compiler and limits, built from the given config.
+     *
+     * @param config the engine config
+     * @throws IllegalArgumentException if the config's over limit filter is invalid or exceeds the limits itself
+     */
+    public SquigglyParser(SquigglyEngineConfig config) {
+        this.config = config;
+        this.limits = new FilterLimits(config, LIMITS_METRICS_PREFIX);
+        this.cache = createCache(config);
+        this.compiler = new SquigglyAutomatonCompiler(config.getParserCompileThreshold(), COMPILER_METRICS_PREFIX);
+        this.metricsSource = new CompositeSquigglyMetricsSource(
+                new GuavaCacheSquigglyMetricsSource(METRICS_PREFIX, cache),
+                compiler.getMetricsSource(),
+                limits.getMetricsSource()
+        );
+        this.emptyAutomaton = new SquigglyAutomaton(0, Collections.<SquigglyNode>emptyList(), config);
+    }
+
+    private static Cache<String, CachedFilter> createCache(SquigglyEngineConfig config) {
+        return config.getCacheProvider().createCache(config.getParserNodeCacheSpec(), WEIGHER, false);
+    }
+
+    /**
+     * Parse a filter expression.  The nodes are in the order they're written in, use {@link #compile(String)} to get
+     * them in canonical order.  The nodes are cached along with the filter's automaton, so parsing a filter again
+     * doesn't repeat the work.
+     * <p>
+     * A filter that exceeds one of the parser's limits is handled the same way as by {@link #compile(String)}.
      *
      * @param filter the filter expression
-     * @return compiled nodes
+     * @return nodes, in source order
+     * @throws SquigglyFilterLimitException if the filter exceeds a limit and the config says to reject such filters
      */
     public List<SquigglyNode> parse(String filter) {
         filter = StringUtils.trim(filter);
@@ -47,254 +122,153 @@ public class SquigglyParser {
             return Collections.emptyList();
         }
 
-        // get it from the cache if we can
-        List<SquigglyNode> cachedNodes = CACHE.getIfPresent(filter);
-
-        if (cachedNodes != null) {
-            return cachedNodes;
+        try {
+            return compileWithinLimits(filter).nodes;
+        } catch (SquigglyFilterLimitException e) {
+            return compile(filter).getNodes();
         }
-
-
-        SquigglyExpressionLexer lexer = ThrowingErrorListener.overwrite(new SquigglyExpressionLexer(new ANTLRInputStream(filter)));
-        SquigglyExpressionParser parser = ThrowingErrorListener.overwrite(new SquigglyExpressionParser(new CommonTokenStream(lexer)));
-
-        Visitor visitor = new Visitor();
-        List<SquigglyNode> nodes = Collections.unmodifiableList(visitor.visit(parser.parse()));
-
-        CACHE.put(filter, nodes);
-        return nodes;
     }
 
-    public static SquigglyMetricsSource getMetricsSource() {
-        return METRICS_SOURCE;
-    }
-
-    private class Visitor extends SquigglyExpressionBaseVisitor<List<SquigglyNode>> {
-        @Override
-        public List<SquigglyNode> visitParse(SquigglyExpressionParser.ParseContext ctx) {
-            MutableNode root = new MutableNode(new ExactName("root")).dotPathed(true);
-            handleExpressionList(ctx.expression_list(), root);
-            MutableNode analyzedRoot = analyze(root);
-            return analyzedRoot.toSquigglyNode().getChildren();
-        }
-
-        private void handleExpressionList(SquigglyExpressionParser.Expression_listContext ctx, MutableNode parent) {
-            List<SquigglyExpressionParser.ExpressionContext> expressions = ctx.expression();
+    /**
+     * Parse a filter expression and compile it into an automaton.
+     * <p>
+     * Each compiled filter is interned to a small integer id that stays the same for as long as the filter remains
+     * cached.  Filters with the same canonical form share the same automaton, and so the same id.
+     * <p>
+     * A filter that exceeds one of the parser's limits never reaches the cache.  It's either rejected or replaced with
+     * the over limit filter, depending on the config.
+     * <p>
+     * The nodes of the automaton are in canonical order, see {@link #normalize(String)}.
+     *
+     * @param filter the filter expression
+     * @return compiled automaton
+     * @throws SquigglyFilterLimitException if the filter exceeds a limit and the config says to reject such filters
+     * @see SquigglyEngineConfig#getParserOverLimitFilter()
+     */
+    public SquigglyAutomaton compile(String filter) {
+        filter = StringUtils.trim(filter);
 
-            for (SquigglyExpressionParser.ExpressionContext expressionContext : expressions) {
-                handleExpression(expressionContext, parent);
-            }
+        if (StringUtils.isEmpty(filter)) {
+            return emptyAutomaton;
         }
 
-        private void handleExpression(SquigglyExpressionParser.ExpressionContext ctx, MutableNode parent) {
-
-            if (ctx.negated_expression() != null) {
-                handleNegatedExpression(ctx.negated_expression(), parent);
+        try {
+            return compileWithinLimits(filter).automaton;
+        } catch (SquigglyFilterLimitException e) {
+            if (!limits.isDowngrading()) {
+                limits.recordRejected();
+                throw e;
             }
 
-            List<SquigglyName> names;
-
-            if (ctx.field() != null) {
-                names = Collections.singletonList(createName(ctx.field()));
-            } else if (ctx.dot_path() != null) {
-                parent.squiggly = true;
-                for (int i = 0; i < ctx.dot_path().field().size() - 1; i++) {
-                    parent = parent.addChild(new MutableNode(createName(ctx.dot_path().field(i))).dotPathed(true));
-                    parent.squiggly = true;
-                }
-                names = Collections.singletonList(createName(ctx.dot_path().field().get(ctx.dot_path().field().size() - 1)));
-            } else if (ctx.field_list() != null) {
-                names = new ArrayList<>(ctx.field_list().field().size());
-                for (SquigglyExpressionParser.FieldContext fieldContext : ctx.field_list().field()) {
-                    names.add(createName(fieldContext));
-                }
-            } else if (ctx.deep() != null) {
-                names = Collections.singletonList((SquigglyName) AnyDeepName.get());
-            } else {
-                names = Collections.emptyList();
-            }
+            limits.recordDowngraded();
+            return compileWithinLimits(limits.getOverLimitFilter()).automaton;
+        }
+    }
 
+    private CachedFilter compileWithinLimits(String filter) {
+        limits.checkLength(filter);
 
-            for (SquigglyName name : names) {
-                MutableNode node = parent.addChild(new MutableNode(name));
+        // get it from the cache if we can
+        CachedFilter cachedFilter = cache.getIfPresent(filter);
 
-                if (ctx.empty_nested_expression() != null) {
-                    node.emptyNested = true;
-                } else if (ctx.nested_expression() != null) {
-                    node.squiggly = true;
-                    handleExpressionList(ctx.nested_expression().expression_list(), node);
-                }
-            }
+        if (cachedFilter != null) {
+            return cachedFilter;
         }
 
-        private SquigglyName createName(SquigglyExpressionParser.FieldContext ctx) {
-            SquigglyName name;
-
-            if (ctx.exact_field() != null) {
-                name = new ExactName(ctx.getText());
-            } else if (ctx.wildcard_field() != null) {
-                name = new WildcardName(ctx.getText());
-            } else if (ctx.regex_field() != null) {
-                String regexPattern = ctx.regex_field().regex_pattern().getText();
-                Set<String> regexFlags = new HashSet<>(ctx.regex_field().regex_flag().size());
-
-                for (SquigglyExpressionParser.Regex_flagContext regex_flagContext : ctx.regex_field().regex_flag()) {
-                    regexFlags.add(regex_flagContext.getText());
-                }
-
-                name = new RegexName(regexPattern, regexFlags);
-            } else if (ctx.wildcard_shallow_field() != null) {
-                name = AnyShallowName.get();
-            } else {
-                throw new IllegalArgumentException("Unhandled field: " + ctx.getText());
-            }
+        List<SquigglyNode> sourceNodes = Collections.unmodifiableList(new ExpressionParser(filter, limits).parse());
+        List<SquigglyNode> nodes = CanonicalFilter.sort(sourceNodes, config);
+        String canonicalFilter = CanonicalFilter.format(nodes);
+        CachedFilter canonical = canonicalFilter.equals(filter) ? null : cache.getIfPresent(canonicalFilter);
 
-            return name;
+        if (canonical == null) {
+            // a filter that is written in canonical form has its nodes in the same order as its automaton
+            SquigglyAutomaton automaton = new SquigglyAutomaton(FILTER_IDS.incrementAndGet(), canonicalFilter, nodes, config, compiler);
+            canonical = new CachedFilter(automaton, automaton.getNodes());
+            cache.put(canonicalFilter, canonical);
         }
 
-
-        private void handleNegatedExpression(SquigglyExpressionParser.Negated_expressionContext ctx, MutableNode parent) {
-            if (ctx.field() != null) {
-                parent.addChild(new MutableNode(createName(ctx.field())).negated(true));
-            } else if (ctx.dot_path() != null) {
-                for (int i = 0; i < ctx.dot_path().field().size(); i++) {
-                    SquigglyExpressionParser.FieldContext fieldContext = ctx.dot_path().field(i);
-                    parent.squiggly = true;
-
-                    MutableNode mutableNode = new MutableNode(createName(fieldContext));
-                    mutableNode.negativeParent = true;
-
-                    parent = parent.addChild(mutableNode.dotPathed(true));
-                }
-
-                parent.negated(true);
-                parent.negativeParent = false;
-            }
+        if (canonicalFilter.equals(filter)) {
+            return canonical;
         }
 
+        // other filters keep their own nodes, so parsing them again returns the nodes in the order they're written in
+        cachedFilter = new CachedFilter(canonical.automaton, sourceNodes);
+        cache.put(filter, cachedFilter);
+        return cachedFilter;
     }
 
-    private MutableNode analyze(MutableNode node) {
-        Map<MutableNode, MutableNode> nodesToAdd = new IdentityHashMap<>();
-        MutableNode analyze = analyze(node, nodesToAdd);
-
-        for (Map.Entry<MutableNode, MutableNode> entry : nodesToAdd.entrySet()) {
-            entry.getKey().addChild(entry.getValue());
-        }
-
-        return analyze;
+    /**
+     * Get the canonical form of a filter expression.  Filters that only differ in how they are written have the same
+     * canonical form, e.g. name,id and id,name, a.b,a.c and a{b,c}, or (a|b){c} and a{c},b{c}.  Fields are only
+     * sorted where their order can't matter, so patterns and fields with nested filters keep their place.
+     * <p>
+     * The canonical form is itself a filter expression that filters the same way as the original, so it's suitable
+     * as part of a cache key, e.g. for HTTP caching of filtered responses.
+     *
+     * @param filter the filter expression
+     * @return canonical filter expression
+     */
+    public String normalize(String filter) {
+        return compile(filter).getFilter();
     }
 
-    private MutableNode analyze(MutableNode node, Map<MutableNode, MutableNode> nodesToAdd) {
-        if (node.children != null && !node.children.isEmpty()) {
-            boolean allNegated = true;
-
-            for (MutableNode child : node.children.values()) {
-                if (!child.negated && !child.negativeParent) {
-                    allNegated = false;
-                    break;
-                }
-            }
-
-            if (allNegated) {
-                nodesToAdd.put(node, new MutableNode(newBaseViewName()).dotPathed(node.dotPathed));
-            }
-
-            for (MutableNode child : node.children.values()) {
-                analyze(child, nodesToAdd);
-            }
-        }
-
-        return node;
+    /**
+     * Get the canonical form of a filter expression from its parsed nodes.
+     *
+     * @param nodes  the top-level nodes of a parsed filter expression
+     * @param config the config of the engine the nodes are compiled for
+     * @return canonical filter expression
+     * @see #normalize(String)
+     */
+    public static String toCanonicalFilter(List<SquigglyNode> nodes, SquigglyEngineConfig config) {
+        return CanonicalFilter.format(CanonicalFilter.sort(nodes, config));
     }
 
-    private class MutableNode {
-        public boolean negativeParent;
-        private SquigglyName name;
-        private boolean negated;
-        private boolean squiggly;
-        private boolean emptyNested;
-        private Map<String, MutableNode> children;
-        private boolean dotPathed;
-        private MutableNode parent;
-
-        MutableNode(SquigglyName name) {
-            this.name = name;
-        }
-
-        SquigglyNode toSquigglyNode() {
-            if (name == null) {
-                throw new IllegalArgumentException("No Names specified");
-            }
-
-            List<SquigglyNode> childNodes;
-
-            if (children == null || children.isEmpty()) {
-                childNodes = Collections.emptyList();
-            } else {
-                childNodes = new ArrayList<>(children.size());
-
-                for (MutableNode child : children.values()) {
-                    childNodes.add(child.toSquigglyNode());
-                }
-
-            }
+    /**
+     * Get the config the parser compiles filters with.
+     *
+     * @return config
+     */
+    public SquigglyEngineConfig getConfig() {
+        return config;
+    }
 
-            return newSquigglyNode(name, childNodes);
-        }
+    /**
+     * Get the metrics of this parser's node cache, compiler and limits.
+     *
+     * @return metrics source
+     */
+    public SquigglyMetricsSource getCacheMetricsSource() {
+        return metricsSource;
+    }
 
-        private SquigglyNode newSquigglyNode(SquigglyName name, List<SquigglyNode> childNodes) {
-            return new SquigglyNode(name, childNodes, negated, squiggly, emptyNested);
-        }
+    /**
+     * Get the metrics of the node cache, compiler and limits shared by parsers using the default config.
+     *
+     * @return metrics source
+     */
+    public static SquigglyMetricsSource getMetricsSource() {
+        return METRICS_SOURCE;
+    }
 
-        public MutableNode dotPathed(boolean dotPathed) {
-            this.dotPathed = dotPathed;
-            return this;
-        }
+    private static int countNodes(List<SquigglyNode> nodes) {
+        int count = nodes.size();
 
-        public MutableNode negated(boolean negated) {
-            this.negated = negated;
-            return this;
+        for (SquigglyNode node : nodes) {
+            count += countNodes(node.getChildren());
         }
 
-        public MutableNode addChild(MutableNode childToAdd) {
-            if (children == null) {
-                children = new LinkedHashMap<>();
-            }
-
-            String name = childToAdd.name.getName();
-            MutableNode existingChild = children.get(name);
-
-            if (existingChild == null) {
-                childToAdd.parent = this;
-                children.put(name, childToAdd);
-            } else {
-                if (childToAdd.children != null) {
-
-                    if (existingChild.children == null) {
-                        existingChild.children = childToAdd.children;
-                    } else {
-                        existingChild.children.putAll(childToAdd.children);
-                    }
-                }
-
-
-                existingChild.squiggly = existingChild.squiggly || childToAdd.squiggly;
-                existingChild.emptyNested = existingChild.emptyNested && childToAdd.emptyNested;
-                existingChild.dotPathed = existingChild.dotPathed && childToAdd.dotPathed;
-                existingChild.negativeParent = existingChild.negativeParent && childToAdd.negativeParent;
-                childToAdd = existingChild;
-            }
+        return count;
+    }
 
-            if (!childToAdd.dotPathed && dotPathed) {
-                dotPathed = false;
-            }
+    // a cached filter expression, with the automaton of its canonical form and its own nodes in source order
+    private static final class CachedFilter {
+        private final SquigglyAutomaton automaton;
+        private final List<SquigglyNode> nodes;
 
-            return childToAdd;
+        CachedFilter(SquigglyAutomaton automaton, List<SquigglyNode> nodes) {
+            this.automaton = automaton;
+            this.nodes = nodes;
         }
     }
-
-    private ExactName newBaseViewName() {
-        return new ExactName(PropertyView.BASE_VIEW);
-    }
 }
@@ -0,0 +1,194 @@
+package com.github.bohnman.squiggly.util;
+
+import com.google.common.cache.AbstractCache;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheBuilderSpec;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.LoadingCache;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.cache.Weigher;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.google.common.collect.ImmutableSortedMap;
+import net.jcip.annotations.ThreadSafe;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A cache keyed by classes that keeps a separate partition for each class loader.
+ * <p>
+ * Classes and class loaders are only referenced weakly, so the cache never keeps a class loader from being unloaded,
+ * such as when a web application is redeployed.  Once a class loader has been collected, its partition is dropped the
+ * next time the cache is used and its statistics are added to those of the cache as a whole.  Each partition is created
+ * by a {@link SquigglyCacheProvider} from the same spec, so size limits apply per class loader.
+ *
+ * @param <V> the value type
+ */
+@ThreadSafe
+public class ClassLoaderPartitionedCache<V> extends AbstractCache<Class, V> {
+
+    // classes loaded by the bootstrap loader have a null class loader, which can't be a key
+    private static final Object BOOTSTRAP = new Object();
+
+    private final LoadingCache<Object, Cache<Class, V>> partitions;
+    private final CacheLoader<Class, V> loader;
+    private CacheStats retiredStats = new CacheStats(0, 0, 0, 0, 0, 0);
+
+    /**
+     * Constructor.
+     *
+     * @param provider creates the partitions
+     * @param spec     the spec each partition is built from
+     * @param weigher  estimates the size of an entry in bytes, used when the spec has a maximumWeight
+     * @param loader   loads the values of classes that aren't cached
+     */
+    public ClassLoaderPartitionedCache(final SquigglyCacheProvider provider, final CacheBuilderSpec spec,
+                                       final Weigher<? super Class, ? super V> weigher, CacheLoader<Class, V> loader) {
+        checkNotNull(provider);
+        checkNotNull(spec);
+        this.loader = checkNotNull(loader);
+
+        this.partitions = CacheBuilder.newBuilder()
+                .weakKeys()
+                .removalListener(new RemovalListener<Object, Cache<Class, V>>() {
+                    @Override
+                    public void onRemoval(RemovalNotification<Object, Cache<Class, V>> notification) {
+                        retire(notification.getValue());
+                    }
+                })
+                .build(new CacheLoader<Object, Cache<Class, V>>() {
+                    @Override
+                    public Cache<Class, V> load(Object key) throws Exception {
+                        return provider.createCache(spec, weigher, true);
+                    }
+                });
+    }
+
+    private synchronized void retire(Cache<Class, V> partition) {
+        if (partition != null) {
+            retiredStats = retiredStats.plus(partition.stats());
+        }
+    }
+
+    private Cache<Class, V> getPartition(Class key) {
+        return partitions.getUnchecked(getPartitionKey(key));
+    }
+
+    private static Object getPartitionKey(Class key) {
+        ClassLoader classLoader = key.getClassLoader();
+        return (classLoader == null) ? BOOTSTRAP : classLoader;
+    }
+
+    /**
+     * Get the value of a class, loading it if it isn't cached.
+     *
+     * @param key the class
+     * @return value
+     */
+    public V getUnchecked(final Class key) {
+        try {
+            return getPartition(key).get(key, new Callable<V>() {
+                @Override
+                public V call() throws Exception {
+                    return loader.load(key);
+                }
+            });
+        } catch (ExecutionException e) {
+            throw new UncheckedExecutionException(e.getCause());
+        }
+    }
+
+    @Override
+    public V getIfPresent(Object key) {
+        if (!(key instanceof Class)) {
+            return null;
+        }
+
+        Cache<Class, V> partition = partitions.getIfPresent(getPartitionKey((Class) key));
+        return (partition == null) ? null : partition.getIfPresent(key);
+    }
+
+    @Override
+    public void put(Class key, V value) {
+        getPartition(key).put(key, value);
+    }
+
+    @Override
+    public void invalidate(Object key) {
+        if (key instanceof Class) {
+            Cache<Class, V> partition = partitions.getIfPresent(getPartitionKey((Class) key));
+
+            if (partition != null) {
+                partition.invalidate(key);
+            }
+        }
+    }
+
+    @Override
+    public void invalidateAll() {
+        for (Cache<Class, V> partition : partitions.asMap().values()) {
+            partition.invalidateAll();
+        }
+    }
+
+    @Override
+    public long size() {
+        long size = 0;
+
+        for (Cache<Class, V> partition : partitions.asMap().values()) {
+            size += partition.size();
+        }
+
+        return size;
+    }
+
+    @Override
+    public void cleanUp() {
+        partitions.cleanUp();
+
+        for (Cache<Class, V> partition : partitions.asMap().values()) {
+            partition.cleanUp();
+        }
+    }
+
+    @Override
+    public synchronized CacheStats stats() {
+        CacheStats stats = retiredStats;
+
+        for (Cache<Class, V> partition : partitions.asMap().values()) {
+            stats = stats.plus(partition.stats());
+        }
+
+        return stats;
+    }
+
+    /**
+     * Get the number of entries held for each live class loader, keyed by the class loader's class name and identity
+     * hash code, or "bootstrap" for classes of the bootstrap class loader.
+     *
+     * @return sizes
+     */
+    public Map<String, Long> getPartitionSizes() {
+        ImmutableSortedMap.Builder<String, Long> sizes = ImmutableSortedMap.naturalOrder();
+
+        for (Map.Entry<Object, Cache<Class, V>> entry : partitions.asMap().entrySet()) {
+            sizes.put(getPartitionName(entry.getKey()), entry.getValue().size());
+        }
+
+        return sizes.build();
+    }
+
+    private static String getPartitionName(Object key) {
+        if (key == BOOTSTRAP) {
+            return "bootstrap";
+        }
+
+        return key.getClass().getName() + "@" + Integer.toHexString(System.identityHashCode(key));
+    }
+}
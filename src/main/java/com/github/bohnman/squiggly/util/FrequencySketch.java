@@ -0,0 +1,88 @@
+package com.github.bohnman.squiggly.util;
+
+import net.jcip.annotations.ThreadSafe;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Estimates how often integer keys have been seen, using a fixed amount of memory no matter how many distinct keys
+ * there are.
+ * <p>
+ * This is a count-min sketch: each key increments one counter in each of a few rows, and its frequency is the smallest
+ * of those counters.  Collisions can only overestimate a frequency.  Counters are halved periodically so that keys
+ * that were popular a long time ago fade away.
+ */
+@ThreadSafe
+public class FrequencySketch {
+
+    private static final int DEPTH = 4;
+    private static final int[] SEEDS = {0x97CB3127, 0xB492B66F, 0x9AE16A3B, 0xC2B2AE35};
+
+    private final AtomicIntegerArray counters;
+    private final int mask;
+    private final int sampleSize;
+    private final AtomicInteger additions = new AtomicInteger();
+
+    /**
+     * Constructor.
+     *
+     * @param width number of counters per row, rounded up to a power of two
+     */
+    public FrequencySketch(int width) {
+        int rowWidth = Math.max(2, Integer.highestOneBit(Math.max(1, width) - 1) << 1);
+        this.counters = new AtomicIntegerArray(rowWidth * DEPTH);
+        this.mask = rowWidth - 1;
+        this.sampleSize = rowWidth * 10;
+    }
+
+    /**
+     * Record an occurrence of the key.
+     *
+     * @param key the key
+     */
+    public void increment(int key) {
+        for (int i = 0; i < DEPTH; i++) {
+            counters.incrementAndGet(index(key, i));
+        }
+
+        if (additions.incrementAndGet() >= sampleSize) {
+            reset();
+        }
+    }
+
+    /**
+     * Get the estimated number of times the key has been seen recently.
+     *
+     * @param key the key
+     * @return frequency
+     */
+    public int frequency(int key) {
+        int frequency = Integer.MAX_VALUE;
+
+        for (int i = 0; i < DEPTH; i++) {
+            frequency = Math.min(frequency, counters.get(index(key, i)));
+        }
+
+        return frequency;
+    }
+
+    // ages all counters, racing increments may be lost which only makes a key look a little less popular
+    private synchronized void reset() {
+        if (additions.get() < sampleSize) {
+            return;
+        }
+
+        for (int i = 0; i < counters.length(); i++) {
+            counters.set(i, counters.get(i) >>> 1);
+        }
+
+        additions.set(0);
+    }
+
+    private int index(int key, int row) {
+        int hash = (key + SEEDS[row]) * SEEDS[row];
+        hash ^= hash >>> 16;
+        return row * (mask + 1) + (hash & mask);
+    }
+}
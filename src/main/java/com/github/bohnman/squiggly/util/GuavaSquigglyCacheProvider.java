@@ -0,0 +1,30 @@
+package com.github.bohnman.squiggly.util;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheBuilderSpec;
+import com.google.common.cache.Weigher;
+import net.jcip.annotations.ThreadSafe;
+
+/**
+ * Creates Guava caches, which evict the least recently used entries.  This is the default provider.
+ */
+@ThreadSafe
+public class GuavaSquigglyCacheProvider implements SquigglyCacheProvider {
+
+    @Override
+    public <K, V> Cache<K, V> createCache(CacheBuilderSpec spec, Weigher<? super K, ? super V> weigher, boolean weakKeys) {
+        CacheBuilder<Object, Object> builder = CacheBuilder.from(spec);
+
+        // setting the key strength twice is an error
+        if (weakKeys && !LongKeyCache.getSettings(spec).contains("weakKeys")) {
+            builder.weakKeys();
+        }
+
+        if (TinyLfuCache.isWeighted(spec)) {
+            return builder.weigher(weigher).build();
+        }
+
+        return builder.build();
+    }
+}
@@ -0,0 +1,213 @@
+package com.github.bohnman.squiggly.util;
+
+import com.google.common.base.Splitter;
+import com.google.common.cache.AbstractCache;
+import com.google.common.cache.CacheBuilderSpec;
+import com.google.common.cache.CacheStats;
+import com.google.common.math.IntMath;
+import net.jcip.annotations.ThreadSafe;
+
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded cache keyed by primitive longs that never allocates on lookup.
+ * <p>
+ * Entries live in a power of two sized open addressing table.  A key is looked for in a short run of slots starting at
+ * its hashed position, and when the run is full the entry at the hashed position is evicted.  Entries are immutable,
+ * so readers may race with writers without locking; a racing reader at worst sees a miss.
+ *
+ * @param <V> the value type
+ */
+@ThreadSafe
+public class LongKeyCache<V> extends AbstractCache<Long, V> {
+
+    private static final int PROBE_LENGTH = 4;
+
+    private final Entry<V>[] table;
+    private final int shift;
+    private final boolean recordStats;
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    /**
+     * Constructor.
+     *
+     * @param maximumSize the maximum number of entries, 0 disables the cache
+     * @param recordStats whether or not to record hit/miss statistics
+     */
+    @SuppressWarnings("unchecked")
+    public LongKeyCache(int maximumSize, boolean recordStats) {
+        this.table = new Entry[getCapacity(maximumSize, PROBE_LENGTH)];
+        this.shift = getShift(table.length);
+        this.recordStats = recordStats;
+    }
+
+    /**
+     * Create a cache from a Guava cache spec, honoring its maximumSize and recordStats settings.  A spec without a
+     * maximumSize gets a default size of 10000.
+     *
+     * @param spec the spec
+     * @param <V>  the value type
+     * @return cache
+     */
+    public static <V> LongKeyCache<V> from(CacheBuilderSpec spec) {
+        return new LongKeyCache<>(getMaximumSize(spec, 10000), getSettings(spec).contains("recordStats"));
+    }
+
+    static int getMaximumSize(CacheBuilderSpec spec, int defaultMaximumSize) {
+        for (String setting : getSettings(spec)) {
+            if (setting.startsWith("maximumSize=")) {
+                return (int) Math.min(Integer.MAX_VALUE >> 1, Long.parseLong(setting.substring("maximumSize=".length())));
+            }
+        }
+
+        return defaultMaximumSize;
+    }
+
+    static List<String> getSettings(CacheBuilderSpec spec) {
+        return Splitter.on(',').trimResults().omitEmptyStrings().splitToList(spec.toParsableString());
+    }
+
+    // smallest power of two that holds the maximum size, 0 if the cache is disabled
+    static int getCapacity(int maximumSize, int minimumCapacity) {
+        if (maximumSize <= 0) {
+            return 0;
+        }
+
+        return Math.max(minimumCapacity, Integer.highestOneBit(maximumSize - 1) << 1);
+    }
+
+    static int getShift(int capacity) {
+        return Long.SIZE - Math.max(1, IntMath.log2(Math.max(1, capacity), RoundingMode.UNNECESSARY));
+    }
+
+    // fibonacci hashing spreads sequential ids across the table
+    static int index(long key, int shift) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> shift);
+    }
+
+    /**
+     * Get the value mapped to the key.
+     *
+     * @param key the key
+     * @return value or null if not present
+     */
+    public V get(long key) {
+        if (table.length == 0) {
+            return null;
+        }
+
+        int mask = table.length - 1;
+        int home = index(key, shift);
+
+        for (int i = 0; i < PROBE_LENGTH; i++) {
+            Entry<V> entry = table[(home + i) & mask];
+
+            if (entry == null) {
+                break;
+            }
+
+            if (entry.key == key) {
+                if (recordStats) {
+                    hitCount.incrementAndGet();
+                }
+
+                return entry.value;
+            }
+        }
+
+        if (recordStats) {
+            missCount.incrementAndGet();
+        }
+
+        return null;
+    }
+
+    /**
+     * Map the key to the value.
+     *
+     * @param key   the key
+     * @param value the value
+     */
+    public void put(long key, V value) {
+        if (table.length == 0) {
+            return;
+        }
+
+        int mask = table.length - 1;
+        int home = index(key, shift);
+        Entry<V> newEntry = new Entry<>(key, value);
+
+        for (int i = 0; i < PROBE_LENGTH; i++) {
+            int slot = (home + i) & mask;
+            Entry<V> entry = table[slot];
+
+            if (entry == null || entry.key == key) {
+                table[slot] = newEntry;
+                return;
+            }
+        }
+
+        table[home] = newEntry;
+
+        if (recordStats) {
+            evictionCount.incrementAndGet();
+        }
+    }
+
+    @Override
+    public V getIfPresent(Object key) {
+        return (key instanceof Long) ? get((Long) key) : null;
+    }
+
+    @Override
+    public void put(Long key, V value) {
+        put(key.longValue(), value);
+    }
+
+    @Override
+    public void putAll(Map<? extends Long, ? extends V> map) {
+        for (Map.Entry<? extends Long, ? extends V> entry : map.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    @Override
+    public long size() {
+        long size = 0;
+
+        for (Entry<V> entry : table) {
+            if (entry != null) {
+                size++;
+            }
+        }
+
+        return size;
+    }
+
+    @Override
+    public void invalidateAll() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = null;
+        }
+    }
+
+    @Override
+    public CacheStats stats() {
+        return new CacheStats(hitCount.get(), missCount.get(), 0, 0, 0, evictionCount.get());
+    }
+
+    private static class Entry<V> {
+        private final long key;
+        private final V value;
+
+        Entry(long key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.github.bohnman.squiggly.util;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilderSpec;
+import com.google.common.cache.Weigher;
+
+/**
+ * Creates the caches of the parser and the introspector.  Implementations must be thread safe and have a public no-arg
+ * constructor, so they can be named by the cache.provider config key.
+ *
+ * @see GuavaSquigglyCacheProvider
+ * @see TinyLfuSquigglyCacheProvider
+ */
+public interface SquigglyCacheProvider {
+
+    /**
+     * Create a cache.
+     *
+     * @param spec     the spec from the config, such as parser.nodeCache.spec
+     * @param weigher  estimates the size of an entry in bytes, used when the spec has a maximumWeight
+     * @param weakKeys whether keys must be referenced weakly, such as classes that may be unloaded
+     * @param <K>      the key type
+     * @param <V>      the value type
+     * @return cache
+     */
+    <K, V> Cache<K, V> createCache(CacheBuilderSpec spec, Weigher<? super K, ? super V> weigher, boolean weakKeys);
+}
@@ -0,0 +1,220 @@
+package com.github.bohnman.squiggly.util;
+
+import com.google.common.cache.AbstractCache;
+import com.google.common.cache.CacheBuilderSpec;
+import com.google.common.cache.CacheStats;
+import net.jcip.annotations.ThreadSafe;
+
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A small cache keyed by primitive longs that gives each thread its own direct mapped table.
+ * <p>
+ * It is meant to sit in front of a shared cache, so that hot lookups never touch memory written by other threads.
+ * Statistics are always recorded, using counters that are only written by their owning thread and summed up when
+ * {@link #stats()} is called.
+ * <p>
+ * The tables are owned by the cache rather than by the threads.  A thread only holds a weak reference to its table,
+ * so pooled threads that outlive the cache, such as those of a servlet container after a webapp is undeployed, don't
+ * keep the cached values or their class loader alive.  The tables of threads that have died are dropped the next time
+ * a thread gets its first table, when the stats are read or when {@link #cleanUp()} is called.
+ *
+ * @param <V> the value type
+ */
+@ThreadSafe
+public class ThreadLocalLongKeyCache<V> extends AbstractCache<Long, V> {
+
+    private final int capacity;
+    private final int shift;
+    private final ThreadLocal<WeakReference<Table<V>>> tables = new ThreadLocal<>();
+
+    // tables of live threads, along with the totals of threads that have since gone away
+    private final Set<Table<V>> liveTables = Collections.newSetFromMap(new ConcurrentHashMap<Table<V>, Boolean>());
+    private final AtomicLong retiredHitCount = new AtomicLong();
+    private final AtomicLong retiredMissCount = new AtomicLong();
+
+    /**
+     * Constructor.
+     *
+     * @param maximumSize the maximum number of entries per thread, 0 disables the cache
+     */
+    public ThreadLocalLongKeyCache(int maximumSize) {
+        this.capacity = LongKeyCache.getCapacity(maximumSize, 2);
+        this.shift = LongKeyCache.getShift(capacity);
+    }
+
+    /**
+     * Create a cache from a Guava cache spec, honoring its maximumSize setting.  A spec without a maximumSize gets a
+     * default size of 256.
+     *
+     * @param spec the spec
+     * @param <V>  the value type
+     * @return cache
+     */
+    public static <V> ThreadLocalLongKeyCache<V> from(CacheBuilderSpec spec) {
+        return new ThreadLocalLongKeyCache<>(LongKeyCache.getMaximumSize(spec, 256));
+    }
+
+    /**
+     * Get the value mapped to the key in the current thread's table.
+     *
+     * @param key the key
+     * @return value or null if not present
+     */
+    public V get(long key) {
+        if (capacity == 0) {
+            return null;
+        }
+
+        Table<V> table = getTable();
+        Entry<V> entry = table.entries.get(LongKeyCache.index(key, shift));
+
+        if (entry != null && entry.key == key) {
+            table.counters.hit();
+            return entry.value;
+        }
+
+        table.counters.miss();
+        return null;
+    }
+
+    /**
+     * Map the key to the value in the current thread's table.
+     *
+     * @param key   the key
+     * @param value the value
+     */
+    public void put(long key, V value) {
+        if (capacity == 0) {
+            return;
+        }
+
+        // only read by the owning thread, except when invalidated, so the entry doesn't need to be published
+        getTable().entries.lazySet(LongKeyCache.index(key, shift), new Entry<>(key, value));
+    }
+
+    @Override
+    public V getIfPresent(Object key) {
+        return (key instanceof Long) ? get((Long) key) : null;
+    }
+
+    @Override
+    public void put(Long key, V value) {
+        put(key.longValue(), value);
+    }
+
+    @Override
+    public long size() {
+        long size = 0;
+
+        for (Table<V> table : liveTables) {
+            for (int i = 0; i < capacity; i++) {
+                if (table.entries.get(i) != null) {
+                    size++;
+                }
+            }
+        }
+
+        return size;
+    }
+
+    /**
+     * Remove the entries of every thread's table.  Threads keep their tables and counters.
+     */
+    @Override
+    public void invalidateAll() {
+        for (Table<V> table : liveTables) {
+            for (int i = 0; i < capacity; i++) {
+                table.entries.set(i, null);
+            }
+        }
+    }
+
+    /**
+     * Drop the tables of threads that have died, folding their counters into the totals.
+     */
+    @Override
+    public void cleanUp() {
+        for (Table<V> table : liveTables) {
+            Thread owner = table.owner.get();
+
+            if ((owner == null || !owner.isAlive()) && liveTables.remove(table)) {
+                retiredHitCount.addAndGet(table.counters.hitCount);
+                retiredMissCount.addAndGet(table.counters.missCount);
+            }
+        }
+    }
+
+    @Override
+    public CacheStats stats() {
+        cleanUp();
+
+        long hitCount = retiredHitCount.get();
+        long missCount = retiredMissCount.get();
+
+        for (Table<V> table : liveTables) {
+            hitCount += table.counters.hitCount;
+            missCount += table.counters.missCount;
+        }
+
+        return new CacheStats(hitCount, missCount, 0, 0, 0, 0);
+    }
+
+    private Table<V> getTable() {
+        WeakReference<Table<V>> reference = tables.get();
+        Table<V> table = (reference == null) ? null : reference.get();
+
+        if (table == null) {
+            cleanUp();
+            table = new Table<>(Thread.currentThread(), capacity);
+            liveTables.add(table);
+            tables.set(new WeakReference<>(table));
+        }
+
+        return table;
+    }
+
+    private static class Table<V> {
+        private final WeakReference<Thread> owner;
+        private final AtomicReferenceArray<Entry<V>> entries;
+        private final Counters counters = new Counters();
+
+        Table(Thread owner, int capacity) {
+            this.owner = new WeakReference<>(owner);
+            this.entries = new AtomicReferenceArray<>(capacity);
+        }
+    }
+
+    private static class Entry<V> {
+        private final long key;
+        private final V value;
+
+        Entry(long key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    // only written by the owning thread, so an ordered store is enough to publish the counts to readers
+    private static class Counters {
+        private static final AtomicLongFieldUpdater<Counters> HIT_COUNT = AtomicLongFieldUpdater.newUpdater(Counters.class, "hitCount");
+        private static final AtomicLongFieldUpdater<Counters> MISS_COUNT = AtomicLongFieldUpdater.newUpdater(Counters.class, "missCount");
+
+        private volatile long hitCount;
+        private volatile long missCount;
+
+        void hit() {
+            HIT_COUNT.lazySet(this, hitCount + 1);
+        }
+
+        void miss() {
+            MISS_COUNT.lazySet(this, missCount + 1);
+        }
+    }
+}
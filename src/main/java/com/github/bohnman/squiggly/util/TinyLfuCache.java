@@ -0,0 +1,449 @@
+package com.github.bohnman.squiggly.util;
+
+import com.google.common.cache.AbstractCache;
+import com.google.common.cache.CacheBuilderSpec;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.Weigher;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import net.jcip.annotations.ThreadSafe;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A bounded cache that uses the W-TinyLFU policy, so a burst of entries that are only used once can't flush out the
+ * entries that are used all the time.
+ * <p>
+ * New entries go to a small window, which is 1% of the capacity.  Entries leaving the window compete with the least
+ * recently used entry of the main space, and only the one that a {@link FrequencySketch} says has been used more often
+ * stays.  The main space is split into a probation segment and a protected segment holding 80% of it, and an entry is
+ * promoted to the protected segment when it's used again while on probation.
+ * <p>
+ * The capacity is either a number of entries or a total weight, such as the estimated size in bytes given by a
+ * {@link Weigher}.  Lookups don't block: they read a concurrent map and only reorder the entry if the lock that guards
+ * the segments is free, which at worst makes a busy entry look a little less recently used.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+@ThreadSafe
+public class TinyLfuCache<K, V> extends AbstractCache<K, V> {
+
+    private static final int MIN_SKETCH_WIDTH = 64;
+    private static final int MAX_SKETCH_WIDTH = 8192;
+
+    // assumed average entry weight, used to size the sketch of a cache bounded by weight
+    private static final int SKETCH_WEIGHT_PER_ENTRY = 256;
+
+    private final ConcurrentMap<K, Node<K, V>> data = new ConcurrentHashMap<>();
+    private final Weigher<? super K, ? super V> weigher;
+    private final FrequencySketch sketch;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final boolean recordStats;
+
+    private final long maximum;
+    private final long windowMaximum;
+    private final long protectedMaximum;
+
+    // guarded by lock
+    private final Segment<K, V> window = new Segment<>();
+    private final Segment<K, V> probation = new Segment<>();
+    private final Segment<K, V> protectedSegment = new Segment<>();
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    /**
+     * Constructor.
+     *
+     * @param maximum     the maximum total weight, 0 disables the cache
+     * @param weigher     the weight of each entry, which is 1 when bounding the number of entries
+     * @param recordStats whether or not to record hit/miss statistics
+     */
+    public TinyLfuCache(long maximum, Weigher<? super K, ? super V> weigher, boolean recordStats) {
+        checkArgument(maximum >= 0, "maximum must not be negative");
+        this.maximum = maximum;
+        this.weigher = checkNotNull(weigher);
+        this.recordStats = recordStats;
+        this.windowMaximum = Math.max(1, maximum / 100);
+        this.protectedMaximum = (maximum - windowMaximum) * 4 / 5;
+
+        long entries = (weigher == SingletonWeigher.INSTANCE) ? maximum : maximum / SKETCH_WEIGHT_PER_ENTRY;
+        this.sketch = new FrequencySketch((int) Math.max(MIN_SKETCH_WIDTH, Math.min(MAX_SKETCH_WIDTH, entries)));
+    }
+
+    /**
+     * Create a cache from a Guava cache spec, honoring its maximumSize, maximumWeight and recordStats settings.  A spec
+     * without either maximum is unbounded.  Other settings, such as expiry, aren't supported.
+     *
+     * @param spec    the spec
+     * @param weigher the weight of each entry, used when the spec has a maximumWeight
+     * @param <K>     the key type
+     * @param <V>     the value type
+     * @return cache
+     */
+    public static <K, V> TinyLfuCache<K, V> from(CacheBuilderSpec spec, Weigher<? super K, ? super V> weigher) {
+        long maximum = Long.MAX_VALUE;
+        Weigher<? super K, ? super V> entryWeigher = SingletonWeigher.INSTANCE;
+        boolean recordStats = false;
+
+        for (String setting : LongKeyCache.getSettings(spec)) {
+            if (setting.equals("recordStats")) {
+                recordStats = true;
+            } else if (setting.startsWith("maximumSize=")) {
+                maximum = Long.parseLong(setting.substring("maximumSize=".length()));
+            } else if (setting.startsWith("maximumWeight=")) {
+                maximum = Long.parseLong(setting.substring("maximumWeight=".length()));
+                entryWeigher = weigher;
+            }
+        }
+
+        return new TinyLfuCache<>(maximum, entryWeigher, recordStats);
+    }
+
+    /**
+     * Determine whether a spec limits the total weight of a cache rather than its number of entries.
+     *
+     * @param spec the spec
+     * @return true if the spec has a maximumWeight
+     */
+    public static boolean isWeighted(CacheBuilderSpec spec) {
+        for (String setting : LongKeyCache.getSettings(spec)) {
+            if (setting.startsWith("maximumWeight=")) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    @Override
+    public V getIfPresent(Object key) {
+        if (maximum == 0) {
+            return null;
+        }
+
+        sketch.increment(hash(key));
+        Node<K, V> node = data.get(key);
+
+        if (node == null) {
+            if (recordStats) {
+                missCount.incrementAndGet();
+            }
+
+            return null;
+        }
+
+        if (recordStats) {
+            hitCount.incrementAndGet();
+        }
+
+        if (lock.tryLock()) {
+            try {
+                onAccess(node);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        return node.value;
+    }
+
+    /**
+     * Get the value of a key, loading it if it isn't cached.  Concurrent loads of the same key aren't coalesced, so the
+     * loader should be idempotent.
+     *
+     * @param key         the key
+     * @param valueLoader loads the value
+     * @return value
+     * @throws ExecutionException if the loader threw a checked exception
+     */
+    @Override
+    public V get(K key, Callable<? extends V> valueLoader) throws ExecutionException {
+        V value = getIfPresent(key);
+
+        if (value != null) {
+            return value;
+        }
+
+        try {
+            value = valueLoader.call();
+        } catch (RuntimeException e) {
+            throw new UncheckedExecutionException(e);
+        } catch (Exception e) {
+            throw new ExecutionException(e);
+        } catch (Error e) {
+            throw new ExecutionError(e);
+        }
+
+        put(key, value);
+        return value;
+    }
+
+    @Override
+    public void put(K key, V value) {
+        checkNotNull(key);
+        checkNotNull(value);
+
+        if (maximum == 0) {
+            return;
+        }
+
+        int weight = (weigher == SingletonWeigher.INSTANCE) ? 1 : weigher.weigh(key, value);
+        checkArgument(weight >= 0, "weight must not be negative");
+        sketch.increment(hash(key));
+
+        lock.lock();
+
+        try {
+            Node<K, V> node = data.get(key);
+
+            if (node == null) {
+                node = new Node<>(key, value, weight);
+                data.put(key, node);
+                window.addLast(node);
+            } else {
+                node.value = value;
+                node.segment.weight += weight - node.weight;
+                node.weight = weight;
+                onAccess(node);
+            }
+
+            evict();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void invalidate(Object key) {
+        lock.lock();
+
+        try {
+            Node<K, V> node = data.remove(key);
+
+            if (node != null) {
+                node.segment.remove(node);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void invalidateAll() {
+        lock.lock();
+
+        try {
+            data.clear();
+            window.clear();
+            probation.clear();
+            protectedSegment.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long size() {
+        return data.size();
+    }
+
+    /**
+     * Get the total weight of the entries, which is the number of entries if the cache isn't bounded by weight.
+     *
+     * @return weighted size
+     */
+    public long weightedSize() {
+        lock.lock();
+
+        try {
+            return window.weight + probation.weight + protectedSegment.weight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public CacheStats stats() {
+        return new CacheStats(hitCount.get(), missCount.get(), 0, 0, 0, evictionCount.get());
+    }
+
+    // must hold lock, and the node may have been removed by another thread since it was read
+    private void onAccess(Node<K, V> node) {
+        Segment<K, V> segment = node.segment;
+
+        if (segment == null) {
+            return;
+        }
+
+        if (segment == probation) {
+            probation.remove(node);
+            protectedSegment.addLast(node);
+
+            // make room in the protected segment by putting its least recently used entries back on probation
+            while (protectedSegment.weight > protectedMaximum && protectedSegment.head != node) {
+                Node<K, V> demoted = protectedSegment.head;
+                protectedSegment.remove(demoted);
+                probation.addLast(demoted);
+            }
+        } else {
+            segment.moveToLast(node);
+        }
+    }
+
+    // must hold lock
+    private void evict() {
+        // entries leaving the window join the end of probation, oldest first
+        Node<K, V> candidate = null;
+
+        while (window.weight > windowMaximum && window.head != null) {
+            Node<K, V> node = window.head;
+            window.remove(node);
+            probation.addLast(node);
+
+            if (candidate == null) {
+                candidate = node;
+            }
+        }
+
+        while (window.weight + probation.weight + protectedSegment.weight > maximum) {
+            Node<K, V> victim = probation.head;
+
+            if (candidate == null || victim == null || victim == candidate) {
+                // nothing left to compete, so evict in order of age
+                Node<K, V> next = (candidate == null) ? null : candidate.next;
+                Node<K, V> oldest = (victim != null) ? victim : (protectedSegment.head != null ? protectedSegment.head : window.head);
+
+                if (oldest == null) {
+                    break;
+                }
+
+                if (oldest == candidate) {
+                    candidate = next;
+                }
+
+                remove(oldest);
+                continue;
+            }
+
+            // the candidate only replaces the victim if it has been used more often
+            Node<K, V> next = candidate.next;
+
+            if (candidate.weight <= maximum && sketch.frequency(hash(candidate.key)) > sketch.frequency(hash(victim.key))) {
+                remove(victim);
+            } else {
+                remove(candidate);
+                candidate = next;
+            }
+        }
+    }
+
+    private void remove(Node<K, V> node) {
+        node.segment.remove(node);
+        data.remove(node.key, node);
+        evictionCount.incrementAndGet();
+    }
+
+    private static int hash(Object key) {
+        int hash = key.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+
+    private static class Node<K, V> {
+        private final K key;
+        private volatile V value;
+
+        // guarded by the cache's lock
+        private int weight;
+        private Segment<K, V> segment;
+        private Node<K, V> prev;
+        private Node<K, V> next;
+
+        Node(K key, V value, int weight) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+
+    // a list of nodes from least to most recently used, guarded by the cache's lock
+    private static class Segment<K, V> {
+        private Node<K, V> head;
+        private Node<K, V> tail;
+        private long weight;
+
+        void addLast(Node<K, V> node) {
+            node.segment = this;
+            node.prev = tail;
+            node.next = null;
+
+            if (tail == null) {
+                head = node;
+            } else {
+                tail.next = node;
+            }
+
+            tail = node;
+            weight += node.weight;
+        }
+
+        void remove(Node<K, V> node) {
+            if (node.prev == null) {
+                head = node.next;
+            } else {
+                node.prev.next = node.next;
+            }
+
+            if (node.next == null) {
+                tail = node.prev;
+            } else {
+                node.next.prev = node.prev;
+            }
+
+            node.segment = null;
+            node.prev = null;
+            node.next = null;
+            weight -= node.weight;
+        }
+
+        void moveToLast(Node<K, V> node) {
+            if (tail != node) {
+                remove(node);
+                addLast(node);
+            }
+        }
+
+        void clear() {
+            for (Node<K, V> node = head; node != null; ) {
+                Node<K, V> next = node.next;
+                node.segment = null;
+                node.prev = null;
+                node.next = null;
+                node = next;
+            }
+
+            head = null;
+            tail = null;
+            weight = 0;
+        }
+    }
+
+    private enum SingletonWeigher implements Weigher<Object, Object> {
+        INSTANCE;
+
+        @Override
+        public int weigh(Object key, Object value) {
+            return 1;
+        }
+    }
+}
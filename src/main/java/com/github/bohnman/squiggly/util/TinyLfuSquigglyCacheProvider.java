@@ -0,0 +1,27 @@
+package com.github.bohnman.squiggly.util;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilderSpec;
+import com.google.common.cache.Weigher;
+import net.jcip.annotations.ThreadSafe;
+
+/**
+ * Creates {@link TinyLfuCache}s, which keep frequently used entries when many entries are only used once.
+ * <p>
+ * Caches whose keys must be referenced weakly are created by the {@link GuavaSquigglyCacheProvider} instead, since a
+ * W-TinyLFU cache holds its keys strongly.
+ */
+@ThreadSafe
+public class TinyLfuSquigglyCacheProvider implements SquigglyCacheProvider {
+
+    private final GuavaSquigglyCacheProvider weakKeysProvider = new GuavaSquigglyCacheProvider();
+
+    @Override
+    public <K, V> Cache<K, V> createCache(CacheBuilderSpec spec, Weigher<? super K, ? super V> weigher, boolean weakKeys) {
+        if (weakKeys) {
+            return weakKeysProvider.createCache(spec, weigher, true);
+        }
+
+        return TinyLfuCache.from(spec, weigher);
+    }
+}
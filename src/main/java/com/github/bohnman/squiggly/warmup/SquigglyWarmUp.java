@@ -0,0 +1,368 @@
+package com.github.bohnman.squiggly.warmup;
+
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.introspect.AnnotatedMember;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.PropertyFilter;
+import com.github.bohnman.squiggly.SquigglyEngine;
+import com.github.bohnman.squiggly.automaton.SquigglyAutomaton;
+import com.github.bohnman.squiggly.automaton.SquigglyState;
+import com.github.bohnman.squiggly.filter.SquigglyPropertyFilter;
+import com.github.bohnman.squiggly.name.AnyDeepName;
+import com.github.bohnman.squiggly.parser.SquigglyParser;
+import com.google.common.base.Stopwatch;
+import net.jcip.annotations.NotThreadSafe;
+import org.apache.commons.lang3.StringUtils;
+
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fills Squiggly's caches before an application starts taking traffic.
+ * <p>
+ * Starting from a set of root types, the warm-up walks the graph of bean properties using the type information of the
+ * ObjectMapper and introspects every reachable bean class in parallel.  Each expected filter is then compiled and its
+ * transitions are followed through the graph, which fills the parser and path caches.
+ * <p>
+ * Only concrete classes are followed, since the class a property declares may not be the class that gets serialized.
+ * Map values are introspected, but their paths depend on the keys, so they're left to be cached on first use.
+ */
+@NotThreadSafe
+public class SquigglyWarmUp {
+
+    private final ObjectMapper mapper;
+    private final SquigglyPropertyFilter filter;
+    private final SquigglyParser parser;
+    private final Set<Class<?>> rootTypes = new LinkedHashSet<>();
+    private final Set<String> filters = new LinkedHashSet<>();
+
+    /**
+     * Construct with a mapper that has been initialized with {@link com.github.bohnman.squiggly.Squiggly#init}.
+     *
+     * @param mapper the Jackson Object Mapper
+     * @throws IllegalStateException if no squiggly filter is registered with the mapper
+     */
+    public SquigglyWarmUp(ObjectMapper mapper) throws IllegalStateException {
+        this(mapper, findFilter(mapper));
+    }
+
+    /**
+     * Construct with a mapper and the filter to warm up.
+     *
+     * @param mapper the Jackson Object Mapper
+     * @param filter the property filter
+     */
+    public SquigglyWarmUp(ObjectMapper mapper, SquigglyPropertyFilter filter) {
+        this(mapper, filter, new SquigglyParser());
+    }
+
+    /**
+     * Construct with a mapper that has been initialized with an engine, which compiles the filters.
+     *
+     * @param mapper the Jackson Object Mapper
+     * @param engine the engine the mapper was initialized with
+     * @throws IllegalStateException if no squiggly filter is registered with the mapper
+     */
+    public SquigglyWarmUp(ObjectMapper mapper, SquigglyEngine engine) throws IllegalStateException {
+        this(mapper, findFilter(mapper), engine.getParser());
+    }
+
+    /**
+     * Construct with a mapper, the filter to warm up and the parser that compiles its filters.
+     *
+     * @param mapper the Jackson Object Mapper
+     * @param filter the property filter
+     * @param parser the parser
+     */
+    public SquigglyWarmUp(ObjectMapper mapper, SquigglyPropertyFilter filter, SquigglyParser parser) {
+        this.mapper = mapper;
+        this.filter = filter;
+        this.parser = parser;
+    }
+
+    private static SquigglyPropertyFilter findFilter(ObjectMapper mapper) {
+        FilterProvider filterProvider = mapper.getSerializationConfig().getFilterProvider();
+        PropertyFilter filter = (filterProvider == null) ? null : filterProvider.findPropertyFilter(SquigglyPropertyFilter.FILTER_ID, null);
+
+        if (!(filter instanceof SquigglyPropertyFilter)) {
+            throw new IllegalStateException("No squiggly filter is registered with the ObjectMapper");
+        }
+
+        return (SquigglyPropertyFilter) filter;
+    }
+
+    /**
+     * Add types whose property graphs should be warmed up.
+     *
+     * @param rootTypes the top-level types that get serialized
+     * @return this, for chaining
+     */
+    public SquigglyWarmUp rootTypes(Class<?>... rootTypes) {
+        return rootTypes(Arrays.asList(rootTypes));
+    }
+
+    /**
+     * Add types whose property graphs should be warmed up.
+     *
+     * @param rootTypes the top-level types that get serialized
+     * @return this, for chaining
+     */
+    public SquigglyWarmUp rootTypes(Collection<Class<?>> rootTypes) {
+        this.rootTypes.addAll(rootTypes);
+        return this;
+    }
+
+    /**
+     * Add filter expressions that are expected to be used with the root types.
+     *
+     * @param filters the filter expressions
+     * @return this, for chaining
+     */
+    public SquigglyWarmUp filters(String... filters) {
+        return filters(Arrays.asList(filters));
+    }
+
+    /**
+     * Add filter expressions that are expected to be used with the root types.
+     *
+     * @param filters the filter expressions
+     * @return this, for chaining
+     */
+    public SquigglyWarmUp filters(Collection<String> filters) {
+        this.filters.addAll(filters);
+        return this;
+    }
+
+    /**
+     * Run the warm-up on a thread pool sized to the number of processors, which is shut down afterwards.
+     *
+     * @return report of the work done and how long it took
+     */
+    public SquigglyWarmUpReport run() {
+        ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+
+        try {
+            return run(executor);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Run the warm-up on the given executor.
+     *
+     * @param executor executor that runs the introspection and filter tasks
+     * @return report of the work done and how long it took
+     */
+    public SquigglyWarmUpReport run(ExecutorService executor) {
+        Stopwatch total = Stopwatch.createStarted();
+
+        Stopwatch stopwatch = Stopwatch.createStarted();
+        final Map<Class<?>, List<Property>> typeGraph = walkTypeGraph();
+        long typeGraphMillis = stopwatch.elapsed(TimeUnit.MILLISECONDS);
+
+        stopwatch.reset().start();
+        List<Callable<Integer>> introspectTasks = new ArrayList<>(typeGraph.size());
+
+        for (final Class<?> beanClass : typeGraph.keySet()) {
+            introspectTasks.add(new Callable<Integer>() {
+                @Override
+                public Integer call() throws Exception {
+                    filter.getBeanInfoIntrospector().introspect(beanClass);
+                    return 1;
+                }
+            });
+        }
+
+        invokeAll(executor, introspectTasks);
+        long introspectionMillis = stopwatch.elapsed(TimeUnit.MILLISECONDS);
+
+        stopwatch.reset().start();
+        List<Callable<Integer>> filterTasks = new ArrayList<>(filters.size());
+
+        for (final String filterExpression : filters) {
+            filterTasks.add(new Callable<Integer>() {
+                @Override
+                public Integer call() throws Exception {
+                    return warmUpFilter(filterExpression, typeGraph);
+                }
+            });
+        }
+
+        int transitionCount = invokeAll(executor, filterTasks);
+        long filterMillis = stopwatch.elapsed(TimeUnit.MILLISECONDS);
+
+        return new SquigglyWarmUpReport(typeGraph.size(), filters.size(), transitionCount,
+                typeGraphMillis, introspectionMillis, filterMillis, total.elapsed(TimeUnit.MILLISECONDS));
+    }
+
+    // run the tasks and sum up their results
+    private int invokeAll(ExecutorService executor, List<Callable<Integer>> tasks) {
+        int sum = 0;
+
+        try {
+            for (Future<Integer> future : executor.invokeAll(tasks)) {
+                sum += future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while warming up", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+
+            throw new IllegalStateException("Unable to warm up", e.getCause());
+        }
+
+        return sum;
+    }
+
+    // find every bean class reachable from the root types, along with the bean classes each of their properties hold
+    private Map<Class<?>, List<Property>> walkTypeGraph() {
+        SerializationConfig config = mapper.getSerializationConfig();
+        Map<Class<?>, List<Property>> typeGraph = new LinkedHashMap<>();
+        Deque<JavaType> queue = new ArrayDeque<>();
+
+        for (Class<?> rootType : rootTypes) {
+            queue.add(config.constructType(rootType));
+        }
+
+        while (!queue.isEmpty()) {
+            JavaType type = queue.poll();
+            Class<?> beanClass = type.getRawClass();
+
+            if (typeGraph.containsKey(beanClass) || !isBean(beanClass)) {
+                continue;
+            }
+
+            BeanDescription beanDescription = config.introspect(type);
+            List<Property> properties = new ArrayList<>();
+
+            for (BeanPropertyDefinition definition : beanDescription.findProperties()) {
+                AnnotatedMember accessor = definition.getAccessor();
+
+                if (accessor == null) {
+                    continue;
+                }
+
+                JavaType propertyType = accessor.getType(beanDescription.bindingsForBeanType());
+                Property property = new Property(definition.getName());
+                addValueTypes(propertyType, property.beanClasses, queue);
+                properties.add(property);
+            }
+
+            typeGraph.put(beanClass, properties);
+        }
+
+        return typeGraph;
+    }
+
+    // queue the types a property holds, remembering the ones its value or elements are serialized as
+    private void addValueTypes(JavaType type, List<Class<?>> beanClasses, Deque<JavaType> queue) {
+        if (type.isMapLikeType()) {
+            if (type.getContentType() != null) {
+                addValueTypes(type.getContentType(), new ArrayList<Class<?>>(), queue);
+            }
+
+            return;
+        }
+
+        if (type.isContainerType()) {
+            if (type.getContentType() != null) {
+                addValueTypes(type.getContentType(), beanClasses, queue);
+            }
+
+            return;
+        }
+
+        if (isBean(type.getRawClass())) {
+            beanClasses.add(type.getRawClass());
+            queue.add(type);
+        }
+    }
+
+    private static boolean isBean(Class<?> beanClass) {
+        if (beanClass.isPrimitive() || beanClass.isArray() || beanClass.isEnum() || beanClass.isInterface()) {
+            return false;
+        }
+
+        if (Modifier.isAbstract(beanClass.getModifiers())) {
+            return false;
+        }
+
+        String name = beanClass.getName();
+        return !name.startsWith("java.") && !name.startsWith("javax.");
+    }
+
+    // compile the filter and follow its transitions from each root type, returning the number of transitions made
+    private int warmUpFilter(String filterExpression, Map<Class<?>, List<Property>> typeGraph) {
+        SquigglyAutomaton automaton = parser.compile(filterExpression);
+
+        if (AnyDeepName.ID.equals(StringUtils.trim(filterExpression))) {
+            return 0;
+        }
+
+        Set<List<Object>> visited = new HashSet<>();
+        int transitionCount = 0;
+
+        for (Class<?> rootType : rootTypes) {
+            transitionCount += walkPaths(automaton.getStart(), rootType, typeGraph, visited);
+        }
+
+        return transitionCount;
+    }
+
+    private int walkPaths(SquigglyState state, Class<?> beanClass, Map<Class<?>, List<Property>> typeGraph, Set<List<Object>> visited) {
+        List<Property> properties = typeGraph.get(beanClass);
+
+        // the states of a filter are finite, so this also stops recursive type graphs
+        if (properties == null || !visited.add(Arrays.<Object>asList(state, beanClass))) {
+            return 0;
+        }
+
+        int transitionCount = 0;
+
+        for (Property property : properties) {
+            SquigglyState next = filter.warmUp(state, property.name, beanClass);
+            transitionCount++;
+
+            if (next.isIncluded()) {
+                for (Class<?> propertyClass : property.beanClasses) {
+                    transitionCount += walkPaths(next, propertyClass, typeGraph, visited);
+                }
+            }
+        }
+
+        return transitionCount;
+    }
+
+    private static class Property {
+        private final String name;
+        private final List<Class<?>> beanClasses = new ArrayList<>(1);
+
+        Property(String name) {
+            this.name = name;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.github.bohnman.squiggly.warmup;
+
+import com.google.common.base.MoreObjects;
+import net.jcip.annotations.Immutable;
+
+/**
+ * What a {@link SquigglyWarmUp} did and how long each of its phases took.
+ */
+@Immutable
+public class SquigglyWarmUpReport {
+
+    private final int classCount;
+    private final int filterCount;
+    private final int transitionCount;
+    private final long typeGraphMillis;
+    private final long introspectionMillis;
+    private final long filterMillis;
+    private final long totalMillis;
+
+    public SquigglyWarmUpReport(int classCount, int filterCount, int transitionCount,
+                                long typeGraphMillis, long introspectionMillis, long filterMillis, long totalMillis) {
+        this.classCount = classCount;
+        this.filterCount = filterCount;
+        this.transitionCount = transitionCount;
+        this.typeGraphMillis = typeGraphMillis;
+        this.introspectionMillis = introspectionMillis;
+        this.filterMillis = filterMillis;
+        this.totalMillis = totalMillis;
+    }
+
+    /**
+     * Get the number of bean classes reachable from the root types.
+     *
+     * @return class count
+     */
+    public int getClassCount() {
+        return classCount;
+    }
+
+    /**
+     * Get the number of filters that were compiled.
+     *
+     * @return filter count
+     */
+    public int getFilterCount() {
+        return filterCount;
+    }
+
+    /**
+     * Get the number of transitions that were computed or found in the path cache.
+     *
+     * @return transition count
+     */
+    public int getTransitionCount() {
+        return transitionCount;
+    }
+
+    /**
+     * Get how long walking the type graph took.
+     *
+     * @return milliseconds
+     */
+    public long getTypeGraphMillis() {
+        return typeGraphMillis;
+    }
+
+    /**
+     * Get how long introspecting the bean classes took.
+     *
+     * @return milliseconds
+     */
+    public long getIntrospectionMillis() {
+        return introspectionMillis;
+    }
+
+    /**
+     * Get how long compiling the filters and following their transitions took.
+     *
+     * @return milliseconds
+     */
+    public long getFilterMillis() {
+        return filterMillis;
+    }
+
+    /**
+     * Get how long the whole warm-up took.
+     *
+     * @return milliseconds
+     */
+    public long getTotalMillis() {
+        return totalMillis;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("classCount", classCount)
+                .add("filterCount", filterCount)
+                .add("transitionCount", transitionCount)
+                .add("typeGraphMillis", typeGraphMillis)
+                .add("introspectionMillis", introspectionMillis)
+                .add("filterMillis", filterMillis)
+                .add("totalMillis", totalMillis)
+                .toString();
+    }
+}
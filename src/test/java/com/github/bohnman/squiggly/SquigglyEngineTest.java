@@ -0,0 +1,44 @@
+package com.github.bohnman.squiggly;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.bohnman.squiggly.config.SquigglyEngineConfig;
+import com.github.bohnman.squiggly.model.Issue;
+import com.github.bohnman.squiggly.model.User;
+import com.github.bohnman.squiggly.util.SquigglyUtils;
+import com.google.common.collect.ImmutableMap;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+public class SquigglyEngineTest {
+
+    @Test
+    public void testConfig() {
+        SquigglyEngine engine = new SquigglyEngine(SquigglyEngineConfig.of(ImmutableMap.of(
+                "property.addNonAnnotatedFieldsToBaseView", "false")));
+        Issue issue = new Issue();
+        issue.setId("ISSUE-1");
+        issue.setIssueSummary("Dragons Need Fed");
+        issue.setAssignee(new User("Jorah", "Mormont"));
+
+        assertEquals("{}", SquigglyUtils.stringify(Squiggly.init(new ObjectMapper(), "base", engine), issue));
+
+        // the default engine still adds non-annotated fields to the base view
+        assertEquals("{\"id\":\"ISSUE-1\",\"issueSummary\":\"Dragons Need Fed\",\"issueDetails\":null,\"reporter\":null,\"assignee\":{\"firstName\":\"Jorah\",\"lastName\":\"Mormont\"}}",
+                SquigglyUtils.stringify(Squiggly.init(new ObjectMapper(), "base"), issue));
+    }
+
+    @Test
+    public void testCaches() {
+        SquigglyEngine engine = new SquigglyEngine(SquigglyEngineConfig.of(ImmutableMap.of(
+                "filter.pathCache.spec", "maximumSize=100,recordStats")));
+        SquigglyUtils.stringify(Squiggly.init(new ObjectMapper(), "id", engine), new User("Jorah", "Mormont"));
+
+        // the engine's caches are measured separately from the default ones
+        assertTrue((Long) engine.getMetrics().get("squiggly.filter.pathCache.missCount") > 0);
+        assertNotSame(SquigglyEngine.getDefault().getPathCache(), engine.getPathCache());
+        assertNotSame(SquigglyEngine.getDefault().getParser(), engine.getParser());
+    }
+}
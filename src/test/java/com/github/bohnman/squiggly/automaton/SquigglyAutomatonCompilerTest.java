@@ -0,0 +1,150 @@
+package com.github.bohnman.squiggly.automaton;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.bohnman.squiggly.Squiggly;
+import com.github.bohnman.squiggly.SquigglyEngine;
+import com.github.bohnman.squiggly.bean.BeanInfoIntrospector;
+import com.github.bohnman.squiggly.config.SquigglyEngineConfig;
+import com.github.bohnman.squiggly.model.Issue;
+import com.github.bohnman.squiggly.model.IssueAction;
+import com.github.bohnman.squiggly.model.User;
+import com.github.bohnman.squiggly.parser.SquigglyParser;
+import com.github.bohnman.squiggly.util.SquigglyUtils;
+import com.google.common.collect.ImmutableMap;
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class SquigglyAutomatonCompilerTest {
+
+    private static final String FILTER = "id,assignee{firstName},actions{user{lastName}}";
+
+    private final BeanInfoIntrospector introspector = new BeanInfoIntrospector();
+    private final Queue<Runnable> tasks = new ArrayDeque<>();
+
+    // runs the compilations when the test says so
+    private final Executor executor = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            tasks.add(command);
+        }
+    };
+
+    @Test
+    public void testThreshold() {
+        SquigglyAutomatonCompiler compiler = new SquigglyAutomatonCompiler(3, "compiler.", executor);
+        SquigglyAutomaton automaton = createAutomaton(compiler);
+
+        // the automaton of a cold filter links its states as they're reached
+        Map<String, SquigglyState> reached = walk(automaton);
+
+        for (int i = 0; i < 2; i++) {
+            automaton.recordUse();
+        }
+
+        assertTrue(tasks.isEmpty());
+        automaton.recordUse();
+        assertEquals(1, tasks.size());
+        assertEquals(1, getMetric(compiler, "compiler.queueSize"));
+        assertFalse(automaton.isCompiled());
+
+        // later uses don't submit it again
+        automaton.recordUse();
+        assertEquals(1, tasks.size());
+
+        tasks.remove().run();
+        assertTrue(automaton.isCompiled());
+        assertEquals(0, getMetric(compiler, "compiler.queueSize"));
+        assertEquals(1L, getMetric(compiler, "compiler.promotionCount"));
+
+        // the states reached before the automaton was compiled are still the ones it moves to
+        assertEquals(reached, walk(automaton));
+    }
+
+    @Test
+    public void testCompiledUpFront() {
+        SquigglyAutomaton automaton = createAutomaton(new SquigglyAutomatonCompiler(0, "compiler.", executor));
+
+        assertTrue(automaton.isCompiled());
+        automaton.recordUse();
+        assertTrue(tasks.isEmpty());
+    }
+
+    @Test
+    public void testRejected() {
+        SquigglyAutomatonCompiler compiler = new SquigglyAutomatonCompiler(1, "compiler.", new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                throw new RejectedExecutionException();
+            }
+        });
+        SquigglyAutomaton automaton = createAutomaton(compiler);
+        automaton.recordUse();
+
+        // an automaton that can't be compiled keeps linking its states as they're reached
+        assertFalse(automaton.isCompiled());
+        assertEquals(0, getMetric(compiler, "compiler.queueSize"));
+        assertEquals(0L, getMetric(compiler, "compiler.promotionCount"));
+        assertTrue(walk(automaton).get("assignee.firstName").isIncluded());
+    }
+
+    @Test
+    public void testSerialization() {
+        SquigglyEngine engine = new SquigglyEngine(SquigglyEngineConfig.of(ImmutableMap.of(
+                "parser.compileThreshold", "3",
+                "parser.nodeCache.spec", "maximumSize=100")));
+        Issue issue = new Issue();
+        issue.setId("ISSUE-1");
+        issue.setAssignee(new User("Jorah", "Mormont"));
+        issue.setActions(Collections.singletonList(new IssueAction("CLOSE", "All set.", new User("Daario", "Naharis"))));
+        ObjectMapper mapper = Squiggly.init(new ObjectMapper(), FILTER, engine);
+
+        // the same output before, during and after the filter is promoted in the background
+        for (int i = 0; i < 6; i++) {
+            assertEquals("{\"id\":\"ISSUE-1\",\"assignee\":{\"firstName\":\"Jorah\"},\"actions\":[{\"user\":{\"lastName\":\"Naharis\"}}]}",
+                    SquigglyUtils.stringify(mapper, issue));
+        }
+    }
+
+    private SquigglyAutomaton createAutomaton(SquigglyAutomatonCompiler compiler) {
+        return new SquigglyAutomaton(1, FILTER, new SquigglyParser().compile(FILTER).getNodes(), SquigglyEngineConfig.getDefault(), compiler);
+    }
+
+    private Map<String, SquigglyState> walk(SquigglyAutomaton automaton) {
+        SquigglyState start = automaton.getStart();
+        SquigglyState assignee = start.next("assignee", Issue.class, introspector);
+        SquigglyState actions = start.next("actions", Issue.class, introspector);
+        SquigglyState user = actions.next("user", IssueAction.class, introspector);
+
+        Map<String, SquigglyState> states = new HashMap<>();
+        states.put("id", start.next("id", Issue.class, introspector));
+        states.put("issueSummary", start.next("issueSummary", Issue.class, introspector));
+        states.put("assignee", assignee);
+        states.put("assignee.firstName", assignee.next("firstName", User.class, introspector));
+        states.put("assignee.lastName", assignee.next("lastName", User.class, introspector));
+        states.put("actions.user", user);
+        states.put("actions.user.lastName", user.next("lastName", User.class, introspector));
+        states.put("actions.text", actions.next("text", IssueAction.class, introspector));
+
+        assertSame(SquigglyState.EXCLUDE, states.get("issueSummary"));
+        assertSame(SquigglyState.EXCLUDE, states.get("assignee.lastName"));
+        return states;
+    }
+
+    private static Object getMetric(SquigglyAutomatonCompiler compiler, String name) {
+        Map<String, Object> metrics = new HashMap<>();
+        compiler.getMetricsSource().applyMetrics(metrics);
+        return metrics.get(name);
+    }
+}
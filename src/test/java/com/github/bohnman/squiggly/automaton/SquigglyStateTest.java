@@ -0,0 +1,108 @@
+package com.github.bohnman.squiggly.automaton;
+
+import com.github.bohnman.squiggly.bean.BeanInfoIntrospector;
+import com.github.bohnman.squiggly.parser.SquigglyParser;
+import org.junit.Test;
+
+import java.util.HashMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the decisions a state makes for map keys.
+ */
+public class SquigglyStateTest {
+
+    private final SquigglyParser parser = new SquigglyParser();
+    private final BeanInfoIntrospector introspector = new BeanInfoIntrospector();
+
+    @Test
+    public void testExactKeys() {
+        SquigglyState state = start("a,b[c]");
+
+        assertTrue(nextMapKey(state, "a").isIncluded());
+        assertTrue(nextMapKey(state, "b").isIncluded());
+        assertFalse(nextMapKey(state, "b").isIncludeAll());
+        assertTrue(nextMapKey(nextMapKey(state, "b"), "c").isIncluded());
+        assertSame(SquigglyState.EXCLUDE, nextMapKey(nextMapKey(state, "b"), "d"));
+        assertSame(SquigglyState.EXCLUDE, nextMapKey(state, "c"));
+        assertSame(SquigglyState.EXCLUDE, nextMapKey(state, ""));
+    }
+
+    @Test
+    public void testPatternKeys() {
+        SquigglyState state = start("a*,~^b.$~[x]");
+
+        assertTrue(nextMapKey(state, "a").isIncluded());
+        assertTrue(nextMapKey(state, "abc").isIncluded());
+        assertTrue(nextMapKey(nextMapKey(state, "bc"), "x").isIncluded());
+        assertSame(SquigglyState.EXCLUDE, nextMapKey(nextMapKey(state, "bc"), "y"));
+        assertSame(SquigglyState.EXCLUDE, nextMapKey(state, "bcd"));
+        assertSame(SquigglyState.EXCLUDE, nextMapKey(state, "ca"));
+    }
+
+    @Test
+    public void testExactKeyBeatsPattern() {
+        SquigglyState state = start("a*[x],ab");
+
+        assertNotSame(nextMapKey(state, "ab"), nextMapKey(state, "ac"));
+        assertTrue(nextMapKey(nextMapKey(state, "ab"), "y").isIncluded());
+        assertSame(SquigglyState.EXCLUDE, nextMapKey(nextMapKey(state, "ac"), "y"));
+    }
+
+    @Test
+    public void testBaseView() {
+        SquigglyState state = start("base");
+
+        assertTrue(nextMapKey(state, "anything").isIncluded());
+        assertTrue(nextMapKey(start("**"), "anything").isIncludeAll());
+    }
+
+    @Test
+    public void testSameAsPropertyDecisions() {
+        String[] filters = {"a", "a*", "*", "**", "a,-b", "a*,ab[x]", "~^a\\d+$~", "base", "a*b?c", "k1[a],k2"};
+        String[] keys = {"a", "ab", "b", "abc", "a1", "a12", "axbyc", "k1", "k2", "k3", ""};
+
+        for (String filter : filters) {
+            SquigglyState state = start(filter);
+
+            // twice, so the second pass reads the cached pattern matches
+            for (int pass = 0; pass < 2; pass++) {
+                for (String key : keys) {
+                    assertSame(filter + " " + key, state.next(key, HashMap.class, introspector), nextMapKey(state, key));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testManyKeys() {
+        SquigglyState state = start("a*[x],b?");
+
+        // far more distinct keys than the state caches pattern matches for
+        for (int pass = 0; pass < 2; pass++) {
+            for (int i = 0; i < 1000; i++) {
+                String key = Integer.toString(i, 36);
+                boolean included = key.startsWith("a") || (key.startsWith("b") && key.length() <= 2);
+                assertEquals(key, included, nextMapKey(state, key).isIncluded());
+
+                if (key.startsWith("a")) {
+                    assertTrue(key, nextMapKey(nextMapKey(state, key), "x").isIncluded());
+                    assertSame(key, SquigglyState.EXCLUDE, nextMapKey(nextMapKey(state, key), "y"));
+                }
+            }
+        }
+    }
+
+    private SquigglyState start(String filter) {
+        return parser.compile(filter).getStart();
+    }
+
+    private SquigglyState nextMapKey(SquigglyState state, String key) {
+        return state.nextMapKey(key, HashMap.class, introspector);
+    }
+}
@@ -0,0 +1,79 @@
+package com.github.bohnman.squiggly.bean;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.bohnman.squiggly.Squiggly;
+import com.github.bohnman.squiggly.bean.processed.ProcessedModels;
+import com.github.bohnman.squiggly.config.SquigglyEngineConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.beans.Introspector;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the cost of introspecting a class that hasn't been seen before using reflection, a generated table and the
+ * metadata of the ObjectMapper's serializer.
+ * <p>
+ * Run the main method with the test classpath, e.g. from an IDE.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BeanInfoIntrospectorBenchmark {
+
+    @Param({"annotated", "deep"})
+    public String beanType;
+
+    private Class beanClass;
+    private JacksonBeanInfoIntrospector jacksonIntrospector;
+    private BeanInfoTable table;
+
+    @Setup
+    public void setup() throws Exception {
+        Object bean = "annotated".equals(beanType) ? new ProcessedModels.AnnotatedEntity() : new ProcessedModels.Level5Entity();
+        ObjectMapper mapper = Squiggly.init(new ObjectMapper(), "**");
+
+        // the serializer exists by the time the filter needs the views of a class
+        mapper.writeValueAsString(bean);
+
+        beanClass = bean.getClass();
+        jacksonIntrospector = new JacksonBeanInfoIntrospector(mapper);
+        table = BeanInfoIntrospector.loadTable(beanClass);
+    }
+
+    @Benchmark
+    public BeanInfo reflection() {
+        // the bean info of the class and its superclasses would not have been cached yet
+        Introspector.flushCaches();
+        return BeanInfoIntrospector.introspectReflection(beanClass, SquigglyEngineConfig.getDefault());
+    }
+
+    @Benchmark
+    public BeanInfo generatedTable() {
+        return BeanInfoIntrospector.introspectTable(table, SquigglyEngineConfig.getDefault());
+    }
+
+    @Benchmark
+    public BeanInfo jacksonMetadata() {
+        return jacksonIntrospector.introspectMetadata(beanClass);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(BeanInfoIntrospectorBenchmark.class.getSimpleName()).build()).run();
+    }
+}
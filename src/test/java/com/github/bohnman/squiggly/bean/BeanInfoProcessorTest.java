@@ -0,0 +1,62 @@
+package com.github.bohnman.squiggly.bean;
+
+import com.github.bohnman.squiggly.bean.processed.ProcessedModels;
+import com.github.bohnman.squiggly.config.SquigglyEngineConfig;
+import com.github.bohnman.squiggly.model.Issue;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests that the tables the BeanInfoProcessor generated for the processed test models give the same bean info as
+ * reflection.
+ */
+public class BeanInfoProcessorTest {
+
+    private static final String[] VIEWS = {"base", "full", "summary", "audit", "other", "missing"};
+
+    @Test
+    public void testSameAsReflection() {
+        SquigglyEngineConfig config = SquigglyEngineConfig.getDefault();
+        int tables = 0;
+
+        for (Class beanClass : ProcessedModels.class.getDeclaredClasses()) {
+            BeanInfoTable table = BeanInfoIntrospector.loadTable(beanClass);
+
+            if (table == null) {
+                continue;
+            }
+
+            BeanInfo expected = BeanInfoIntrospector.introspectReflection(beanClass, config);
+            BeanInfo actual = BeanInfoIntrospector.introspectTable(table, config);
+            tables++;
+
+            for (String view : VIEWS) {
+                String message = beanClass.getSimpleName() + " " + view;
+                assertEquals(message, expected.getPropertyNamesForView(view), actual.getPropertyNamesForView(view));
+            }
+
+            assertEquals(beanClass.getSimpleName(), expected.getPropertyCount(), actual.getPropertyCount());
+
+            for (int i = 0; i < expected.getPropertyCount(); i++) {
+                String property = expected.getPropertyName(i);
+                assertEquals(beanClass.getSimpleName() + " " + property, expected.isUnwrapped(property), actual.isUnwrapped(property));
+            }
+        }
+
+        assertEquals(8, tables);
+    }
+
+    @Test
+    public void testOnlyProcessedModels() {
+        assertNotNull(BeanInfoIntrospector.loadTable(ProcessedModels.AnnotatedEntity.class));
+
+        // classes without annotated properties don't need a table
+        assertNull(BeanInfoIntrospector.loadTable(ProcessedModels.Address.class));
+
+        // the shared models are introspected with reflection, which the other tests rely on
+        assertNull(BeanInfoIntrospector.loadTable(Issue.class));
+    }
+}
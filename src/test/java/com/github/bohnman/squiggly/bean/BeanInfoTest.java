@@ -0,0 +1,89 @@
+package com.github.bohnman.squiggly.bean;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests view membership against the sets the bitsets are built from.
+ */
+public class BeanInfoTest {
+
+    @Test
+    public void testViewMembership() {
+        // enough properties to span several words, in views that overlap
+        Random random = new Random(42);
+        Map<String, Set<String>> views = new LinkedHashMap<>();
+
+        for (String view : new String[]{"base", "full", "summary", "other"}) {
+            Set<String> properties = new HashSet<>();
+
+            for (int i = 0; i < 200; i++) {
+                if (random.nextInt(3) == 0) {
+                    properties.add("property" + i);
+                }
+            }
+
+            views.put(view, properties);
+        }
+
+        views.put("empty", ImmutableSet.<String>of());
+        Set<String> unwrapped = ImmutableSet.of("property63", "property64", "unwrapped");
+        BeanInfo beanInfo = new BeanInfo(views, unwrapped);
+
+        for (Map.Entry<String, Set<String>> view : views.entrySet()) {
+            assertEquals(view.getKey(), view.getValue(), beanInfo.getPropertyNamesForView(view.getKey()));
+            assertEquals(view.getKey(), !view.getValue().isEmpty(), beanInfo.hasPropertiesInView(view.getKey()));
+
+            for (int i = 0; i < 200; i++) {
+                String property = "property" + i;
+                assertEquals(property, view.getValue().contains(property), beanInfo.isInView(beanInfo.getPropertyIndex(property), view.getKey()));
+            }
+        }
+
+        for (int i = 0; i < 200; i++) {
+            String property = "property" + i;
+            assertEquals(property, unwrapped.contains(property), beanInfo.isUnwrapped(property));
+        }
+
+        assertTrue(beanInfo.isUnwrapped("unwrapped"));
+        assertFalse(beanInfo.isInView(beanInfo.getPropertyIndex("unwrapped"), "base"));
+    }
+
+    @Test
+    public void testPropertyIndexes() {
+        BeanInfo beanInfo = new BeanInfo(ImmutableMap.<String, Set<String>>of(
+                "base", ImmutableSet.of("a", "b"),
+                "full", ImmutableSet.of("b", "c")), ImmutableSet.of("d"));
+
+        assertEquals(4, beanInfo.getPropertyCount());
+
+        for (int i = 0; i < beanInfo.getPropertyCount(); i++) {
+            assertEquals(i, beanInfo.getPropertyIndex(beanInfo.getPropertyName(i)));
+        }
+
+        assertEquals(-1, beanInfo.getPropertyIndex("e"));
+    }
+
+    @Test
+    public void testUnknown() {
+        BeanInfo beanInfo = new BeanInfo(ImmutableMap.<String, Set<String>>of("base", ImmutableSet.of("a")), ImmutableSet.<String>of());
+
+        assertFalse(beanInfo.isInView(-1, "base"));
+        assertFalse(beanInfo.isInView(beanInfo.getPropertyIndex("a"), "missing"));
+        assertFalse(beanInfo.hasPropertiesInView("missing"));
+        assertEquals(ImmutableSet.of(), beanInfo.getPropertyNamesForView("missing"));
+        assertFalse(beanInfo.isUnwrapped("a"));
+        assertFalse(beanInfo.isUnwrapped("b"));
+    }
+}
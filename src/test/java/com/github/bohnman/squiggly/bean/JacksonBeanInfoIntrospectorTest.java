@@ -0,0 +1,59 @@
+package com.github.bohnman.squiggly.bean;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.bohnman.squiggly.model.BaseEntity;
+import com.github.bohnman.squiggly.model.Inner;
+import com.github.bohnman.squiggly.model.Issue;
+import com.github.bohnman.squiggly.model.IssueAction;
+import com.github.bohnman.squiggly.model.Item;
+import com.github.bohnman.squiggly.model.Outer;
+import com.github.bohnman.squiggly.model.User;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests that reading Jackson's metadata gives the same bean info as reflection.
+ */
+public class JacksonBeanInfoIntrospectorTest {
+
+    private static final Set<String> CLASS = ImmutableSet.of("class");
+    private static final String[] VIEWS = {"base", "full", "view1", "other", "missing"};
+
+    private final BeanInfoIntrospector reflection = new BeanInfoIntrospector();
+    private final BeanInfoIntrospector jackson = new JacksonBeanInfoIntrospector(new ObjectMapper(), reflection);
+
+    @Test
+    public void testSameAsReflection() {
+        for (Class beanClass : new Class[]{BaseEntity.class, Issue.class, IssueAction.class, User.class, Item.class, Outer.class, Inner.class}) {
+            BeanInfo expected = reflection.introspect(beanClass);
+            BeanInfo actual = jackson.introspect(beanClass);
+
+            // java.beans also reports getClass(), which Jackson never serializes
+            for (String view : VIEWS) {
+                String message = beanClass.getSimpleName() + " " + view;
+                assertEquals(message, Sets.difference(expected.getPropertyNamesForView(view), CLASS), actual.getPropertyNamesForView(view));
+            }
+
+            assertEquals(beanClass.getSimpleName(), expected.getPropertyCount() - 1, actual.getPropertyCount());
+
+            for (int i = 0; i < expected.getPropertyCount(); i++) {
+                String property = expected.getPropertyName(i);
+                assertEquals(beanClass.getSimpleName() + " " + property, expected.isUnwrapped(property), actual.isUnwrapped(property));
+            }
+        }
+    }
+
+    @Test
+    public void testNonBeans() {
+        // classes that aren't serialized as beans fall back to reflection
+        for (Class beanClass : new Class[]{String.class, HashMap.class}) {
+            assertEquals(reflection.introspect(beanClass).getPropertyNamesForView("base"), jackson.introspect(beanClass).getPropertyNamesForView("base"));
+        }
+    }
+}
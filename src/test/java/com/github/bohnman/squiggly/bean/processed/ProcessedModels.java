@@ -0,0 +1,234 @@
+package com.github.bohnman.squiggly.bean.processed;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import com.github.bohnman.squiggly.model.OtherView;
+import com.github.bohnman.squiggly.view.FullView;
+import com.github.bohnman.squiggly.view.PropertyView;
+
+/**
+ * Models that the build runs the BeanInfoProcessor over, unlike the other test models, which are introspected with
+ * reflection.
+ */
+public class ProcessedModels {
+
+    public static class AnnotatedBase {
+        @PropertyView("summary")
+        private String id;
+
+        public String getId() {
+            return id;
+        }
+
+        public void setId(String id) {
+            this.id = id;
+        }
+    }
+
+    public static class AnnotatedEntity extends AnnotatedBase {
+        private String name;
+        @FullView
+        @OtherView
+        private String details;
+        private boolean archived;
+        private Address address;
+        private String secret;
+
+        @JsonProperty("display_name")
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getDetails() {
+            return details;
+        }
+
+        public void setDetails(String details) {
+            this.details = details;
+        }
+
+        public boolean isArchived() {
+            return archived;
+        }
+
+        @PropertyView("audit")
+        public void setArchived(boolean archived) {
+            this.archived = archived;
+        }
+
+        public Address getAddress() {
+            return address;
+        }
+
+        @JsonUnwrapped
+        public void setAddress(Address address) {
+            this.address = address;
+        }
+
+        @PropertyView({"summary", "audit"})
+        public String getLabel() {
+            return name + " " + getId();
+        }
+
+        public void setSecret(String secret) {
+            this.secret = secret;
+        }
+    }
+
+    public static class Address {
+        private String city;
+
+        public String getCity() {
+            return city;
+        }
+
+        public void setCity(String city) {
+            this.city = city;
+        }
+    }
+
+    public static class Level0Entity {
+        @PropertyView("summary")
+        private String id;
+        private String createdBy;
+        @FullView
+        private long version;
+
+        public String getId() {
+            return id;
+        }
+
+        public void setId(String id) {
+            this.id = id;
+        }
+
+        public String getCreatedBy() {
+            return createdBy;
+        }
+
+        public void setCreatedBy(String createdBy) {
+            this.createdBy = createdBy;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public void setVersion(long version) {
+            this.version = version;
+        }
+    }
+
+    public static class Level1Entity extends Level0Entity {
+        private String name;
+        @FullView
+        private String description;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public void setDescription(String description) {
+            this.description = description;
+        }
+    }
+
+    public static class Level2Entity extends Level1Entity {
+        @PropertyView({"summary", "audit"})
+        private String owner;
+        private boolean active;
+
+        public String getOwner() {
+            return owner;
+        }
+
+        public void setOwner(String owner) {
+            this.owner = owner;
+        }
+
+        public boolean isActive() {
+            return active;
+        }
+
+        public void setActive(boolean active) {
+            this.active = active;
+        }
+    }
+
+    public static class Level3Entity extends Level2Entity {
+        private String status;
+        @PropertyView("audit")
+        private String modifiedBy;
+
+        public String getStatus() {
+            return status;
+        }
+
+        public void setStatus(String status) {
+            this.status = status;
+        }
+
+        public String getModifiedBy() {
+            return modifiedBy;
+        }
+
+        public void setModifiedBy(String modifiedBy) {
+            this.modifiedBy = modifiedBy;
+        }
+    }
+
+    public static class Level4Entity extends Level3Entity {
+        private String category;
+        @FullView
+        private String notes;
+
+        public String getCategory() {
+            return category;
+        }
+
+        public void setCategory(String category) {
+            this.category = category;
+        }
+
+        public String getNotes() {
+            return notes;
+        }
+
+        public void setNotes(String notes) {
+            this.notes = notes;
+        }
+    }
+
+    public static class Level5Entity extends Level4Entity {
+        private String region;
+        private int priority;
+
+        public String getRegion() {
+            return region;
+        }
+
+        public void setRegion(String region) {
+            this.region = region;
+        }
+
+        public int getPriority() {
+            return priority;
+        }
+
+        public void setPriority(int priority) {
+            this.priority = priority;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.github.bohnman.squiggly.context;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.bohnman.squiggly.Squiggly;
+import com.github.bohnman.squiggly.context.provider.AbstractSquigglyContextProvider;
+import com.github.bohnman.squiggly.model.Item;
+import com.github.bohnman.squiggly.parser.SquigglyNode;
+import com.github.bohnman.squiggly.parser.SquigglyParser;
+import com.github.bohnman.squiggly.util.SquigglyUtils;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class SquigglyContextTest {
+
+    private static final String FILTER = "id,items{name}";
+
+    @Test
+    public void testContextWithoutAutomaton() {
+        final SquigglyParser parser = new SquigglyParser();
+
+        // a context written against the original interface, which only knows its filter and nodes
+        ObjectMapper mapper = Squiggly.init(new ObjectMapper(), new AbstractSquigglyContextProvider(parser) {
+            @Override
+            public SquigglyContext getContext(final Class beanClass) {
+                return new SquigglyContext() {
+                    @Override
+                    public Class getBeanClass() {
+                        return beanClass;
+                    }
+
+                    @Override
+                    public List<SquigglyNode> getNodes() {
+                        return parser.parse(FILTER);
+                    }
+
+                    @Override
+                    public String getFilter() {
+                        return FILTER;
+                    }
+                };
+            }
+
+            @Override
+            protected String getFilter(Class beanClass) {
+                return FILTER;
+            }
+        });
+
+        Item item = new Item("1", "one", new Item("2", "two"));
+        assertEquals("{\"id\":\"1\",\"items\":[{\"name\":\"two\"}]}", SquigglyUtils.stringify(mapper, item));
+    }
+}
@@ -0,0 +1,197 @@
+package com.github.bohnman.squiggly.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.bohnman.squiggly.Squiggly;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares serializing a graph of beans and small value objects when every class goes through the filter, when only
+ * the beans do, and without Squiggly at all.  The filter includes the value objects in full, so all three produce the
+ * same JSON.
+ * <p>
+ * Run the main method with the test classpath, e.g. from an IDE.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SquigglyFilterScopeBenchmark {
+
+    private static final String FILTER = "id,customer,location,items[sku,quantity,price,warehouse]";
+
+    private Order order;
+    private ObjectMapper allMapper;
+    private ObjectMapper scopedMapper;
+    private ObjectMapper rawMapper;
+
+    @Setup
+    public void setup() throws Exception {
+        useDefaultConfig();
+        order = buildOrder();
+        allMapper = Squiggly.init(new ObjectMapper(), FILTER);
+        scopedMapper = Squiggly.init(new ObjectMapper(), FILTER, SquigglyFilterScope.builder().types(Order.class, LineItem.class).build());
+        rawMapper = new ObjectMapper();
+
+        String expected = rawMapper.writeValueAsString(order);
+
+        if (!expected.equals(allMapper.writeValueAsString(order)) || !expected.equals(scopedMapper.writeValueAsString(order))) {
+            throw new IllegalStateException("Mappers disagree");
+        }
+    }
+
+    @Benchmark
+    public String filterAll() throws Exception {
+        return allMapper.writeValueAsString(order);
+    }
+
+    @Benchmark
+    public String filterScoped() throws Exception {
+        return scopedMapper.writeValueAsString(order);
+    }
+
+    @Benchmark
+    public String unfiltered() throws Exception {
+        return rawMapper.writeValueAsString(order);
+    }
+
+    // the test classpath turns off squiggly's caches, so hide its config before squiggly reads it
+    private static void useDefaultConfig() {
+        Thread thread = Thread.currentThread();
+        thread.setContextClassLoader(new ClassLoader(thread.getContextClassLoader()) {
+            @Override
+            public URL getResource(String name) {
+                return "squiggly.properties".equals(name) ? null : super.getResource(name);
+            }
+        });
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(SquigglyFilterScopeBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    private static Order buildOrder() {
+        List<LineItem> items = new ArrayList<>();
+
+        for (int i = 0; i < 20; i++) {
+            items.add(new LineItem("SKU-" + i, i + 1, new Money(new BigDecimal("9.99"), "USD"), new GeoPoint(40.7 + i, -74.0 - i)));
+        }
+
+        return new Order("ORDER-1", "Jorah Mormont", new GeoPoint(40.7, -74.0), items);
+    }
+
+    public static class Order {
+        private final String id;
+        private final String customer;
+        private final GeoPoint location;
+        private final List<LineItem> items;
+
+        public Order(String id, String customer, GeoPoint location, List<LineItem> items) {
+            this.id = id;
+            this.customer = customer;
+            this.location = location;
+            this.items = items;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getCustomer() {
+            return customer;
+        }
+
+        public GeoPoint getLocation() {
+            return location;
+        }
+
+        public List<LineItem> getItems() {
+            return items;
+        }
+    }
+
+    public static class LineItem {
+        private final String sku;
+        private final int quantity;
+        private final Money price;
+        private final GeoPoint warehouse;
+
+        public LineItem(String sku, int quantity, Money price, GeoPoint warehouse) {
+            this.sku = sku;
+            this.quantity = quantity;
+            this.price = price;
+            this.warehouse = warehouse;
+        }
+
+        public String getSku() {
+            return sku;
+        }
+
+        public int getQuantity() {
+            return quantity;
+        }
+
+        public Money getPrice() {
+            return price;
+        }
+
+        public GeoPoint getWarehouse() {
+            return warehouse;
+        }
+    }
+
+    public static class Money {
+        private final BigDecimal amount;
+        private final String currency;
+
+        public Money(BigDecimal amount, String currency) {
+            this.amount = amount;
+            this.currency = currency;
+        }
+
+        public BigDecimal getAmount() {
+            return amount;
+        }
+
+        public String getCurrency() {
+            return currency;
+        }
+    }
+
+    public static class GeoPoint {
+        private final double latitude;
+        private final double longitude;
+
+        public GeoPoint(double latitude, double longitude) {
+            this.latitude = latitude;
+            this.longitude = longitude;
+        }
+
+        public double getLatitude() {
+            return latitude;
+        }
+
+        public double getLongitude() {
+            return longitude;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.github.bohnman.squiggly.filter;
+
+import com.github.bohnman.squiggly.model.BaseEntity;
+import com.github.bohnman.squiggly.model.Issue;
+import com.github.bohnman.squiggly.model.Item;
+import com.github.bohnman.squiggly.model.User;
+import net.jcip.annotations.Immutable;
+import net.jcip.annotations.ThreadSafe;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SquigglyFilterScopeTest {
+
+    @Test
+    public void testPackages() {
+        SquigglyFilterScope scope = SquigglyFilterScope.builder().packages("com.github.bohnman.squiggly").build();
+
+        assertTrue(scope.contains(Issue.class));
+        assertFalse(scope.contains(String.class));
+
+        // a package prefix only matches whole package names
+        assertFalse(SquigglyFilterScope.builder().packages("com.github.bohnman.squig").build().contains(Issue.class));
+    }
+
+    @Test
+    public void testTypes() {
+        SquigglyFilterScope scope = SquigglyFilterScope.builder().types(BaseEntity.class, Map.class).build();
+
+        assertTrue(scope.contains(BaseEntity.class));
+        assertTrue(scope.contains(Issue.class));
+        assertTrue(scope.contains(HashMap.class));
+        assertFalse(scope.contains(User.class));
+    }
+
+    @Test
+    public void testAnnotations() {
+        SquigglyFilterScope scope = SquigglyFilterScope.builder()
+                .annotatedWith(ThreadSafe.class)
+                .annotatedWith(Immutable.class)
+                .build();
+
+        assertTrue(scope.contains(SquigglyPropertyFilter.class));
+        assertTrue(scope.contains(SquigglyFilterScope.class));
+        assertFalse(scope.contains(Item.class));
+    }
+
+    @Test
+    public void testAll() {
+        assertTrue(SquigglyFilterScope.ALL.contains(String.class));
+        assertFalse(SquigglyFilterScope.builder().build().contains(Issue.class));
+    }
+}
@@ -0,0 +1,166 @@
+package com.github.bohnman.squiggly.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.bohnman.squiggly.Squiggly;
+import com.github.bohnman.squiggly.SquigglyEngine;
+import com.github.bohnman.squiggly.automaton.SquigglyState;
+import com.github.bohnman.squiggly.config.SquigglyEngineConfig;
+import com.github.bohnman.squiggly.model.Item;
+import com.github.bohnman.squiggly.util.SquigglyUtils;
+import com.google.common.collect.ImmutableMap;
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.SortedMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests filtering with the path caches on, which the test config turns off.
+ */
+public class SquigglyPathCacheTest {
+
+    private final Item item = new Item("1", "one", new Item("2", "two"));
+    private final Item tree = new Item("1", "one", Arrays.asList(
+            new Item("2", "two", new Item("3", "three")),
+            new Item("4", "four")));
+
+    @Test
+    public void testSameOutput() {
+        for (boolean prune : new boolean[]{false, true}) {
+            SquigglyEngine engine = createEngine(prune);
+
+            for (String filter : new String[]{"id", "*", "**", "-id", "name,items[id]", "items.name", "na*", "items[-name]", "items[items[name]]", "**,-items"}) {
+                String expected = SquigglyUtils.stringify(Squiggly.init(new ObjectMapper(), filter), tree);
+                ObjectMapper mapper = Squiggly.init(new ObjectMapper(), filter, engine);
+
+                // once to fill the caches, then from the caches
+                for (int i = 0; i < 3; i++) {
+                    assertEquals(filter, expected, SquigglyUtils.stringify(mapper, tree));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testMetrics() {
+        SquigglyEngine engine = createEngine(false);
+        SquigglyPathCache pathCache = engine.getPathCache();
+        ObjectMapper mapper = Squiggly.init(new ObjectMapper(), "name,items[id]", engine);
+
+        // the first use of a filter only fills the thread's cache
+        SquigglyUtils.stringify(mapper, tree);
+        long misses = getMetric(engine, "localPathCache.missCount");
+        long hits = getMetric(engine, "localPathCache.hitCount");
+        assertTrue(misses > 0);
+        assertEquals(0, pathCache.matchCache.size());
+
+        SquigglyUtils.stringify(mapper, tree);
+        assertEquals(misses, getMetric(engine, "localPathCache.missCount"));
+        assertEquals(2 * hits + misses, getMetric(engine, "localPathCache.hitCount"));
+
+        // a filter used more than once is admitted to the shared cache, where other threads find it
+        pathCache.localMatchCache.invalidateAll();
+        SquigglyUtils.stringify(mapper, tree);
+        long admitted = pathCache.matchCache.size();
+        assertTrue(admitted > 0);
+        assertEquals(0, getMetric(engine, "pathCache.hitCount"));
+
+        pathCache.localMatchCache.invalidateAll();
+        SquigglyUtils.stringify(mapper, tree);
+        assertEquals(admitted, getMetric(engine, "pathCache.hitCount"));
+        assertEquals(admitted, pathCache.matchCache.size());
+
+        pathCache.invalidateAll();
+        assertEquals(0, pathCache.matchCache.size());
+        assertEquals(0, pathCache.localMatchCache.size());
+    }
+
+    @Test
+    public void testOneOffFilters() {
+        SquigglyEngine engine = createEngine(false);
+        SquigglyPathCache pathCache = engine.getPathCache();
+        ObjectMapper hotMapper = Squiggly.init(new ObjectMapper(), "name,items[id]", engine);
+
+        for (int i = 0; i < 3; i++) {
+            pathCache.localMatchCache.invalidateAll();
+            SquigglyUtils.stringify(hotMapper, tree);
+        }
+
+        long admitted = pathCache.matchCache.size();
+        long hits = getMetric(engine, "pathCache.hitCount");
+
+        // e.g. a crawler sending random field lists, whose filters are only ever used once
+        for (int i = 0; i < 50; i++) {
+            SquigglyUtils.stringify(Squiggly.init(new ObjectMapper(), "id,items[name,field" + i + "]", engine), tree);
+        }
+
+        assertEquals(admitted, pathCache.matchCache.size());
+
+        pathCache.localMatchCache.invalidateAll();
+        SquigglyUtils.stringify(hotMapper, tree);
+        assertEquals(hits + admitted, getMetric(engine, "pathCache.hitCount"));
+    }
+
+    @Test
+    public void testStateIdCollision() throws Exception {
+        assertStateIdCollision(false);
+    }
+
+    @Test
+    public void testStateIdCollisionWhenPruning() throws Exception {
+        assertStateIdCollision(true);
+    }
+
+    // a state that gets the id of a popular state once the id counter wraps must not reuse that state's transitions
+    private void assertStateIdCollision(boolean prune) throws Exception {
+        SquigglyEngine engine = createEngine(prune);
+        ObjectMapper idMapper = Squiggly.init(new ObjectMapper(), "id", engine);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals("{\"id\":\"1\"}", SquigglyUtils.stringify(idMapper, item));
+        }
+
+        AtomicInteger ids = getStateIds();
+        int nextId = ids.get();
+        int idStateId = engine.getParser().compile("id").getStart().getId();
+
+        try {
+            ids.set(idStateId - 1);
+            ObjectMapper nameMapper = Squiggly.init(new ObjectMapper(), "name", engine);
+            assertEquals(idStateId, engine.getParser().compile("name").getStart().getId());
+
+            for (int i = 0; i < 3; i++) {
+                assertEquals("{\"name\":\"one\"}", SquigglyUtils.stringify(nameMapper, item));
+                assertEquals("{\"id\":\"1\"}", SquigglyUtils.stringify(idMapper, item));
+            }
+        } finally {
+            ids.set(Math.max(nextId, ids.get()));
+        }
+    }
+
+    private static SquigglyEngine createEngine(boolean prune) {
+        return new SquigglyEngine(SquigglyEngineConfig.of(ImmutableMap.<String, String>builder()
+                .put("filter.localPathCache.spec", "maximumSize=256")
+                .put("filter.pathCache.spec", "maximumSize=10000,recordStats")
+                .put("filter.pruneBeanProperties", String.valueOf(prune))
+                .put("filter.transitionTables", "false")
+                .put("parser.compileThreshold", "0")
+                .put("parser.nodeCache.spec", "maximumSize=100")
+                .build()));
+    }
+
+    private static long getMetric(SquigglyEngine engine, String name) {
+        SortedMap<String, Object> metrics = engine.getMetrics();
+        return ((Number) metrics.get("squiggly.filter." + name)).longValue();
+    }
+
+    private static AtomicInteger getStateIds() throws Exception {
+        Field field = SquigglyState.class.getDeclaredField("IDS");
+        field.setAccessible(true);
+        return (AtomicInteger) field.get(null);
+    }
+}
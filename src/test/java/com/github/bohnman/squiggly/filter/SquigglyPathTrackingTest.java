@@ -0,0 +1,82 @@
+package com.github.bohnman.squiggly.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.github.bohnman.squiggly.Squiggly;
+import com.github.bohnman.squiggly.model.Item;
+import com.github.bohnman.squiggly.util.SquigglyUtils;
+import com.google.common.collect.ImmutableMap;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks that the state of each bean follows the generator as it moves into and back out of nested beans, arrays and
+ * maps.
+ */
+public class SquigglyPathTrackingTest {
+
+    @Test
+    public void testNestedBeans() {
+        Item tree = new Item("1", "one", Arrays.asList(new Item("2", "two", new Item("3", "three")), new Item("4", "four")));
+
+        assertEquals("{\"id\":\"1\",\"items\":[{\"id\":\"2\",\"items\":[{\"name\":\"three\"}]},{\"id\":\"4\",\"items\":[]}]}",
+                stringify("id,items{id,items{name}}", tree));
+    }
+
+    @Test
+    public void testNestedArrays() {
+        Object lists = Arrays.asList(
+                Arrays.asList(new Item("1", "one"), new Item("2", "two")),
+                Collections.emptyList(),
+                Arrays.asList(new Item("3", "three", new Item("4", "four"))));
+
+        assertEquals("[[{\"name\":\"one\",\"items\":[]},{\"name\":\"two\",\"items\":[]}],[],[{\"name\":\"three\",\"items\":[{\"id\":\"4\"}]}]]",
+                stringify("name,items{id}", lists));
+    }
+
+    @Test
+    public void testMapsAndArrays() {
+        Object map = ImmutableMap.of(
+                "a", Arrays.asList(new Item("1", "one"), ImmutableMap.of("x", new Item("2", "two"), "y", 1)),
+                "b", new Item("3", "three", new Item("4", "four")),
+                "c", 2);
+
+        // leaving the array under a must return to the root state before b and c are filtered
+        assertEquals("{\"a\":[{\"id\":\"1\"},{\"x\":{\"id\":\"2\"}}],\"b\":{\"name\":\"three\",\"items\":[{\"name\":\"four\"}]}}",
+                stringify("a{id,x{id}},b{name,items{name}}", map));
+    }
+
+    @Test
+    public void testSameBeanAtDifferentPaths() {
+        Item shared = new Item("1", "one", new Item("2", "two"));
+        Object map = ImmutableMap.of("a", shared, "b", Arrays.asList(shared, shared), "c", shared);
+
+        assertEquals("{\"a\":{\"id\":\"1\"},\"b\":[{\"name\":\"one\"},{\"name\":\"one\"}],\"c\":{\"items\":[{\"id\":\"2\"}]}}",
+                stringify("a{id},b{name},c{items{id}}", map));
+    }
+
+    @Test
+    public void testSerializationsInARow() {
+        ObjectMapper mapper = createMapper("id");
+
+        // the tracker is reset for every serialization, even of the same bean
+        Item item = new Item("1", "one", new Item("2", "two"));
+        assertEquals("{\"id\":\"1\"}", SquigglyUtils.stringify(mapper, item));
+        assertEquals("[{\"id\":\"1\"},{\"id\":\"2\"}]", SquigglyUtils.stringify(mapper, Arrays.asList(item, item.getItems().get(0))));
+        assertEquals("{\"id\":\"1\"}", SquigglyUtils.stringify(mapper, item));
+    }
+
+    private static String stringify(String filter, Object object) {
+        return SquigglyUtils.stringify(createMapper(filter), object);
+    }
+
+    private static ObjectMapper createMapper(String filter) {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+        return Squiggly.init(mapper, filter);
+    }
+}
@@ -1,20 +1,28 @@
 package com.github.bohnman.squiggly.filter;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.PropertyWriter;
 import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
-import com.github.bohnman.squiggly.config.SquigglyConfig;
+import com.github.bohnman.squiggly.Squiggly;
+import com.github.bohnman.squiggly.SquigglyEngine;
+import com.github.bohnman.squiggly.bean.BeanInfoIntrospector;
+import com.github.bohnman.squiggly.config.SquigglyEngineConfig;
 import com.github.bohnman.squiggly.context.provider.SimpleSquigglyContextProvider;
 import com.github.bohnman.squiggly.model.*;
 import com.github.bohnman.squiggly.parser.SquigglyParser;
 import com.github.bohnman.squiggly.util.SquigglyUtils;
+import com.github.bohnman.squiggly.warmup.SquigglyWarmUp;
+import com.github.bohnman.squiggly.warmup.SquigglyWarmUpReport;
 import com.google.common.base.Charsets;
+import com.google.common.collect.ImmutableMap;
 import org.junit.Before;
 import org.junit.Test;
 
 import java.io.IOException;
-import java.lang.reflect.Field;
-import java.lang.reflect.Modifier;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.nio.file.Files;
@@ -22,10 +30,12 @@ import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 @SuppressWarnings("Duplicates")
 public class SquigglyPropertyFilterTest {
@@ -57,11 +67,14 @@ public class SquigglyPropertyFilterTest {
     }
 
     private Issue buildIssue() {
+        return buildIssue(new Issue());
+    }
+
+    private Issue buildIssue(Issue issue) {
         Map<String, Object> properties = new HashMap<>();
         properties.put("email", "motherofdragons@got.com");
         properties.put("priority", "1");
 
-        Issue issue = new Issue();
         issue.setId("ISSUE-1");
         issue.setIssueSummary("Dragons Need Fed");
         issue.setIssueDetails("I need my dragons fed pronto.");
@@ -282,41 +295,20 @@ public class SquigglyPropertyFilterTest {
 
     @Test
     public void testFilterExcludesBaseFieldsInView() {
-        String fieldName = "filterImplicitlyIncludeBaseFieldsInView";
-
-        try {
-            setFieldValue(SquigglyConfig.class, fieldName, false);
-            filter("view1");
-            assertEquals("{\"properties\":" + stringifyRaw(issue.getProperties()) + "}", stringify());
-        } finally {
-            setFieldValue(SquigglyConfig.class, fieldName, true);
-        }
+        filter("view1", "filter.implicitlyIncludeBaseFieldsInView", "false");
+        assertEquals("{\"properties\":" + stringifyRaw(issue.getProperties()) + "}", stringify());
     }
 
     @Test
     public void testPropagateViewToNestedFilters() {
-        String fieldName = "filterPropagateViewToNestedFilters";
-
-        try {
-            setFieldValue(SquigglyConfig.class, fieldName, true);
-            filter("full");
-            assertEquals(stringifyRaw(), stringify());
-        } finally {
-            setFieldValue(SquigglyConfig.class, fieldName, false);
-        }
+        filter("full", "filter.propagateViewToNestedFilters", "true");
+        assertEquals(stringifyRaw(), stringify());
     }
 
     @Test
     public void testPropertyAddNonAnnotatedFieldsToBaseView() {
-        String fieldName = "propertyAddNonAnnotatedFieldsToBaseView";
-
-        try {
-            setFieldValue(SquigglyConfig.class, fieldName, false);
-            filter("base");
-            assertEquals("{}", stringify());
-        } finally {
-            setFieldValue(SquigglyConfig.class, fieldName, true);
-        }
+        filter("base", "property.addNonAnnotatedFieldsToBaseView", "false");
+        assertEquals("{}", stringify());
     }
 
     @Test
@@ -350,34 +342,98 @@ public class SquigglyPropertyFilterTest {
         assertEquals("{\"innerText\":\"innerValue\"}", stringify(new Outer("outerValue", "innerValue")));
     }
 
-    private void setFieldValue(Class<?> ownerClass, String fieldName, boolean value) {
-        Field field = getField(ownerClass, fieldName);
-        try {
-            field.setBoolean(null, value);
-        } catch (IllegalAccessException e) {
-            throw new RuntimeException(e);
+    @Test
+    public void testPrunedBeanProperties() {
+        ObjectMapper prunedObjectMapper = new ObjectMapper();
+        prunedObjectMapper.configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+        prunedObjectMapper.setFilterProvider(filterProvider);
+        prunedObjectMapper.addMixIn(Object.class, SquigglyPropertyFilterMixin.class);
+        prunedObjectMapper.registerModule(new SimpleModule().setSerializerModifier(new SquigglyBeanSerializerModifier()));
+
+        String[] filters = {"**", "*", "base", "full", "id,issueSummary", "assignee{lastName},actions{user{firstName}}", "**,reporter[-firstName]", "*Summary,-id", "innerText"};
+
+        for (String filter : filters) {
+            filter(filter);
+            assertEquals(filter, stringify(), SquigglyUtils.stringify(prunedObjectMapper, issue));
+            assertEquals(filter, stringify(new Outer("outerValue", "innerValue")), SquigglyUtils.stringify(prunedObjectMapper, new Outer("outerValue", "innerValue")));
         }
     }
 
-    private void removeFinalModifier(Field field) {
-        try {
-            Field modifiersField = Field.class.getDeclaredField("modifiers");
-            modifiersField.setAccessible(true);
-            modifiersField.setInt(field, field.getModifiers() & ~Modifier.FINAL);
-        } catch (Exception e) {
-            throw new RuntimeException(e);
+    @Test
+    public void testWarmUp() {
+        String filter = "id,assignee{lastName},actions{user{firstName}}";
+        filter(filter);
+
+        SquigglyWarmUpReport report = new SquigglyWarmUp(objectMapper)
+                .rootTypes(Issue.class)
+                .filters(filter, "base")
+                .run();
+
+        assertEquals(3, report.getClassCount());
+        assertEquals(2, report.getFilterCount());
+        assertTrue(report.getTransitionCount() > 0);
+        assertEquals("{\"id\":\"ISSUE-1\",\"assignee\":{\"lastName\":\"Mormont\"},\"actions\":[{\"user\":{\"firstName\":\"Jorah\"}},{\"user\":{\"firstName\":\"Daario\"}}]}", stringify());
+    }
+
+    @Test
+    public void testProxyClassNormalization() {
+        Issue proxy = buildIssue(new Issue$$EnhancerBySpringCGLIB$$1a2b());
+        assertEquals(Issue.class, new BeanInfoIntrospector().normalize(proxy.getClass()));
+
+        String[] filters = {"base", "full", "id,assignee[lastName]", "view1"};
+
+        for (String filter : filters) {
+            filter(filter);
+            assertEquals(filter, stringify(), stringify(proxy));
         }
     }
 
-    private Field getField(Class<?> ownerClass, String fieldName) {
-        try {
-            Field field = ownerClass.getDeclaredField(fieldName);
-            field.setAccessible(true);
-            removeFinalModifier(field);
-            return field;
-        } catch (NoSuchFieldException e) {
-            throw new RuntimeException(e);
+    @Test
+    public void testFilterScope() {
+        ObjectMapper scopedObjectMapper = new ObjectMapper();
+        scopedObjectMapper.configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+        scopedObjectMapper.setFilterProvider(filterProvider);
+        Squiggly.init(scopedObjectMapper, "assignee[firstName],actions[type]",
+                SquigglyFilterScope.builder().types(Issue.class, IssueAction.class).build());
+
+        // users are out of scope, so they're written in full
+        String assignee = stringifyRaw(issue.getAssignee());
+        assertEquals("{\"assignee\":" + assignee + ",\"actions\":[{\"type\":\"COMMENT\"},{\"type\":\"CLOSE\"}]}",
+                SquigglyUtils.stringify(scopedObjectMapper, issue));
+
+        // beans beneath an out of scope map are still filtered by their full path
+        Squiggly.init(scopedObjectMapper, "issue[id]", SquigglyFilterScope.builder().packages("com.github.bohnman.squiggly.model").build());
+        assertEquals("{\"issue\":{\"id\":\"ISSUE-1\"},\"other\":1}",
+                SquigglyUtils.stringify(scopedObjectMapper, ImmutableMap.of("issue", issue, "other", 1)));
+
+        // initializing the mapper again replaced the first scope instead of adding to it
+        assertEquals(2, scopedObjectMapper.getSerializationConfig().getAnnotationIntrospector().allIntrospectors().size());
+    }
+
+    @Test
+    public void testUnfilteredFastPath() {
+        final AtomicInteger includedCount = new AtomicInteger();
+        ObjectMapper fastObjectMapper = new ObjectMapper();
+        fastObjectMapper.configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+
+        for (String filter : new String[]{"**", "id"}) {
+            Squiggly.init(fastObjectMapper, new SimpleSquigglyContextProvider(new SquigglyParser(), filter) {
+                @Override
+                public void serializeAsIncludedField(Object pojo, JsonGenerator jgen, SerializerProvider provider, PropertyWriter writer) throws Exception {
+                    includedCount.incrementAndGet();
+                    super.serializeAsIncludedField(pojo, jgen, provider, writer);
+                }
+            });
+            assertEquals(filter.equals("**") ? stringifyRaw() : "{\"id\":\"ISSUE-1\"}", SquigglyUtils.stringify(fastObjectMapper, issue));
         }
+
+        // the unfiltered serialization never reached the filter
+        assertTrue(fastObjectMapper.getSerializerProvider() instanceof SquigglySerializerProvider);
+        assertEquals(1, includedCount.get());
+    }
+
+    // named like a spring proxy of an issue
+    public static class Issue$$EnhancerBySpringCGLIB$$1a2b extends Issue {
     }
 
     private String regexRemove(String input, String regex) {
@@ -404,6 +460,15 @@ public class SquigglyPropertyFilterTest {
         return filter;
     }
 
+    // filters with an engine whose config overrides one key, rather than changing the classpath config
+    private String filter(String filter, String configKey, String configValue) {
+        SquigglyEngine engine = new SquigglyEngine(SquigglyEngineConfig.of(ImmutableMap.of(configKey, configValue)));
+        SimpleSquigglyContextProvider provider = new SimpleSquigglyContextProvider(engine.getParser(), filter);
+        filterProvider.addFilter(SquigglyPropertyFilter.FILTER_ID, new SquigglyPropertyFilter(provider,
+                engine.getBeanInfoIntrospector(), engine.getPathCache(), engine.getParser()));
+        return filter;
+    }
+
     private String stringify() {
         return stringify(issue);
     }
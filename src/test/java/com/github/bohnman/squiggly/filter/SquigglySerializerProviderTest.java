@@ -0,0 +1,88 @@
+package com.github.bohnman.squiggly.filter;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.github.bohnman.squiggly.Squiggly;
+import com.github.bohnman.squiggly.context.provider.SimpleSquigglyContextProvider;
+import com.github.bohnman.squiggly.model.Item;
+import com.github.bohnman.squiggly.parser.SquigglyParser;
+import com.github.bohnman.squiggly.util.SquigglyUtils;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+
+public class SquigglySerializerProviderTest {
+
+    private final Item item = new Item("1", "one", new Item("2", "two"));
+
+    @Test
+    public void testFilteringEnabledOncePerSerialization() {
+        final AtomicInteger calls = new AtomicInteger();
+
+        // a request scoped provider may answer differently every time, so it must only be asked once
+        ObjectMapper mapper = Squiggly.init(new ObjectMapper(), new SimpleSquigglyContextProvider(new SquigglyParser(), "id") {
+            @Override
+            public boolean isFilteringEnabled() {
+                return calls.incrementAndGet() % 2 == 1;
+            }
+        });
+
+        assertEquals("[{\"id\":\"1\"},{\"id\":\"2\"}]", SquigglyUtils.stringify(mapper, Arrays.asList(item, item.getItems().get(0))));
+        assertEquals(1, calls.get());
+
+        assertEquals("{\"id\":\"1\",\"name\":\"one\",\"items\":[{\"id\":\"2\",\"name\":\"two\",\"items\":[]}]}", SquigglyUtils.stringify(mapper, item));
+        assertEquals(2, calls.get());
+
+        assertEquals("{\"id\":\"1\"}", SquigglyUtils.stringify(mapper, item));
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    public void testNullValueSerializerSetBeforeInit() {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.getSerializerProvider().setNullValueSerializer(new NotAvailableSerializer());
+        assertNullValueSerializer(mapper, false);
+    }
+
+    @Test
+    public void testNullValueSerializerSetAfterInit() {
+        assertNullValueSerializer(new ObjectMapper(), true);
+    }
+
+    // the null name is written by the custom serializer whether the serialization is filtered or not
+    private void assertNullValueSerializer(ObjectMapper mapper, boolean setAfterInit) {
+        final AtomicInteger calls = new AtomicInteger();
+
+        Squiggly.init(mapper, new SimpleSquigglyContextProvider(new SquigglyParser(), "id,name") {
+            @Override
+            public boolean isFilteringEnabled() {
+                return calls.incrementAndGet() % 2 == 1;
+            }
+        });
+
+        if (setAfterInit) {
+            mapper.getSerializerProvider().setNullValueSerializer(new NotAvailableSerializer());
+        }
+
+        Item nullName = new Item("1", null);
+
+        for (ObjectMapper each : Arrays.asList(mapper, mapper.copy())) {
+            assertEquals("{\"id\":\"1\",\"name\":\"N/A\"}", SquigglyUtils.stringify(each, nullName));
+            assertEquals("{\"id\":\"1\",\"name\":\"N/A\",\"items\":[]}", SquigglyUtils.stringify(each, nullName));
+            calls.set(0);
+        }
+    }
+
+    private static class NotAvailableSerializer extends JsonSerializer<Object> {
+        @Override
+        public void serialize(Object value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            gen.writeString("N/A");
+        }
+    }
+}
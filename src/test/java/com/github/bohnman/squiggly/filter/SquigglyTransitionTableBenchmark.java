@@ -0,0 +1,223 @@
+package com.github.bohnman.squiggly.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.bohnman.squiggly.Squiggly;
+import com.github.bohnman.squiggly.SquigglyEngine;
+import com.github.bohnman.squiggly.config.SquigglyEngineConfig;
+import com.github.bohnman.squiggly.view.PropertyView;
+import com.google.common.collect.ImmutableMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares serializing a list of wide beans with a compiled filter when its states look transitions up in their
+ * per-class tables, when transitions go through the path cache, and when every transition is worked out by the state
+ * from the filter's nodes and the bean's views.  The filter selects a few properties by name and the rest through a
+ * view, so all three produce the same JSON.
+ * <p>
+ * Run the main method with the test classpath, e.g. from an IDE.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SquigglyTransitionTableBenchmark {
+
+    private static final String FILTER = "id,name,price,summary,vendor{name}";
+
+    private List<Product> products;
+    private ObjectMapper tableMapper;
+    private ObjectMapper pathCacheMapper;
+    private ObjectMapper interpreterMapper;
+
+    @Setup
+    public void setup() throws Exception {
+        products = buildProducts();
+        tableMapper = createMapper("true", "maximumSize=10000", "maximumSize=256");
+        pathCacheMapper = createMapper("false", "maximumSize=10000", "maximumSize=256");
+        interpreterMapper = createMapper("false", "maximumSize=0", "maximumSize=0");
+
+        String expected = tableMapper.writeValueAsString(products);
+
+        if (!expected.equals(pathCacheMapper.writeValueAsString(products)) || !expected.equals(interpreterMapper.writeValueAsString(products))) {
+            throw new IllegalStateException("Mappers disagree");
+        }
+    }
+
+    @Benchmark
+    public String tables() throws Exception {
+        return tableMapper.writeValueAsString(products);
+    }
+
+    @Benchmark
+    public String pathCache() throws Exception {
+        return pathCacheMapper.writeValueAsString(products);
+    }
+
+    @Benchmark
+    public String interpreter() throws Exception {
+        return interpreterMapper.writeValueAsString(products);
+    }
+
+    // the filter is compiled up front, so every state may build tables from the first serialization
+    private static ObjectMapper createMapper(String transitionTables, String pathCacheSpec, String localPathCacheSpec) {
+        SquigglyEngine engine = new SquigglyEngine(SquigglyEngineConfig.of(ImmutableMap.<String, String>builder()
+                .put("filter.localPathCache.spec", localPathCacheSpec)
+                .put("filter.pathCache.spec", pathCacheSpec)
+                .put("filter.transitionTables", transitionTables)
+                .put("parser.compileThreshold", "0")
+                .put("parser.nodeCache.spec", "maximumSize=100")
+                .put("property.descriptorCache.spec", "maximumSize=100")
+                .build()));
+
+        return Squiggly.init(new ObjectMapper(), FILTER, engine);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(SquigglyTransitionTableBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    private static List<Product> buildProducts() {
+        List<Product> products = new ArrayList<>();
+        Vendor vendor = new Vendor("V-1", "Iron Bank", "Braavos");
+
+        for (int i = 0; i < 50; i++) {
+            products.add(new Product("P-" + i, "Product " + i, "A product", i + 0.99, i, "Category " + (i % 5),
+                    "Brand " + (i % 3), i % 5 + 0.5, i * 3, "SKU-" + i, "Red", "Small", vendor));
+        }
+
+        return products;
+    }
+
+    public static class Product {
+        private final String id;
+        private final String name;
+        private final String description;
+        private final double price;
+        private final int stock;
+        private final String category;
+        private final String brand;
+        private final double rating;
+        private final int reviewCount;
+        private final String sku;
+        private final String color;
+        private final String size;
+        private final Vendor vendor;
+
+        public Product(String id, String name, String description, double price, int stock, String category,
+                       String brand, double rating, int reviewCount, String sku, String color, String size,
+                       Vendor vendor) {
+            this.id = id;
+            this.name = name;
+            this.description = description;
+            this.price = price;
+            this.stock = stock;
+            this.category = category;
+            this.brand = brand;
+            this.rating = rating;
+            this.reviewCount = reviewCount;
+            this.sku = sku;
+            this.color = color;
+            this.size = size;
+            this.vendor = vendor;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        @PropertyView("summary")
+        public String getDescription() {
+            return description;
+        }
+
+        public double getPrice() {
+            return price;
+        }
+
+        public int getStock() {
+            return stock;
+        }
+
+        @PropertyView("summary")
+        public String getCategory() {
+            return category;
+        }
+
+        @PropertyView("summary")
+        public String getBrand() {
+            return brand;
+        }
+
+        @PropertyView("summary")
+        public double getRating() {
+            return rating;
+        }
+
+        @PropertyView("summary")
+        public int getReviewCount() {
+            return reviewCount;
+        }
+
+        public String getSku() {
+            return sku;
+        }
+
+        public String getColor() {
+            return color;
+        }
+
+        public String getSize() {
+            return size;
+        }
+
+        public Vendor getVendor() {
+            return vendor;
+        }
+    }
+
+    public static class Vendor {
+        private final String id;
+        private final String name;
+        private final String city;
+
+        public Vendor(String id, String name, String city) {
+            this.id = id;
+            this.name = name;
+            this.city = city;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getCity() {
+            return city;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.github.bohnman.squiggly.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.github.bohnman.squiggly.Squiggly;
+import com.github.bohnman.squiggly.SquigglyEngine;
+import com.github.bohnman.squiggly.automaton.SquigglyState;
+import com.github.bohnman.squiggly.bean.BeanInfoIntrospector;
+import com.github.bohnman.squiggly.config.SquigglyEngineConfig;
+import com.github.bohnman.squiggly.model.Issue;
+import com.github.bohnman.squiggly.model.IssueAction;
+import com.github.bohnman.squiggly.model.User;
+import com.github.bohnman.squiggly.parser.SquigglyParser;
+import com.github.bohnman.squiggly.util.SquigglyUtils;
+import com.google.common.collect.ImmutableMap;
+import org.junit.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests the transition tables that the states of compiled filters keep for the bean classes they see.
+ */
+public class SquigglyTransitionTableTest {
+
+    @Test
+    public void testTransitionTables() {
+        String filter = "id,assignee{firstName},view1,actions{user{lastName}}";
+        Issue issue = buildIssue();
+        String expected = SquigglyUtils.stringify(Squiggly.init(createMapper(), filter), issue);
+
+        for (String transitionTables : new String[]{"true", "false"}) {
+            SquigglyEngine engine = new SquigglyEngine(SquigglyEngineConfig.of(ImmutableMap.of(
+                    "filter.pathCache.spec", "maximumSize=100,recordStats",
+                    "filter.transitionTables", transitionTables,
+                    "parser.compileThreshold", "0")));
+
+            assertEquals(expected, SquigglyUtils.stringify(Squiggly.init(createMapper(), filter, engine), issue));
+
+            // transitions of compiled filters bypass the path cache when they have tables
+            long missCount = (Long) engine.getMetrics().get("squiggly.filter.pathCache.missCount");
+            assertEquals(transitionTables, Boolean.parseBoolean(transitionTables), missCount == 0);
+        }
+    }
+
+    @Test
+    public void testCollectedSlotsAreReused() throws Exception {
+        SquigglyParser parser = new SquigglyParser(SquigglyEngineConfig.of(ImmutableMap.of("parser.compileThreshold", "0")));
+        SquigglyState state = parser.compile("firstName").getStart();
+        List<BeanInfoIntrospector> introspectors = new ArrayList<>();
+
+        // a state keeps tables for a few classes and introspectors at most
+        for (int i = 0; i < 4; i++) {
+            BeanInfoIntrospector introspector = new BeanInfoIntrospector();
+            introspectors.add(introspector);
+            assertNotNull(state.nextFromTable("firstName", User.class, introspector));
+        }
+
+        BeanInfoIntrospector introspector = new BeanInfoIntrospector();
+        assertNull(state.nextFromTable("firstName", User.class, introspector));
+
+        WeakReference<BeanInfoIntrospector> discarded = new WeakReference<>(introspectors.remove(0));
+
+        for (int i = 0; i < 50 && discarded.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        // the slot of the table whose introspector is gone is taken over
+        assertNull(discarded.get());
+        assertNotNull(state.nextFromTable("firstName", User.class, introspector));
+
+        for (BeanInfoIntrospector kept : introspectors) {
+            assertNotNull(state.nextFromTable("firstName", User.class, kept));
+        }
+    }
+
+    private static ObjectMapper createMapper() {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+        return mapper;
+    }
+
+    private static Issue buildIssue() {
+        Issue issue = new Issue();
+        User assignee = new User("Jorah", "Mormont");
+        issue.setId("ISSUE-1");
+        issue.setIssueSummary("Dragons Need Fed");
+        issue.setAssignee(assignee);
+        issue.setReporter(new User("Daenerys", "Targaryen"));
+        issue.setActions(Arrays.asList(
+                new IssueAction("COMMENT", "I'm going to let Daario get this one..", assignee),
+                new IssueAction("CLOSE", "All set.", new User("Daario", "Naharis"))
+        ));
+        issue.setProperties(Collections.<String, Object>singletonMap("priority", "1"));
+        return issue;
+    }
+}
@@ -0,0 +1,93 @@
+package com.github.bohnman.squiggly.name;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Test;
+
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+
+public class GlobMatcherTest {
+
+    // glob, name, whether it matches
+    private static final Object[][] CASES = {
+            {"", "", true},
+            {"", "a", false},
+            {"*", "", true},
+            {"*", "anything", true},
+            {"**", "", true},
+            {"**", "ab", true},
+            {"?", "", true},
+            {"?", "a", true},
+            {"?", "ab", false},
+            {"??", "ab", true},
+            {"??", "abc", false},
+            {"eco*", "eco", true},
+            {"eco*", "economy", true},
+            {"eco*", "ec", false},
+            {"eco*", "xeco", false},
+            {"*Time", "Time", true},
+            {"*Time", "startTime", true},
+            {"*Time", "Timer", false},
+            {"*Weight*", "Weight", true},
+            {"*Weight*", "netWeightKg", true},
+            {"*Weight*", "weight", false},
+            {"a*b", "ab", true},
+            {"a*b", "axxb", true},
+            {"a*b", "abx", false},
+            {"a**b", "ab", true},
+            {"a**b", "axb", true},
+            {"a*b*c", "abc", true},
+            {"a*b*c", "axbxbxc", true},
+            {"a*b*c", "acb", false},
+            {"*a*a", "aaa", true},
+            {"*a*a", "aab", false},
+            {"a?c", "ac", true},
+            {"a?c", "abc", true},
+            {"a?c", "abbc", false},
+            {"?a", "a", true},
+            {"?a", "ba", true},
+            {"?a", "bb", false},
+            {"a?", "a", true},
+            {"a?", "ab", true},
+            {"*?*", "", true},
+            {"*?*", "xyz", true},
+            {"a*?", "a", true},
+            {"a*?", "abcd", true},
+            {"?*b", "b", true},
+            {"?*b", "xyzb", true},
+            {"?*b", "xyz", false},
+    };
+
+    private static final String[] NAMES = {"", "a", "b", "ab", "ba", "abc", "aXc", "abbc", "id", "firstName", "lastName",
+            "name", "names", "aaaa", "abab", StringUtils.repeat("ab", 40)};
+
+    private static final String[] GLOBS = {"", "*", "**", "?", "???", "a*", "*a", "*a*", "a*b", "a**b", "*b*a*", "a?",
+            "?a", "a?c", "a?b?", "?*?", "*Name", "first*", "*st*Na*", "na?e*", StringUtils.repeat("a?b*", 20)};
+
+    @Test
+    public void testCases() {
+        for (Object[] testCase : CASES) {
+            String glob = (String) testCase[0];
+            String name = (String) testCase[1];
+            assertEquals(glob + " ~ " + name, testCase[2], GlobMatcher.compile(glob).matches(name));
+        }
+    }
+
+    @Test
+    public void testMatchesRegex() {
+        for (String glob : GLOBS) {
+            GlobMatcher matcher = GlobMatcher.compile(glob);
+            Pattern pattern = toRegex(glob);
+
+            for (String name : NAMES) {
+                assertEquals(glob + " ~ " + name, pattern.matcher(name).matches(), matcher.matches(name));
+            }
+        }
+    }
+
+    // how wildcard names were matched before the glob matcher
+    private static Pattern toRegex(String glob) {
+        return Pattern.compile("^" + StringUtils.replaceEach(glob, new String[]{"*", "?"}, new String[]{".*", ".?"}) + "$");
+    }
+}
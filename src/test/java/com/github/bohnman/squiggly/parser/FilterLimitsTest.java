@@ -0,0 +1,83 @@
+package com.github.bohnman.squiggly.parser;
+
+import com.github.bohnman.squiggly.SquigglyEngine;
+import com.github.bohnman.squiggly.config.SquigglyEngineConfig;
+import com.google.common.collect.ImmutableMap;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class FilterLimitsTest {
+
+    private static final Map<String, String> LIMITS = ImmutableMap.<String, String>builder()
+            .put("parser.maxBreadth", "3")
+            .put("parser.maxDepth", "3")
+            .put("parser.maxFieldCount", "8")
+            .put("parser.maxLength", "40")
+            .put("parser.maxRegexCount", "1")
+            .put("parser.nodeCache.spec", "maximumSize=100")
+            .build();
+
+    @Test
+    public void testFilterLimits() {
+        SquigglyEngine engine = new SquigglyEngine(SquigglyEngineConfig.of(LIMITS));
+        SquigglyParser parser = engine.getParser();
+
+        parser.compile("a{b.c},d,~e~");
+        assertFilterLimit(parser, StringUtils.repeat("a", 41), "maximum length");
+        assertFilterLimit(parser, "a.b{c.d}", "maximum depth");
+        assertFilterLimit(parser, "a,b,c,d", "maximum of 3 fields");
+        assertFilterLimit(parser, "(a|b|c){(d|e|f){g}}", "maximum of 8 fields");
+        assertFilterLimit(parser, "~a~,~b~", "maximum of 1 regex");
+        assertEquals(5L, engine.getMetrics().get("squiggly.parser.limits.rejectedCount"));
+
+        // a filter that is too expensive can be downgraded instead
+        engine = new SquigglyEngine(SquigglyEngineConfig.of(LIMITS).with("parser.overLimitFilter", "id"));
+        parser = engine.getParser();
+
+        assertSame(parser.compile("id"), parser.compile("a,b,c,d"));
+        assertEquals(1L, engine.getMetrics().get("squiggly.parser.limits.downgradedCount"));
+        assertEquals(0L, engine.getMetrics().get("squiggly.parser.limits.rejectedCount"));
+    }
+
+    @Test
+    public void testNoLimitsByDefault() {
+        SquigglyParser parser = new SquigglyParser(SquigglyEngineConfig.getDefault());
+
+        parser.compile(StringUtils.repeat("a.", 100) + "b");
+        parser.compile(StringUtils.repeat("~a~,", 100) + "b");
+    }
+
+    @Test
+    public void testInvalidOverLimitFilter() {
+        assertInvalidOverLimitFilter("a,b,c,d", "maximum of 3 fields");
+        assertInvalidOverLimitFilter(StringUtils.repeat("a", 41), "maximum length");
+        assertInvalidOverLimitFilter("a{", "line 1:");
+        assertInvalidOverLimitFilter("~[a~", "Unclosed character class");
+    }
+
+    private static void assertFilterLimit(SquigglyParser parser, String filter, String expectedMessage) {
+        try {
+            parser.compile(filter);
+            fail("Expected a limit to reject " + filter);
+        } catch (SquigglyFilterLimitException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains(expectedMessage));
+        }
+    }
+
+    // the over limit filter is checked when the parser is created rather than when a filter first exceeds a limit
+    private static void assertInvalidOverLimitFilter(String overLimitFilter, String expectedMessage) {
+        try {
+            new SquigglyParser(SquigglyEngineConfig.of(LIMITS).with("parser.overLimitFilter", overLimitFilter));
+            fail("Expected the over limit filter " + overLimitFilter + " to be rejected");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains(expectedMessage));
+        }
+    }
+}
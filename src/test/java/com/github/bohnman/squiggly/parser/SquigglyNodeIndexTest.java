@@ -0,0 +1,109 @@
+package com.github.bohnman.squiggly.parser;
+
+import com.github.bohnman.squiggly.name.AnyDeepName;
+import com.github.bohnman.squiggly.name.AnyShallowName;
+import com.github.bohnman.squiggly.name.ExactName;
+import com.github.bohnman.squiggly.name.RegexName;
+import com.github.bohnman.squiggly.name.SquigglyName;
+import com.github.bohnman.squiggly.name.WildcardName;
+import com.google.common.collect.ImmutableSet;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class SquigglyNodeIndexTest {
+
+    @Test
+    public void testDuplicateExactNames() {
+        SquigglyNodeIndex index = index(exact("a"), exact("b"), exact("a"));
+        assertEquals(2, index.findBestMatch("a"));
+        assertEquals(1, index.findBestMatch("b"));
+        assertEquals(-1, index.findBestMatch("c"));
+        assertFalse(index.hasPatterns());
+    }
+
+    @Test
+    public void testExactNameBeatsLaterPatterns() {
+        SquigglyNodeIndex index = index(exact("name"), wildcard("na*"), regex("n.*"), AnyShallowName.get(), AnyDeepName.get());
+        assertEquals(0, index.findBestMatch("name"));
+        assertTrue(index.hasPatterns());
+    }
+
+    @Test
+    public void testPatternPrecedence() {
+        // the longer wildcard is the stronger match even though it comes first
+        assertEquals(0, index(wildcard("first*"), wildcard("f*")).findBestMatch("firstName"));
+
+        // equally strong patterns go to the later one
+        assertEquals(1, index(wildcard("a*"), wildcard("*e")).findBestMatch("ae"));
+
+        // * is a stronger match than **, wherever it is
+        assertEquals(0, index(AnyShallowName.get(), AnyDeepName.get()).findBestMatch("x"));
+        assertEquals(1, index(AnyDeepName.get(), AnyShallowName.get()).findBestMatch("x"));
+    }
+
+    @Test
+    public void testMatchesLinearScan() {
+        SquigglyNodeIndex index = index(exact("id"), wildcard("*Name"), regex("first.*"), exact("lastName"),
+                wildcard("*"), regex("(?i)ID"), exact("id"), wildcard("la*"), AnyShallowName.get());
+        List<SquigglyNode> nodes = index.getNodes();
+
+        for (String name : Arrays.asList("id", "ID", "firstName", "lastName", "last", "name", "Name", "", "x")) {
+            assertEquals(name, linearScan(nodes, name), index.findBestMatch(name));
+        }
+    }
+
+    @Test
+    public void testEmpty() {
+        SquigglyNodeIndex index = SquigglyNodeIndex.of(Collections.<SquigglyNode>emptyList());
+        assertSame(index, SquigglyNodeIndex.of(new ArrayList<SquigglyNode>()));
+        assertEquals(-1, index.findBestMatch("a"));
+    }
+
+    // how the best node was found before nodes were indexed
+    private static int linearScan(List<SquigglyNode> nodes, String name) {
+        int match = -1;
+        int lastMatchStrength = -1;
+
+        for (int i = 0; i < nodes.size(); i++) {
+            int matchStrength = nodes.get(i).match(name);
+
+            if (matchStrength >= 0 && (lastMatchStrength < 0 || matchStrength >= lastMatchStrength)) {
+                match = i;
+                lastMatchStrength = matchStrength;
+            }
+        }
+
+        return match;
+    }
+
+    private static SquigglyNodeIndex index(SquigglyName... names) {
+        List<SquigglyNode> nodes = new ArrayList<>();
+
+        for (SquigglyName name : names) {
+            nodes.add(new SquigglyNode(name, Collections.<SquigglyNode>emptyList(), false, false, false));
+        }
+
+        return SquigglyNodeIndex.of(nodes);
+    }
+
+    private static SquigglyName exact(String name) {
+        return new ExactName(name);
+    }
+
+    private static SquigglyName wildcard(String name) {
+        return new WildcardName(name);
+    }
+
+    private static SquigglyName regex(String name) {
+        return new RegexName(name, ImmutableSet.<String>of());
+    }
+}
@@ -0,0 +1,98 @@
+package com.github.bohnman.squiggly.parser;
+
+import com.github.bohnman.squiggly.parser.antlr4.SquigglyExpressionLexer;
+import com.github.bohnman.squiggly.parser.antlr4.SquigglyExpressionParser;
+import com.github.bohnman.squiggly.util.antlr4.ThrowingErrorListener;
+import org.antlr.v4.runtime.ANTLRInputStream;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares parsing filters that miss the node cache with the hand-written parser and with the ANTLR parser generated
+ * from SquigglyExpression.g4.  Every call parses a different filter, like the unique filters that clients send.
+ * <p>
+ * The first* benchmarks time the very first parse in a fresh JVM, which includes loading the parser's classes and, for
+ * ANTLR, building its prediction DFA.  The ANTLR side stops at the parse tree, so it leaves out the visitor that used to
+ * turn the tree into nodes, which only flatters it.
+ * <p>
+ * Run the main method with the test classpath, e.g. from an IDE.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SquigglyParserBenchmark {
+
+    private static final String FIRST_FILTER = "id,assignee{firstName,lastName},actions.user[~first.*~i],-reporter.email";
+
+    private String[] filters;
+    private int next;
+
+    @Setup
+    public void setup() {
+        filters = new String[4096];
+
+        for (int i = 0; i < filters.length; i++) {
+            filters[i] = "id" + i + ",assignee" + i + "{firstName,last*},(actions|notes" + i + ")[user.name,~te.t" + i + "~i],-reporter.email" + i;
+        }
+    }
+
+    @Benchmark
+    public List<SquigglyNode> descent() {
+        return new ExpressionParser(nextFilter()).parse();
+    }
+
+    @Benchmark
+    public Object antlr() {
+        return antlrParse(nextFilter());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    @Fork(20)
+    public List<SquigglyNode> firstDescent() {
+        return new ExpressionParser(FIRST_FILTER).parse();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    @Fork(20)
+    public Object firstAntlr() {
+        return antlrParse(FIRST_FILTER);
+    }
+
+    private String nextFilter() {
+        return filters[next++ & (filters.length - 1)];
+    }
+
+    private static Object antlrParse(String filter) {
+        SquigglyExpressionLexer lexer = ThrowingErrorListener.overwrite(new SquigglyExpressionLexer(new ANTLRInputStream(filter)));
+        SquigglyExpressionParser parser = ThrowingErrorListener.overwrite(new SquigglyExpressionParser(new CommonTokenStream(lexer)));
+        return parser.parse();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(SquigglyParserBenchmark.class.getSimpleName()).build()).run();
+    }
+}
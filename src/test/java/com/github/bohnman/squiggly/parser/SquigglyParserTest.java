@@ -0,0 +1,117 @@
+package com.github.bohnman.squiggly.parser;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.bohnman.squiggly.Squiggly;
+import com.github.bohnman.squiggly.config.SquigglyEngineConfig;
+import com.github.bohnman.squiggly.model.Issue;
+import com.github.bohnman.squiggly.util.SquigglyUtils;
+import com.google.common.collect.ImmutableMap;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SquigglyParserTest {
+
+    private static final Map<String, String> CACHED = ImmutableMap.of("parser.nodeCache.spec", "maximumSize=100");
+
+    @Test
+    public void testCanonicalFilter() {
+        SquigglyParser parser = new SquigglyParser(SquigglyEngineConfig.of(CACHED));
+
+        assertEquals("id,name", parser.normalize("name,id"));
+        assertSame(parser.compile("id,name"), parser.compile("name,id"));
+        assertEquals("a{b,c}", parser.normalize("a.c,a.b"));
+        assertEquals("a{c},b{c}", parser.normalize("(a|b){c}"));
+        assertEquals("b*,a*,~x~i", parser.normalize("b*,a*,~x~i"));
+
+        // a property that no field names is matched against the first field naming one of its views
+        assertEquals("-view1,base", parser.normalize("-view1"));
+        assertEquals("b{c},a", parser.normalize("b{c},a"));
+
+        // the canonical form filters the same way
+        Issue issue = new Issue();
+        issue.setId("ISSUE-1");
+        issue.setIssueSummary("Dragons Need Fed");
+        assertEquals(SquigglyUtils.stringify(Squiggly.init(new ObjectMapper(), "-view1"), issue),
+                SquigglyUtils.stringify(Squiggly.init(new ObjectMapper(), parser.normalize("-view1")), issue));
+    }
+
+    @Test
+    public void testParseOrder() {
+        SquigglyParser parser = new SquigglyParser(SquigglyEngineConfig.of(CACHED));
+
+        // parsing keeps the order the fields are written in, compiling sorts them
+        for (int i = 0; i < 2; i++) {
+            assertEquals("[name, id, c{b, a}]", names(parser.parse("name,id,c{b,a}")));
+            assertEquals("[id, name, c{a, b}]", names(parser.compile("name,id,c{b,a}").getNodes()));
+        }
+
+        assertEquals("id,name,c{a,b}", parser.normalize("name,id,c{b,a}"));
+        assertSame(parser.compile("id,name,c{a,b}").getNodes(), parser.parse("id,name,c{a,b}"));
+        assertTrue(parser.parse(" ").isEmpty());
+    }
+
+    @Test
+    public void testParseCached() {
+        SquigglyParser parser = new SquigglyParser(SquigglyEngineConfig.of(CACHED));
+        List<SquigglyNode> nodes = parser.parse("name,id,c{b,a}");
+
+        // filters that aren't in canonical form keep their own order, from the cache the second time
+        assertEquals("[name, id, c{b, a}]", names(nodes));
+        assertSame(nodes, parser.parse("name,id,c{b,a}"));
+        assertSame(parser.compile("id,name,c{a,b}"), parser.compile("name,id,c{b,a}"));
+        assertSame(nodes, parser.parse("name,id,c{b,a}"));
+    }
+
+    @Test
+    public void testParseOverLimit() {
+        SquigglyEngineConfig config = SquigglyEngineConfig.of(ImmutableMap.of("parser.maxBreadth", "2"));
+
+        try {
+            new SquigglyParser(config).parse("a,b,c");
+            fail("Expected a limit to reject a,b,c");
+        } catch (SquigglyFilterLimitException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("maximum of 2 fields"));
+        }
+
+        SquigglyParser parser = new SquigglyParser(config.with("parser.overLimitFilter", "id"));
+        assertEquals("[id]", names(parser.parse("c,b,a")));
+        assertEquals("[b, a]", names(parser.parse("b,a")));
+    }
+
+    private static String names(List<SquigglyNode> nodes) {
+        List<String> names = new ArrayList<>();
+
+        for (SquigglyNode node : nodes) {
+            names.add(node.getChildren().isEmpty() ? node.getName() : node.getName() + names(node.getChildren()).replace('[', '{').replace(']', '}'));
+        }
+
+        return names.toString();
+    }
+
+    @Test
+    public void testParseErrorPosition() {
+        assertParseError("(a,b)", "line 1:5 ");
+        assertParseError("~a~id", "line 1:3 ");
+        assertParseError("id,-foo{bar}", "line 1:7 ");
+        assertParseError("assignee[firstName", "line 1:18 ");
+        assertParseError("~a\nb?~", "line 2:1 ");
+    }
+
+    private void assertParseError(String filter, String expectedPosition) {
+        try {
+            new SquigglyParser().compile(filter);
+            fail("Expected a parse error for " + filter);
+        } catch (ParseCancellationException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith(expectedPosition));
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.github.bohnman.squiggly.util;
+
+import com.github.bohnman.squiggly.model.Inner;
+import com.google.common.cache.CacheBuilderSpec;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.Weigher;
+import org.junit.Test;
+
+import java.lang.ref.WeakReference;
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ClassLoaderPartitionedCacheTest {
+
+    private final ClassLoaderPartitionedCache<String> cache = new ClassLoaderPartitionedCache<>(new GuavaSquigglyCacheProvider(),
+            CacheBuilderSpec.parse("maximumSize=100,recordStats"),
+            new Weigher<Class, String>() {
+                @Override
+                public int weigh(Class key, String value) {
+                    return 1;
+                }
+            },
+            new CacheLoader<Class, String>() {
+                @Override
+                public String load(Class key) {
+                    return key.getName();
+                }
+            });
+
+    @Test
+    public void testPartitions() throws Exception {
+        try (URLClassLoader classLoader = newClassLoader()) {
+            Class otherInner = classLoader.loadClass(Inner.class.getName());
+            assertNotSame(Inner.class, otherInner);
+
+            // the same class name in two class loaders gets an entry in each one's partition
+            cache.put(Inner.class, "app");
+            cache.put(otherInner, "other");
+            assertEquals("java.lang.String", cache.getUnchecked(String.class));
+
+            assertEquals("app", cache.getIfPresent(Inner.class));
+            assertEquals("other", cache.getIfPresent(otherInner));
+            assertEquals(3, cache.size());
+            assertEquals(3, cache.getPartitionSizes().size());
+            assertEquals(Long.valueOf(1), cache.getPartitionSizes().get("bootstrap"));
+
+            cache.invalidate(otherInner);
+            assertNull(cache.getIfPresent(otherInner));
+            assertEquals("app", cache.getIfPresent(Inner.class));
+
+            cache.invalidateAll();
+            assertEquals(0, cache.size());
+        }
+    }
+
+    @Test
+    public void testDiscardedClassLoader() throws Exception {
+        cache.getUnchecked(Inner.class);
+        WeakReference<ClassLoader> classLoader = loadInDiscardedClassLoader();
+        assertEquals(2, cache.getPartitionSizes().size());
+
+        for (int i = 0; i < 50 && classLoader.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+            cache.cleanUp();
+        }
+
+        // neither the class nor its value keep the class loader alive, and the loader's partition goes with it
+        assertNull(classLoader.get());
+        cache.cleanUp();
+        assertEquals(1, cache.getPartitionSizes().size());
+        assertEquals(1, cache.size());
+
+        // the stats of the dropped partition are kept
+        assertEquals(2, cache.stats().missCount());
+    }
+
+    private WeakReference<ClassLoader> loadInDiscardedClassLoader() throws Exception {
+        try (URLClassLoader classLoader = newClassLoader()) {
+            assertEquals(Inner.class.getName(), cache.getUnchecked(classLoader.loadClass(Inner.class.getName())));
+            assertTrue(cache.getPartitionSizes().size() > 1);
+            return new WeakReference<ClassLoader>(classLoader);
+        }
+    }
+
+    // loads the test classes without delegating to the class loader that loaded them here
+    private static URLClassLoader newClassLoader() {
+        URL testClasses = Inner.class.getProtectionDomain().getCodeSource().getLocation();
+        return new URLClassLoader(new URL[]{testClasses}, null);
+    }
+}
@@ -0,0 +1,61 @@
+package com.github.bohnman.squiggly.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class FrequencySketchTest {
+
+    @Test
+    public void testFrequency() {
+        FrequencySketch sketch = new FrequencySketch(1024);
+        assertEquals(0, sketch.frequency(1));
+
+        sketch.increment(1);
+        sketch.increment(1);
+        sketch.increment(2);
+
+        assertEquals(2, sketch.frequency(1));
+        assertEquals(1, sketch.frequency(2));
+        assertEquals(0, sketch.frequency(3));
+    }
+
+    @Test
+    public void testNeverUnderestimates() {
+        // far more keys than counters, so there are plenty of collisions
+        FrequencySketch sketch = new FrequencySketch(16);
+
+        for (int key = 0; key < 100; key++) {
+            for (int i = 0; i < key % 3; i++) {
+                sketch.increment(key);
+            }
+        }
+
+        for (int key = 0; key < 100; key++) {
+            assertTrue(String.valueOf(key), sketch.frequency(key) >= key % 3);
+        }
+    }
+
+    @Test
+    public void testAging() {
+        // 16 counters per row are aged after 160 additions
+        FrequencySketch sketch = new FrequencySketch(16);
+
+        for (int i = 0; i < 10; i++) {
+            sketch.increment(7);
+        }
+
+        assertEquals(10, sketch.frequency(7));
+
+        for (int i = 0; i < 149; i++) {
+            sketch.increment(-i - 1);
+        }
+
+        assertTrue(sketch.frequency(7) >= 10);
+
+        sketch.increment(-1000);
+        int aged = sketch.frequency(7);
+        assertTrue(String.valueOf(aged), aged >= 5 && aged < 10);
+    }
+}
@@ -0,0 +1,98 @@
+package com.github.bohnman.squiggly.util;
+
+import com.google.common.cache.CacheBuilderSpec;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class LongKeyCacheTest {
+
+    @Test
+    public void testGetAndPut() {
+        LongKeyCache<String> cache = new LongKeyCache<>(100, true);
+        cache.put(0L, "zero");
+        cache.put(-1L, "minus one");
+        cache.put(Long.MAX_VALUE, "max");
+
+        assertEquals("zero", cache.get(0L));
+        assertEquals("minus one", cache.get(-1L));
+        assertEquals("max", cache.get(Long.MAX_VALUE));
+        assertNull(cache.get(1L));
+
+        cache.put(0L, "replaced");
+        assertEquals("replaced", cache.get(0L));
+        assertEquals(3, cache.size());
+
+        // the guava cache view boxes the same keys
+        assertEquals("max", cache.getIfPresent(Long.MAX_VALUE));
+        assertNull(cache.getIfPresent("0"));
+    }
+
+    @Test
+    public void testEviction() {
+        // the smallest table holds one probe run, so a fifth key has to evict another
+        LongKeyCache<String> cache = new LongKeyCache<>(4, true);
+
+        for (long key = 1; key <= 5; key++) {
+            cache.put(key, String.valueOf(key));
+        }
+
+        assertEquals(4, cache.size());
+        assertEquals(1, cache.stats().evictionCount());
+        assertEquals("5", cache.get(5L));
+    }
+
+    @Test
+    public void testStats() {
+        LongKeyCache<String> cache = new LongKeyCache<>(100, true);
+        cache.put(1L, "one");
+        cache.get(1L);
+        cache.get(1L);
+        cache.get(2L);
+
+        assertEquals(2, cache.stats().hitCount());
+        assertEquals(1, cache.stats().missCount());
+
+        LongKeyCache<String> quietCache = new LongKeyCache<>(100, false);
+        quietCache.put(1L, "one");
+        quietCache.get(1L);
+        assertEquals(0, quietCache.stats().requestCount());
+    }
+
+    @Test
+    public void testDisabled() {
+        LongKeyCache<String> cache = LongKeyCache.from(CacheBuilderSpec.parse("maximumSize=0"));
+        cache.put(1L, "one");
+        assertNull(cache.get(1L));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testFromSpec() {
+        LongKeyCache<String> cache = LongKeyCache.from(CacheBuilderSpec.parse("maximumSize=10,recordStats"));
+        cache.get(1L);
+        assertEquals(1, cache.stats().missCount());
+
+        assertEquals(10000, LongKeyCache.getMaximumSize(CacheBuilderSpec.parse(""), 10000));
+        assertEquals(Integer.MAX_VALUE >> 1, LongKeyCache.getMaximumSize(CacheBuilderSpec.parse("maximumSize=" + Long.MAX_VALUE), 10));
+    }
+
+    @Test
+    public void testCapacity() {
+        assertEquals(0, LongKeyCache.getCapacity(0, 4));
+        assertEquals(4, LongKeyCache.getCapacity(1, 4));
+        assertEquals(8, LongKeyCache.getCapacity(5, 4));
+        assertEquals(8, LongKeyCache.getCapacity(8, 4));
+        assertEquals(16, LongKeyCache.getCapacity(9, 4));
+    }
+
+    @Test
+    public void testInvalidateAll() {
+        LongKeyCache<String> cache = new LongKeyCache<>(100, false);
+        cache.put(1L, "one");
+        cache.invalidateAll();
+        assertNull(cache.get(1L));
+        assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,150 @@
+package com.github.bohnman.squiggly.util;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ThreadLocalLongKeyCacheTest {
+
+    private final ExecutorService otherThread = Executors.newSingleThreadExecutor();
+
+    @After
+    public void shutdown() {
+        otherThread.shutdownNow();
+    }
+
+    @Test
+    public void testTablePerThread() throws Exception {
+        final ThreadLocalLongKeyCache<String> cache = new ThreadLocalLongKeyCache<>(16);
+        cache.put(1L, "main");
+
+        assertNull(inOtherThread(new Callable<String>() {
+            @Override
+            public String call() {
+                String value = cache.get(1L);
+                cache.put(1L, "other");
+                return value;
+            }
+        }));
+
+        assertEquals("main", cache.get(1L));
+        assertEquals("other", inOtherThread(get(cache, 1L)));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testDirectMapped() {
+        ThreadLocalLongKeyCache<String> cache = new ThreadLocalLongKeyCache<>(2);
+
+        for (long key = 0; key < 3; key++) {
+            cache.put(key, String.valueOf(key));
+        }
+
+        // three keys in two slots, so one of them was replaced, and the last one is always there
+        assertEquals(2, cache.size());
+        assertEquals("2", cache.get(2L));
+    }
+
+    @Test
+    public void testStatsOfDeadThreads() throws Exception {
+        final ThreadLocalLongKeyCache<String> cache = new ThreadLocalLongKeyCache<>(16);
+        cache.put(1L, "one");
+        cache.get(1L);
+
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                cache.put(1L, "one");
+                cache.get(1L);
+                cache.get(2L);
+            }
+        });
+        thread.start();
+        thread.join();
+
+        assertEquals(2, cache.stats().hitCount());
+        assertEquals(1, cache.stats().missCount());
+
+        // the dead thread's table is dropped, but its counts are kept
+        cache.cleanUp();
+        assertEquals(1, cache.size());
+        assertEquals(2, cache.stats().hitCount());
+    }
+
+    @Test
+    public void testInvalidateAll() throws Exception {
+        ThreadLocalLongKeyCache<String> cache = new ThreadLocalLongKeyCache<>(16);
+        cache.put(1L, "main");
+        inOtherThread(put(cache, 1L, "other"));
+
+        cache.invalidateAll();
+
+        assertNull(cache.get(1L));
+        assertNull(inOtherThread(get(cache, 1L)));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testDisabled() {
+        ThreadLocalLongKeyCache<String> cache = new ThreadLocalLongKeyCache<>(0);
+        cache.put(1L, "one");
+        assertNull(cache.get(1L));
+        assertEquals(0, cache.stats().requestCount());
+    }
+
+    @Test
+    public void testThreadsDontKeepValues() throws Exception {
+        ThreadLocalLongKeyCache<Object> cache = new ThreadLocalLongKeyCache<>(16);
+        Object value = new Object();
+        WeakReference<Object> valueReference = new WeakReference<>(value);
+        inOtherThread(put(cache, 1L, value));
+
+        // a pooled thread that outlives the cache must not keep what was cached, e.g. after an undeploy
+        value = null;
+        cache = null;
+
+        for (int i = 0; i < 50 && valueReference.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        assertNull(valueReference.get());
+        assertTrue(inOtherThread(new Callable<Boolean>() {
+            @Override
+            public Boolean call() {
+                return true;
+            }
+        }));
+    }
+
+    private <T> T inOtherThread(Callable<T> callable) throws Exception {
+        return otherThread.submit(callable).get();
+    }
+
+    private static <V> Callable<V> get(final ThreadLocalLongKeyCache<V> cache, final long key) {
+        return new Callable<V>() {
+            @Override
+            public V call() {
+                return cache.get(key);
+            }
+        };
+    }
+
+    private static <V> Callable<V> put(final ThreadLocalLongKeyCache<V> cache, final long key, final V value) {
+        return new Callable<V>() {
+            @Override
+            public V call() {
+                cache.put(key, value);
+                return value;
+            }
+        };
+    }
+}
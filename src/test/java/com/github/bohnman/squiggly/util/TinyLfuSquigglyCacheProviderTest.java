@@ -0,0 +1,50 @@
+package com.github.bohnman.squiggly.util;
+
+import com.github.bohnman.squiggly.SquigglyEngine;
+import com.github.bohnman.squiggly.automaton.SquigglyAutomaton;
+import com.github.bohnman.squiggly.config.SquigglyEngineConfig;
+import com.github.bohnman.squiggly.parser.SquigglyParser;
+import com.google.common.collect.ImmutableMap;
+import org.junit.Test;
+
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class TinyLfuSquigglyCacheProviderTest {
+
+    @Test
+    public void testNodeCache() {
+        SquigglyEngine engine = new SquigglyEngine(SquigglyEngineConfig.of(ImmutableMap.of(
+                "cache.provider", "tinyLfu",
+                "parser.nodeCache.spec", "maximumWeight=50000,recordStats")));
+        SquigglyParser parser = engine.getParser();
+        String hotFilter = "id,assignee{lastName},actions{user{firstName}}";
+        SquigglyAutomaton hot = parser.compile(hotFilter);
+
+        for (int i = 0; i < 10; i++) {
+            assertSame(hot, parser.compile(hotFilter));
+        }
+
+        // a scan of filters that are only used once doesn't flush out the popular one
+        for (int i = 0; i < 2000; i++) {
+            parser.compile("id,field" + i + "{nested" + i + "}");
+
+            if (i % 50 == 0) {
+                assertSame(hot, parser.compile(hotFilter));
+            }
+        }
+
+        assertSame(hot, parser.compile(hotFilter));
+        assertTrue((Long) engine.getMetrics().get("squiggly.parser.nodeCache.weightedSize") <= 50000);
+        assertTrue((Long) engine.getMetrics().get("squiggly.parser.nodeCache.evictionCount") > 0);
+    }
+
+    @Test
+    public void testProviderByClassName() {
+        SquigglyEngineConfig config = SquigglyEngineConfig.of(ImmutableMap.of(
+                "cache.provider", TinyLfuSquigglyCacheProvider.class.getName()));
+
+        assertTrue(config.getCacheProvider() instanceof TinyLfuSquigglyCacheProvider);
+        assertTrue(SquigglyEngineConfig.of(ImmutableMap.<String, String>of()).getCacheProvider() instanceof GuavaSquigglyCacheProvider);
+    }
+}